@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.crypto.SECP256K1.PublicKey;
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class SignatureEngineBenchmark {
+
+  @Param({"BouncyCastle", "libsecp256k1"})
+  public String engineName;
+
+  private SignatureEngine engine;
+  private KeyPair keyPair;
+  private Bytes32 dataHash;
+  private Signature signature;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    if (engineName.equals("libsecp256k1")) {
+      engine =
+          NativeSignatureEngine.load()
+              .orElseThrow(() -> new IllegalStateException("Native library is not available"));
+    } else {
+      engine = new BouncyCastleSignatureEngine();
+    }
+    keyPair = KeyPair.generate();
+    dataHash = Hash.keccak256(BytesValue.wrap("benchmark".getBytes(UTF_8)));
+    signature = engine.sign(dataHash, keyPair);
+  }
+
+  @Benchmark
+  public Signature sign() {
+    return engine.sign(dataHash, keyPair);
+  }
+
+  @Benchmark
+  public boolean verify() {
+    return engine.verify(dataHash, signature, keyPair.getPublicKey());
+  }
+
+  @Benchmark
+  public Optional<PublicKey> recover() {
+    return engine.recoverPublicKey(dataHash, signature);
+  }
+}
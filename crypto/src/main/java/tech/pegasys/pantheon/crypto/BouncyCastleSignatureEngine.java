@@ -0,0 +1,213 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import static tech.pegasys.pantheon.crypto.SECP256K1.CURVE;
+import static tech.pegasys.pantheon.crypto.SECP256K1.HALF_CURVE_ORDER;
+import static tech.pegasys.pantheon.util.bytes.BytesValues.asUnsignedBigInteger;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.crypto.SECP256K1.PublicKey;
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.bouncycastle.asn1.x9.X9IntegerConverter;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.custom.sec.SecP256K1Curve;
+
+/*
+ * Adapted from the BitcoinJ ECKey (Apache 2 License) implementation:
+ * https://github.com/bitcoinj/bitcoinj/blob/master/core/src/main/java/org/bitcoinj/core/ECKey.java
+ *
+ *
+ * Adapted from the web3j (Apache 2 License) implementations:
+ * https://github.com/web3j/web3j/crypto/src/main/java/org/web3j/crypto/*.java
+ */
+class BouncyCastleSignatureEngine implements SignatureEngine {
+
+  @Override
+  public String getName() {
+    return "BouncyCastle";
+  }
+
+  /** Decompress a compressed public key (x co-ord and low-bit of y-coord). */
+  private static ECPoint decompressKey(final BigInteger xBN, final boolean yBit) {
+    final X9IntegerConverter x9 = new X9IntegerConverter();
+    final byte[] compEnc = x9.integerToBytes(xBN, 1 + x9.getByteLength(CURVE.getCurve()));
+    compEnc[0] = (byte) (yBit ? 0x03 : 0x02);
+    // TODO: Find a better way to handle an invalid point compression here.
+    // Currently ECCurve#decodePoint throws an IllegalArgumentException.
+    return CURVE.getCurve().decodePoint(compEnc);
+  }
+
+  /**
+   * Given the components of a signature and a selector value, recover and return the public key
+   * that generated the signature according to the algorithm in SEC1v2 section 4.1.6.
+   *
+   * <p>If this method returns null it means recovery was not possible and recId should be iterated.
+   *
+   * <p>Given the above two points, a correct usage of this method is inside a for loop from 0 to 3,
+   * and if the output is null OR a key that is not the one you expect, you try again with the next
+   * recId.
+   *
+   * @param recId Which possible key to recover.
+   * @param r The R component of the signature.
+   * @param s The S component of the signature.
+   * @param dataHash Hash of the data that was signed.
+   * @return An ECKey containing only the public part, or null if recovery wasn't possible.
+   */
+  private static BigInteger recoverFromSignature(
+      final int recId, final BigInteger r, final BigInteger s, final Bytes32 dataHash) {
+    assert (recId >= 0);
+    assert (r.signum() >= 0);
+    assert (s.signum() >= 0);
+    assert (dataHash != null);
+
+    // 1.0 For j from 0 to h (h == recId here and the loop is outside this function)
+    // 1.1 Let x = r + jn
+    final BigInteger n = CURVE.getN(); // Curve order.
+    final BigInteger i = BigInteger.valueOf((long) recId / 2);
+    final BigInteger x = r.add(i.multiply(n));
+    // 1.2. Convert the integer x to an octet string X of length mlen using the conversion
+    // routine specified in Section 2.3.7, where mlen = ⌈(log2 p)/8⌉ or mlen = ⌈m/8⌉.
+    // 1.3. Convert the octet string (16 set binary digits)||X to an elliptic curve point R
+    // using the conversion routine specified in Section 2.3.4. If this conversion
+    // routine outputs "invalid", then do another iteration of Step 1.
+    //
+    // More concisely, what these points mean is to use X as a compressed public key.
+    final BigInteger prime = SecP256K1Curve.q;
+    if (x.compareTo(prime) >= 0) {
+      // Cannot have point co-ordinates larger than this as everything takes place modulo Q.
+      return null;
+    }
+    // Compressed keys require you to know an extra bit of data about the y-coord as there are
+    // two possibilities. So it's encoded in the recId.
+    final ECPoint R = decompressKey(x, (recId & 1) == 1);
+    // 1.4. If nR != point at infinity, then do another iteration of Step 1 (callers
+    // responsibility).
+    if (!R.multiply(n).isInfinity()) {
+      return null;
+    }
+    // 1.5. Compute e from M using Steps 2 and 3 of ECDSA signature verification.
+    final BigInteger e = asUnsignedBigInteger(dataHash);
+    // 1.6. For k from 1 to 2 do the following. (loop is outside this function via
+    // iterating recId)
+    // 1.6.1. Compute a candidate public key as:
+    // Q = mi(r) * (sR - eG)
+    //
+    // Where mi(x) is the modular multiplicative inverse. We transform this into the following:
+    // Q = (mi(r) * s ** R) + (mi(r) * -e ** G)
+    // Where -e is the modular additive inverse of e, that is z such that z + e = 0 (mod n).
+    // In the above equation ** is point multiplication and + is point addition (the EC group
+    // operator).
+    //
+    // We can find the additive inverse by subtracting e from zero then taking the mod. For
+    // example the additive inverse of 3 modulo 11 is 8 because 3 + 8 mod 11 = 0, and
+    // -3 mod 11 = 8.
+    final BigInteger eInv = BigInteger.ZERO.subtract(e).mod(n);
+    final BigInteger rInv = r.modInverse(n);
+    final BigInteger srInv = rInv.multiply(s).mod(n);
+    final BigInteger eInvrInv = rInv.multiply(eInv).mod(n);
+    final ECPoint q = ECAlgorithms.sumOfTwoMultiplies(CURVE.getG(), eInvrInv, R, srInv);
+
+    if (q.isInfinity()) {
+      return null;
+    }
+
+    final byte[] qBytes = q.getEncoded(false);
+    // We remove the prefix
+    return new BigInteger(1, Arrays.copyOfRange(qBytes, 1, qBytes.length));
+  }
+
+  @Override
+  public Signature sign(final Bytes32 dataHash, final KeyPair keyPair) {
+    final ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+
+    final ECPrivateKeyParameters privKey =
+        new ECPrivateKeyParameters(
+            asUnsignedBigInteger(keyPair.getPrivateKey().getEncodedBytes()), CURVE);
+    signer.init(true, privKey);
+
+    final BigInteger[] components = signer.generateSignature(dataHash.getArrayUnsafe());
+    final BigInteger r = components[0];
+    BigInteger s = components[1];
+
+    // Automatically adjust the S component to be less than or equal to half the curve
+    // order, if necessary. This is required because for every signature (r,s) the signature
+    // (r, -s (mod N)) is a valid signature of the same message. However, we dislike the
+    // ability to modify the bits of a Bitcoin transaction after it's been signed, as that
+    // violates various assumed invariants. Thus in future only one of those forms will be
+    // considered legal and the other will be banned.
+    if (s.compareTo(HALF_CURVE_ORDER) > 0) {
+      // The order of the curve is the number of valid points that exist on that curve.
+      // If S is in the upper half of the number of valid points, then bring it back to
+      // the lower half. Otherwise, imagine that
+      // N = 10
+      // s = 8, so (-8 % 10 == 2) thus both (r, 8) and (r, 2) are valid solutions.
+      // 10 - 8 == 2, giving us always the latter solution, which is canonical.
+      s = CURVE.getN().subtract(s);
+    }
+
+    // Now we have to work backwards to figure out the recId needed to recover the signature.
+    int recId = -1;
+    final BigInteger publicKeyBI = asUnsignedBigInteger(keyPair.getPublicKey().getEncodedBytes());
+    for (int i = 0; i < 4; i++) {
+      final BigInteger k = recoverFromSignature(i, r, s, dataHash);
+      if (k != null && k.equals(publicKeyBI)) {
+        recId = i;
+        break;
+      }
+    }
+    if (recId == -1) {
+      throw new RuntimeException(
+          "Could not construct a recoverable key. This should never happen.");
+    }
+
+    return new Signature(r, s, (byte) recId);
+  }
+
+  @Override
+  public boolean verify(final BytesValue data, final Signature signature, final PublicKey pub) {
+    final ECDSASigner signer = new ECDSASigner();
+    final BytesValue toDecode = BytesValue.wrap(BytesValue.of((byte) 4), pub.getEncodedBytes());
+    final ECPublicKeyParameters params =
+        new ECPublicKeyParameters(CURVE.getCurve().decodePoint(toDecode.extractArray()), CURVE);
+    signer.init(false, params);
+    try {
+      return signer.verifySignature(data.extractArray(), signature.getR(), signature.getS());
+    } catch (final NullPointerException e) {
+      // Bouncy Castle contains a bug that can cause NPEs given specially crafted signatures. Those
+      // signatures
+      // are inherently invalid/attack sigs so we just fail them here rather than crash the thread.
+      return false;
+    }
+  }
+
+  @Override
+  public Optional<PublicKey> recoverPublicKey(final Bytes32 dataHash, final Signature signature) {
+    final BigInteger publicKeyBI =
+        recoverFromSignature(signature.getRecId(), signature.getR(), signature.getS(), dataHash);
+    return Optional.ofNullable(publicKeyBI).map(PublicKey::create);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import com.sun.jna.IntegerType;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByReference;
+import com.sun.jna.ptr.IntByReference;
+
+/**
+ * JNA binding to the parts of libsecp256k1, built with the recovery module, used by {@link
+ * NativeSignatureEngine}.
+ *
+ * <p>Public keys and signatures are opaque 64 byte (65 bytes for recoverable signatures) structures
+ * which are passed around as byte arrays. {@code size_t} arguments are mapped to {@link SizeT},
+ * which is as wide as a pointer. {@link com.sun.jna.NativeLong} would be too narrow on 64-bit
+ * Windows, where a C {@code long} is 32 bits.
+ */
+interface LibSecp256k1 extends Library {
+
+  int SECP256K1_CONTEXT_VERIFY = (1 << 0) | (1 << 8);
+  int SECP256K1_CONTEXT_SIGN = (1 << 0) | (1 << 9);
+  int SECP256K1_EC_UNCOMPRESSED = 1 << 1;
+
+  Pointer secp256k1_context_create(int flags);
+
+  int secp256k1_context_randomize(Pointer ctx, byte[] seed32);
+
+  void secp256k1_context_destroy(Pointer ctx);
+
+  int secp256k1_ec_pubkey_parse(Pointer ctx, byte[] pubkey, byte[] input, SizeT inputlen);
+
+  int secp256k1_ec_pubkey_serialize(
+      Pointer ctx, byte[] output, SizeTByReference outputlen, byte[] pubkey, int flags);
+
+  int secp256k1_ecdsa_signature_parse_compact(Pointer ctx, byte[] sig, byte[] input64);
+
+  int secp256k1_ecdsa_signature_normalize(Pointer ctx, byte[] sigout, byte[] sigin);
+
+  int secp256k1_ecdsa_verify(Pointer ctx, byte[] sig, byte[] msg32, byte[] pubkey);
+
+  int secp256k1_ecdsa_recoverable_signature_parse_compact(
+      Pointer ctx, byte[] sig, byte[] input64, int recid);
+
+  int secp256k1_ecdsa_recoverable_signature_serialize_compact(
+      Pointer ctx, byte[] output64, IntByReference recid, byte[] sig);
+
+  int secp256k1_ecdsa_sign_recoverable(
+      Pointer ctx, byte[] sig, byte[] msg32, byte[] seckey, Pointer noncefp, Pointer ndata);
+
+  int secp256k1_ecdsa_recover(Pointer ctx, byte[] pubkey, byte[] sig, byte[] msg32);
+
+  /** An unsigned {@code size_t} value. */
+  class SizeT extends IntegerType {
+    public SizeT() {
+      this(0);
+    }
+
+    public SizeT(final long value) {
+      super(Native.SIZE_T_SIZE, value, true);
+    }
+  }
+
+  /** A pointer to a {@code size_t}, for arguments the library reads and writes. */
+  class SizeTByReference extends ByReference {
+    public SizeTByReference() {
+      this(0);
+    }
+
+    public SizeTByReference(final long value) {
+      super(Native.SIZE_T_SIZE);
+      setValue(value);
+    }
+
+    public void setValue(final long value) {
+      if (Native.SIZE_T_SIZE == 8) {
+        getPointer().setLong(0, value);
+      } else {
+        getPointer().setInt(0, (int) value);
+      }
+    }
+
+    public long getValue() {
+      return Native.SIZE_T_SIZE == 8
+          ? getPointer().getLong(0)
+          : getPointer().getInt(0) & 0xFFFFFFFFL;
+    }
+  }
+}
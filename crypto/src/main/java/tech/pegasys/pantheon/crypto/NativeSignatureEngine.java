@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.crypto.SECP256K1.PublicKey;
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Optional;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A {@link SignatureEngine} backed by the native libsecp256k1 library, which is several times
+ * faster than the Bouncy Castle implementation, mostly for public key recovery.
+ *
+ * <p>The library is looked up by JNA, first in the {@code linux-x86-64} (or other platform)
+ * directory of the classpath, then on the system library path. Signatures are deterministic (RFC
+ * 6979) in both engines so they produce identical results.
+ */
+class NativeSignatureEngine implements SignatureEngine {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final String LIBRARY_NAME = "secp256k1";
+  private static final int PUBLIC_KEY_SIZE = 64;
+  private static final int SERIALIZED_PUBLIC_KEY_SIZE = 65;
+  private static final int SIGNATURE_SIZE = 64;
+  private static final int RECOVERABLE_SIGNATURE_SIZE = 65;
+  private static final int CONTEXT_SEED_SIZE = 32;
+
+  private final LibSecp256k1 library;
+  // Created and randomized once, then only read, so it's shared by all threads. It lives as long
+  // as the process: the engine is a singleton which may still be signing during shutdown, so the
+  // context is never destroyed.
+  private final Pointer context;
+  private final SignatureEngine fallback = new BouncyCastleSignatureEngine();
+
+  private NativeSignatureEngine(final LibSecp256k1 library, final Pointer context) {
+    this.library = library;
+    this.context = context;
+  }
+
+  /**
+   * Returns the native engine, loading the library and creating its context on first use.
+   *
+   * @return the engine, or empty if the native library is not available
+   */
+  static Optional<NativeSignatureEngine> load() {
+    return Holder.INSTANCE;
+  }
+
+  private static Optional<NativeSignatureEngine> create() {
+    try {
+      final LibSecp256k1 library = Native.load(LIBRARY_NAME, LibSecp256k1.class);
+      final Pointer context =
+          library.secp256k1_context_create(
+              LibSecp256k1.SECP256K1_CONTEXT_SIGN | LibSecp256k1.SECP256K1_CONTEXT_VERIFY);
+      if (context == null) {
+        LOG.info("Failed to create native {} context, using Bouncy Castle", LIBRARY_NAME);
+        return Optional.empty();
+      }
+      // Blinds the signing operations against side channel attacks
+      final byte[] seed = new byte[CONTEXT_SEED_SIZE];
+      new SecureRandom().nextBytes(seed);
+      if (library.secp256k1_context_randomize(context, seed) != 1) {
+        library.secp256k1_context_destroy(context);
+        LOG.info("Failed to randomize native {} context, using Bouncy Castle", LIBRARY_NAME);
+        return Optional.empty();
+      }
+      LOG.info("Using native {} library for signatures", LIBRARY_NAME);
+      return Optional.of(new NativeSignatureEngine(library, context));
+    } catch (final UnsatisfiedLinkError e) {
+      LOG.info("Native {} library not available, using Bouncy Castle", LIBRARY_NAME);
+      LOG.debug("Failed to load native library", e);
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "libsecp256k1";
+  }
+
+  @Override
+  public Signature sign(final Bytes32 dataHash, final KeyPair keyPair) {
+    final byte[] signature = new byte[RECOVERABLE_SIGNATURE_SIZE];
+    if (library.secp256k1_ecdsa_sign_recoverable(
+            context,
+            signature,
+            dataHash.extractArray(),
+            keyPair.getPrivateKey().getEncodedBytes().extractArray(),
+            null,
+            null)
+        == 0) {
+      throw new IllegalArgumentException("Invalid private key");
+    }
+
+    final byte[] compact = new byte[SIGNATURE_SIZE];
+    final IntByReference recId = new IntByReference();
+    library.secp256k1_ecdsa_recoverable_signature_serialize_compact(
+        context, compact, recId, signature);
+    // libsecp256k1 always produces signatures with S in the lower half of the curve order
+    return new Signature(
+        new BigInteger(1, Arrays.copyOfRange(compact, 0, 32)),
+        new BigInteger(1, Arrays.copyOfRange(compact, 32, 64)),
+        (byte) recId.getValue());
+  }
+
+  @Override
+  public boolean verify(final BytesValue data, final Signature signature, final PublicKey pub) {
+    if (data.size() != Bytes32.SIZE) {
+      return fallback.verify(data, signature, pub);
+    }
+
+    final byte[] publicKey = new byte[PUBLIC_KEY_SIZE];
+    final byte[] serializedPublicKey = new byte[SERIALIZED_PUBLIC_KEY_SIZE];
+    serializedPublicKey[0] = 0x04;
+    pub.getEncodedBytes().copyTo(serializedPublicKey, 0, 1);
+    if (library.secp256k1_ec_pubkey_parse(
+            context,
+            publicKey,
+            serializedPublicKey,
+            new LibSecp256k1.SizeT(serializedPublicKey.length))
+        == 0) {
+      return false;
+    }
+
+    final byte[] nativeSignature = new byte[SIGNATURE_SIZE];
+    if (library.secp256k1_ecdsa_signature_parse_compact(
+            context, nativeSignature, compactSignature(signature))
+        == 0) {
+      return false;
+    }
+    // Bouncy Castle accepts signatures with a high S value, libsecp256k1 only accepts normalised
+    // ones, so normalise first to keep the behaviour unchanged.
+    library.secp256k1_ecdsa_signature_normalize(context, nativeSignature, nativeSignature);
+    return library.secp256k1_ecdsa_verify(context, nativeSignature, data.extractArray(), publicKey)
+        == 1;
+  }
+
+  @Override
+  public Optional<PublicKey> recoverPublicKey(final Bytes32 dataHash, final Signature signature) {
+    final byte[] nativeSignature = new byte[RECOVERABLE_SIGNATURE_SIZE];
+    if (library.secp256k1_ecdsa_recoverable_signature_parse_compact(
+            context, nativeSignature, compactSignature(signature), signature.getRecId())
+        == 0) {
+      return Optional.empty();
+    }
+
+    final byte[] publicKey = new byte[PUBLIC_KEY_SIZE];
+    if (library.secp256k1_ecdsa_recover(
+            context, publicKey, nativeSignature, dataHash.extractArray())
+        == 0) {
+      return Optional.empty();
+    }
+
+    final byte[] serializedPublicKey = new byte[SERIALIZED_PUBLIC_KEY_SIZE];
+    library.secp256k1_ec_pubkey_serialize(
+        context,
+        serializedPublicKey,
+        new LibSecp256k1.SizeTByReference(serializedPublicKey.length),
+        publicKey,
+        LibSecp256k1.SECP256K1_EC_UNCOMPRESSED);
+    // Drop the 0x04 prefix of uncompressed keys
+    return Optional.of(PublicKey.create(BytesValue.wrap(serializedPublicKey, 1, PUBLIC_KEY_SIZE)));
+  }
+
+  // Only loads the library, and creates the context, once however many times the engine is looked
+  // up
+  private static class Holder {
+    private static final Optional<NativeSignatureEngine> INSTANCE = create();
+  }
+
+  private static byte[] compactSignature(final Signature signature) {
+    return signature.encodedBytes().slice(0, SIGNATURE_SIZE).extractArray();
+  }
+}
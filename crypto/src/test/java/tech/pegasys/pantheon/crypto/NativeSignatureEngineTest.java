@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.crypto.SECP256K1.PublicKey;
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class NativeSignatureEngineTest {
+
+  private final SignatureEngine bouncyCastle = new BouncyCastleSignatureEngine();
+  private final KeyPair keyPair = KeyPair.generate();
+  private final Bytes32 dataHash = Hash.keccak256(BytesValue.wrap("data".getBytes(UTF_8)));
+  private SignatureEngine nativeEngine;
+
+  @Before
+  public void setUp() {
+    final Optional<NativeSignatureEngine> engine = NativeSignatureEngine.load();
+    assumeTrue("Native secp256k1 library is not available", engine.isPresent());
+    nativeEngine = engine.get();
+  }
+
+  @Test
+  public void signaturesAreIdenticalToBouncyCastle() {
+    assertThat(nativeEngine.sign(dataHash, keyPair))
+        .isEqualTo(bouncyCastle.sign(dataHash, keyPair));
+  }
+
+  @Test
+  public void verifiesBouncyCastleSignatures() {
+    final Signature signature = bouncyCastle.sign(dataHash, keyPair);
+
+    assertThat(nativeEngine.verify(dataHash, signature, keyPair.getPublicKey())).isTrue();
+    assertThat(nativeEngine.verify(dataHash, signature, KeyPair.generate().getPublicKey()))
+        .isFalse();
+  }
+
+  @Test
+  public void verifiesSignaturesWithHighSValue() {
+    final Signature signature = bouncyCastle.sign(dataHash, keyPair);
+    final Signature highS =
+        new Signature(
+            signature.getR(),
+            SECP256K1.CURVE.getN().subtract(signature.getS()),
+            signature.getRecId());
+
+    assertThat(bouncyCastle.verify(dataHash, highS, keyPair.getPublicKey())).isTrue();
+    assertThat(nativeEngine.verify(dataHash, highS, keyPair.getPublicKey())).isTrue();
+  }
+
+  @Test
+  public void recoversSamePublicKeyAsBouncyCastle() {
+    final Signature signature = nativeEngine.sign(dataHash, keyPair);
+
+    final Optional<PublicKey> recovered = nativeEngine.recoverPublicKey(dataHash, signature);
+
+    assertThat(recovered).contains(keyPair.getPublicKey());
+    assertThat(recovered).isEqualTo(bouncyCastle.recoverPublicKey(dataHash, signature));
+  }
+}
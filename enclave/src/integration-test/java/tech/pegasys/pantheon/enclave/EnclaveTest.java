@@ -74,6 +74,20 @@ public class EnclaveTest {
     assertEquals(PAYLOAD, new String(rr.getPayload(), UTF_8));
   }
 
+  @Test
+  public void testSendAndReceiveAsync() throws Exception {
+    List<String> publicKeys = testHarness.getPublicKeys();
+
+    SendRequest sc =
+        new SendRequest(PAYLOAD, publicKeys.get(0), Lists.newArrayList(publicKeys.get(1)));
+    SendResponse sr = enclave.sendAsync(sc).get();
+
+    ReceiveRequest rc = new ReceiveRequest(sr.getKey(), publicKeys.get(1));
+    ReceiveResponse rr = enclave.receiveAsync(rc).get();
+
+    assertEquals(PAYLOAD, new String(rr.getPayload(), UTF_8));
+  }
+
   @Test(expected = IOException.class)
   public void whenUpCheckFailsThrows() throws IOException {
     Enclave broken = new Enclave("http:");
@@ -18,13 +18,20 @@ import tech.pegasys.pantheon.enclave.types.SendRequest;
 import tech.pegasys.pantheon.enclave.types.SendResponse;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -33,12 +40,31 @@ public class Enclave {
   private static final ObjectMapper objectMapper = new ObjectMapper();
   private static final Logger LOG = LogManager.getLogger();
 
-  private String url;
+  private static final int MAX_IDLE_CONNECTIONS = 16;
+  private static final long KEEP_ALIVE_MINUTES = 5;
+  private static final int MAX_REQUESTS_PER_HOST = 64;
+
+  // Shared so that every enclave user reuses the same pooled, kept-alive connections
+  private static final OkHttpClient SHARED_CLIENT = createClient();
+
+  private final String url;
   private final OkHttpClient client;
 
   public Enclave(final String enclaveUrl) {
     this.url = enclaveUrl;
-    this.client = new OkHttpClient();
+    this.client = SHARED_CLIENT;
+  }
+
+  private static OkHttpClient createClient() {
+    final Dispatcher dispatcher = new Dispatcher();
+    // Private transactions of a block are all looked up at once against the same enclave
+    dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+    dispatcher.setMaxRequests(MAX_REQUESTS_PER_HOST);
+    return new OkHttpClient.Builder()
+        .connectionPool(
+            new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+        .dispatcher(dispatcher)
+        .build();
   }
 
   public Boolean upCheck() throws IOException {
@@ -60,18 +86,78 @@ public class Enclave {
     return executePost("/receive", objectMapper.writeValueAsString(content), ReceiveResponse.class);
   }
 
-  private <T> T executePost(final String path, final String content, final Class<T> responseType)
-      throws IOException {
-    OkHttpClient client = new OkHttpClient();
+  /**
+   * Sends a payload to the enclave without blocking the caller.
+   *
+   * @param content the payload and its recipients
+   * @return a future completed with the enclave's response, or exceptionally with an {@link
+   *     IOException} if the enclave could not be reached
+   */
+  public CompletableFuture<SendResponse> sendAsync(final SendRequest content) {
+    return executePostAsync("/send", content, SendResponse.class);
+  }
 
-    RequestBody body = RequestBody.create(JSON, content);
-    Request request = new Request.Builder().url(url + path).post(body).build();
+  /**
+   * Retrieves a payload from the enclave without blocking the caller. Several requests may be in
+   * flight at once, each over its own pooled connection.
+   *
+   * @param content the key of the payload and the recipient to decrypt it for
+   * @return a future completed with the enclave's response, or exceptionally with an {@link
+   *     IOException} if the enclave could not be reached
+   */
+  public CompletableFuture<ReceiveResponse> receiveAsync(final ReceiveRequest content) {
+    return executePostAsync("/receive", content, ReceiveResponse.class);
+  }
 
-    try (Response response = client.newCall(request).execute()) {
+  private <T> T executePost(final String path, final String content, final Class<T> responseType)
+      throws IOException {
+    try (Response response = client.newCall(postRequest(path, content)).execute()) {
       return objectMapper.readValue(response.body().string(), responseType);
     } catch (IOException e) {
-      LOG.error("Enclave failed to execute ", path);
+      LOG.error("Enclave failed to execute {}", path);
       throw new IOException("Failed to execute post", e);
     }
   }
+
+  private <T> CompletableFuture<T> executePostAsync(
+      final String path, final Object content, final Class<T> responseType) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final Call call;
+    try {
+      call = client.newCall(postRequest(path, objectMapper.writeValueAsString(content)));
+    } catch (final IOException | IllegalArgumentException e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(final Call call, final IOException e) {
+            LOG.error("Enclave failed to execute {}", path);
+            result.completeExceptionally(new IOException("Failed to execute post", e));
+          }
+
+          @Override
+          public void onResponse(final Call call, final Response response) {
+            try (ResponseBody body = response.body()) {
+              result.complete(objectMapper.readValue(body.string(), responseType));
+            } catch (final IOException e) {
+              LOG.error("Enclave failed to execute {}", path);
+              result.completeExceptionally(new IOException("Failed to execute post", e));
+            }
+          }
+        });
+    result.whenComplete(
+        (response, error) -> {
+          if (result.isCancelled()) {
+            call.cancel();
+          }
+        });
+    return result;
+  }
+
+  private Request postRequest(final String path, final String content) {
+    RequestBody body = RequestBody.create(JSON, content);
+    return new Request.Builder().url(url + path).post(body).build();
+  }
 }
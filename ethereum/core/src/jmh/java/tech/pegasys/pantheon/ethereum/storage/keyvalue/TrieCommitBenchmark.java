@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration.TransactionMode;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Measures how quickly a world state commit of 10,000 trie nodes is written to RocksDB. */
+@State(Scope.Thread)
+public class TrieCommitBenchmark {
+
+  private static final int NODE_COUNT = 10_000;
+
+  @Param({"TRANSACTION_DB", "WRITE_BATCH"})
+  public TransactionMode transactionMode;
+
+  private Path storageDirectory;
+  private KeyValueStorage keyValueStorage;
+  private final Map<Bytes32, BytesValue> trieNodes = new LinkedHashMap<>();
+
+  @Setup
+  public void prepare() throws Exception {
+    storageDirectory = Files.createTempDirectory("benchmark");
+    keyValueStorage =
+        RocksDbKeyValueStorage.create(
+            storageDirectory,
+            RocksDbConfiguration.builder().transactionMode(transactionMode).build(),
+            new NoOpMetricsSystem());
+
+    final Random random = new Random(1);
+    final MerklePatriciaTrie<Bytes32, BytesValue> trie =
+        new StoredMerklePatriciaTrie<>(
+            hash -> Optional.empty(), Function.identity(), Function.identity());
+    // Every leaf is stored as its own node, so this many leaves yields at least NODE_COUNT nodes
+    for (int i = 0; i < NODE_COUNT; i++) {
+      trie.put(randomBytes32(random), randomBytes32(random));
+    }
+    trie.commit(
+        (hash, value) -> {
+          if (trieNodes.size() < NODE_COUNT) {
+            trieNodes.put(hash, value);
+          }
+        });
+  }
+
+  @TearDown
+  public void cleanUp() throws Exception {
+    keyValueStorage.close();
+    MoreFiles.deleteRecursively(storageDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public void commitTrieNodes() {
+    final KeyValueStorage.Transaction transaction = keyValueStorage.startTransaction();
+    trieNodes.forEach(transaction::put);
+    transaction.commit();
+  }
+
+  private static Bytes32 randomBytes32(final Random random) {
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    random.nextBytes(bytes);
+    return Bytes32.wrap(bytes);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.ethereum.chain.GenesisState;
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.mainnet.ConstantinopleFixGasCalculator;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetEvmRegistries;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.ethereum.vm.operations.OperationBenchmarkHelper;
+import tech.pegasys.pantheon.ethereum.worldstate.DefaultMutableWorldState;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Runs calls to the Gnosis MultiSigWallet contract, as deployed on mainnet, through the EVM. The
+ * contract and its owners come from the genesis used by the {@code GenesisStateTest}.
+ */
+@State(Scope.Thread)
+public class ContractExecutionBenchmark {
+
+  private static final Address CONTRACT =
+      Address.fromHexString("0x3850000000000000000000000000000000000000");
+  private static final OperationTracer PASS_THROUGH_TRACER =
+      (frame, currentGasCost, executeOperation) -> executeOperation.execute();
+
+  @Param({"getOwners", "isOwner", "required"})
+  public String call;
+
+  // Whether a tracer is attached, which forces the EVM through the fully checked path
+  @Param({"false", "true"})
+  public boolean traced;
+
+  private OperationBenchmarkHelper operationBenchmarkHelper;
+  private MutableWorldState worldState;
+  private EVM evm;
+  private Code code;
+  private BytesValue inputData;
+  private OperationTracer operationTracer;
+
+  @Setup
+  public void prepare() throws Exception {
+    operationBenchmarkHelper = OperationBenchmarkHelper.create();
+    final GenesisState genesisState =
+        GenesisState.fromJson(
+            Resources.toString(
+                Resources.getResource("tech/pegasys/pantheon/ethereum/chain/genesis3.json"),
+                StandardCharsets.UTF_8),
+            MainnetProtocolSchedule.create());
+    worldState =
+        new DefaultMutableWorldState(
+            new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage()));
+    genesisState.writeStateTo(worldState);
+
+    final Account contract = worldState.get(CONTRACT);
+    code = new Code(contract.getCode(), contract.getCodeHash());
+    evm = MainnetEvmRegistries.constantinople(new ConstantinopleFixGasCalculator());
+    operationTracer = traced ? PASS_THROUGH_TRACER : OperationTracer.NO_TRACING;
+
+    switch (call) {
+      case "getOwners":
+        inputData = BytesValue.fromHexString("0xa0e67e2b");
+        break;
+      case "isOwner":
+        inputData =
+            BytesValue.fromHexString(
+                "0x2f54bf6e000000000000000000000000385ef55e292fa39cf5ffbad99f534294565519ba");
+        break;
+      case "required":
+        inputData = BytesValue.fromHexString("0xdc8452cd");
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown call " + call);
+    }
+  }
+
+  @TearDown
+  public void cleanUp() throws Exception {
+    operationBenchmarkHelper.cleanUp();
+  }
+
+  @Benchmark
+  public BytesValue executeCall() throws Exception {
+    final MessageFrame frame =
+        operationBenchmarkHelper
+            .createMessageFrameBuilder()
+            .worldState(worldState.updater())
+            .initialGas(Gas.of(1_000_000))
+            .address(CONTRACT)
+            .contract(CONTRACT)
+            .code(code)
+            .inputData(inputData)
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    evm.runToHalt(frame, operationTracer);
+    if (frame.getState() != MessageFrame.State.CODE_SUCCESS) {
+      throw new IllegalStateException("Call failed with state " + frame.getState());
+    }
+    return frame.getOutputData();
+  }
+}
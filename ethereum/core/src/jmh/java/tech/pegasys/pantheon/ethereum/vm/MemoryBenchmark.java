@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class MemoryBenchmark {
+
+  @Param({"32", "1024", "65536"})
+  public int size;
+
+  private Memory memory;
+  private BytesValue data;
+  private Bytes32 word;
+  private UInt256 sizeValue;
+  private UInt256 unalignedOffset;
+
+  @Setup
+  public void prepare() {
+    final Random random = new Random(1);
+    final byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    data = BytesValue.wrap(bytes);
+    word = Bytes32.wrap(bytes, 0);
+    sizeValue = UInt256.of(size);
+    unalignedOffset = UInt256.of(5);
+
+    memory = new Memory();
+    memory.setBytes(UInt256.ZERO, sizeValue, data);
+  }
+
+  @Benchmark
+  public Memory expandWordByWord() {
+    // Like a contract building a large ABI encoded value one MSTORE at a time
+    final Memory expanding = new Memory();
+    for (int offset = 0; offset < size; offset += Bytes32.SIZE) {
+      expanding.setWord(UInt256.of(offset), word);
+    }
+    return expanding;
+  }
+
+  @Benchmark
+  public Bytes32 getAlignedWord() {
+    return memory.getWord(UInt256.ZERO);
+  }
+
+  @Benchmark
+  public Bytes32 getUnalignedWord() {
+    return memory.getWord(unalignedOffset);
+  }
+
+  @Benchmark
+  public void setAlignedWord() {
+    memory.setWord(UInt256.ZERO, word);
+  }
+
+  @Benchmark
+  public void setUnalignedWord() {
+    memory.setWord(unalignedOffset, word);
+  }
+
+  @Benchmark
+  public BytesValue getBytes() {
+    return memory.getBytes(UInt256.ZERO, sizeValue);
+  }
+
+  @Benchmark
+  public BytesValue getUnalignedBytes() {
+    return memory.getBytes(unalignedOffset, sizeValue);
+  }
+
+  @Benchmark
+  public void setBytes() {
+    memory.setBytes(UInt256.ZERO, sizeValue, data);
+  }
+
+  @Benchmark
+  public void setUnalignedBytes() {
+    memory.setBytes(unalignedOffset, sizeValue, data);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm.operations;
+
+import tech.pegasys.pantheon.ethereum.mainnet.ConstantinopleFixGasCalculator;
+import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Thread)
+public class Sha3OperationBenchmark {
+
+  @Param({"32", "1024", "65536"})
+  public int size;
+
+  private OperationBenchmarkHelper operationBenchmarkHelper;
+  private Sha3Operation operation;
+  private MessageFrame frame;
+  private Bytes32 sizeValue;
+
+  @Setup
+  public void prepare() throws Exception {
+    operationBenchmarkHelper = OperationBenchmarkHelper.create();
+    operation = new Sha3Operation(new ConstantinopleFixGasCalculator());
+    frame = operationBenchmarkHelper.createMessageFrame();
+
+    final byte[] bytes = new byte[size];
+    new Random(1).nextBytes(bytes);
+    sizeValue = UInt256.of(size).getBytes();
+    frame.writeMemory(UInt256.ZERO, UInt256.of(size), BytesValue.wrap(bytes));
+  }
+
+  @TearDown
+  public void cleanUp() throws Exception {
+    operationBenchmarkHelper.cleanUp();
+  }
+
+  @Benchmark
+  public Bytes32 executeOperation() {
+    frame.pushStackItem(sizeValue);
+    frame.pushStackItem(Bytes32.ZERO);
+    operation.execute(frame);
+    return frame.popStackItem();
+  }
+}
@@ -12,17 +12,23 @@
  */
 package tech.pegasys.pantheon.ethereum;
 
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsIndex;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.chain.BlockchainStorage;
+import tech.pegasys.pantheon.ethereum.chain.CachingBlockchainStorage;
 import tech.pegasys.pantheon.ethereum.chain.DefaultMutableBlockchain;
 import tech.pegasys.pantheon.ethereum.chain.GenesisState;
 import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
+import tech.pegasys.pantheon.ethereum.vm.JumpDestinationCache;
+import tech.pegasys.pantheon.ethereum.worldstate.CachingWorldStateStorage;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshots;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 
+import java.util.Optional;
 import java.util.function.BiFunction;
 
 /**
@@ -36,14 +42,24 @@ public class ProtocolContext<C> {
   private final MutableBlockchain blockchain;
   private final WorldStateArchive worldStateArchive;
   private final C consensusState;
+  private final Optional<BloomBitsIndex> bloomBitsIndex;
 
   public ProtocolContext(
       final MutableBlockchain blockchain,
       final WorldStateArchive worldStateArchive,
       final C consensusState) {
+    this(blockchain, worldStateArchive, consensusState, Optional.empty());
+  }
+
+  public ProtocolContext(
+      final MutableBlockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final C consensusState,
+      final Optional<BloomBitsIndex> bloomBitsIndex) {
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
     this.consensusState = consensusState;
+    this.bloomBitsIndex = bloomBitsIndex;
   }
 
   public static <T> ProtocolContext<T> init(
@@ -53,19 +69,44 @@ public class ProtocolContext<C> {
       final MetricsSystem metricsSystem,
       final BiFunction<Blockchain, WorldStateArchive, T> consensusContextFactory) {
     final BlockchainStorage blockchainStorage =
-        storageProvider.createBlockchainStorage(protocolSchedule);
-    final WorldStateStorage worldStateStorage = storageProvider.createWorldStateStorage();
+        new CachingBlockchainStorage(
+            storageProvider.createBlockchainStorage(protocolSchedule),
+            CachingBlockchainStorage.DEFAULT_CACHE_SIZE_BYTES,
+            metricsSystem);
+    final WorldStateStorage worldStateStorage =
+        new CachingWorldStateStorage(
+            storageProvider.createWorldStateStorage(),
+            CachingWorldStateStorage.DEFAULT_CACHE_SIZE_BYTES,
+            metricsSystem);
 
+    // The world state snapshot can only be built up from the genesis state
+    final boolean emptyDatabase = !blockchainStorage.getChainHead().isPresent();
     final MutableBlockchain blockchain =
         new DefaultMutableBlockchain(genesisState.getBlock(), blockchainStorage, metricsSystem);
 
-    final WorldStateArchive worldStateArchive = new WorldStateArchive(worldStateStorage);
-    genesisState.writeStateTo(worldStateArchive.getMutable());
+    final Optional<WorldStateSnapshots> worldStateSnapshots =
+        WorldStateSnapshots.create(
+            storageProvider.createWorldStateSnapshotStorage(), emptyDatabase, metricsSystem);
+    final WorldStateArchive worldStateArchive =
+        new WorldStateArchive(worldStateStorage, worldStateSnapshots);
+    JumpDestinationCache.shared().registerMetrics(metricsSystem);
+    // Rewriting the genesis state of an existing database would go through the snapshot, which no
+    // longer holds the empty state it was built on
+    if (!worldStateArchive.isWorldStateAvailable(
+        genesisState.getBlock().getHeader().getStateRoot())) {
+      genesisState.writeStateTo(worldStateArchive.getMutable());
+    }
+    worldStateSnapshots.ifPresent(
+        snapshots -> snapshots.disableIfMissing(blockchain.getChainHeadHeader().getStateRoot()));
+
+    final BloomBitsIndex bloomBitsIndex =
+        new BloomBitsIndex(blockchain, storageProvider.createBloomBitsStorage());
 
     return new ProtocolContext<>(
         blockchain,
         worldStateArchive,
-        consensusContextFactory.apply(blockchain, worldStateArchive));
+        consensusContextFactory.apply(blockchain, worldStateArchive),
+        Optional.of(bloomBitsIndex));
   }
 
   public MutableBlockchain getBlockchain() {
@@ -79,4 +120,8 @@ public class ProtocolContext<C> {
   public C getConsensusState() {
     return consensusState;
   }
+
+  public Optional<BloomBitsIndex> getBloomBitsIndex() {
+    return bloomBitsIndex;
+  }
 }
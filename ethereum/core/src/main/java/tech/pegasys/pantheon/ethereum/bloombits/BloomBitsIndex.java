@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.bloombits;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A bit-transposed index of the logs blooms of the canonical chain.
+ *
+ * <p>The chain is split into sections of {@code sectionSize} blocks. For each section and each of
+ * the {@link LogsBloomFilter#BIT_SIZE} bloom bits a vector of {@code sectionSize} bits is stored,
+ * with bit {@code i} set if that bloom bit is set in the logs bloom of the {@code i}th block of the
+ * section. Finding the blocks which may contain a log with a given address or topic then only needs
+ * the three vectors for the bits of that value to be read and combined, rather than every header.
+ *
+ * <p>Sections are only indexed once they are {@code confirmations} blocks behind the chain head.
+ * The hash of the last block of a section is stored with it so a section which has since been
+ * replaced by a reorg is treated as not indexed.
+ */
+public class BloomBitsIndex {
+
+  public static final int DEFAULT_SECTION_SIZE = 4096;
+  public static final int DEFAULT_CONFIRMATIONS = 256;
+
+  private final Blockchain blockchain;
+  private final BloomBitsStorage storage;
+  private final int sectionSize;
+  private final int confirmations;
+
+  public BloomBitsIndex(final Blockchain blockchain, final BloomBitsStorage storage) {
+    this(blockchain, storage, DEFAULT_SECTION_SIZE, DEFAULT_CONFIRMATIONS);
+  }
+
+  public BloomBitsIndex(
+      final Blockchain blockchain,
+      final BloomBitsStorage storage,
+      final int sectionSize,
+      final int confirmations) {
+    checkArgument(
+        sectionSize > 0 && sectionSize % 8 == 0,
+        "Section size must be a positive multiple of 8 but was %s",
+        sectionSize);
+    checkArgument(confirmations >= 0, "Confirmations must not be negative");
+    this.blockchain = blockchain;
+    this.storage = storage;
+    this.sectionSize = sectionSize;
+    this.confirmations = confirmations;
+  }
+
+  public int getSectionSize() {
+    return sectionSize;
+  }
+
+  public long sectionFor(final long blockNumber) {
+    return blockNumber / sectionSize;
+  }
+
+  public long firstBlockOf(final long section) {
+    return section * sectionSize;
+  }
+
+  public long lastBlockOf(final long section) {
+    return firstBlockOf(section) + sectionSize - 1;
+  }
+
+  /**
+   * Returns the number of sections which are far enough behind the chain head to be indexed.
+   *
+   * @return the number of complete sections
+   */
+  public long getCompleteSectionCount() {
+    final long confirmedBlocks = blockchain.getChainHeadBlockNumber() + 1 - confirmations;
+    return Math.max(0, confirmedBlocks / sectionSize);
+  }
+
+  /**
+   * Checks whether the given section is indexed and the index still matches the canonical chain.
+   *
+   * @param section the section to check
+   * @return true if the section can be queried
+   */
+  public boolean isSectionIndexed(final long section) {
+    final Optional<Hash> sectionHead = storage.getSectionHead(section);
+    return sectionHead.isPresent()
+        && sectionHead.equals(blockchain.getBlockHashByNumber(lastBlockOf(section)));
+  }
+
+  /**
+   * Builds and stores the bit vectors for a section from the headers of the canonical chain,
+   * replacing any vectors previously stored for it.
+   *
+   * @param section the section to index
+   */
+  public void indexSection(final long section) {
+    final byte[][] bitVectors = new byte[LogsBloomFilter.BIT_SIZE][];
+    final long firstBlock = firstBlockOf(section);
+    Hash sectionHead = null;
+    for (int i = 0; i < sectionSize; i++) {
+      final long blockNumber = firstBlock + i;
+      final BlockHeader header =
+          blockchain
+              .getBlockHeader(blockNumber)
+              .orElseThrow(
+                  () -> new IllegalStateException("Missing canonical block " + blockNumber));
+      final LogsBloomFilter logsBloom = header.getLogsBloom();
+      for (int bit = 0; bit < LogsBloomFilter.BIT_SIZE; bit++) {
+        if (logsBloom.isBitSet(bit)) {
+          if (bitVectors[bit] == null) {
+            bitVectors[bit] = new byte[sectionSize / 8];
+          }
+          bitVectors[bit][i / 8] |= 0x80 >>> (i % 8);
+        }
+      }
+      sectionHead = header.getHash();
+    }
+
+    final BloomBitsStorage.Updater updater = storage.updater();
+    for (int bit = 0; bit < LogsBloomFilter.BIT_SIZE; bit++) {
+      // Most bits are never set in a section so don't store empty vectors
+      if (bitVectors[bit] == null) {
+        updater.removeBitVector(section, bit);
+      } else {
+        updater.putBitVector(section, bit, BytesValue.wrap(bitVectors[bit]));
+      }
+    }
+    updater.putSectionHead(section, sectionHead);
+    updater.commit();
+  }
+
+  /**
+   * Finds the blocks of an indexed section whose logs bloom may match the given criteria.
+   *
+   * <p>The criteria are a list of clauses which must all match. A clause matches if any one of its
+   * values, log addresses or topics, is in the logs bloom.
+   *
+   * @param section the section to search
+   * @param criteria the values to look for
+   * @return the numbers of the blocks which may match, in ascending order, or empty if the section
+   *     is not indexed
+   */
+  public Optional<List<Long>> matchingBlocks(
+      final long section, final List<List<BytesValue>> criteria) {
+    if (!isSectionIndexed(section)) {
+      return Optional.empty();
+    }
+    final Map<Integer, byte[]> bitVectors = new HashMap<>();
+    final byte[] matches = new byte[sectionSize / 8];
+    Arrays.fill(matches, (byte) 0xFF);
+    for (final List<BytesValue> clause : criteria) {
+      final byte[] clauseMatches = new byte[sectionSize / 8];
+      for (final BytesValue value : clause) {
+        final byte[] valueMatches = new byte[sectionSize / 8];
+        Arrays.fill(valueMatches, (byte) 0xFF);
+        for (final int bit : LogsBloomFilter.bitsFor(value)) {
+          final byte[] bitVector = bitVectors.computeIfAbsent(bit, b -> readBitVector(section, b));
+          for (int i = 0; i < valueMatches.length; i++) {
+            valueMatches[i] &= bitVector[i];
+          }
+        }
+        for (int i = 0; i < clauseMatches.length; i++) {
+          clauseMatches[i] |= valueMatches[i];
+        }
+      }
+      for (int i = 0; i < matches.length; i++) {
+        matches[i] &= clauseMatches[i];
+      }
+    }
+
+    final List<Long> blockNumbers = new ArrayList<>();
+    final long firstBlock = firstBlockOf(section);
+    for (int i = 0; i < sectionSize; i++) {
+      if ((matches[i / 8] & (0x80 >>> (i % 8))) != 0) {
+        blockNumbers.add(firstBlock + i);
+      }
+    }
+    return Optional.of(blockNumbers);
+  }
+
+  private byte[] readBitVector(final long section, final int bit) {
+    return storage
+        .getBitVector(section, bit)
+        .map(BytesValue::extractArray)
+        .orElseGet(() -> new byte[sectionSize / 8]);
+  }
+}
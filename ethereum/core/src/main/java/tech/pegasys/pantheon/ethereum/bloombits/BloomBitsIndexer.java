@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.bloombits;
+
+import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
+import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent.EventType;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps a {@link BloomBitsIndex} up to date in the background, indexing any existing sections that
+ * are missing when started and new sections as they are completed by imported blocks.
+ */
+public class BloomBitsIndexer {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final Blockchain blockchain;
+  private final BloomBitsIndex index;
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("BloomBitsIndexer").setDaemon(true).build());
+  private final AtomicBoolean updateScheduled = new AtomicBoolean(false);
+  private final AtomicBoolean reorgSeen = new AtomicBoolean(false);
+  private OptionalLong observerId = OptionalLong.empty();
+  // Only accessed from the executor thread
+  private long checkedSections = 0;
+
+  public BloomBitsIndexer(final Blockchain blockchain, final BloomBitsIndex index) {
+    this.blockchain = blockchain;
+    this.index = index;
+  }
+
+  public void start() {
+    observerId = OptionalLong.of(blockchain.observeBlockAdded(this::onBlockAdded));
+    scheduleUpdate();
+  }
+
+  public void stop() throws InterruptedException {
+    observerId.ifPresent(blockchain::removeObserver);
+    executor.shutdownNow();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+  }
+
+  private void onBlockAdded(final BlockAddedEvent event, final Blockchain blockchain) {
+    if (event.getEventType() == EventType.CHAIN_REORG) {
+      // Recheck every section in case the reorg replaced indexed blocks
+      reorgSeen.set(true);
+    }
+    if (event.isNewCanonicalHead()) {
+      scheduleUpdate();
+    }
+  }
+
+  private void scheduleUpdate() {
+    // Coalesce the updates for blocks imported while the index is being built
+    if (updateScheduled.compareAndSet(false, true)) {
+      executor.execute(this::indexCompleteSections);
+    }
+  }
+
+  private void indexCompleteSections() {
+    updateScheduled.set(false);
+    if (reorgSeen.getAndSet(false)) {
+      checkedSections = 0;
+    }
+    try {
+      final long completeSections = index.getCompleteSectionCount();
+      while (checkedSections < completeSections && !Thread.currentThread().isInterrupted()) {
+        if (!index.isSectionIndexed(checkedSections)) {
+          index.indexSection(checkedSections);
+          LOG.debug("Indexed logs blooms of section {}", checkedSections);
+        }
+        checkedSections++;
+      }
+    } catch (final RuntimeException e) {
+      LOG.warn("Failed to update the bloom bits index", e);
+    }
+  }
+}
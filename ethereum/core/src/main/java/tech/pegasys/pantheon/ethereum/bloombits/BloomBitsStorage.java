@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.bloombits;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+
+/**
+ * Stores the bloom bits index: for each section of blocks and each of the bits of a logs bloom, a
+ * bit vector with one bit per block of the section, set if that bit is set in the block's logs
+ * bloom.
+ */
+public interface BloomBitsStorage {
+
+  Optional<Hash> getSectionHead(long section);
+
+  Optional<BytesValue> getBitVector(long section, int bit);
+
+  Updater updater();
+
+  interface Updater {
+
+    void putSectionHead(long section, Hash sectionHead);
+
+    void putBitVector(long section, int bit, BytesValue bitVector);
+
+    void removeBitVector(long section, int bit);
+
+    void commit();
+
+    void rollback();
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.chain;
+
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A {@link BlockchainStorage} which keeps recently used headers, bodies, receipts, total
+ * difficulties and canonical block hashes in memory so that repeated lookups of the same blocks do
+ * not have to read and decode them from the underlying storage again.
+ *
+ * <p>Headers, bodies, receipts and total difficulties are keyed by block hash so never change once
+ * written. The mapping from block number to hash and the chain head do change on reorgs, all writes
+ * must therefore go through this storage so the cached values are updated when an {@link Updater}
+ * commits.
+ */
+public class CachingBlockchainStorage implements BlockchainStorage {
+
+  public static final long DEFAULT_CACHE_SIZE_BYTES = 64 * 1024 * 1024;
+  private static final int BLOCK_HASH_CACHE_SIZE = 65_536;
+  private static final int TOTAL_DIFFICULTY_CACHE_SIZE = 65_536;
+
+  private final BlockchainStorage delegate;
+  private final Cache<Hash, BlockHeader> blockHeaders;
+  private final Cache<Hash, BlockBody> blockBodies;
+  private final Cache<Hash, List<TransactionReceipt>> transactionReceipts;
+  private final Cache<Hash, UInt256> totalDifficulties;
+  // Absent hashes are cached too, so that a number being added to the chain is always updated
+  private final Cache<Long, Optional<Hash>> blockHashes;
+  private final AtomicReference<Optional<Hash>> chainHead;
+
+  /**
+   * Creates a caching storage.
+   *
+   * @param delegate the storage to read from and write to
+   * @param cacheSizeBytes the approximate encoded size of all cached headers, bodies and receipts
+   * @param metricsSystem the metrics system to report cache hits and misses to
+   */
+  public CachingBlockchainStorage(
+      final BlockchainStorage delegate,
+      final long cacheSizeBytes,
+      final MetricsSystem metricsSystem) {
+    this.delegate = delegate;
+    // Bodies are by far the largest and most frequently requested after headers
+    this.blockHeaders =
+        CacheBuilder.newBuilder()
+            .maximumWeight(cacheSizeBytes / 4)
+            .<Hash, BlockHeader>weigher((hash, header) -> RLP.encode(header::writeTo).size())
+            .recordStats()
+            .build();
+    this.blockBodies =
+        CacheBuilder.newBuilder()
+            .maximumWeight(cacheSizeBytes / 2)
+            .<Hash, BlockBody>weigher((hash, body) -> RLP.encode(body::writeTo).size())
+            .recordStats()
+            .build();
+    this.transactionReceipts =
+        CacheBuilder.newBuilder()
+            .maximumWeight(cacheSizeBytes / 4)
+            .<Hash, List<TransactionReceipt>>weigher(
+                (hash, receipts) ->
+                    RLP.encode(o -> o.writeList(receipts, TransactionReceipt::writeTo)).size())
+            .recordStats()
+            .build();
+    this.totalDifficulties =
+        CacheBuilder.newBuilder().maximumSize(TOTAL_DIFFICULTY_CACHE_SIZE).recordStats().build();
+    this.blockHashes =
+        CacheBuilder.newBuilder().maximumSize(BLOCK_HASH_CACHE_SIZE).recordStats().build();
+    this.chainHead = new AtomicReference<>(delegate.getChainHead());
+
+    registerMetrics(metricsSystem, "header", blockHeaders);
+    registerMetrics(metricsSystem, "body", blockBodies);
+    registerMetrics(metricsSystem, "receipts", transactionReceipts);
+    registerMetrics(metricsSystem, "total_difficulty", totalDifficulties);
+    registerMetrics(metricsSystem, "block_hash", blockHashes);
+  }
+
+  private static void registerMetrics(
+      final MetricsSystem metricsSystem, final String name, final Cache<?, ?> cache) {
+    metricsSystem.createLongGauge(
+        MetricCategory.BLOCKCHAIN,
+        name + "_cache_hit_count",
+        "Number of " + name.replace('_', ' ') + " lookups served from the cache",
+        () -> cache.stats().hitCount());
+    metricsSystem.createLongGauge(
+        MetricCategory.BLOCKCHAIN,
+        name + "_cache_miss_count",
+        "Number of " + name.replace('_', ' ') + " lookups read from storage",
+        () -> cache.stats().missCount());
+  }
+
+  @Override
+  public Optional<Hash> getChainHead() {
+    return chainHead.get();
+  }
+
+  @Override
+  public Collection<Hash> getForkHeads() {
+    return delegate.getForkHeads();
+  }
+
+  @Override
+  public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
+    return getCached(blockHeaders, blockHash, delegate::getBlockHeader);
+  }
+
+  @Override
+  public Optional<BlockBody> getBlockBody(final Hash blockHash) {
+    return getCached(blockBodies, blockHash, delegate::getBlockBody);
+  }
+
+  @Override
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
+    return getCached(transactionReceipts, blockHash, delegate::getTransactionReceipts);
+  }
+
+  @Override
+  public Optional<Hash> getBlockHash(final long blockNumber) {
+    try {
+      // A load racing with a commit is discarded in favour of the value put by the commit
+      return blockHashes.get(blockNumber, () -> delegate.getBlockHash(blockNumber));
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException("Unable to load block hash", e.getCause());
+    }
+  }
+
+  @Override
+  public Optional<UInt256> getTotalDifficulty(final Hash blockHash) {
+    return getCached(totalDifficulties, blockHash, delegate::getTotalDifficulty);
+  }
+
+  @Override
+  public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return delegate.getTransactionLocation(transactionHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return new CachingUpdater(delegate.updater());
+  }
+
+  private static <V> Optional<V> getCached(
+      final Cache<Hash, V> cache, final Hash key, final Function<Hash, Optional<V>> loader) {
+    final V cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    final Optional<V> value = loader.apply(key);
+    value.ifPresent(v -> cache.put(key, v));
+    return value;
+  }
+
+  private class CachingUpdater implements Updater {
+
+    private final Updater updater;
+    private final Map<Hash, BlockHeader> blockHeaderUpdates = new HashMap<>();
+    private final Map<Hash, BlockBody> blockBodyUpdates = new HashMap<>();
+    private final Map<Hash, List<TransactionReceipt>> transactionReceiptUpdates = new HashMap<>();
+    private final Map<Hash, UInt256> totalDifficultyUpdates = new HashMap<>();
+    private final Map<Long, Optional<Hash>> blockHashUpdates = new HashMap<>();
+    private Optional<Hash> chainHeadUpdate = Optional.empty();
+
+    CachingUpdater(final Updater updater) {
+      this.updater = updater;
+    }
+
+    @Override
+    public void putBlockHeader(final Hash blockHash, final BlockHeader blockHeader) {
+      updater.putBlockHeader(blockHash, blockHeader);
+      blockHeaderUpdates.put(blockHash, blockHeader);
+    }
+
+    @Override
+    public void putBlockBody(final Hash blockHash, final BlockBody blockBody) {
+      updater.putBlockBody(blockHash, blockBody);
+      blockBodyUpdates.put(blockHash, blockBody);
+    }
+
+    @Override
+    public void putTransactionLocation(
+        final Hash transactionHash, final TransactionLocation transactionLocation) {
+      updater.putTransactionLocation(transactionHash, transactionLocation);
+    }
+
+    @Override
+    public void putTransactionReceipts(
+        final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
+      updater.putTransactionReceipts(blockHash, transactionReceipts);
+      transactionReceiptUpdates.put(blockHash, transactionReceipts);
+    }
+
+    @Override
+    public void putBlockHash(final long blockNumber, final Hash blockHash) {
+      updater.putBlockHash(blockNumber, blockHash);
+      blockHashUpdates.put(blockNumber, Optional.of(blockHash));
+    }
+
+    @Override
+    public void putTotalDifficulty(final Hash blockHash, final UInt256 totalDifficulty) {
+      updater.putTotalDifficulty(blockHash, totalDifficulty);
+      totalDifficultyUpdates.put(blockHash, totalDifficulty);
+    }
+
+    @Override
+    public void setChainHead(final Hash blockHash) {
+      updater.setChainHead(blockHash);
+      chainHeadUpdate = Optional.of(blockHash);
+    }
+
+    @Override
+    public void setForkHeads(final Collection<Hash> forkHeadHashes) {
+      updater.setForkHeads(forkHeadHashes);
+    }
+
+    @Override
+    public void removeBlockHash(final long blockNumber) {
+      updater.removeBlockHash(blockNumber);
+      blockHashUpdates.put(blockNumber, Optional.empty());
+    }
+
+    @Override
+    public void removeTransactionLocation(final Hash transactionHash) {
+      updater.removeTransactionLocation(transactionHash);
+    }
+
+    @Override
+    public void commit() {
+      updater.commit();
+
+      // Only publish the changes once they are in storage
+      blockHeaders.putAll(blockHeaderUpdates);
+      blockBodies.putAll(blockBodyUpdates);
+      transactionReceipts.putAll(transactionReceiptUpdates);
+      totalDifficulties.putAll(totalDifficultyUpdates);
+      blockHashes.putAll(blockHashUpdates);
+      chainHeadUpdate.ifPresent(head -> chainHead.set(Optional.of(head)));
+    }
+
+    @Override
+    public void rollback() {
+      updater.rollback();
+    }
+  }
+}
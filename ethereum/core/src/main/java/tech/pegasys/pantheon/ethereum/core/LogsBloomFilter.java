@@ -34,6 +34,7 @@ import java.util.Collection;
 public class LogsBloomFilter {
 
   public static final int BYTE_SIZE = 256;
+  public static final int BIT_SIZE = BYTE_SIZE * 8;
   private static final int LEAST_SIGNIFICANT_BYTE = 0xFF;
   private static final int LEAST_SIGNIFICANT_THREE_BITS = 0x7;
   private static final int BITS_IN_BYTE = 8;
@@ -96,12 +97,52 @@ public class LogsBloomFilter {
    * @param hashValue The hash of the log item.
    */
   private void setBits(final BytesValue hashValue) {
+    for (final int bit : bloomBits(hashValue)) {
+      setBit(bit);
+    }
+  }
+
+  private static int[] bloomBits(final BytesValue hashValue) {
+    final int[] bits = new int[3];
     for (int counter = 0; counter < 6; counter += 2) {
-      final int setBloomBit =
+      bits[counter / 2] =
           ((hashValue.get(counter) & LEAST_SIGNIFICANT_THREE_BITS) << BITS_IN_BYTE)
               + (hashValue.get(counter + 1) & LEAST_SIGNIFICANT_BYTE);
-      setBit(setBloomBit);
     }
+    return bits;
+  }
+
+  /**
+   * Returns the indices of the bits that are set when the given value, a log address or topic, is
+   * inserted into a bloom filter.
+   *
+   * @param value the address or topic
+   * @return the indices of the three bits set for the value
+   */
+  public static int[] bitsFor(final BytesValue value) {
+    return bloomBits(keccak256(value));
+  }
+
+  /**
+   * Checks whether the given value, a log address or topic, may have been inserted into this bloom
+   * filter.
+   *
+   * @param value the address or topic
+   * @return false if the value was definitely not inserted, true if it may have been
+   */
+  public boolean couldContain(final BytesValue value) {
+    for (final int bit : bitsFor(value)) {
+      if (!isBitSet(bit)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean isBitSet(final int index) {
+    final int byteIndex = BYTE_SIZE - 1 - index / 8;
+    final int bitIndex = index % 8;
+    return (data.get(byteIndex) & (1 << bitIndex)) != 0;
   }
 
   @Override
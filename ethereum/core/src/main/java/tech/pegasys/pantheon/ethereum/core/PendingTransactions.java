@@ -14,46 +14,77 @@ package tech.pegasys.pantheon.ethereum.core;
 
 import static java.util.Collections.newSetFromMap;
 import static java.util.Comparator.comparing;
+import static java.util.Comparator.reverseOrder;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.SortedMap;
-import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Holds the current set of pending transactions with the ability to iterate them based on priority
  * for mining or look-up by hash.
  *
+ * <p>Transactions are prioritized by whether they were received from a local source, then by gas
+ * price and finally by the order they were added. Only the transactions of each sender which form a
+ * run of consecutive nonces, starting from the lowest nonce pending for that sender, are offered
+ * for mining. Transactions after a nonce gap are held as future transactions until the gap is
+ * filled, and are the first to be dropped when the pool is full.
+ *
  * <p>This class is safe for use across multiple threads.
  */
 public class PendingTransactions {
   public static final int MAX_PENDING_TRANSACTIONS = 30_000;
+  public static final int DEFAULT_PRICE_BUMP_PERCENT = 10;
+
+  private static final Comparator<TransactionInfo> BY_PRIORITY =
+      comparing(TransactionInfo::isReceivedFromLocalSource, reverseOrder())
+          .thenComparing(TransactionInfo::getGasPrice, reverseOrder())
+          .thenComparing(TransactionInfo::getSequence);
 
-  private final Map<Hash, TransactionInfo> pendingTransactions = new HashMap<>();
-  private final SortedSet<TransactionInfo> prioritizedTransactions =
-      new TreeSet<>(
-          comparing(TransactionInfo::isReceivedFromLocalSource)
-              .thenComparing(TransactionInfo::getSequence)
-              .reversed());
+  private final Map<Hash, TransactionInfo> pendingTransactions = new ConcurrentHashMap<>();
+  private final TreeSet<TransactionInfo> prioritizedTransactions = new TreeSet<>(BY_PRIORITY);
+  private final TreeSet<TransactionInfo> futureTransactions = new TreeSet<>(BY_PRIORITY);
   private final Map<Address, SortedMap<Long, TransactionInfo>> transactionsBySender =
       new HashMap<>();
+  // Guards prioritizedTransactions, futureTransactions and transactionsBySender. Lookups by hash
+  // don't need it as pendingTransactions is a concurrent map.
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
   private final Collection<PendingTransactionListener> listeners =
       newSetFromMap(new ConcurrentHashMap<>());
 
   private final int maxPendingTransactions;
+  private final int priceBumpPercent;
 
   public PendingTransactions(final int maxPendingTransactions) {
+    this(maxPendingTransactions, DEFAULT_PRICE_BUMP_PERCENT);
+  }
+
+  /**
+   * Creates an empty pool.
+   *
+   * @param maxPendingTransactions the number of transactions to hold before dropping the lowest
+   *     priority ones
+   * @param priceBumpPercent how much higher, in percent, the gas price of a transaction must be to
+   *     replace a pending transaction with the same sender and nonce
+   */
+  public PendingTransactions(final int maxPendingTransactions, final int priceBumpPercent) {
     this.maxPendingTransactions = maxPendingTransactions;
+    this.priceBumpPercent = priceBumpPercent;
   }
 
   public boolean addRemoteTransaction(final Transaction transaction) {
@@ -66,36 +97,53 @@ public class PendingTransactions {
   }
 
   public void removeTransaction(final Transaction transaction) {
-    synchronized (pendingTransactions) {
-      final TransactionInfo removedTransactionInfo = pendingTransactions.remove(transaction.hash());
-      if (removedTransactionInfo != null) {
-        prioritizedTransactions.remove(removedTransactionInfo);
-        Optional.ofNullable(transactionsBySender.get(transaction.getSender()))
-            .ifPresent(
-                transactionsForSender -> {
-                  transactionsForSender.remove(transaction.getNonce());
-                  if (transactionsForSender.isEmpty()) {
-                    transactionsBySender.remove(transaction.getSender());
-                  }
-                });
+    final Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      doRemoveTransaction(transaction);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void doRemoveTransaction(final Transaction transaction) {
+    final TransactionInfo removedTransactionInfo = pendingTransactions.remove(transaction.hash());
+    if (removedTransactionInfo != null) {
+      final SortedMap<Long, TransactionInfo> transactionsForSender =
+          transactionsBySender.get(transaction.getSender());
+      removeFromPriorityOrder(transactionsForSender);
+      transactionsForSender.remove(transaction.getNonce());
+      if (transactionsForSender.isEmpty()) {
+        transactionsBySender.remove(transaction.getSender());
+      } else {
+        addToPriorityOrder(transactionsForSender);
       }
     }
   }
 
   /*
-   * The BlockTransaction selection process (part of block mining) requires synchronised access to
-   * all pendingTransactions - this allows it to iterate over the available transactions without
-   * releasing the lock in between items.
+   * The BlockTransaction selection process (part of block mining) iterates over a snapshot of the
+   * executable transactions so that transactions can continue to be added while the selected ones
+   * are being evaluated.
    *
    */
   public void selectTransactions(final TransactionSelector selector) {
-    synchronized (pendingTransactions) {
-      final Map<Address, AccountTransactionOrder> accountTransactions = new HashMap<>();
-      final List<Transaction> transactionsToRemove = new ArrayList<>();
-      for (final TransactionInfo transactionInfo : prioritizedTransactions) {
+    final List<TransactionInfo> transactionsToSelect;
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      transactionsToSelect = new ArrayList<>(prioritizedTransactions);
+    } finally {
+      readLock.unlock();
+    }
+
+    final Map<Address, AccountTransactionOrder> accountTransactions =
+        createSenderTransactionOrders(transactionsToSelect);
+    final List<Transaction> transactionsToRemove = new ArrayList<>();
+    try {
+      for (final TransactionInfo transactionInfo : transactionsToSelect) {
         final AccountTransactionOrder accountTransactionOrder =
-            accountTransactions.computeIfAbsent(
-                transactionInfo.getSender(), this::createSenderTransactionOrder);
+            accountTransactions.get(transactionInfo.getSender());
 
         for (final Transaction transactionToProcess :
             accountTransactionOrder.transactionsToProcess(transactionInfo.getTransaction())) {
@@ -114,17 +162,30 @@ public class PendingTransactions {
           }
         }
       }
+    } finally {
       transactionsToRemove.forEach(this::removeTransaction);
     }
   }
 
-  private AccountTransactionOrder createSenderTransactionOrder(final Address address) {
-    return new AccountTransactionOrder(
-        transactionsBySender.get(address).values().stream().map(TransactionInfo::getTransaction));
+  private static Map<Address, AccountTransactionOrder> createSenderTransactionOrders(
+      final List<TransactionInfo> transactionInfos) {
+    final Map<Address, List<Transaction>> transactionsBySender = new HashMap<>();
+    for (final TransactionInfo transactionInfo : transactionInfos) {
+      transactionsBySender
+          .computeIfAbsent(transactionInfo.getSender(), sender -> new ArrayList<>())
+          .add(transactionInfo.getTransaction());
+    }
+    final Map<Address, AccountTransactionOrder> accountTransactions = new HashMap<>();
+    transactionsBySender.forEach(
+        (sender, transactions) ->
+            accountTransactions.put(sender, new AccountTransactionOrder(transactions.stream())));
+    return accountTransactions;
   }
 
   private boolean addTransaction(final TransactionInfo transactionInfo) {
-    synchronized (pendingTransactions) {
+    final Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
       if (pendingTransactions.containsKey(transactionInfo.getHash())) {
         return false;
       }
@@ -132,20 +193,23 @@ public class PendingTransactions {
       if (!addTransactionForSenderAndNonce(transactionInfo)) {
         return false;
       }
-      prioritizedTransactions.add(transactionInfo);
       pendingTransactions.put(transactionInfo.getHash(), transactionInfo);
 
-      notifyTransactionAdded(transactionInfo.getTransaction());
       if (pendingTransactions.size() > maxPendingTransactions) {
-        final TransactionInfo toRemove = prioritizedTransactions.last();
-        removeTransaction(toRemove.getTransaction());
+        doRemoveTransaction(lowestPriorityTransaction().getTransaction());
+        if (!pendingTransactions.containsKey(transactionInfo.getHash())) {
+          return false;
+        }
       }
-      return true;
+    } finally {
+      writeLock.unlock();
     }
+    notifyTransactionAdded(transactionInfo.getTransaction());
+    return true;
   }
 
   private boolean addTransactionForSenderAndNonce(final TransactionInfo transactionInfo) {
-    final Map<Long, TransactionInfo> transactionsForSender =
+    final SortedMap<Long, TransactionInfo> transactionsForSender =
         transactionsBySender.computeIfAbsent(transactionInfo.getSender(), key -> new TreeMap<>());
     final TransactionInfo existingTransaction =
         transactionsForSender.get(transactionInfo.getNonce());
@@ -153,19 +217,65 @@ public class PendingTransactions {
       if (!shouldReplace(existingTransaction, transactionInfo)) {
         return false;
       }
-      removeTransaction(existingTransaction.getTransaction());
+      pendingTransactions.remove(existingTransaction.getHash());
     }
+    removeFromPriorityOrder(transactionsForSender);
     transactionsForSender.put(transactionInfo.getNonce(), transactionInfo);
+    addToPriorityOrder(transactionsForSender);
     return true;
   }
 
+  private void removeFromPriorityOrder(final SortedMap<Long, TransactionInfo> transactions) {
+    for (final TransactionInfo transactionInfo : transactions.values()) {
+      prioritizedTransactions.remove(transactionInfo);
+      futureTransactions.remove(transactionInfo);
+    }
+  }
+
+  // Transactions are executable up to the first gap in the sender's nonces
+  private void addToPriorityOrder(final SortedMap<Long, TransactionInfo> transactions) {
+    long expectedNonce = transactions.firstKey();
+    for (final TransactionInfo transactionInfo : transactions.values()) {
+      if (transactionInfo.getNonce() == expectedNonce) {
+        prioritizedTransactions.add(transactionInfo);
+        expectedNonce++;
+      } else {
+        futureTransactions.add(transactionInfo);
+      }
+    }
+  }
+
+  /*
+   * Future transactions are dropped before executable ones. Only the transaction with the highest
+   * nonce for its sender is considered so that dropping it doesn't leave a gap behind.
+   */
+  private TransactionInfo lowestPriorityTransaction() {
+    final Optional<TransactionInfo> future = lowestPriorityLastNonce(futureTransactions);
+    return future.isPresent()
+        ? future.get()
+        : lowestPriorityLastNonce(prioritizedTransactions).get();
+  }
+
+  private Optional<TransactionInfo> lowestPriorityLastNonce(
+      final TreeSet<TransactionInfo> transactions) {
+    final Iterator<TransactionInfo> iterator = transactions.descendingIterator();
+    while (iterator.hasNext()) {
+      final TransactionInfo transactionInfo = iterator.next();
+      if (transactionsBySender.get(transactionInfo.getSender()).lastKey()
+          == transactionInfo.getNonce()) {
+        return Optional.of(transactionInfo);
+      }
+    }
+    return Optional.empty();
+  }
+
   private boolean shouldReplace(
       final TransactionInfo existingTransaction, final TransactionInfo newTransaction) {
-    return newTransaction
-            .getTransaction()
-            .getGasPrice()
-            .compareTo(existingTransaction.getTransaction().getGasPrice())
-        > 0;
+    final Wei existingGasPrice = existingTransaction.getGasPrice();
+    final Wei minimumGasPrice =
+        existingGasPrice.plus(existingGasPrice.times(priceBumpPercent).dividedBy(100));
+    return newTransaction.getGasPrice().compareTo(existingGasPrice) > 0
+        && newTransaction.getGasPrice().compareTo(minimumGasPrice) >= 0;
   }
 
   private void notifyTransactionAdded(final Transaction transaction) {
@@ -173,16 +283,12 @@ public class PendingTransactions {
   }
 
   public int size() {
-    synchronized (pendingTransactions) {
-      return pendingTransactions.size();
-    }
+    return pendingTransactions.size();
   }
 
   public Optional<Transaction> getTransactionByHash(final Hash transactionHash) {
-    synchronized (pendingTransactions) {
-      return Optional.ofNullable(pendingTransactions.get(transactionHash))
-          .map(TransactionInfo::getTransaction);
-    }
+    return Optional.ofNullable(pendingTransactions.get(transactionHash))
+        .map(TransactionInfo::getTransaction);
   }
 
   public void addTransactionListener(final PendingTransactionListener listener) {
@@ -190,13 +296,17 @@ public class PendingTransactions {
   }
 
   public OptionalLong getNextNonceForSender(final Address sender) {
-    synchronized (pendingTransactions) {
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
       final SortedMap<Long, TransactionInfo> transactionsForSender =
           transactionsBySender.get(sender);
       if (transactionsForSender == null) {
         return OptionalLong.empty();
       }
       return OptionalLong.of(transactionsForSender.lastKey() + 1);
+    } finally {
+      readLock.unlock();
     }
   }
 
@@ -225,6 +335,10 @@ public class PendingTransactions {
       return sequence;
     }
 
+    public Wei getGasPrice() {
+      return transaction.getGasPrice();
+    }
+
     public long getNonce() {
       return transaction.getNonce();
     }
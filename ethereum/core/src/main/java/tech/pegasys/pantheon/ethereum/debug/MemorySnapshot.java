@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.debug;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.bytes.MutableBytesValue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The memory of a message frame at one step of a trace.
+ *
+ * <p>Only the first snapshot of a message frame holds its full memory. Each following snapshot
+ * holds the bytes written since the previous one, and steps which leave memory untouched share
+ * their snapshot, so that tracing a long execution does not copy the whole memory at every step.
+ */
+public class MemorySnapshot {
+
+  private final MemorySnapshot previous;
+  private final int size;
+  private final int writtenOffset;
+  private final BytesValue written;
+
+  private MemorySnapshot(
+      final MemorySnapshot previous,
+      final int size,
+      final int writtenOffset,
+      final BytesValue written) {
+    checkArgument(size % Bytes32.SIZE == 0, "Memory size must be a whole number of words");
+    checkArgument(writtenOffset + written.size() <= size, "Written bytes exceed memory size");
+    this.previous = previous;
+    this.size = size;
+    this.writtenOffset = writtenOffset;
+    this.written = written;
+  }
+
+  /**
+   * Creates the first snapshot of a message frame's memory.
+   *
+   * @param contents the full memory contents, a whole number of words
+   * @return the snapshot
+   */
+  public static MemorySnapshot create(final BytesValue contents) {
+    return new MemorySnapshot(null, contents.size(), 0, contents);
+  }
+
+  /**
+   * Creates a snapshot holding the given words.
+   *
+   * @param words the memory contents
+   * @return the snapshot
+   */
+  public static MemorySnapshot of(final Bytes32[] words) {
+    return create(BytesValues.concatenate(words));
+  }
+
+  /**
+   * Creates the snapshot following this one.
+   *
+   * @param size the memory size in bytes, which never shrinks within a message frame
+   * @param writtenOffset the offset of the first byte written since this snapshot
+   * @param written the bytes written since this snapshot, including any unchanged bytes between
+   *     written ones
+   * @return the following snapshot
+   */
+  public MemorySnapshot update(final int size, final int writtenOffset, final BytesValue written) {
+    checkArgument(size >= this.size, "Memory cannot shrink");
+    return new MemorySnapshot(this, size, writtenOffset, written);
+  }
+
+  /**
+   * Returns the memory size.
+   *
+   * @return the memory size in bytes
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes held by this snapshot alone.
+   *
+   * @return the number of bytes held by this snapshot
+   */
+  public int getRecordedSize() {
+    return written.size();
+  }
+
+  /**
+   * Rebuilds the full memory contents.
+   *
+   * <p>This replays every snapshot since the first of the message frame; use a {@link Reader} to
+   * rebuild the memory of consecutive steps.
+   *
+   * @return the memory contents as words
+   */
+  public Bytes32[] toWords() {
+    return new Reader().read(0, this);
+  }
+
+  /**
+   * Rebuilds the memory of the steps of a trace in order, replaying only the bytes written since
+   * the previous step read at the same call depth.
+   */
+  public static class Reader {
+
+    private final Map<Integer, Image> images = new HashMap<>();
+
+    public Bytes32[] read(final int depth, final MemorySnapshot snapshot) {
+      final Image image = images.computeIfAbsent(depth, d -> new Image());
+      final Deque<MemorySnapshot> pending = new ArrayDeque<>();
+      MemorySnapshot current = snapshot;
+      while (current != null && current != image.last) {
+        pending.push(current);
+        current = current.previous;
+      }
+      if (current == null) {
+        // A new message frame at this depth, so start from its first snapshot.
+        image.data = new byte[0];
+      }
+      while (!pending.isEmpty()) {
+        image.apply(pending.pop());
+      }
+      image.last = snapshot;
+      return image.words(snapshot.size);
+    }
+  }
+
+  private static class Image {
+
+    private byte[] data = new byte[0];
+    private MemorySnapshot last;
+
+    private void apply(final MemorySnapshot snapshot) {
+      if (data.length < snapshot.size) {
+        data = Arrays.copyOf(data, snapshot.size);
+      }
+      snapshot.written.copyTo(MutableBytesValue.wrap(data), snapshot.writtenOffset);
+    }
+
+    private Bytes32[] words(final int size) {
+      final Bytes32[] words = new Bytes32[size / Bytes32.SIZE];
+      for (int i = 0; i < words.length; i++) {
+        words[i] = Bytes32.wrap(Arrays.copyOfRange(data, i * Bytes32.SIZE, (i + 1) * Bytes32.SIZE));
+      }
+      return words;
+    }
+  }
+}
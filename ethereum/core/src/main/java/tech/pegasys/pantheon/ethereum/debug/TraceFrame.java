@@ -32,7 +32,7 @@ public class TraceFrame {
   private final int depth;
   private final EnumSet<ExceptionalHaltReason> exceptionalHaltReasons;
   private final Optional<Bytes32[]> stack;
-  private final Optional<Bytes32[]> memory;
+  private final Optional<MemorySnapshot> memory;
   private final Optional<Map<UInt256, UInt256>> storage;
 
   public TraceFrame(
@@ -43,7 +43,7 @@ public class TraceFrame {
       final int depth,
       final EnumSet<ExceptionalHaltReason> exceptionalHaltReasons,
       final Optional<Bytes32[]> stack,
-      final Optional<Bytes32[]> memory,
+      final Optional<MemorySnapshot> memory,
       final Optional<Map<UInt256, UInt256>> storage) {
     this.pc = pc;
     this.opcode = opcode;
@@ -85,6 +85,10 @@ public class TraceFrame {
   }
 
   public Optional<Bytes32[]> getMemory() {
+    return memory.map(MemorySnapshot::toWords);
+  }
+
+  public Optional<MemorySnapshot> getMemorySnapshot() {
     return memory;
   }
 
@@ -102,7 +106,7 @@ public class TraceFrame {
         .add("depth", depth)
         .add("exceptionalHaltReasons", exceptionalHaltReasons)
         .add("stack", stack)
-        .add("memory", memory)
+        .add("memory", getMemory())
         .add("storage", storage)
         .toString();
   }
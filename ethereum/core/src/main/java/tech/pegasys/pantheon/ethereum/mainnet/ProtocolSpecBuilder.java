@@ -22,6 +22,7 @@ import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
 import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockProcessor.TransactionReceiptFactory;
 import tech.pegasys.pantheon.ethereum.mainnet.precompiles.privacy.PrivacyPrecompiledContract;
+import tech.pegasys.pantheon.ethereum.privacy.PrivacyBlockProcessor;
 import tech.pegasys.pantheon.ethereum.privacy.PrivateTransactionProcessor;
 import tech.pegasys.pantheon.ethereum.vm.EVM;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
@@ -268,29 +269,32 @@ public class ProtocolSpecBuilder<T> {
         transactionProcessorBuilder.apply(
             gasCalculator, transactionValidator, contractCreationProcessor, messageCallProcessor);
 
-    // Set private Tx Processor
-    if (privacyParameters.isEnabled()) {
-      final PrivateTransactionProcessor privateTransactionProcessor =
-          privateTransactionProcessorBuilder.apply(
-              gasCalculator, transactionValidator, contractCreationProcessor, messageCallProcessor);
-      Address address = Address.privacyPrecompiled(privacyParameters.getPrivacyAddress());
-      PrivacyPrecompiledContract privacyPrecompiledContract =
-          (PrivacyPrecompiledContract) precompileContractRegistry.get(address);
-      privacyPrecompiledContract.setPrivateTransactionProcessor(privateTransactionProcessor);
-    }
-
     final BlockHeaderValidator<T> blockHeaderValidator =
         blockHeaderValidatorBuilder.apply(difficultyCalculator);
     final BlockHeaderValidator<T> ommerHeaderValidator =
         ommerHeaderValidatorBuilder.apply(difficultyCalculator);
     final BlockBodyValidator<T> blockBodyValidator =
         blockBodyValidatorBuilder.apply(protocolSchedule);
-    final BlockProcessor blockProcessor =
+    BlockProcessor blockProcessor =
         blockProcessorBuilder.apply(
             transactionProcessor,
             transactionReceiptFactory,
             blockReward,
             miningBeneficiaryCalculator);
+
+    // Set private Tx Processor
+    if (privacyParameters.isEnabled()) {
+      final PrivateTransactionProcessor privateTransactionProcessor =
+          privateTransactionProcessorBuilder.apply(
+              gasCalculator, transactionValidator, contractCreationProcessor, messageCallProcessor);
+      Address address = Address.privacyPrecompiled(privacyParameters.getPrivacyAddress());
+      PrivacyPrecompiledContract privacyPrecompiledContract =
+          (PrivacyPrecompiledContract) precompileContractRegistry.get(address);
+      privacyPrecompiledContract.setPrivateTransactionProcessor(privateTransactionProcessor);
+      blockProcessor =
+          new PrivacyBlockProcessor(blockProcessor, address, privacyPrecompiledContract);
+    }
+
     final BlockValidator<T> blockValidator =
         blockValidatorBuilder.apply(blockHeaderValidator, blockBodyValidator, blockProcessor);
     final BlockImporter<T> blockImporter = blockImporterBuilder.apply(blockValidator);
@@ -17,8 +17,11 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import tech.pegasys.pantheon.enclave.Enclave;
 import tech.pegasys.pantheon.enclave.types.ReceiveRequest;
 import tech.pegasys.pantheon.enclave.types.ReceiveResponse;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
+import tech.pegasys.pantheon.ethereum.core.ProcessableBlockHeader;
 import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
 import tech.pegasys.pantheon.ethereum.mainnet.AbstractPrecompiledContract;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
@@ -31,6 +34,12 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.IOException;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,6 +49,9 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
   private final String enclavePublicKey;
   private PrivateTransactionProcessor privateTransactionProcessor;
   private Integer DEFAULT_PRIVACY_GROUP_ID = 0;
+  // Keyed by block hash, as the contract is shared by all the blocks being processed
+  private final Map<Hash, Map<String, CompletableFuture<ReceiveResponse>>> prefetchedPayloads =
+      new ConcurrentHashMap<>();
 
   private static final Logger LOG = LogManager.getLogger();
 
@@ -60,6 +72,38 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
     this.privateTransactionProcessor = privateTransactionProcessor;
   }
 
+  /**
+   * Starts retrieving the private transactions referenced by the given privacy marker transaction
+   * payloads from the enclave, all at once, so that executing the marker transactions later on does
+   * not wait for one enclave round trip after another.
+   *
+   * @param blockHash the hash of the block containing the privacy marker transactions
+   * @param inputs the payloads of privacy marker transactions about to be executed
+   */
+  public void prefetch(final Hash blockHash, final Collection<BytesValue> inputs) {
+    final Map<String, CompletableFuture<ReceiveResponse>> blockPayloads =
+        prefetchedPayloads.computeIfAbsent(blockHash, hash -> new ConcurrentHashMap<>());
+    for (final BytesValue input : inputs) {
+      blockPayloads.computeIfAbsent(
+          new String(input.extractArray(), UTF_8),
+          key -> enclave.receiveAsync(new ReceiveRequest(key, enclavePublicKey)));
+    }
+  }
+
+  /**
+   * Discards the payloads fetched by {@link #prefetch(Hash, Collection)} for the block that have
+   * not been used.
+   *
+   * @param blockHash the hash of the block previously passed to {@link #prefetch(Hash, Collection)}
+   */
+  public void discardPrefetched(final Hash blockHash) {
+    final Map<String, CompletableFuture<ReceiveResponse>> blockPayloads =
+        prefetchedPayloads.remove(blockHash);
+    if (blockPayloads != null) {
+      blockPayloads.values().forEach(response -> response.cancel(true));
+    }
+  }
+
   @Override
   public Gas gasRequirement(final BytesValue input) {
     return Gas.of(40_000L); // Not sure
@@ -69,8 +113,12 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
   public BytesValue compute(final BytesValue input, final MessageFrame messageFrame) {
     try {
       String key = new String(input.extractArray(), UTF_8);
-      ReceiveRequest receiveRequest = new ReceiveRequest(key, enclavePublicKey);
-      ReceiveResponse receiveResponse = enclave.receive(receiveRequest);
+      final CompletableFuture<ReceiveResponse> prefetched =
+          removePrefetched(messageFrame.getBlockHeader(), key);
+      ReceiveResponse receiveResponse =
+          prefetched != null
+              ? await(prefetched)
+              : enclave.receive(new ReceiveRequest(key, enclavePublicKey));
 
       final BytesValueRLPInput bytesValueRLPInput =
           new BytesValueRLPInput(
@@ -96,4 +144,27 @@ public class PrivacyPrecompiledContract extends AbstractPrecompiledContract {
       return BytesValue.EMPTY;
     }
   }
+
+  private CompletableFuture<ReceiveResponse> removePrefetched(
+      final ProcessableBlockHeader header, final String key) {
+    // Blocks being created have no hash yet, and are never prefetched
+    if (!(header instanceof BlockHeader)) {
+      return null;
+    }
+    final Map<String, CompletableFuture<ReceiveResponse>> blockPayloads =
+        prefetchedPayloads.get(((BlockHeader) header).getHash());
+    return blockPayloads != null ? blockPayloads.remove(key) : null;
+  }
+
+  private static ReceiveResponse await(final CompletableFuture<ReceiveResponse> response)
+      throws IOException {
+    try {
+      return response.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the enclave", e);
+    } catch (final ExecutionException | CancellationException e) {
+      throw new IOException("Failed to receive private transaction", e.getCause());
+    }
+  }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.privacy;
+
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.mainnet.BlockProcessor;
+import tech.pegasys.pantheon.ethereum.mainnet.precompiles.privacy.PrivacyPrecompiledContract;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link BlockProcessor} which fetches the private transactions of all the privacy marker
+ * transactions in a block from the enclave before processing it.
+ */
+public class PrivacyBlockProcessor implements BlockProcessor {
+
+  private final BlockProcessor blockProcessor;
+  private final Address privacyPrecompileAddress;
+  private final PrivacyPrecompiledContract privacyPrecompiledContract;
+
+  public PrivacyBlockProcessor(
+      final BlockProcessor blockProcessor,
+      final Address privacyPrecompileAddress,
+      final PrivacyPrecompiledContract privacyPrecompiledContract) {
+    this.blockProcessor = blockProcessor;
+    this.privacyPrecompileAddress = privacyPrecompileAddress;
+    this.privacyPrecompiledContract = privacyPrecompiledContract;
+  }
+
+  @Override
+  public Result processBlock(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final List<BlockHeader> ommers) {
+    final Optional<Address> privacyPrecompile = Optional.of(privacyPrecompileAddress);
+    final List<BytesValue> privacyMarkerPayloads =
+        transactions.stream()
+            .filter(transaction -> transaction.getTo().equals(privacyPrecompile))
+            .map(Transaction::getPayload)
+            .collect(Collectors.toList());
+    if (privacyMarkerPayloads.isEmpty()) {
+      return blockProcessor.processBlock(blockchain, worldState, blockHeader, transactions, ommers);
+    }
+
+    privacyPrecompiledContract.prefetch(blockHeader.getHash(), privacyMarkerPayloads);
+    try {
+      return blockProcessor.processBlock(blockchain, worldState, blockHeader, transactions, ommers);
+    } finally {
+      privacyPrecompiledContract.discardPrefetched(blockHeader.getHash());
+    }
+  }
+}
@@ -75,12 +75,20 @@ public class PrivateMutableWorldState implements MutableWorldState {
 
   private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStateTrieNode,
+        rootHash,
+        b -> b,
+        b -> b,
+        worldStateStorage.getAccountStateTrieNodeCache());
   }
 
   private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStorageTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStorageTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStorageTrieNode,
+        rootHash,
+        b -> b,
+        b -> b,
+        worldStateStorage.getAccountStorageTrieNodeCache());
   }
 
   @Override
@@ -12,8 +12,10 @@
  */
 package tech.pegasys.pantheon.ethereum.storage;
 
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsStorage;
 import tech.pegasys.pantheon.ethereum.chain.BlockchainStorage;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshotStorage;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 
 import java.io.Closeable;
@@ -23,4 +25,8 @@ public interface StorageProvider extends Closeable {
   BlockchainStorage createBlockchainStorage(ProtocolSchedule<?> protocolSchedule);
 
   WorldStateStorage createWorldStateStorage();
+
+  BloomBitsStorage createBloomBitsStorage();
+
+  WorldStateSnapshotStorage createWorldStateSnapshotStorage();
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.AccessPattern;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.Segment;
+
+public enum KeyValueSegmentIdentifier implements Segment {
+  BLOCKCHAIN(AccessPattern.SEQUENTIAL),
+  BLOCK_HEADERS(AccessPattern.SEQUENTIAL),
+  BLOCK_BODIES(AccessPattern.SEQUENTIAL),
+  TRANSACTION_RECEIPTS(AccessPattern.SEQUENTIAL),
+  TRANSACTION_LOCATIONS(AccessPattern.POINT_LOOKUP),
+  ACCOUNT_STATE_TRIE(AccessPattern.POINT_LOOKUP),
+  ACCOUNT_STORAGE_TRIE(AccessPattern.POINT_LOOKUP),
+  CODE(AccessPattern.POINT_LOOKUP),
+  BLOOM_BITS(AccessPattern.SEQUENTIAL),
+  WORLD_STATE_SNAPSHOT(AccessPattern.POINT_LOOKUP);
+
+  private final AccessPattern accessPattern;
+
+  KeyValueSegmentIdentifier(final AccessPattern accessPattern) {
+    this.accessPattern = accessPattern;
+  }
+
+  @Override
+  public String getName() {
+    return name().toLowerCase();
+  }
+
+  @Override
+  public AccessPattern getAccessPattern() {
+    return accessPattern;
+  }
+}
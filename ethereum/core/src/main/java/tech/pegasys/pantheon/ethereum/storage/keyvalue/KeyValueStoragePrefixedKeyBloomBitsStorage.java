@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsStorage;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.uint.UInt256Bytes;
+
+import java.util.Optional;
+
+public class KeyValueStoragePrefixedKeyBloomBitsStorage implements BloomBitsStorage {
+
+  // Prefixes 1 to 7 are used by KeyValueStoragePrefixedKeyBlockchainStorage
+  private static final BytesValue SECTION_HEAD_PREFIX = BytesValue.of(8);
+  private static final BytesValue BIT_VECTOR_PREFIX = BytesValue.of(9);
+
+  private final KeyValueStorage storage;
+
+  public KeyValueStoragePrefixedKeyBloomBitsStorage(final KeyValueStorage storage) {
+    this.storage = storage;
+  }
+
+  @Override
+  public Optional<Hash> getSectionHead(final long section) {
+    return storage.get(sectionHeadKey(section)).map(bytes -> Hash.wrap(Bytes32.wrap(bytes, 0)));
+  }
+
+  @Override
+  public Optional<BytesValue> getBitVector(final long section, final int bit) {
+    return storage.get(bitVectorKey(section, bit));
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(storage.startTransaction());
+  }
+
+  private static BytesValue sectionHeadKey(final long section) {
+    return BytesValues.concatenate(SECTION_HEAD_PREFIX, UInt256Bytes.of(section));
+  }
+
+  private static BytesValue bitVectorKey(final long section, final int bit) {
+    return BytesValues.concatenate(
+        BIT_VECTOR_PREFIX, UInt256Bytes.of(section), BytesValues.ofUnsignedShort(bit));
+  }
+
+  public static class Updater implements BloomBitsStorage.Updater {
+
+    private final KeyValueStorage.Transaction transaction;
+
+    private Updater(final KeyValueStorage.Transaction transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public void putSectionHead(final long section, final Hash sectionHead) {
+      transaction.put(sectionHeadKey(section), sectionHead);
+    }
+
+    @Override
+    public void putBitVector(final long section, final int bit, final BytesValue bitVector) {
+      transaction.put(bitVectorKey(section, bit), bitVector);
+    }
+
+    @Override
+    public void removeBitVector(final long section, final int bit) {
+      transaction.remove(bitVectorKey(section, bit));
+    }
+
+    @Override
+    public void commit() {
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshotStorage;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class KeyValueStoragePrefixedKeyWorldStateSnapshotStorage
+    implements WorldStateSnapshotStorage {
+
+  // Prefixes 1 to 7 are used by KeyValueStoragePrefixedKeyBlockchainStorage and 8 to 9 by
+  // KeyValueStoragePrefixedKeyBloomBitsStorage
+  private static final BytesValue DISK_LAYER_ROOT_KEY = BytesValue.of(10);
+  private static final BytesValue ACCOUNT_PREFIX = BytesValue.of(11);
+  private static final BytesValue STORAGE_PREFIX = BytesValue.of(12);
+  private static final BytesValue DIFF_LAYER_ROOTS_KEY = BytesValue.of(13);
+  private static final BytesValue DIFF_LAYER_PREFIX = BytesValue.of(14);
+
+  private final KeyValueStorage storage;
+
+  public KeyValueStoragePrefixedKeyWorldStateSnapshotStorage(final KeyValueStorage storage) {
+    this.storage = storage;
+  }
+
+  @Override
+  public Optional<Hash> getDiskLayerRoot() {
+    return storage.get(DISK_LAYER_ROOT_KEY).map(bytes -> Hash.wrap(Bytes32.wrap(bytes, 0)));
+  }
+
+  @Override
+  public Optional<BytesValue> getAccount(final Hash accountHash) {
+    return storage.get(BytesValues.concatenate(ACCOUNT_PREFIX, accountHash));
+  }
+
+  @Override
+  public Optional<BytesValue> getStorageValue(
+      final Hash accountHash, final long incarnation, final Hash slotHash) {
+    return storage.get(storageKey(accountHash, incarnation, slotHash));
+  }
+
+  @Override
+  public List<Hash> getDiffLayerRoots() {
+    return storage
+        .get(DIFF_LAYER_ROOTS_KEY)
+        .map(KeyValueStoragePrefixedKeyWorldStateSnapshotStorage::decodeRoots)
+        .orElse(Collections.emptyList());
+  }
+
+  @Override
+  public Optional<BytesValue> getDiffLayer(final Hash root) {
+    return storage.get(BytesValues.concatenate(DIFF_LAYER_PREFIX, root));
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(storage.startTransaction());
+  }
+
+  private static BytesValue storageKey(
+      final Hash accountHash, final long incarnation, final Hash slotHash) {
+    return BytesValues.concatenate(
+        STORAGE_PREFIX, accountHash, BytesValues.ofUnsignedInt(incarnation), slotHash);
+  }
+
+  static BytesValue encodeRoots(final List<Hash> roots) {
+    return BytesValues.concatenate(roots.toArray(new BytesValue[0]));
+  }
+
+  static List<Hash> decodeRoots(final BytesValue encoded) {
+    final List<Hash> roots = new ArrayList<>(encoded.size() / Bytes32.SIZE);
+    for (int i = 0; i < encoded.size(); i += Bytes32.SIZE) {
+      roots.add(Hash.wrap(Bytes32.wrap(encoded, i)));
+    }
+    return roots;
+  }
+
+  public static class Updater implements WorldStateSnapshotStorage.Updater {
+
+    private final KeyValueStorage.Transaction transaction;
+
+    private Updater(final KeyValueStorage.Transaction transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public void putDiskLayerRoot(final Hash root) {
+      transaction.put(DISK_LAYER_ROOT_KEY, root);
+    }
+
+    @Override
+    public void removeDiskLayerRoot() {
+      transaction.remove(DISK_LAYER_ROOT_KEY);
+    }
+
+    @Override
+    public void putAccount(final Hash accountHash, final BytesValue account) {
+      transaction.put(BytesValues.concatenate(ACCOUNT_PREFIX, accountHash), account);
+    }
+
+    @Override
+    public void putStorageValue(
+        final Hash accountHash,
+        final long incarnation,
+        final Hash slotHash,
+        final BytesValue value) {
+      transaction.put(storageKey(accountHash, incarnation, slotHash), value);
+    }
+
+    @Override
+    public void removeStorageValue(
+        final Hash accountHash, final long incarnation, final Hash slotHash) {
+      transaction.remove(storageKey(accountHash, incarnation, slotHash));
+    }
+
+    @Override
+    public void putDiffLayerRoots(final List<Hash> roots) {
+      transaction.put(DIFF_LAYER_ROOTS_KEY, encodeRoots(roots));
+    }
+
+    @Override
+    public void putDiffLayer(final Hash root, final BytesValue diffLayer) {
+      transaction.put(BytesValues.concatenate(DIFF_LAYER_PREFIX, root), diffLayer);
+    }
+
+    @Override
+    public void removeDiffLayer(final Hash root) {
+      transaction.remove(BytesValues.concatenate(DIFF_LAYER_PREFIX, root));
+    }
+
+    @Override
+    public void commit() {
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+  }
+}
@@ -12,10 +12,12 @@
  */
 package tech.pegasys.pantheon.ethereum.storage.keyvalue;
 
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsStorage;
 import tech.pegasys.pantheon.ethereum.chain.BlockchainStorage;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ScheduleBasedBlockHashFunction;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshotStorage;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
 
@@ -40,6 +42,16 @@ public class KeyValueStorageProvider implements StorageProvider {
     return new KeyValueStorageWorldStateStorage(keyValueStorage);
   }
 
+  @Override
+  public BloomBitsStorage createBloomBitsStorage() {
+    return new KeyValueStoragePrefixedKeyBloomBitsStorage(keyValueStorage);
+  }
+
+  @Override
+  public WorldStateSnapshotStorage createWorldStateSnapshotStorage() {
+    return new KeyValueStoragePrefixedKeyWorldStateSnapshotStorage(keyValueStorage);
+  }
+
   @Override
   public void close() throws IOException {
     keyValueStorage.close();
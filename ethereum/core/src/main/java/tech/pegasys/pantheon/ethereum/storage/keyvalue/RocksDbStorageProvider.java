@@ -14,19 +14,51 @@ package tech.pegasys.pantheon.ethereum.storage.keyvalue;
 
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.ColumnarRocksDbKeyValueStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
 import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class RocksDbStorageProvider {
 
+  private static final Logger LOG = LogManager.getLogger();
+
+  /**
+   * Opens the database in the given directory, creating it with one column family per data segment
+   * if it does not exist yet. Databases created before column families were introduced are still
+   * opened as a single prefixed keyspace.
+   */
   public static StorageProvider create(final Path databaseDir, final MetricsSystem metricsSystem)
       throws IOException {
+    return create(databaseDir, RocksDbConfiguration.builder().build(), metricsSystem);
+  }
+
+  public static StorageProvider create(
+      final Path databaseDir,
+      final RocksDbConfiguration rocksDbConfiguration,
+      final MetricsSystem metricsSystem)
+      throws IOException {
+    final Path storageDirectory = Files.createDirectories(databaseDir);
+    if (ColumnarRocksDbKeyValueStorage.isColumnarDatabase(storageDirectory)) {
+      return new SegmentedKeyValueStorageProvider<>(
+          ColumnarRocksDbKeyValueStorage.create(
+              storageDirectory,
+              Arrays.asList(KeyValueSegmentIdentifier.values()),
+              rocksDbConfiguration,
+              metricsSystem));
+    }
+
+    LOG.info("Using single keyspace storage for existing database at {}", storageDirectory);
     final KeyValueStorage kv =
-        RocksDbKeyValueStorage.create(Files.createDirectories(databaseDir), metricsSystem);
+        RocksDbKeyValueStorage.create(storageDirectory, rocksDbConfiguration, metricsSystem);
     return new KeyValueStorageProvider(kv);
   }
 }
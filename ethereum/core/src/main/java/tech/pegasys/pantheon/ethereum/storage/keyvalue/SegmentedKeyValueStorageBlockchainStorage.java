@@ -0,0 +1,227 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN;
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCK_BODIES;
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCK_HEADERS;
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRANSACTION_LOCATIONS;
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRANSACTION_RECEIPTS;
+
+import tech.pegasys.pantheon.ethereum.chain.BlockchainStorage;
+import tech.pegasys.pantheon.ethereum.chain.TransactionLocation;
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
+import tech.pegasys.pantheon.ethereum.core.BlockHashFunction;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.uint.UInt256;
+import tech.pegasys.pantheon.util.uint.UInt256Bytes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Blockchain storage which keeps headers, bodies, receipts and transaction locations in separate
+ * segments of a {@link SegmentedKeyValueStorage}. The remaining chain indexes share the {@link
+ * KeyValueSegmentIdentifier#BLOCKCHAIN} segment and are distinguished by key prefix.
+ */
+public class SegmentedKeyValueStorageBlockchainStorage<S> implements BlockchainStorage {
+
+  private static final BytesValue CHAIN_HEAD_KEY =
+      BytesValue.wrap("chainHeadHash".getBytes(StandardCharsets.UTF_8));
+  private static final BytesValue FORK_HEADS_KEY =
+      BytesValue.wrap("forkHeads".getBytes(StandardCharsets.UTF_8));
+
+  private static final BytesValue CONSTANTS_PREFIX = BytesValue.of(1);
+  private static final BytesValue BLOCK_HASH_PREFIX = BytesValue.of(5);
+  private static final BytesValue TOTAL_DIFFICULTY_PREFIX = BytesValue.of(6);
+
+  private final SegmentedKeyValueStorage<S> storage;
+  private final BlockHashFunction blockHashFunction;
+  private final S chainSegment;
+  private final S headerSegment;
+  private final S bodySegment;
+  private final S receiptSegment;
+  private final S transactionLocationSegment;
+
+  public SegmentedKeyValueStorageBlockchainStorage(
+      final SegmentedKeyValueStorage<S> storage, final BlockHashFunction blockHashFunction) {
+    this.storage = storage;
+    this.blockHashFunction = blockHashFunction;
+    this.chainSegment = storage.getSegmentIdentifierByName(BLOCKCHAIN);
+    this.headerSegment = storage.getSegmentIdentifierByName(BLOCK_HEADERS);
+    this.bodySegment = storage.getSegmentIdentifierByName(BLOCK_BODIES);
+    this.receiptSegment = storage.getSegmentIdentifierByName(TRANSACTION_RECEIPTS);
+    this.transactionLocationSegment = storage.getSegmentIdentifierByName(TRANSACTION_LOCATIONS);
+  }
+
+  @Override
+  public Optional<Hash> getChainHead() {
+    return getChainValue(CONSTANTS_PREFIX, CHAIN_HEAD_KEY).map(this::bytesToHash);
+  }
+
+  @Override
+  public Collection<Hash> getForkHeads() {
+    return getChainValue(CONSTANTS_PREFIX, FORK_HEADS_KEY)
+        .map(bytes -> RLP.input(bytes).readList(in -> this.bytesToHash(in.readBytes32())))
+        .orElse(Lists.newArrayList());
+  }
+
+  @Override
+  public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
+    return storage
+        .get(headerSegment, blockHash)
+        .map(b -> BlockHeader.readFrom(RLP.input(b), blockHashFunction));
+  }
+
+  @Override
+  public Optional<BlockBody> getBlockBody(final Hash blockHash) {
+    return storage
+        .get(bodySegment, blockHash)
+        .map(bytesValue -> BlockBody.readFrom(RLP.input(bytesValue), blockHashFunction));
+  }
+
+  @Override
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
+    return storage.get(receiptSegment, blockHash).map(this::rlpDecodeTransactionReceipts);
+  }
+
+  @Override
+  public Optional<Hash> getBlockHash(final long blockNumber) {
+    return getChainValue(BLOCK_HASH_PREFIX, UInt256Bytes.of(blockNumber)).map(this::bytesToHash);
+  }
+
+  @Override
+  public Optional<UInt256> getTotalDifficulty(final Hash blockHash) {
+    return getChainValue(TOTAL_DIFFICULTY_PREFIX, blockHash)
+        .map(b -> UInt256.wrap(Bytes32.wrap(b, 0)));
+  }
+
+  @Override
+  public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return storage
+        .get(transactionLocationSegment, transactionHash)
+        .map(bytesValue -> TransactionLocation.readFrom(RLP.input(bytesValue)));
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(storage.startTransaction());
+  }
+
+  private List<TransactionReceipt> rlpDecodeTransactionReceipts(final BytesValue bytes) {
+    return RLP.input(bytes).readList(TransactionReceipt::readFrom);
+  }
+
+  private Hash bytesToHash(final BytesValue bytesValue) {
+    return Hash.wrap(Bytes32.wrap(bytesValue, 0));
+  }
+
+  private Optional<BytesValue> getChainValue(final BytesValue prefix, final BytesValue key) {
+    return storage.get(chainSegment, BytesValues.concatenate(prefix, key));
+  }
+
+  public class Updater implements BlockchainStorage.Updater {
+
+    private final SegmentedKeyValueStorage.Transaction<S> transaction;
+
+    private Updater(final SegmentedKeyValueStorage.Transaction<S> transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public void putBlockHeader(final Hash blockHash, final BlockHeader blockHeader) {
+      transaction.put(headerSegment, blockHash, RLP.encode(blockHeader::writeTo));
+    }
+
+    @Override
+    public void putBlockBody(final Hash blockHash, final BlockBody blockBody) {
+      transaction.put(bodySegment, blockHash, RLP.encode(blockBody::writeTo));
+    }
+
+    @Override
+    public void putTransactionLocation(
+        final Hash transactionHash, final TransactionLocation transactionLocation) {
+      transaction.put(
+          transactionLocationSegment, transactionHash, RLP.encode(transactionLocation::writeTo));
+    }
+
+    @Override
+    public void putTransactionReceipts(
+        final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
+      transaction.put(receiptSegment, blockHash, rlpEncode(transactionReceipts));
+    }
+
+    @Override
+    public void putBlockHash(final long blockNumber, final Hash blockHash) {
+      setChainValue(BLOCK_HASH_PREFIX, UInt256Bytes.of(blockNumber), blockHash);
+    }
+
+    @Override
+    public void putTotalDifficulty(final Hash blockHash, final UInt256 totalDifficulty) {
+      setChainValue(TOTAL_DIFFICULTY_PREFIX, blockHash, totalDifficulty.getBytes());
+    }
+
+    @Override
+    public void setChainHead(final Hash blockHash) {
+      setChainValue(CONSTANTS_PREFIX, CHAIN_HEAD_KEY, blockHash);
+    }
+
+    @Override
+    public void setForkHeads(final Collection<Hash> forkHeadHashes) {
+      final BytesValue data =
+          RLP.encode(o -> o.writeList(forkHeadHashes, (val, out) -> out.writeBytesValue(val)));
+      setChainValue(CONSTANTS_PREFIX, FORK_HEADS_KEY, data);
+    }
+
+    @Override
+    public void removeBlockHash(final long blockNumber) {
+      transaction.remove(
+          chainSegment, BytesValues.concatenate(BLOCK_HASH_PREFIX, UInt256Bytes.of(blockNumber)));
+    }
+
+    @Override
+    public void removeTransactionLocation(final Hash transactionHash) {
+      transaction.remove(transactionLocationSegment, transactionHash);
+    }
+
+    @Override
+    public void commit() {
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+
+    private void setChainValue(
+        final BytesValue prefix, final BytesValue key, final BytesValue value) {
+      transaction.put(chainSegment, BytesValues.concatenate(prefix, key), value);
+    }
+
+    private BytesValue rlpEncode(final List<TransactionReceipt> receipts) {
+      return RLP.encode(o -> o.writeList(receipts, TransactionReceipt::writeTo));
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOOM_BITS;
+
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsStorage;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.uint.UInt256Bytes;
+
+import java.util.Optional;
+
+/**
+ * Bloom bits storage which keeps the index in its own segment of a {@link
+ * SegmentedKeyValueStorage}.
+ */
+public class SegmentedKeyValueStorageBloomBitsStorage<S> implements BloomBitsStorage {
+
+  private static final BytesValue SECTION_HEAD_PREFIX = BytesValue.of(1);
+  private static final BytesValue BIT_VECTOR_PREFIX = BytesValue.of(2);
+
+  private final SegmentedKeyValueStorage<S> storage;
+  private final S bloomBitsSegment;
+
+  public SegmentedKeyValueStorageBloomBitsStorage(final SegmentedKeyValueStorage<S> storage) {
+    this.storage = storage;
+    this.bloomBitsSegment = storage.getSegmentIdentifierByName(BLOOM_BITS);
+  }
+
+  @Override
+  public Optional<Hash> getSectionHead(final long section) {
+    return storage
+        .get(bloomBitsSegment, sectionHeadKey(section))
+        .map(bytes -> Hash.wrap(Bytes32.wrap(bytes, 0)));
+  }
+
+  @Override
+  public Optional<BytesValue> getBitVector(final long section, final int bit) {
+    return storage.get(bloomBitsSegment, bitVectorKey(section, bit));
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(storage.startTransaction());
+  }
+
+  private static BytesValue sectionHeadKey(final long section) {
+    return BytesValues.concatenate(SECTION_HEAD_PREFIX, UInt256Bytes.of(section));
+  }
+
+  private static BytesValue bitVectorKey(final long section, final int bit) {
+    return BytesValues.concatenate(
+        BIT_VECTOR_PREFIX, UInt256Bytes.of(section), BytesValues.ofUnsignedShort(bit));
+  }
+
+  public class Updater implements BloomBitsStorage.Updater {
+
+    private final SegmentedKeyValueStorage.Transaction<S> transaction;
+
+    private Updater(final SegmentedKeyValueStorage.Transaction<S> transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public void putSectionHead(final long section, final Hash sectionHead) {
+      transaction.put(bloomBitsSegment, sectionHeadKey(section), sectionHead);
+    }
+
+    @Override
+    public void putBitVector(final long section, final int bit, final BytesValue bitVector) {
+      transaction.put(bloomBitsSegment, bitVectorKey(section, bit), bitVector);
+    }
+
+    @Override
+    public void removeBitVector(final long section, final int bit) {
+      transaction.remove(bloomBitsSegment, bitVectorKey(section, bit));
+    }
+
+    @Override
+    public void commit() {
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+  }
+}
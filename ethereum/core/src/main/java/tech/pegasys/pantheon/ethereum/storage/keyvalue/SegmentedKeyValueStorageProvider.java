@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsStorage;
+import tech.pegasys.pantheon.ethereum.chain.BlockchainStorage;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.mainnet.ScheduleBasedBlockHashFunction;
+import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshotStorage;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage;
+
+import java.io.IOException;
+
+public class SegmentedKeyValueStorageProvider<S> implements StorageProvider {
+
+  private final SegmentedKeyValueStorage<S> segmentedKeyValueStorage;
+
+  public SegmentedKeyValueStorageProvider(
+      final SegmentedKeyValueStorage<S> segmentedKeyValueStorage) {
+    this.segmentedKeyValueStorage = segmentedKeyValueStorage;
+  }
+
+  @Override
+  public BlockchainStorage createBlockchainStorage(final ProtocolSchedule<?> protocolSchedule) {
+    return new SegmentedKeyValueStorageBlockchainStorage<>(
+        segmentedKeyValueStorage, ScheduleBasedBlockHashFunction.create(protocolSchedule));
+  }
+
+  @Override
+  public WorldStateStorage createWorldStateStorage() {
+    return new SegmentedKeyValueStorageWorldStateStorage<>(segmentedKeyValueStorage);
+  }
+
+  @Override
+  public BloomBitsStorage createBloomBitsStorage() {
+    return new SegmentedKeyValueStorageBloomBitsStorage<>(segmentedKeyValueStorage);
+  }
+
+  @Override
+  public WorldStateSnapshotStorage createWorldStateSnapshotStorage() {
+    return new SegmentedKeyValueStorageWorldStateSnapshotStorage<>(segmentedKeyValueStorage);
+  }
+
+  @Override
+  public void close() throws IOException {
+    segmentedKeyValueStorage.close();
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.WORLD_STATE_SNAPSHOT;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshotStorage;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * World state snapshot storage which keeps the snapshot in its own segment of a {@link
+ * SegmentedKeyValueStorage}.
+ */
+public class SegmentedKeyValueStorageWorldStateSnapshotStorage<S>
+    implements WorldStateSnapshotStorage {
+
+  private static final BytesValue DISK_LAYER_ROOT_KEY = BytesValue.of(1);
+  private static final BytesValue ACCOUNT_PREFIX = BytesValue.of(2);
+  private static final BytesValue STORAGE_PREFIX = BytesValue.of(3);
+  private static final BytesValue DIFF_LAYER_ROOTS_KEY = BytesValue.of(4);
+  private static final BytesValue DIFF_LAYER_PREFIX = BytesValue.of(5);
+
+  private final SegmentedKeyValueStorage<S> storage;
+  private final S snapshotSegment;
+
+  public SegmentedKeyValueStorageWorldStateSnapshotStorage(
+      final SegmentedKeyValueStorage<S> storage) {
+    this.storage = storage;
+    this.snapshotSegment = storage.getSegmentIdentifierByName(WORLD_STATE_SNAPSHOT);
+  }
+
+  @Override
+  public Optional<Hash> getDiskLayerRoot() {
+    return storage
+        .get(snapshotSegment, DISK_LAYER_ROOT_KEY)
+        .map(bytes -> Hash.wrap(Bytes32.wrap(bytes, 0)));
+  }
+
+  @Override
+  public Optional<BytesValue> getAccount(final Hash accountHash) {
+    return storage.get(snapshotSegment, BytesValues.concatenate(ACCOUNT_PREFIX, accountHash));
+  }
+
+  @Override
+  public Optional<BytesValue> getStorageValue(
+      final Hash accountHash, final long incarnation, final Hash slotHash) {
+    return storage.get(snapshotSegment, storageKey(accountHash, incarnation, slotHash));
+  }
+
+  @Override
+  public List<Hash> getDiffLayerRoots() {
+    return storage
+        .get(snapshotSegment, DIFF_LAYER_ROOTS_KEY)
+        .map(KeyValueStoragePrefixedKeyWorldStateSnapshotStorage::decodeRoots)
+        .orElse(Collections.emptyList());
+  }
+
+  @Override
+  public Optional<BytesValue> getDiffLayer(final Hash root) {
+    return storage.get(snapshotSegment, BytesValues.concatenate(DIFF_LAYER_PREFIX, root));
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(storage.startTransaction());
+  }
+
+  private static BytesValue storageKey(
+      final Hash accountHash, final long incarnation, final Hash slotHash) {
+    return BytesValues.concatenate(
+        STORAGE_PREFIX, accountHash, BytesValues.ofUnsignedInt(incarnation), slotHash);
+  }
+
+  public class Updater implements WorldStateSnapshotStorage.Updater {
+
+    private final SegmentedKeyValueStorage.Transaction<S> transaction;
+
+    private Updater(final SegmentedKeyValueStorage.Transaction<S> transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public void putDiskLayerRoot(final Hash root) {
+      transaction.put(snapshotSegment, DISK_LAYER_ROOT_KEY, root);
+    }
+
+    @Override
+    public void removeDiskLayerRoot() {
+      transaction.remove(snapshotSegment, DISK_LAYER_ROOT_KEY);
+    }
+
+    @Override
+    public void putAccount(final Hash accountHash, final BytesValue account) {
+      transaction.put(
+          snapshotSegment, BytesValues.concatenate(ACCOUNT_PREFIX, accountHash), account);
+    }
+
+    @Override
+    public void putStorageValue(
+        final Hash accountHash,
+        final long incarnation,
+        final Hash slotHash,
+        final BytesValue value) {
+      transaction.put(snapshotSegment, storageKey(accountHash, incarnation, slotHash), value);
+    }
+
+    @Override
+    public void removeStorageValue(
+        final Hash accountHash, final long incarnation, final Hash slotHash) {
+      transaction.remove(snapshotSegment, storageKey(accountHash, incarnation, slotHash));
+    }
+
+    @Override
+    public void putDiffLayerRoots(final List<Hash> roots) {
+      transaction.put(
+          snapshotSegment,
+          DIFF_LAYER_ROOTS_KEY,
+          KeyValueStoragePrefixedKeyWorldStateSnapshotStorage.encodeRoots(roots));
+    }
+
+    @Override
+    public void putDiffLayer(final Hash root, final BytesValue diffLayer) {
+      transaction.put(snapshotSegment, BytesValues.concatenate(DIFF_LAYER_PREFIX, root), diffLayer);
+    }
+
+    @Override
+    public void removeDiffLayer(final Hash root) {
+      transaction.remove(snapshotSegment, BytesValues.concatenate(DIFF_LAYER_PREFIX, root));
+    }
+
+    @Override
+    public void commit() {
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+  }
+}
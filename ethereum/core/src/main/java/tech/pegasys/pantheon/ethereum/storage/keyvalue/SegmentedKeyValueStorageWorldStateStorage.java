@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STATE_TRIE;
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_TRIE;
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.CODE;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+
+/**
+ * World state storage which keeps account trie nodes, storage trie nodes and code in separate
+ * segments of a {@link SegmentedKeyValueStorage}.
+ */
+public class SegmentedKeyValueStorageWorldStateStorage<S> implements WorldStateStorage {
+
+  private final SegmentedKeyValueStorage<S> storage;
+  private final S accountStateTrieSegment;
+  private final S accountStorageTrieSegment;
+  private final S codeSegment;
+
+  public SegmentedKeyValueStorageWorldStateStorage(final SegmentedKeyValueStorage<S> storage) {
+    this.storage = storage;
+    this.accountStateTrieSegment = storage.getSegmentIdentifierByName(ACCOUNT_STATE_TRIE);
+    this.accountStorageTrieSegment = storage.getSegmentIdentifierByName(ACCOUNT_STORAGE_TRIE);
+    this.codeSegment = storage.getSegmentIdentifierByName(CODE);
+  }
+
+  @Override
+  public Optional<BytesValue> getCode(final Bytes32 codeHash) {
+    if (codeHash.equals(Hash.EMPTY)) {
+      return Optional.of(BytesValue.EMPTY);
+    } else {
+      return storage.get(codeSegment, codeHash);
+    }
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStateTrieNode(final Bytes32 nodeHash) {
+    return getTrieNode(accountStateTrieSegment, nodeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStorageTrieNode(final Bytes32 nodeHash) {
+    return getTrieNode(accountStorageTrieSegment, nodeHash);
+  }
+
+  private Optional<BytesValue> getTrieNode(final S segment, final Bytes32 nodeHash) {
+    if (nodeHash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
+      return Optional.of(MerklePatriciaTrie.EMPTY_TRIE_NODE);
+    } else {
+      return storage.get(segment, nodeHash);
+    }
+  }
+
+  @Override
+  public Optional<BytesValue> getNodeData(final Bytes32 hash) {
+    if (hash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
+      return Optional.of(MerklePatriciaTrie.EMPTY_TRIE_NODE);
+    } else if (hash.equals(Hash.EMPTY)) {
+      return Optional.of(BytesValue.EMPTY);
+    }
+    // Node data requests don't say what kind of data is wanted so check each segment in turn
+    Optional<BytesValue> result = storage.get(accountStateTrieSegment, hash);
+    if (!result.isPresent()) {
+      result = storage.get(accountStorageTrieSegment, hash);
+    }
+    if (!result.isPresent()) {
+      result = storage.get(codeSegment, hash);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isWorldStateAvailable(final Bytes32 rootHash) {
+    return getAccountStateTrieNode(rootHash).isPresent();
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(storage.startTransaction());
+  }
+
+  public class Updater implements WorldStateStorage.Updater {
+
+    private final SegmentedKeyValueStorage.Transaction<S> transaction;
+
+    private Updater(final SegmentedKeyValueStorage.Transaction<S> transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public Updater putCode(final Bytes32 codeHash, final BytesValue code) {
+      if (code.size() == 0) {
+        // Don't save empty values
+        return this;
+      }
+      transaction.put(codeSegment, codeHash, code);
+      return this;
+    }
+
+    @Override
+    public Updater putAccountStateTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      return putTrieNode(accountStateTrieSegment, nodeHash, node);
+    }
+
+    @Override
+    public Updater putAccountStorageTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      return putTrieNode(accountStorageTrieSegment, nodeHash, node);
+    }
+
+    private Updater putTrieNode(final S segment, final Bytes32 nodeHash, final BytesValue node) {
+      if (nodeHash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
+        // Don't save empty nodes
+        return this;
+      }
+      transaction.put(segment, nodeHash, node);
+      return this;
+    }
+
+    @Override
+    public void commit() {
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+  }
+}
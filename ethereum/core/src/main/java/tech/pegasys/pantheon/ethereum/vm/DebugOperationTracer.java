@@ -12,17 +12,18 @@
  */
 package tech.pegasys.pantheon.ethereum.vm;
 
-import static tech.pegasys.pantheon.util.uint.UInt256.U_32;
-
 import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.debug.MemorySnapshot;
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
 import tech.pegasys.pantheon.ethereum.debug.TraceOptions;
 import tech.pegasys.pantheon.ethereum.vm.ehalt.ExceptionalHaltException;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -30,11 +31,34 @@ import java.util.TreeMap;
 
 public class DebugOperationTracer implements OperationTracer {
 
+  // Rough size of each part of a frame once rendered as a JSON struct log, used to enforce the
+  // trace size limit without rendering the trace.
+  private static final long FRAME_SIZE_BYTES = 120;
+  private static final long WORD_SIZE_BYTES = 68;
+  private static final long STORAGE_ENTRY_SIZE_BYTES = 140;
+
   private final TraceOptions options;
+  private final long maxTraceSizeBytes;
   private final List<TraceFrame> traceFrames = new ArrayList<>();
+  private final Map<Integer, CapturedState> capturedStates = new HashMap<>();
+  private long steps = 0;
+  private long traceSizeBytes = 0;
+  private boolean traceSizeExceeded = false;
 
   public DebugOperationTracer(final TraceOptions options) {
+    this(options, Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates a tracer which stops recording frames once the trace would exceed a size limit.
+   *
+   * @param options the parts of each step to record
+   * @param maxTraceSizeBytes the estimated size of the rendered trace above which no more frames
+   *     are recorded
+   */
+  public DebugOperationTracer(final TraceOptions options, final long maxTraceSizeBytes) {
     this.options = options;
+    this.maxTraceSizeBytes = maxTraceSizeBytes;
   }
 
   @Override
@@ -43,53 +67,94 @@ public class DebugOperationTracer implements OperationTracer {
       final Optional<Gas> currentGasCost,
       final ExecuteOperation executeOperation)
       throws ExceptionalHaltException {
+    if (traceSizeExceeded) {
+      executeOperation.execute();
+      return;
+    }
     final int depth = frame.getMessageStackDepth();
     final String opcode = frame.getCurrentOperation().getName();
     final int pc = frame.getPC();
     final Gas gasRemaining = frame.getRemainingGas();
     final EnumSet<ExceptionalHaltReason> exceptionalHaltReasons =
         EnumSet.copyOf(frame.getExceptionalHaltReasons());
+    final CapturedState state = capturedState(depth, frame);
     final Optional<Bytes32[]> stack = captureStack(frame);
-    final Optional<Bytes32[]> memory = captureMemory(frame);
+    final Optional<MemorySnapshot> memory = captureMemory(frame, state);
 
     try {
       executeOperation.execute();
     } finally {
-      final Optional<Map<UInt256, UInt256>> storage = captureStorage(frame);
-
-      traceFrames.add(
-          new TraceFrame(
-              pc,
-              opcode,
-              gasRemaining,
-              currentGasCost,
-              depth,
-              exceptionalHaltReasons,
-              stack,
-              memory,
-              storage));
+      final Optional<Map<UInt256, UInt256>> storage = captureStorage(frame, state, opcode);
+      state.lastStep = steps++;
+
+      traceSizeBytes += estimateSize(stack, memory, storage);
+      if (traceSizeBytes > maxTraceSizeBytes) {
+        traceSizeExceeded = true;
+      } else {
+        traceFrames.add(
+            new TraceFrame(
+                pc,
+                opcode,
+                gasRemaining,
+                currentGasCost,
+                depth,
+                exceptionalHaltReasons,
+                stack,
+                memory,
+                storage));
+      }
     }
   }
 
-  private Optional<Map<UInt256, UInt256>> captureStorage(final MessageFrame frame) {
+  private CapturedState capturedState(final int depth, final MessageFrame frame) {
+    final CapturedState state = capturedStates.get(depth);
+    if (state != null && state.frame == frame) {
+      return state;
+    }
+    final CapturedState newState = new CapturedState(frame);
+    capturedStates.put(depth, newState);
+    return newState;
+  }
+
+  private Optional<Map<UInt256, UInt256>> captureStorage(
+      final MessageFrame frame, final CapturedState state, final String opcode) {
     if (!options.isStorageEnabled()) {
       return Optional.empty();
     }
-    final Map<UInt256, UInt256> storageContents =
-        new TreeMap<>(
-            frame.getWorldState().getMutable(frame.getRecipientAddress()).getUpdatedStorage());
-    return Optional.of(storageContents);
+    // Storage can only have changed if this step stored a value or other frames ran since the
+    // previous step of this frame.
+    if (state.storage == null || state.lastStep != steps - 1 || "SSTORE".equals(opcode)) {
+      state.storage =
+          new TreeMap<>(
+              frame.getWorldState().getMutable(frame.getRecipientAddress()).getUpdatedStorage());
+    }
+    return Optional.of(state.storage);
   }
 
-  private Optional<Bytes32[]> captureMemory(final MessageFrame frame) {
+  private Optional<MemorySnapshot> captureMemory(
+      final MessageFrame frame, final CapturedState state) {
     if (!options.isMemoryEnabled()) {
       return Optional.empty();
     }
-    final Bytes32[] memoryContents = new Bytes32[frame.memoryWordSize().toInt()];
-    for (int i = 0; i < memoryContents.length; i++) {
-      memoryContents[i] = Bytes32.wrap(frame.readMemory(UInt256.of(i).times(U_32), U_32), 0);
+    final int size = frame.memoryWordSize().toInt() * Bytes32.SIZE;
+    final int writtenStart = frame.memoryWrittenStart();
+    final int writtenEnd = frame.memoryWrittenEnd();
+    frame.resetMemoryWrittenRange();
+
+    final MemorySnapshot previous = state.memory;
+    if (previous == null) {
+      state.memory = MemorySnapshot.create(readMemory(frame, 0, size));
+    } else if (writtenStart < writtenEnd) {
+      state.memory =
+          previous.update(size, writtenStart, readMemory(frame, writtenStart, writtenEnd));
+    } else if (size != previous.getSize()) {
+      state.memory = previous.update(size, 0, BytesValue.EMPTY);
     }
-    return Optional.of(memoryContents);
+    return Optional.of(state.memory);
+  }
+
+  private static BytesValue readMemory(final MessageFrame frame, final int start, final int end) {
+    return frame.readMemory(UInt256.of(start), UInt256.of(end - start));
   }
 
   private Optional<Bytes32[]> captureStack(final MessageFrame frame) {
@@ -104,7 +169,38 @@ public class DebugOperationTracer implements OperationTracer {
     return Optional.of(stackContents);
   }
 
+  private static long estimateSize(
+      final Optional<Bytes32[]> stack,
+      final Optional<MemorySnapshot> memory,
+      final Optional<Map<UInt256, UInt256>> storage) {
+    return FRAME_SIZE_BYTES
+        + stack.map(s -> s.length * WORD_SIZE_BYTES).orElse(0L)
+        + memory.map(m -> m.getSize() / Bytes32.SIZE * WORD_SIZE_BYTES).orElse(0L)
+        + storage.map(s -> s.size() * STORAGE_ENTRY_SIZE_BYTES).orElse(0L);
+  }
+
   public List<TraceFrame> getTraceFrames() {
     return traceFrames;
   }
+
+  /**
+   * Returns true if frames were dropped because the trace exceeded its size limit.
+   *
+   * @return true if the trace is incomplete
+   */
+  public boolean isTraceSizeExceeded() {
+    return traceSizeExceeded;
+  }
+
+  /** What was last captured for the message frame executing at a given depth. */
+  private static class CapturedState {
+    private final MessageFrame frame;
+    private MemorySnapshot memory;
+    private Map<UInt256, UInt256> storage;
+    private long lastStep = -1;
+
+    private CapturedState(final MessageFrame frame) {
+      this.frame = frame;
+    }
+  }
 }
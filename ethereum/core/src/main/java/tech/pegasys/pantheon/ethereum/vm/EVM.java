@@ -31,6 +31,7 @@ public class EVM {
   private static final Logger LOG = getLogger();
 
   private static final int STOP_OPCODE = 0x00;
+  private static final int INVALID_OPCODE = 0xfe;
   private final OperationRegistry operations;
   private final Operation invalidOperation;
 
@@ -41,8 +42,16 @@ public class EVM {
 
   public void runToHalt(final MessageFrame frame, final OperationTracer operationTracer)
       throws ExceptionalHaltException {
-    while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
-      executeNextOperation(frame, operationTracer);
+    if (operationTracer == OperationTracer.NO_TRACING) {
+      while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+        if (!executeNextOperationUntraced(frame)) {
+          executeNextOperation(frame, operationTracer);
+        }
+      }
+    } else {
+      while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+        executeNextOperation(frame, operationTracer);
+      }
     }
   }
 
@@ -58,6 +67,54 @@ public class EVM {
     }
   }
 
+  /**
+   * Executes the next operation without going through a tracer, checking the exceptional halt
+   * conditions with primitive comparisons rather than collecting them.
+   *
+   * <p>Nothing is changed in the frame if the operation may halt, in which case the operation must
+   * be executed by {@link #executeNextOperation(MessageFrame, OperationTracer)} so that the halt
+   * reasons are gathered and reported as usual.
+   *
+   * @param frame the frame to execute the next operation of
+   * @return whether the operation was executed
+   */
+  private boolean executeNextOperationUntraced(final MessageFrame frame) {
+    if (LOG.isTraceEnabled()) {
+      return false;
+    }
+    final BytesValue bytecode = frame.getCode().getBytes();
+    final int pc = frame.getPC();
+    final int opcode = pc < bytecode.size() ? bytecode.get(pc) & 0xff : STOP_OPCODE;
+    final Operation operation = operations.get(opcode);
+    final int stackSize = frame.stackSize();
+    if (operation == null
+        || opcode == INVALID_OPCODE
+        || stackSize < operations.getMinimumStackSize(opcode)
+        || stackSize > operations.getMaximumStackSize(opcode)) {
+      return false;
+    }
+
+    frame.setCurrentOperation(operation);
+    final Gas cost;
+    try {
+      cost = operation.cost(frame);
+    } catch (final IllegalArgumentException e) {
+      return false;
+    }
+    if (cost == null
+        || frame.getRemainingGas().compareTo(cost) < 0
+        || operation
+            .exceptionalHaltCondition(frame, frame.getExceptionalHaltReasons(), this)
+            .isPresent()) {
+      return false;
+    }
+
+    frame.decrementRemainingGas(cost);
+    operation.execute(frame);
+    incrementProgramCounter(frame);
+    return true;
+  }
+
   private void executeNextOperation(final MessageFrame frame, final OperationTracer operationTracer)
       throws ExceptionalHaltException {
     frame.setCurrentOperation(operationAtOffset(frame.getCode(), frame.getPC()));
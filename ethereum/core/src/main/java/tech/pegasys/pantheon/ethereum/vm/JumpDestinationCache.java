@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+
+import java.util.BitSet;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Caches the valid jump destinations of contract code by code hash, so the code of frequently
+ * called contracts is only analysed once rather than by every message frame executing it.
+ *
+ * <p>Jump destinations only depend on the code itself, so a single cache is shared by the EVMs of
+ * all protocol specs.
+ */
+public class JumpDestinationCache {
+
+  /** Approximate size of the cached jump destinations, enough for 64MB of code. */
+  public static final long DEFAULT_CACHE_SIZE_BYTES = 8 * 1024 * 1024;
+
+  private static final JumpDestinationCache SHARED =
+      new JumpDestinationCache(DEFAULT_CACHE_SIZE_BYTES);
+
+  private final Cache<Hash, BitSet> jumpDestinations;
+
+  JumpDestinationCache(final long cacheSizeBytes) {
+    this.jumpDestinations =
+        CacheBuilder.newBuilder()
+            .maximumWeight(cacheSizeBytes)
+            .<Hash, BitSet>weigher((hash, destinations) -> destinations.size() / Byte.SIZE)
+            .recordStats()
+            .build();
+  }
+
+  public static JumpDestinationCache shared() {
+    return SHARED;
+  }
+
+  public void registerMetrics(final MetricsSystem metricsSystem) {
+    metricsSystem.createLongGauge(
+        MetricCategory.BLOCKCHAIN,
+        "jump_destination_cache_hit_count",
+        "Number of contract jump destination analyses served from the cache",
+        () -> jumpDestinations.stats().hitCount());
+    metricsSystem.createLongGauge(
+        MetricCategory.BLOCKCHAIN,
+        "jump_destination_cache_miss_count",
+        "Number of contract jump destination analyses performed",
+        () -> jumpDestinations.stats().missCount());
+  }
+
+  BitSet getJumpDestinations(final Hash codeHash, final Supplier<BitSet> analysis) {
+    try {
+      return jumpDestinations.get(codeHash, analysis::get);
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException("Unable to analyse jump destinations", e.getCause());
+    }
+  }
+}
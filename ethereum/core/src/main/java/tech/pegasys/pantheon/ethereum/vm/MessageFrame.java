@@ -499,6 +499,30 @@ public class MessageFrame {
     return memory.getActiveWords();
   }
 
+  /**
+   * Returns the offset of the first byte of memory written since the written range was last reset.
+   *
+   * @return the offset of the first written byte, or {@link Integer#MAX_VALUE} if no byte was
+   *     written
+   */
+  public int memoryWrittenStart() {
+    return memory.getWrittenStart();
+  }
+
+  /**
+   * Returns the offset past the last byte of memory written since the written range was last reset.
+   *
+   * @return the offset past the last written byte, or 0 if no byte was written
+   */
+  public int memoryWrittenEnd() {
+    return memory.getWrittenEnd();
+  }
+
+  /** Resets the range of written memory bytes. */
+  public void resetMemoryWrittenRange() {
+    memory.resetWrittenRange();
+  }
+
   /**
    * Read bytes in memory.
    *
@@ -12,15 +12,22 @@
  */
 package tech.pegasys.pantheon.ethereum.vm;
 
+import tech.pegasys.pantheon.ethereum.vm.ehalt.StackOverflowExceptionalHaltPredicate;
+
 /** Encapsulates a group of {@link Operation}s used together. */
 public class OperationRegistry {
 
   private static final int NUM_OPERATIONS = 256;
 
   private final Operation[] operations;
+  // Stack size bounds (inclusive) an operation can be executed within without under or overflowing
+  private final int[] minimumStackSizes;
+  private final int[] maximumStackSizes;
 
   public OperationRegistry() {
     this.operations = new Operation[NUM_OPERATIONS];
+    this.minimumStackSizes = new int[NUM_OPERATIONS];
+    this.maximumStackSizes = new int[NUM_OPERATIONS];
   }
 
   public Operation get(final byte opcode) {
@@ -33,6 +40,25 @@ public class OperationRegistry {
 
   public void put(final int opcode, final Operation operation) {
     operations[opcode] = operation;
+    minimumStackSizes[opcode] = operation.getStackItemsConsumed();
+    maximumStackSizes[opcode] =
+        StackOverflowExceptionalHaltPredicate.MAX_STACK_SIZE - operation.getStackSizeChange();
+  }
+
+  /**
+   * @param opcode the opcode of a registered operation
+   * @return the smallest stack size the operation can execute with
+   */
+  public int getMinimumStackSize(final int opcode) {
+    return minimumStackSizes[opcode];
+  }
+
+  /**
+   * @param opcode the opcode of a registered operation
+   * @return the largest stack size the operation can execute with
+   */
+  public int getMaximumStackSize(final int opcode) {
+    return maximumStackSizes[opcode];
   }
 
   public Operation getOrDefault(final byte opcode, final Operation defaultOperation) {
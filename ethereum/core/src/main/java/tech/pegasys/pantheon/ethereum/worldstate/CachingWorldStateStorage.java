@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeCache;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+
+/**
+ * A {@link WorldStateStorage} which provides caches of decoded trie nodes, shared by every world
+ * state reading from it, so that the upper levels of the tries which are traversed by nearly every
+ * lookup do not have to be read and decoded from the underlying storage again for each block and
+ * query.
+ */
+public class CachingWorldStateStorage implements WorldStateStorage {
+
+  public static final long DEFAULT_CACHE_SIZE_BYTES = 64 * 1024 * 1024;
+
+  private final WorldStateStorage delegate;
+  private final TrieNodeCache<BytesValue> accountStateTrieNodes;
+  private final TrieNodeCache<BytesValue> accountStorageTrieNodes;
+
+  /**
+   * Creates a caching storage.
+   *
+   * @param delegate the storage to read from and write to
+   * @param cacheSizeBytes the approximate encoded size of all cached trie nodes
+   * @param metricsSystem the metrics system to report cache hits and misses to
+   */
+  public CachingWorldStateStorage(
+      final WorldStateStorage delegate,
+      final long cacheSizeBytes,
+      final MetricsSystem metricsSystem) {
+    this.delegate = delegate;
+    this.accountStateTrieNodes = new TrieNodeCache<>(cacheSizeBytes / 2);
+    this.accountStorageTrieNodes = new TrieNodeCache<>(cacheSizeBytes / 2);
+
+    registerMetrics(metricsSystem, "account_state_trie_node", accountStateTrieNodes);
+    registerMetrics(metricsSystem, "account_storage_trie_node", accountStorageTrieNodes);
+  }
+
+  private static void registerMetrics(
+      final MetricsSystem metricsSystem, final String name, final TrieNodeCache<?> cache) {
+    metricsSystem.createLongGauge(
+        MetricCategory.BLOCKCHAIN,
+        name + "_cache_hit_count",
+        "Number of " + name.replace('_', ' ') + " lookups served from the cache",
+        cache::hitCount);
+    metricsSystem.createLongGauge(
+        MetricCategory.BLOCKCHAIN,
+        name + "_cache_miss_count",
+        "Number of " + name.replace('_', ' ') + " lookups read from storage",
+        cache::missCount);
+    metricsSystem.createLongGauge(
+        MetricCategory.BLOCKCHAIN,
+        name + "_cache_size",
+        "Number of decoded " + name.replace('_', ' ') + "s in the cache",
+        cache::size);
+  }
+
+  @Override
+  public Optional<BytesValue> getCode(final Bytes32 codeHash) {
+    return delegate.getCode(codeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStateTrieNode(final Bytes32 nodeHash) {
+    return delegate.getAccountStateTrieNode(nodeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStorageTrieNode(final Bytes32 nodeHash) {
+    return delegate.getAccountStorageTrieNode(nodeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getNodeData(final Bytes32 hash) {
+    return delegate.getNodeData(hash);
+  }
+
+  @Override
+  public Optional<TrieNodeCache<BytesValue>> getAccountStateTrieNodeCache() {
+    return Optional.of(accountStateTrieNodes);
+  }
+
+  @Override
+  public Optional<TrieNodeCache<BytesValue>> getAccountStorageTrieNodeCache() {
+    return Optional.of(accountStorageTrieNodes);
+  }
+
+  @Override
+  public boolean isWorldStateAvailable(final Bytes32 rootHash) {
+    return delegate.isWorldStateAvailable(rootHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return delegate.updater();
+  }
+}
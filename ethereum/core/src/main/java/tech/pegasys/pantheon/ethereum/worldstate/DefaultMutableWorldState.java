@@ -25,6 +25,8 @@ import tech.pegasys.pantheon.ethereum.rlp.RLPException;
 import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
 import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
 import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshots.Snapshot;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshots.StaleSnapshotException;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
@@ -48,14 +50,32 @@ public class DefaultMutableWorldState implements MutableWorldState {
   private final Map<Address, BytesValue> updatedAccountCode = new HashMap<>();
   private final WorldStateStorage worldStateStorage;
 
+  // When snapshots are available, accounts and storage are read from the changes made since the
+  // last persist and then from the snapshot of the persisted state, falling back to the tries if
+  // that snapshot is missing or becomes stale.
+  private final Optional<WorldStateSnapshots> snapshots;
+  private Hash persistedRootHash;
+  private Optional<Snapshot> snapshot;
+  private WorldStateDiff pendingChanges = new WorldStateDiff();
+
   public DefaultMutableWorldState(final WorldStateStorage storage) {
     this(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH, storage);
   }
 
   public DefaultMutableWorldState(
       final Bytes32 rootHash, final WorldStateStorage worldStateStorage) {
+    this(rootHash, worldStateStorage, Optional.empty());
+  }
+
+  public DefaultMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final Optional<WorldStateSnapshots> snapshots) {
     this.worldStateStorage = worldStateStorage;
     this.accountStateTrie = newAccountStateTrie(rootHash);
+    this.snapshots = snapshots;
+    this.persistedRootHash = Hash.wrap(rootHash);
+    this.snapshot = snapshots.flatMap(s -> s.get(persistedRootHash));
   }
 
   public DefaultMutableWorldState(final WorldState worldState) {
@@ -69,16 +89,27 @@ public class DefaultMutableWorldState implements MutableWorldState {
     final DefaultMutableWorldState other = (DefaultMutableWorldState) worldState;
     this.worldStateStorage = other.worldStateStorage;
     this.accountStateTrie = newAccountStateTrie(other.accountStateTrie.getRootHash());
+    this.snapshots = other.snapshots;
+    this.persistedRootHash = rootHash();
+    this.snapshot = snapshots.flatMap(s -> s.get(persistedRootHash));
   }
 
   private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStateTrieNode,
+        rootHash,
+        b -> b,
+        b -> b,
+        worldStateStorage.getAccountStateTrieNodeCache());
   }
 
   private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStorageTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStorageTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStorageTrieNode,
+        rootHash,
+        b -> b,
+        b -> b,
+        worldStateStorage.getAccountStorageTrieNodeCache());
   }
 
   @Override
@@ -88,18 +119,47 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
   @Override
   public MutableWorldState copy() {
-    return new DefaultMutableWorldState(rootHash(), worldStateStorage);
+    return new DefaultMutableWorldState(rootHash(), worldStateStorage, snapshots);
   }
 
   @Override
   public Account get(final Address address) {
     final Hash addressHash = Hash.hash(address);
-    return accountStateTrie
-        .get(Hash.hash(address))
+    return getAccountValue(addressHash)
         .map(bytes -> deserializeAccount(address, addressHash, bytes))
         .orElse(null);
   }
 
+  private Optional<BytesValue> getAccountValue(final Hash addressHash) {
+    if (snapshot.isPresent()) {
+      final BytesValue pending = pendingChanges.getAccount(addressHash);
+      if (pending != null) {
+        return pending.isEmpty() ? Optional.empty() : Optional.of(pending);
+      }
+      try {
+        return snapshot.get().getAccount(addressHash);
+      } catch (final StaleSnapshotException e) {
+        snapshot = Optional.empty();
+      }
+    }
+    return accountStateTrie.get(addressHash);
+  }
+
+  private Optional<BytesValue> getStorageValue(final AccountState account, final Hash slotHash) {
+    if (snapshot.isPresent()) {
+      final BytesValue pending = pendingChanges.getStorageValue(account.addressHash, slotHash);
+      if (pending != null) {
+        return pending.isEmpty() ? Optional.empty() : Optional.of(pending);
+      }
+      try {
+        return snapshot.get().getStorageValue(account.addressHash, slotHash);
+      } catch (final StaleSnapshotException e) {
+        snapshot = Optional.empty();
+      }
+    }
+    return account.storageTrie().get(slotHash);
+  }
+
   private AccountState deserializeAccount(
       final Address address, final Hash addressHash, final BytesValue encoded) throws RLPException {
     final RLPInput in = RLP.input(encoded);
@@ -162,6 +222,13 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
     // Push changes to underlying storage
     updater.commit();
+
+    // Record the changes as a new snapshot layer
+    final Hash newRootHash = rootHash();
+    snapshots.ifPresent(s -> s.addLayer(persistedRootHash, newRootHash, pendingChanges));
+    persistedRootHash = newRootHash;
+    snapshot = snapshots.flatMap(s -> s.get(newRootHash));
+    pendingChanges = new WorldStateDiff();
   }
 
   // An immutable class that represents an individual account as stored in
@@ -245,7 +312,8 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
     @Override
     public UInt256 getStorageValue(final UInt256 key) {
-      final Optional<BytesValue> val = storageTrie().get(Hash.hash(key.getBytes()));
+      final Optional<BytesValue> val =
+          DefaultMutableWorldState.this.getStorageValue(this, Hash.hash(key.getBytes()));
       if (!val.isPresent()) {
         return UInt256.ZERO;
       }
@@ -290,6 +358,9 @@ public class DefaultMutableWorldState implements MutableWorldState {
   protected static class Updater
       extends AbstractWorldUpdater<DefaultMutableWorldState, AccountState> {
 
+    // Number of updated storage tries above which they are hashed in parallel.
+    private static final int PARALLEL_STORAGE_HASHING_THRESHOLD = 16;
+
     protected Updater(final DefaultMutableWorldState world) {
       super(world);
     }
@@ -299,8 +370,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
       final DefaultMutableWorldState wrapped = wrappedWorldView();
       final Hash addressHash = Hash.hash(address);
       return wrapped
-          .accountStateTrie
-          .get(addressHash)
+          .getAccountValue(addressHash)
           .map(bytes -> wrapped.deserializeAccount(address, addressHash, bytes))
           .orElse(null);
     }
@@ -325,41 +395,66 @@ public class DefaultMutableWorldState implements MutableWorldState {
         wrapped.accountStateTrie.remove(addressHash);
         wrapped.updatedStorageTries.remove(address);
         wrapped.updatedAccountCode.remove(address);
+        wrapped.pendingChanges.removeAccount(addressHash);
       }
 
+      // Apply storage updates first, so that the updated storage tries can be hashed together
+      final Map<Address, MerklePatriciaTrie<Bytes32, BytesValue>> storageTries = new HashMap<>();
       for (final UpdateTrackingAccount<AccountState> updated : updatedAccounts()) {
         final AccountState origin = updated.getWrappedAccount();
-
-        // Save the code in key-value storage ...
-        Hash codeHash = origin == null ? Hash.EMPTY : origin.getCodeHash();
-        if (updated.codeWasUpdated()) {
-          codeHash = Hash.hash(updated.getCode());
-          wrapped.updatedAccountCode.put(updated.getAddress(), updated.getCode());
-        }
-        // ...and storage in the account trie first.
         final boolean freshState = origin == null || updated.getStorageWasCleared();
-        Hash storageRoot = freshState ? Hash.EMPTY_TRIE_HASH : origin.getStorageRoot();
         if (freshState) {
           wrapped.updatedStorageTries.remove(updated.getAddress());
+          wrapped.pendingChanges.clearStorage(updated.getAddressHash());
         }
         final SortedMap<UInt256, UInt256> updatedStorage = updated.getUpdatedStorage();
         if (!updatedStorage.isEmpty()) {
-          // Apply any storage updates
           final MerklePatriciaTrie<Bytes32, BytesValue> storageTrie =
               freshState
                   ? wrapped.newAccountStorageTrie(Hash.EMPTY_TRIE_HASH)
                   : origin.storageTrie();
           wrapped.updatedStorageTries.put(updated.getAddress(), storageTrie);
+          storageTries.put(updated.getAddress(), storageTrie);
           for (final Map.Entry<UInt256, UInt256> entry : updatedStorage.entrySet()) {
             final UInt256 value = entry.getValue();
             final Hash keyHash = Hash.hash(entry.getKey().getBytes());
             if (value.isZero()) {
               storageTrie.remove(keyHash);
+              wrapped.pendingChanges.putStorageValue(
+                  updated.getAddressHash(), keyHash, BytesValue.EMPTY);
             } else {
-              storageTrie.put(keyHash, RLP.encode(out -> out.writeUInt256Scalar(entry.getValue())));
+              final BytesValue encodedValue =
+                  RLP.encode(out -> out.writeUInt256Scalar(entry.getValue()));
+              storageTrie.put(keyHash, encodedValue);
+              wrapped.pendingChanges.putStorageValue(
+                  updated.getAddressHash(), keyHash, encodedValue);
             }
           }
+        }
+      }
+      if (storageTries.size() >= PARALLEL_STORAGE_HASHING_THRESHOLD) {
+        storageTries.values().parallelStream().forEach(MerklePatriciaTrie::getRootHash);
+      }
+
+      for (final UpdateTrackingAccount<AccountState> updated : updatedAccounts()) {
+        final AccountState origin = updated.getWrappedAccount();
+
+        // Save the code in key-value storage ...
+        Hash codeHash = origin == null ? Hash.EMPTY : origin.getCodeHash();
+        if (updated.codeWasUpdated()) {
+          codeHash = Hash.hash(updated.getCode());
+          wrapped.updatedAccountCode.put(updated.getAddress(), updated.getCode());
+        }
+        // ...and storage in the account trie first.
+        final MerklePatriciaTrie<Bytes32, BytesValue> storageTrie =
+            storageTries.get(updated.getAddress());
+        final Hash storageRoot;
+        if (storageTrie != null) {
           storageRoot = Hash.wrap(storageTrie.getRootHash());
+        } else if (origin == null || updated.getStorageWasCleared()) {
+          storageRoot = Hash.EMPTY_TRIE_HASH;
+        } else {
+          storageRoot = origin.getStorageRoot();
         }
 
         // Lastly, save the new account.
@@ -367,6 +462,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
             serializeAccount(updated.getNonce(), updated.getBalance(), storageRoot, codeHash);
 
         wrapped.accountStateTrie.put(updated.getAddressHash(), account);
+        wrapped.pendingChanges.putAccount(updated.getAddressHash(), account);
       }
     }
   }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeCache;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link WorldStateStorage} which keeps everything written to it in memory, on top of another
+ * storage which it reads from but never writes to.
+ *
+ * <p>This allows world states derived from a persisted one to be persisted and reopened by root
+ * hash, for instance to checkpoint the state after each transaction of a replayed block, without
+ * touching the underlying database.
+ */
+public class OverlayWorldStateStorage implements WorldStateStorage {
+
+  private final WorldStateStorage parent;
+  // Code and trie nodes are keyed by the hash of their content, so they can share a single map.
+  private final Map<Bytes32, BytesValue> values = new ConcurrentHashMap<>();
+
+  public OverlayWorldStateStorage(final WorldStateStorage parent) {
+    this.parent = parent;
+  }
+
+  @Override
+  public Optional<BytesValue> getCode(final Bytes32 codeHash) {
+    final BytesValue code = values.get(codeHash);
+    return code != null ? Optional.of(code) : parent.getCode(codeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStateTrieNode(final Bytes32 nodeHash) {
+    final BytesValue node = values.get(nodeHash);
+    return node != null ? Optional.of(node) : parent.getAccountStateTrieNode(nodeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStorageTrieNode(final Bytes32 nodeHash) {
+    final BytesValue node = values.get(nodeHash);
+    return node != null ? Optional.of(node) : parent.getAccountStorageTrieNode(nodeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getNodeData(final Bytes32 hash) {
+    final BytesValue value = values.get(hash);
+    return value != null ? Optional.of(value) : parent.getNodeData(hash);
+  }
+
+  @Override
+  public Optional<TrieNodeCache<BytesValue>> getAccountStateTrieNodeCache() {
+    return parent.getAccountStateTrieNodeCache();
+  }
+
+  @Override
+  public Optional<TrieNodeCache<BytesValue>> getAccountStorageTrieNodeCache() {
+    return parent.getAccountStorageTrieNodeCache();
+  }
+
+  @Override
+  public boolean isWorldStateAvailable(final Bytes32 rootHash) {
+    return values.containsKey(rootHash) || parent.isWorldStateAvailable(rootHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater();
+  }
+
+  private class Updater implements WorldStateStorage.Updater {
+
+    private final Map<Bytes32, BytesValue> pending = new HashMap<>();
+
+    @Override
+    public Updater putCode(final Bytes32 codeHash, final BytesValue code) {
+      pending.put(codeHash, code);
+      return this;
+    }
+
+    @Override
+    public Updater putAccountStateTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      pending.put(nodeHash, node);
+      return this;
+    }
+
+    @Override
+    public Updater putAccountStorageTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      pending.put(nodeHash, node);
+      return this;
+    }
+
+    @Override
+    public void commit() {
+      values.putAll(pending);
+      pending.clear();
+    }
+
+    @Override
+    public void rollback() {
+      pending.clear();
+    }
+  }
+}
@@ -22,10 +22,17 @@ import java.util.Optional;
 
 public class WorldStateArchive {
   private final WorldStateStorage storage;
+  private final Optional<WorldStateSnapshots> snapshots;
   private static final Hash EMPTY_ROOT_HASH = Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH);
 
   public WorldStateArchive(final WorldStateStorage storage) {
+    this(storage, Optional.empty());
+  }
+
+  public WorldStateArchive(
+      final WorldStateStorage storage, final Optional<WorldStateSnapshots> snapshots) {
     this.storage = storage;
+    this.snapshots = snapshots;
   }
 
   public Optional<WorldState> get(final Hash rootHash) {
@@ -40,7 +47,7 @@ public class WorldStateArchive {
     if (!storage.isWorldStateAvailable(rootHash)) {
       return Optional.empty();
     }
-    return Optional.of(new DefaultMutableWorldState(rootHash, storage));
+    return Optional.of(new DefaultMutableWorldState(rootHash, storage, snapshots));
   }
 
   public WorldState get() {
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
+import tech.pegasys.pantheon.ethereum.rlp.RLPOutput;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The changes made to the flat representation of a world state, keyed by account hash and storage
+ * slot hash.
+ *
+ * <p>Deleted accounts and zeroed storage slots are recorded as {@link BytesValue#EMPTY}, which is
+ * never a valid encoding of either an account or a storage value.
+ */
+public class WorldStateDiff {
+
+  private final Map<Hash, BytesValue> accounts = new HashMap<>();
+  private final Set<Hash> clearedStorage = new HashSet<>();
+  private final Map<Hash, Map<Hash, BytesValue>> storage = new HashMap<>();
+
+  public void putAccount(final Hash accountHash, final BytesValue account) {
+    accounts.put(accountHash, account);
+  }
+
+  public void removeAccount(final Hash accountHash) {
+    accounts.put(accountHash, BytesValue.EMPTY);
+    clearStorage(accountHash);
+  }
+
+  public void clearStorage(final Hash accountHash) {
+    clearedStorage.add(accountHash);
+    storage.remove(accountHash);
+  }
+
+  public void putStorageValue(final Hash accountHash, final Hash slotHash, final BytesValue value) {
+    storage.computeIfAbsent(accountHash, h -> new HashMap<>()).put(slotHash, value);
+  }
+
+  public boolean isEmpty() {
+    return accounts.isEmpty() && clearedStorage.isEmpty() && storage.isEmpty();
+  }
+
+  /**
+   * Returns the account recorded by this diff.
+   *
+   * @param accountHash the hash of the account address
+   * @return the encoded account, {@link BytesValue#EMPTY} if the account was deleted, or {@code
+   *     null} if this diff does not touch the account
+   */
+  BytesValue getAccount(final Hash accountHash) {
+    return accounts.get(accountHash);
+  }
+
+  /**
+   * Returns the storage value recorded by this diff.
+   *
+   * @param accountHash the hash of the account address
+   * @param slotHash the hash of the storage slot
+   * @return the encoded value, {@link BytesValue#EMPTY} if the slot was zeroed or the storage of
+   *     the account was cleared, or {@code null} if this diff does not touch the slot
+   */
+  BytesValue getStorageValue(final Hash accountHash, final Hash slotHash) {
+    final Map<Hash, BytesValue> slots = storage.get(accountHash);
+    if (slots != null) {
+      final BytesValue value = slots.get(slotHash);
+      if (value != null) {
+        return value;
+      }
+    }
+    return clearedStorage.contains(accountHash) ? BytesValue.EMPTY : null;
+  }
+
+  Map<Hash, BytesValue> getAccounts() {
+    return accounts;
+  }
+
+  Set<Hash> getClearedStorage() {
+    return clearedStorage;
+  }
+
+  Map<Hash, Map<Hash, BytesValue>> getStorage() {
+    return storage;
+  }
+
+  void writeTo(final RLPOutput out) {
+    out.startList();
+
+    out.startList();
+    accounts.forEach(
+        (accountHash, account) -> {
+          out.startList();
+          out.writeBytesValue(accountHash);
+          out.writeBytesValue(account);
+          out.endList();
+        });
+    out.endList();
+
+    out.writeList(clearedStorage, (accountHash, o) -> o.writeBytesValue(accountHash));
+
+    out.startList();
+    storage.forEach(
+        (accountHash, slots) -> {
+          out.startList();
+          out.writeBytesValue(accountHash);
+          out.startList();
+          slots.forEach(
+              (slotHash, value) -> {
+                out.startList();
+                out.writeBytesValue(slotHash);
+                out.writeBytesValue(value);
+                out.endList();
+              });
+          out.endList();
+          out.endList();
+        });
+    out.endList();
+
+    out.endList();
+  }
+
+  static WorldStateDiff readFrom(final RLPInput in) {
+    final WorldStateDiff diff = new WorldStateDiff();
+    in.enterList();
+
+    in.enterList();
+    while (!in.isEndOfCurrentList()) {
+      in.enterList();
+      diff.accounts.put(Hash.wrap(in.readBytes32()), in.readBytesValue());
+      in.leaveList();
+    }
+    in.leaveList();
+
+    diff.clearedStorage.addAll(in.readList(i -> Hash.wrap(i.readBytes32())));
+
+    in.enterList();
+    while (!in.isEndOfCurrentList()) {
+      in.enterList();
+      final Hash accountHash = Hash.wrap(in.readBytes32());
+      in.enterList();
+      while (!in.isEndOfCurrentList()) {
+        in.enterList();
+        diff.putStorageValue(accountHash, Hash.wrap(in.readBytes32()), in.readBytesValue());
+        in.leaveList();
+      }
+      in.leaveList();
+      in.leaveList();
+    }
+    in.leaveList();
+
+    in.leaveList();
+    return diff;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores the flat world state snapshot: the account and storage values of the world state at the
+ * disk layer root keyed directly by account and slot hash, along with a journal of the diff layers
+ * kept in memory on top of it.
+ *
+ * <p>Storage slots are keyed by the incarnation of their account so that clearing the storage of an
+ * account does not require deleting each of its slots.
+ */
+public interface WorldStateSnapshotStorage {
+
+  Optional<Hash> getDiskLayerRoot();
+
+  Optional<BytesValue> getAccount(Hash accountHash);
+
+  Optional<BytesValue> getStorageValue(Hash accountHash, long incarnation, Hash slotHash);
+
+  List<Hash> getDiffLayerRoots();
+
+  Optional<BytesValue> getDiffLayer(Hash root);
+
+  Updater updater();
+
+  interface Updater {
+
+    void putDiskLayerRoot(Hash root);
+
+    void removeDiskLayerRoot();
+
+    void putAccount(Hash accountHash, BytesValue account);
+
+    void putStorageValue(Hash accountHash, long incarnation, Hash slotHash, BytesValue value);
+
+    void removeStorageValue(Hash accountHash, long incarnation, Hash slotHash);
+
+    void putDiffLayerRoots(List<Hash> roots);
+
+    void putDiffLayer(Hash root, BytesValue diffLayer);
+
+    void removeDiffLayer(Hash root);
+
+    void commit();
+
+    void rollback();
+  }
+}
@@ -0,0 +1,543 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import static org.apache.logging.log4j.LogManager.getLogger;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Maintains flat snapshots of the most recent world states, so that accounts and storage slots can
+ * be read with a single lookup instead of a walk down the account and storage tries.
+ *
+ * <p>The snapshot is made of a disk layer, holding the flattened world state of a single root in a
+ * {@link WorldStateSnapshotStorage}, and a tree of in-memory diff layers on top of it, one for each
+ * world state persisted since. Once the chain of diff layers leading to a new world state grows
+ * beyond the maximum number of diff layers, the bottom layer of that chain is merged into the disk
+ * layer and the layers which do not descend from it become stale. Diff layers are journaled to the
+ * storage so that they survive a restart.
+ *
+ * <p>World states whose parent is not in the snapshot, such as blocks on forks which have already
+ * been flattened away, are not added and are read from the tries. If the snapshot does not hold the
+ * state of the chain head on startup, for instance because the node stopped after committing a
+ * world state but before journaling its diff layer, it can no longer follow the chain and is
+ * disabled and removed from the storage.
+ */
+public class WorldStateSnapshots {
+
+  private static final Logger LOG = getLogger();
+
+  public static final int DEFAULT_MAX_DIFF_LAYERS = 128;
+
+  private final WorldStateSnapshotStorage storage;
+  private final int maxDiffLayers;
+  private final Counter staleReadsCounter;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // Guarded by lock
+  private final Map<Hash, Snapshot> layers = new HashMap<>();
+  // Guarded by lock
+  private boolean disabled;
+
+  private WorldStateSnapshots(
+      final WorldStateSnapshotStorage storage,
+      final Hash diskLayerRoot,
+      final int maxDiffLayers,
+      final MetricsSystem metricsSystem) {
+    this.storage = storage;
+    this.maxDiffLayers = maxDiffLayers;
+    this.staleReadsCounter =
+        metricsSystem.createCounter(
+            MetricCategory.BLOCKCHAIN,
+            "world_state_snapshot_stale_reads_total",
+            "Number of reads from world state snapshot layers which had become stale");
+    metricsSystem.createIntegerGauge(
+        MetricCategory.BLOCKCHAIN,
+        "world_state_snapshot_diff_layers",
+        "Number of diff layers kept on top of the world state snapshot",
+        this::diffLayerCount);
+
+    layers.put(diskLayerRoot, new DiskLayer(diskLayerRoot));
+    loadDiffLayers();
+  }
+
+  /**
+   * Opens the world state snapshot kept in the given storage.
+   *
+   * <p>The snapshot can only be started alongside an empty world state: there is no snapshot for
+   * databases which were created without one, in which case world states are read from the tries
+   * only.
+   *
+   * @param storage the storage holding the snapshot
+   * @param emptyDatabase whether the world state storage is empty
+   * @param metricsSystem the metrics system
+   * @return the snapshots, if the storage holds one or could start one
+   */
+  public static Optional<WorldStateSnapshots> create(
+      final WorldStateSnapshotStorage storage,
+      final boolean emptyDatabase,
+      final MetricsSystem metricsSystem) {
+    return create(storage, emptyDatabase, DEFAULT_MAX_DIFF_LAYERS, metricsSystem);
+  }
+
+  static Optional<WorldStateSnapshots> create(
+      final WorldStateSnapshotStorage storage,
+      final boolean emptyDatabase,
+      final int maxDiffLayers,
+      final MetricsSystem metricsSystem) {
+    final Optional<Hash> diskLayerRoot = storage.getDiskLayerRoot();
+    if (diskLayerRoot.isPresent()) {
+      return Optional.of(
+          new WorldStateSnapshots(storage, diskLayerRoot.get(), maxDiffLayers, metricsSystem));
+    }
+    if (!emptyDatabase) {
+      LOG.info("No world state snapshot for the existing database, reading state from the trie");
+      return Optional.empty();
+    }
+    final WorldStateSnapshotStorage.Updater updater = storage.updater();
+    updater.putDiskLayerRoot(Hash.EMPTY_TRIE_HASH);
+    updater.commit();
+    return Optional.of(
+        new WorldStateSnapshots(storage, Hash.EMPTY_TRIE_HASH, maxDiffLayers, metricsSystem));
+  }
+
+  /**
+   * Returns the snapshot of the world state with the given root.
+   *
+   * @param root the world state root
+   * @return the snapshot, if the world state is one of the recent ones the snapshot is kept for
+   */
+  public Optional<Snapshot> get(final Hash root) {
+    lock.readLock().lock();
+    try {
+      return Optional.ofNullable(layers.get(root));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Adds the snapshot of a newly persisted world state.
+   *
+   * <p>Nothing is added if there is no snapshot of the parent world state, or if there already is
+   * one of the new world state.
+   *
+   * @param parentRoot the root of the world state the changes were applied to
+   * @param root the root of the new world state
+   * @param diff the changes between the parent and the new world state
+   */
+  public void addLayer(final Hash parentRoot, final Hash root, final WorldStateDiff diff) {
+    lock.writeLock().lock();
+    try {
+      if (disabled || layers.containsKey(root)) {
+        return;
+      }
+      final Snapshot parent = layers.get(parentRoot);
+      if (parent == null) {
+        LOG.debug("No world state snapshot of {}, not adding one of {}", parentRoot, root);
+        return;
+      }
+      final DiffLayer layer = new DiffLayer(root, parent, diff);
+      layers.put(root, layer);
+
+      final WorldStateSnapshotStorage.Updater updater = storage.updater();
+      updater.putDiffLayer(
+          root,
+          RLP.encode(
+              out -> {
+                out.startList();
+                out.writeBytesValue(parentRoot);
+                diff.writeTo(out);
+                out.endList();
+              }));
+      updater.putDiffLayerRoots(diffLayerRoots());
+      updater.commit();
+
+      cap(layer);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Disables the snapshot unless it holds the world state with the given root, such as the state of
+   * the chain head, which it needs in order to follow the chain.
+   *
+   * @param root the root of the world state the snapshot must hold
+   */
+  public void disableIfMissing(final Hash root) {
+    lock.writeLock().lock();
+    try {
+      if (disabled || layers.containsKey(root)) {
+        return;
+      }
+      LOG.warn(
+          "No world state snapshot of {}. Disabling the snapshot, world state will be read from"
+              + " the trie",
+          root);
+      disable();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void disable() {
+    final WorldStateSnapshotStorage.Updater updater = storage.updater();
+    updater.removeDiskLayerRoot();
+    diffLayerRoots().forEach(updater::removeDiffLayer);
+    updater.putDiffLayerRoots(new ArrayList<>());
+    updater.commit();
+
+    disabled = true;
+    layers.values().forEach(layer -> layer.stale = true);
+    layers.clear();
+  }
+
+  private void cap(final DiffLayer head) {
+    final List<DiffLayer> chain = new ArrayList<>();
+    for (Snapshot layer = head; layer instanceof DiffLayer; layer = ((DiffLayer) layer).parent) {
+      chain.add((DiffLayer) layer);
+    }
+    for (int i = chain.size() - 1; i >= maxDiffLayers; i--) {
+      flatten(chain.get(i));
+    }
+  }
+
+  private void flatten(final DiffLayer bottom) {
+    final DiskLayer disk = (DiskLayer) bottom.parent;
+    final DiskLayer newDisk = new DiskLayer(bottom.root);
+
+    final List<DiffLayer> staleLayers = new ArrayList<>();
+    final List<DiffLayer> children = new ArrayList<>();
+    for (final Snapshot layer : layers.values()) {
+      if (layer instanceof DiffLayer && layer != bottom) {
+        final DiffLayer diffLayer = (DiffLayer) layer;
+        if (diffLayer.bottom() != bottom) {
+          staleLayers.add(diffLayer);
+        } else if (diffLayer.parent == bottom) {
+          children.add(diffLayer);
+        }
+      }
+    }
+
+    final WorldStateSnapshotStorage.Updater updater = storage.updater();
+    disk.write(bottom.diff, updater);
+    updater.putDiskLayerRoot(bottom.root);
+    updater.removeDiffLayer(bottom.root);
+    staleLayers.forEach(layer -> updater.removeDiffLayer(layer.root));
+    final List<Hash> remainingRoots = diffLayerRoots();
+    remainingRoots.remove(bottom.root);
+    staleLayers.forEach(layer -> remainingRoots.remove(layer.root));
+    updater.putDiffLayerRoots(remainingRoots);
+    updater.commit();
+
+    disk.stale = true;
+    layers.remove(disk.root);
+    staleLayers.forEach(
+        layer -> {
+          layer.stale = true;
+          layers.remove(layer.root);
+        });
+    // The flattened layer stays readable for those still holding it: its changes are now also in
+    // the disk layer.
+    bottom.parent = newDisk;
+    children.forEach(child -> child.parent = newDisk);
+    layers.put(bottom.root, newDisk);
+  }
+
+  private void loadDiffLayers() {
+    final Map<Hash, Hash> parentRoots = new HashMap<>();
+    final Map<Hash, WorldStateDiff> diffs = new HashMap<>();
+    final List<Hash> journaledRoots = storage.getDiffLayerRoots();
+    for (final Hash root : journaledRoots) {
+      storage
+          .getDiffLayer(root)
+          .ifPresent(
+              encoded -> {
+                final RLPInput in = RLP.input(encoded);
+                in.enterList();
+                parentRoots.put(root, Hash.wrap(in.readBytes32()));
+                diffs.put(root, WorldStateDiff.readFrom(in));
+                in.leaveList();
+              });
+    }
+
+    boolean attached = true;
+    while (attached) {
+      attached = false;
+      final Iterator<Map.Entry<Hash, Hash>> entries = parentRoots.entrySet().iterator();
+      while (entries.hasNext()) {
+        final Map.Entry<Hash, Hash> entry = entries.next();
+        final Snapshot parent = layers.get(entry.getValue());
+        if (parent != null) {
+          layers.put(
+              entry.getKey(), new DiffLayer(entry.getKey(), parent, diffs.get(entry.getKey())));
+          entries.remove();
+          attached = true;
+        }
+      }
+    }
+
+    if (!parentRoots.isEmpty() || journaledRoots.size() != diffLayerRoots().size()) {
+      LOG.debug("Discarding {} world state snapshot diff layers", parentRoots.size());
+      final WorldStateSnapshotStorage.Updater updater = storage.updater();
+      parentRoots.keySet().forEach(updater::removeDiffLayer);
+      updater.putDiffLayerRoots(diffLayerRoots());
+      updater.commit();
+    }
+  }
+
+  private int diffLayerCount() {
+    lock.readLock().lock();
+    try {
+      return diffLayerRoots().size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<Hash> diffLayerRoots() {
+    final List<Hash> roots = new ArrayList<>();
+    layers.forEach(
+        (root, layer) -> {
+          if (layer instanceof DiffLayer) {
+            roots.add(root);
+          }
+        });
+    return roots;
+  }
+
+  /**
+   * A flat view of the world state with a given root.
+   *
+   * <p>Reads from a snapshot throw a {@link StaleSnapshotException} once it has become stale, in
+   * which case the world state has to be read from the tries instead.
+   */
+  public abstract class Snapshot {
+
+    final Hash root;
+    // Guarded by lock
+    boolean stale;
+
+    private Snapshot(final Hash root) {
+      this.root = root;
+    }
+
+    public Hash getRootHash() {
+      return root;
+    }
+
+    /**
+     * Returns the RLP encoded account with the given address hash.
+     *
+     * @param accountHash the hash of the account address
+     * @return the encoded account, if it exists
+     */
+    public Optional<BytesValue> getAccount(final Hash accountHash) {
+      return read(() -> account(accountHash));
+    }
+
+    /**
+     * Returns the RLP encoded value of a storage slot.
+     *
+     * @param accountHash the hash of the account address
+     * @param slotHash the hash of the storage slot
+     * @return the encoded value, if it is not zero
+     */
+    public Optional<BytesValue> getStorageValue(final Hash accountHash, final Hash slotHash) {
+      return read(() -> storageValue(accountHash, slotHash));
+    }
+
+    private Optional<BytesValue> read(final Supplier<BytesValue> reader) {
+      lock.readLock().lock();
+      try {
+        if (stale) {
+          staleReadsCounter.inc();
+          throw new StaleSnapshotException(root);
+        }
+        final BytesValue value = reader.get();
+        return value.isEmpty() ? Optional.empty() : Optional.of(value);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    abstract BytesValue account(Hash accountHash);
+
+    abstract BytesValue storageValue(Hash accountHash, Hash slotHash);
+  }
+
+  private class DiffLayer extends Snapshot {
+
+    private final WorldStateDiff diff;
+    // Guarded by lock
+    private Snapshot parent;
+
+    private DiffLayer(final Hash root, final Snapshot parent, final WorldStateDiff diff) {
+      super(root);
+      this.parent = parent;
+      this.diff = diff;
+    }
+
+    private DiffLayer bottom() {
+      DiffLayer layer = this;
+      while (layer.parent instanceof DiffLayer) {
+        layer = (DiffLayer) layer.parent;
+      }
+      return layer;
+    }
+
+    @Override
+    BytesValue account(final Hash accountHash) {
+      Snapshot layer = this;
+      while (layer instanceof DiffLayer) {
+        final DiffLayer diffLayer = (DiffLayer) layer;
+        final BytesValue account = diffLayer.diff.getAccount(accountHash);
+        if (account != null) {
+          return account;
+        }
+        layer = diffLayer.parent;
+      }
+      return layer.account(accountHash);
+    }
+
+    @Override
+    BytesValue storageValue(final Hash accountHash, final Hash slotHash) {
+      Snapshot layer = this;
+      while (layer instanceof DiffLayer) {
+        final DiffLayer diffLayer = (DiffLayer) layer;
+        final BytesValue value = diffLayer.diff.getStorageValue(accountHash, slotHash);
+        if (value != null) {
+          return value;
+        }
+        layer = diffLayer.parent;
+      }
+      return layer.storageValue(accountHash, slotHash);
+    }
+  }
+
+  private class DiskLayer extends Snapshot {
+
+    private DiskLayer(final Hash root) {
+      super(root);
+    }
+
+    @Override
+    BytesValue account(final Hash accountHash) {
+      return readRecord(accountHash).map(record -> record.account).orElse(BytesValue.EMPTY);
+    }
+
+    @Override
+    BytesValue storageValue(final Hash accountHash, final Hash slotHash) {
+      return readRecord(accountHash)
+          .flatMap(record -> storage.getStorageValue(accountHash, record.incarnation, slotHash))
+          .orElse(BytesValue.EMPTY);
+    }
+
+    private Optional<AccountRecord> readRecord(final Hash accountHash) {
+      return storage.getAccount(accountHash).map(AccountRecord::decode);
+    }
+
+    private void write(final WorldStateDiff diff, final WorldStateSnapshotStorage.Updater updater) {
+      final Set<Hash> accountHashes = new HashSet<>(diff.getAccounts().keySet());
+      accountHashes.addAll(diff.getClearedStorage());
+      accountHashes.addAll(diff.getStorage().keySet());
+
+      for (final Hash accountHash : accountHashes) {
+        final Optional<AccountRecord> existing = readRecord(accountHash);
+        long incarnation = existing.map(record -> record.incarnation).orElse(0L);
+        if (existing.isPresent() && diff.getClearedStorage().contains(accountHash)) {
+          // Slots of the previous incarnation are left behind rather than deleted one by one.
+          incarnation++;
+        }
+        BytesValue account = diff.getAccount(accountHash);
+        if (account == null) {
+          account = existing.map(record -> record.account).orElse(BytesValue.EMPTY);
+        }
+        updater.putAccount(accountHash, new AccountRecord(incarnation, account).encode());
+
+        final Map<Hash, BytesValue> slots = diff.getStorage().get(accountHash);
+        if (slots != null) {
+          for (final Map.Entry<Hash, BytesValue> slot : slots.entrySet()) {
+            if (slot.getValue().isEmpty()) {
+              updater.removeStorageValue(accountHash, incarnation, slot.getKey());
+            } else {
+              updater.putStorageValue(accountHash, incarnation, slot.getKey(), slot.getValue());
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * An account as stored in the disk layer: the encoded account, or an empty value for a deleted
+   * account, along with the incarnation its storage slots are keyed by.
+   */
+  private static class AccountRecord {
+
+    private final long incarnation;
+    private final BytesValue account;
+
+    private AccountRecord(final long incarnation, final BytesValue account) {
+      this.incarnation = incarnation;
+      this.account = account;
+    }
+
+    private static AccountRecord decode(final BytesValue encoded) {
+      final RLPInput in = RLP.input(encoded);
+      in.enterList();
+      final AccountRecord record = new AccountRecord(in.readLongScalar(), in.readBytesValue());
+      in.leaveList();
+      return record;
+    }
+
+    private BytesValue encode() {
+      return RLP.encode(
+          out -> {
+            out.startList();
+            out.writeLongScalar(incarnation);
+            out.writeBytesValue(account);
+            out.endList();
+          });
+    }
+  }
+
+  /** Thrown when reading from a snapshot which has become stale. */
+  public static class StaleSnapshotException extends RuntimeException {
+
+    StaleSnapshotException(final Hash root) {
+      super("World state snapshot " + root + " is stale");
+    }
+  }
+}
@@ -13,6 +13,7 @@
 package tech.pegasys.pantheon.ethereum.worldstate;
 
 import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeCache;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -28,6 +29,16 @@ public interface WorldStateStorage {
 
   Optional<BytesValue> getNodeData(Bytes32 hash);
 
+  /** @return The cache of decoded nodes shared by all account state tries using this storage. */
+  default Optional<TrieNodeCache<BytesValue>> getAccountStateTrieNodeCache() {
+    return Optional.empty();
+  }
+
+  /** @return The cache of decoded nodes shared by all account storage tries using this storage. */
+  default Optional<TrieNodeCache<BytesValue>> getAccountStorageTrieNodeCache() {
+    return Optional.empty();
+  }
+
   boolean isWorldStateAvailable(Bytes32 rootHash);
 
   default boolean contains(final Bytes32 hash) {
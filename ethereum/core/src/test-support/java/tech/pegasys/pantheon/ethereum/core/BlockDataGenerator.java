@@ -198,7 +198,7 @@ public class BlockDataGenerator {
         .stateRoot(options.getStateRoot(hash()))
         .transactionsRoot(hash())
         .receiptsRoot(hash())
-        .logsBloom(logsBloom())
+        .logsBloom(options.getLogsBloom(logsBloom()))
         .difficulty(options.getDifficulty(uint256(4)))
         .number(number)
         .gasLimit(gasLimit)
@@ -344,6 +344,7 @@ public class BlockDataGenerator {
     private Optional<Hash> parentHash = Optional.empty();
     private Optional<Hash> stateRoot = Optional.empty();
     private Optional<UInt256> difficulty = Optional.empty();
+    private Optional<LogsBloomFilter> logsBloom = Optional.empty();
     private Optional<List<Transaction>> transactions = Optional.empty();
     private Optional<BytesValue> extraData = Optional.empty();
     private Optional<BlockHashFunction> blockHashFunction = Optional.empty();
@@ -372,6 +373,10 @@ public class BlockDataGenerator {
       return difficulty.orElse(defaultValue);
     }
 
+    public LogsBloomFilter getLogsBloom(final LogsBloomFilter defaultValue) {
+      return logsBloom.orElse(defaultValue);
+    }
+
     public BytesValue getExtraData(final Bytes32 defaultValue) {
       return extraData.orElse(defaultValue);
     }
@@ -408,6 +413,11 @@ public class BlockDataGenerator {
       return this;
     }
 
+    public BlockOptions setLogsBloom(final LogsBloomFilter logsBloom) {
+      this.logsBloom = Optional.of(logsBloom);
+      return this;
+    }
+
     public BlockOptions setExtraData(final BytesValue extraData) {
       this.extraData = Optional.of(extraData);
       return this;
@@ -12,6 +12,7 @@
  */
 package tech.pegasys.pantheon.ethereum.core;
 
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsStorage;
 import tech.pegasys.pantheon.ethereum.chain.BlockchainStorage;
 import tech.pegasys.pantheon.ethereum.chain.DefaultMutableBlockchain;
 import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
@@ -20,8 +21,11 @@ import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ScheduleBasedBlockHashFunction;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
 import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBloomBitsStorage;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyWorldStateSnapshotStorage;
 import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshotStorage;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
@@ -57,6 +61,16 @@ public class InMemoryStorageProvider implements StorageProvider {
     return new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage());
   }
 
+  @Override
+  public BloomBitsStorage createBloomBitsStorage() {
+    return new KeyValueStoragePrefixedKeyBloomBitsStorage(new InMemoryKeyValueStorage());
+  }
+
+  @Override
+  public WorldStateSnapshotStorage createWorldStateSnapshotStorage() {
+    return new KeyValueStoragePrefixedKeyWorldStateSnapshotStorage(new InMemoryKeyValueStorage());
+  }
+
   @Override
   public void close() {}
 }
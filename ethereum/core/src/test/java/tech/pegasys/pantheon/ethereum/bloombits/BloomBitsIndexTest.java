@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.bloombits;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.chain.DefaultMutableBlockchain;
+import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator.BlockOptions;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHashFunction;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBloomBitsStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BloomBitsIndexTest {
+
+  private static final int SECTION_SIZE = 8;
+  private static final int CONFIRMATIONS = 2;
+
+  private final BlockDataGenerator gen = new BlockDataGenerator(1);
+  private final Address address =
+      Address.fromHexString("0x1111111111111111111111111111111111111111");
+  private final Address otherAddress =
+      Address.fromHexString("0x2222222222222222222222222222222222222222");
+  private final LogTopic topic = LogTopic.of(BytesValue.wrap(new byte[32]));
+  private final BloomBitsStorage storage =
+      new KeyValueStoragePrefixedKeyBloomBitsStorage(new InMemoryKeyValueStorage());
+  private MutableBlockchain blockchain;
+  private BloomBitsIndex index;
+
+  @Before
+  public void setUp() {
+    Block block = gen.block(blockOptions(0, Hash.ZERO, LogsBloomFilter.empty()));
+    blockchain =
+        new DefaultMutableBlockchain(
+            block,
+            new KeyValueStoragePrefixedKeyBlockchainStorage(
+                new InMemoryKeyValueStorage(), MainnetBlockHashFunction::createHash),
+            new NoOpMetricsSystem());
+    for (int number = 1; number < 20; number++) {
+      final LogsBloomFilter logsBloom = LogsBloomFilter.empty();
+      if (number == 3) {
+        logsBloom.insertLog(new Log(address, BytesValue.EMPTY, emptyList()));
+      } else if (number == 12) {
+        logsBloom.insertLog(new Log(otherAddress, BytesValue.EMPTY, singletonList(topic)));
+      }
+      block = gen.block(blockOptions(number, block.getHash(), logsBloom));
+      blockchain.appendBlock(block, gen.receipts(block));
+    }
+    index = new BloomBitsIndex(blockchain, storage, SECTION_SIZE, CONFIRMATIONS);
+  }
+
+  private BlockOptions blockOptions(
+      final long number, final Hash parentHash, final LogsBloomFilter logsBloom) {
+    return new BlockOptions()
+        .setBlockNumber(number)
+        .setParentHash(parentHash)
+        .setLogsBloom(logsBloom);
+  }
+
+  @Test
+  public void onlyConfirmedSectionsAreComplete() {
+    // Blocks 0 to 19 with two confirmations leaves blocks 16 and 17 in an incomplete section
+    assertThat(index.getCompleteSectionCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void sectionsAreNotQueriedUntilIndexed() {
+    assertThat(index.isSectionIndexed(0)).isFalse();
+    assertThat(index.matchingBlocks(0, singletonList(singletonList(address)))).isEmpty();
+
+    index.indexSection(0);
+
+    assertThat(index.isSectionIndexed(0)).isTrue();
+    assertThat(index.isSectionIndexed(1)).isFalse();
+  }
+
+  @Test
+  public void matchingBlocksAreFoundInIndexedSections() {
+    index.indexSection(0);
+    index.indexSection(1);
+
+    assertThat(index.matchingBlocks(0, singletonList(singletonList(address)))).contains(list(3L));
+    assertThat(index.matchingBlocks(1, singletonList(singletonList(address)))).contains(list());
+    assertThat(index.matchingBlocks(1, singletonList(singletonList(topic)))).contains(list(12L));
+    assertThat(index.matchingBlocks(1, singletonList(Arrays.asList(address, topic))))
+        .contains(list(12L));
+    assertThat(index.matchingBlocks(1, Arrays.asList(singletonList(address), singletonList(topic))))
+        .contains(list());
+  }
+
+  @Test
+  public void emptyCriteriaMatchEveryBlock() {
+    index.indexSection(1);
+
+    assertThat(index.matchingBlocks(1, emptyList()))
+        .contains(list(8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L));
+  }
+
+  @Test
+  public void sectionWithDifferentHeadIsNotIndexed() {
+    index.indexSection(0);
+
+    final BloomBitsStorage.Updater updater = storage.updater();
+    updater.putSectionHead(0, gen.hash());
+    updater.commit();
+
+    assertThat(index.isSectionIndexed(0)).isFalse();
+    assertThat(index.matchingBlocks(0, emptyList())).isEmpty();
+  }
+
+  private static List<Long> list(final Long... blockNumbers) {
+    return Arrays.asList(blockNumbers);
+  }
+}
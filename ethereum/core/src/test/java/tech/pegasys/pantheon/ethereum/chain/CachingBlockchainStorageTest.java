@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator.BlockOptions;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHashFunction;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class CachingBlockchainStorageTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator(1);
+  private final BlockchainStorage storage =
+      spy(
+          new KeyValueStoragePrefixedKeyBlockchainStorage(
+              new InMemoryKeyValueStorage(), MainnetBlockHashFunction::createHash));
+  private final CachingBlockchainStorage cachingStorage =
+      new CachingBlockchainStorage(
+          storage, CachingBlockchainStorage.DEFAULT_CACHE_SIZE_BYTES, new NoOpMetricsSystem());
+
+  @Test
+  public void repeatedLookupsAreServedFromCache() {
+    final Block block = gen.block();
+    final BlockchainStorage.Updater updater = storage.updater();
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.putBlockBody(block.getHash(), block.getBody());
+    updater.commit();
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(cachingStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+      assertThat(cachingStorage.getBlockBody(block.getHash())).contains(block.getBody());
+    }
+
+    verify(storage, times(1)).getBlockHeader(block.getHash());
+    verify(storage, times(1)).getBlockBody(block.getHash());
+  }
+
+  @Test
+  public void missingValuesAreFoundOnceAdded() {
+    final Block block = gen.block();
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).isEmpty();
+    assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber())).isEmpty();
+
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.putBlockHash(block.getHeader().getNumber(), block.getHash());
+    updater.commit();
+
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+    assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber()))
+        .contains(block.getHash());
+  }
+
+  @Test
+  public void rolledBackUpdatesAreNotCached() {
+    final Block block = gen.block();
+    assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber())).isEmpty();
+
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.putBlockHash(block.getHeader().getNumber(), block.getHash());
+    updater.setChainHead(block.getHash());
+    updater.rollback();
+
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).isEmpty();
+    assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber())).isEmpty();
+    assertThat(cachingStorage.getChainHead()).isEmpty();
+  }
+
+  @Test
+  public void reorgToShorterChainUpdatesCachedBlockHashes() {
+    final List<Block> chain = gen.blockSequence(4);
+    final DefaultMutableBlockchain blockchain =
+        new DefaultMutableBlockchain(chain.get(0), cachingStorage, new NoOpMetricsSystem());
+    for (int i = 1; i < chain.size(); i++) {
+      blockchain.appendBlock(chain.get(i), gen.receipts(chain.get(i)));
+    }
+    // Make sure every canonical hash is cached before the reorg
+    for (int i = 0; i < chain.size(); i++) {
+      assertThat(blockchain.getBlockHashByNumber(i)).contains(chain.get(i).getHash());
+    }
+
+    final Block fork =
+        gen.block(
+            new BlockOptions()
+                .setParentHash(chain.get(1).getHash())
+                .setBlockNumber(2)
+                .setDifficulty(
+                    chain
+                        .get(2)
+                        .getHeader()
+                        .getDifficulty()
+                        .plus(chain.get(3).getHeader().getDifficulty())
+                        .plus(1L)));
+    blockchain.appendBlock(fork, gen.receipts(fork));
+
+    assertThat(blockchain.getChainHeadHash()).isEqualTo(fork.getHash());
+    assertThat(blockchain.getChainHeadBlockNumber()).isEqualTo(2L);
+    assertThat(blockchain.getBlockHashByNumber(1)).contains(chain.get(1).getHash());
+    assertThat(blockchain.getBlockHashByNumber(2)).contains(fork.getHash());
+    assertThat(blockchain.getBlockHashByNumber(3)).isEmpty();
+    assertThat(storage.getBlockHash(2)).contains(fork.getHash());
+    assertThat(storage.getBlockHash(3)).isEmpty();
+  }
+}
@@ -12,6 +12,7 @@
  */
 package tech.pegasys.pantheon.ethereum.core;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 
 import tech.pegasys.pantheon.util.bytes.BytesValue;
@@ -42,4 +43,20 @@ public class LogsBloomFilterTest {
             "0x00000000000000001000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000020000000000000000000800000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000004000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000020000000000040000000000000000000000000000000000000000000000000000000"),
         bloom.getBytes());
   }
+
+  @Test
+  public void couldContainInsertedAddressAndTopics() {
+    final Address address = Address.fromHexString("0x095e7baea6a6c7c4c2dfeb977efac326af552d87");
+    final LogTopic topic = LogTopic.of(BytesValue.wrap(new byte[32]));
+    final List<LogTopic> topics = new ArrayList<>();
+    topics.add(topic);
+    final LogsBloomFilter bloom = LogsBloomFilter.empty();
+    bloom.insertLog(new Log(address, BytesValue.EMPTY, topics));
+
+    assertThat(bloom.couldContain(address)).isTrue();
+    assertThat(bloom.couldContain(topic)).isTrue();
+    assertThat(
+            bloom.couldContain(Address.fromHexString("0x1111111111111111111111111111111111111111")))
+        .isFalse();
+  }
 }
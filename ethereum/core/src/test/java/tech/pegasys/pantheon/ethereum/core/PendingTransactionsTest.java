@@ -61,17 +61,62 @@ public class PendingTransactionsTest {
   }
 
   @Test
-  public void shouldDropOldestTransactionWhenLimitExceeded() {
-    final Transaction oldestTransaction = createTransaction(0);
-    transactions.addRemoteTransaction(oldestTransaction);
-    for (int i = 1; i < MAX_TRANSACTIONS; i++) {
+  public void shouldDropLowestGasPriceTransactionWhenLimitExceeded() {
+    final Transaction cheapestTransaction =
+        transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 1);
+    for (int i = 0; i < MAX_TRANSACTIONS - 1; i++) {
+      transactions.addRemoteTransaction(
+          transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 10 + i));
+    }
+    transactions.addRemoteTransaction(cheapestTransaction);
+    assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
+
+    final Transaction newTransaction =
+        transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 5);
+    assertThat(transactions.addRemoteTransaction(newTransaction)).isTrue();
+    assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
+    assertTransactionNotPending(cheapestTransaction);
+    assertTransactionPending(newTransaction);
+  }
+
+  @Test
+  public void shouldNotAddTransactionWithLowerGasPriceThanAllOthersWhenFull() {
+    for (int i = 0; i < MAX_TRANSACTIONS; i++) {
+      transactions.addRemoteTransaction(
+          transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 10));
+    }
+
+    final Transaction cheapTransaction =
+        transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 1);
+    transactions.addTransactionListener(listener);
+    assertThat(transactions.addRemoteTransaction(cheapTransaction)).isFalse();
+
+    assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
+    assertTransactionNotPending(cheapTransaction);
+    verifyZeroInteractions(listener);
+  }
+
+  @Test
+  public void shouldDropFutureTransactionsBeforeExecutableTransactions() {
+    final Transaction futureTransaction = transactionWithNonceSenderAndGasPrice(5, KEYS2, 100);
+    transactions.addRemoteTransaction(transactionWithNonceSenderAndGasPrice(3, KEYS2, 1));
+    transactions.addRemoteTransaction(futureTransaction);
+    for (int i = 0; i < MAX_TRANSACTIONS - 1; i++) {
       transactions.addRemoteTransaction(createTransaction(i));
     }
     assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
+    assertTransactionNotPending(futureTransaction);
+  }
 
-    transactions.addRemoteTransaction(createTransaction(MAX_TRANSACTIONS + 1));
+  @Test
+  public void shouldDropHighestNonceTransactionOfSenderWhenLimitExceeded() {
+    final Transaction highestNonceTransaction = createTransaction(MAX_TRANSACTIONS);
+    for (int i = 0; i <= MAX_TRANSACTIONS; i++) {
+      transactions.addRemoteTransaction(createTransaction(i));
+    }
     assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
-    assertTransactionNotPending(oldestTransaction);
+    assertTransactionNotPending(highestNonceTransaction);
+    assertMaximumNonceForSender(SENDER1, MAX_TRANSACTIONS);
   }
 
   @Test
@@ -103,14 +148,16 @@ public class PendingTransactionsTest {
 
   @Test
   public void shouldStartDroppingLocalTransactionsWhenPoolIsFullOfLocalTransactions() {
-    final Transaction firstLocalTransaction = createTransaction(0);
-    transactions.addLocalTransaction(firstLocalTransaction);
+    final Transaction cheapestLocalTransaction =
+        transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 1);
+    transactions.addLocalTransaction(cheapestLocalTransaction);
 
     for (int i = 1; i <= MAX_TRANSACTIONS; i++) {
-      transactions.addLocalTransaction(createTransaction(i));
+      transactions.addLocalTransaction(
+          transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 10));
     }
     assertThat(transactions.size()).isEqualTo(MAX_TRANSACTIONS);
-    assertTransactionNotPending(firstLocalTransaction);
+    assertTransactionNotPending(cheapestLocalTransaction);
   }
 
   @Test
@@ -238,6 +285,21 @@ public class PendingTransactionsTest {
     verifyZeroInteractions(listener);
   }
 
+  @Test
+  public void shouldNotReplaceTransactionWhenGasPriceIsNotBumpedEnough() {
+    final Transaction transaction1 = transactionWithNonceSenderAndGasPrice(1, KEYS1, 100);
+    final Transaction transaction1b = transactionWithNonceSenderAndGasPrice(1, KEYS1, 109);
+    final Transaction transaction1c = transactionWithNonceSenderAndGasPrice(1, KEYS1, 110);
+    assertThat(transactions.addRemoteTransaction(transaction1)).isTrue();
+    assertThat(transactions.addRemoteTransaction(transaction1b)).isFalse();
+    assertThat(transactions.addRemoteTransaction(transaction1c)).isTrue();
+
+    assertTransactionNotPending(transaction1);
+    assertTransactionNotPending(transaction1b);
+    assertTransactionPending(transaction1c);
+    assertThat(transactions.size()).isEqualTo(1);
+  }
+
   @Test
   public void shouldTrackMaximumNonceForEachSender() {
     transactions.addRemoteTransaction(transactionWithNonceAndSender(0, KEYS1));
@@ -279,8 +341,8 @@ public class PendingTransactionsTest {
     final Transaction transaction1 = transactionWithNonceAndSender(0, KEYS1);
     final Transaction transaction2 = transactionWithNonceAndSender(1, KEYS2);
 
-    transactions.addLocalTransaction(transaction1);
     transactions.addLocalTransaction(transaction2);
+    transactions.addLocalTransaction(transaction1);
 
     final List<Transaction> iterationOrder = new ArrayList<>();
     transactions.selectTransactions(
@@ -299,10 +361,10 @@ public class PendingTransactionsTest {
     final Transaction transaction3 = transactionWithNonceAndSender(2, KEYS1);
     final Transaction transaction4 = transactionWithNonceAndSender(5, KEYS2);
 
-    transactions.addLocalTransaction(transaction1);
-    transactions.addLocalTransaction(transaction4);
-    transactions.addLocalTransaction(transaction2);
     transactions.addLocalTransaction(transaction3);
+    transactions.addLocalTransaction(transaction2);
+    transactions.addLocalTransaction(transaction4);
+    transactions.addLocalTransaction(transaction1);
 
     final List<Transaction> iterationOrder = new ArrayList<>();
     transactions.selectTransactions(
@@ -316,6 +378,74 @@ public class PendingTransactionsTest {
         .containsExactly(transaction4, transaction1, transaction2, transaction3);
   }
 
+  @Test
+  public void shouldSelectTransactionsInGasPriceOrder() {
+    final Transaction transaction1 = transactionWithNonceSenderAndGasPrice(0, KEYS1, 1);
+    final Transaction transaction2 = transactionWithNonceSenderAndGasPrice(0, KEYS2, 3);
+    final Transaction transaction3 =
+        transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 2);
+
+    transactions.addRemoteTransaction(transaction1);
+    transactions.addRemoteTransaction(transaction2);
+    transactions.addRemoteTransaction(transaction3);
+
+    final List<Transaction> iterationOrder = new ArrayList<>();
+    transactions.selectTransactions(
+        transaction -> {
+          iterationOrder.add(transaction);
+          return TransactionSelectionResult.CONTINUE;
+        });
+
+    assertThat(iterationOrder).containsExactly(transaction2, transaction3, transaction1);
+  }
+
+  @Test
+  public void shouldSelectTransactionsWithEqualGasPriceInArrivalOrder() {
+    final Transaction transaction1 = transactionWithNonceSenderAndGasPrice(0, KEYS1, 2);
+    final Transaction transaction2 = transactionWithNonceSenderAndGasPrice(0, KEYS2, 2);
+    final Transaction transaction3 =
+        transactionWithNonceSenderAndGasPrice(0, KeyPair.generate(), 2);
+
+    transactions.addRemoteTransaction(transaction1);
+    transactions.addRemoteTransaction(transaction2);
+    transactions.addRemoteTransaction(transaction3);
+
+    final List<Transaction> iterationOrder = new ArrayList<>();
+    transactions.selectTransactions(
+        transaction -> {
+          iterationOrder.add(transaction);
+          return TransactionSelectionResult.CONTINUE;
+        });
+
+    assertThat(iterationOrder).containsExactly(transaction1, transaction2, transaction3);
+  }
+
+  @Test
+  public void shouldNotSelectFutureTransactionsUntilNonceGapIsFilled() {
+    final Transaction transaction1 = transactionWithNonceAndSender(0, KEYS1);
+    final Transaction transaction2 = transactionWithNonceAndSender(1, KEYS1);
+    final Transaction transaction3 = transactionWithNonceAndSender(2, KEYS1);
+    transactions.addRemoteTransaction(transaction1);
+    transactions.addRemoteTransaction(transaction3);
+
+    final List<Transaction> iterationOrder = new ArrayList<>();
+    transactions.selectTransactions(
+        transaction -> {
+          iterationOrder.add(transaction);
+          return TransactionSelectionResult.CONTINUE;
+        });
+    assertThat(iterationOrder).containsExactly(transaction1);
+
+    transactions.addRemoteTransaction(transaction2);
+    iterationOrder.clear();
+    transactions.selectTransactions(
+        transaction -> {
+          iterationOrder.add(transaction);
+          return TransactionSelectionResult.CONTINUE;
+        });
+    assertThat(iterationOrder).containsExactly(transaction1, transaction2, transaction3);
+  }
+
   private void assertMaximumNonceForSender(final Address sender1, final int i) {
     assertThat(transactions.getNextNonceForSender(sender1)).isEqualTo(OptionalLong.of(i));
   }
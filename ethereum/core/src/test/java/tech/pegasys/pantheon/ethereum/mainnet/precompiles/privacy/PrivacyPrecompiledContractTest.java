@@ -13,10 +13,13 @@
 package tech.pegasys.pantheon.ethereum.mainnet.precompiles.privacy;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
@@ -25,6 +28,8 @@ import tech.pegasys.pantheon.enclave.types.ReceiveRequest;
 import tech.pegasys.pantheon.enclave.types.ReceiveResponse;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.ProcessableBlockHeader;
 import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
 import tech.pegasys.pantheon.ethereum.mainnet.SpuriousDragonGasCalculator;
@@ -36,6 +41,7 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.IOException;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -122,4 +128,49 @@ public class PrivacyPrecompiledContractTest {
 
     assertThat(expected).isEqualTo(BytesValue.EMPTY);
   }
+
+  @Test
+  public void prefetchedPrivateTransactionIsUsed() throws IOException {
+    final Enclave enclave = mock(Enclave.class);
+    when(enclave.receiveAsync(any(ReceiveRequest.class)))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new ReceiveResponse(VALID_PRIVATE_TRANSACTION_RLP_BASE64)));
+    final PrivacyPrecompiledContract contract =
+        new PrivacyPrecompiledContract(new SpuriousDragonGasCalculator(), publicKey, enclave);
+    contract.setPrivateTransactionProcessor(mockPrivateTxProcessor());
+
+    final BlockHeader blockHeader = new BlockDataGenerator().header();
+    when(messageFrame.getBlockHeader()).thenReturn(blockHeader);
+
+    contract.prefetch(blockHeader.getHash(), singletonList(key));
+    final BytesValue actual = contract.compute(key, messageFrame);
+
+    assertThat(actual).isEqualTo(BytesValue.fromHexString(DEFAULT_OUTPUT));
+    verify(enclave).receiveAsync(any(ReceiveRequest.class));
+    verify(enclave, never()).receive(any(ReceiveRequest.class));
+  }
+
+  @Test
+  public void privateTransactionPrefetchedForAnotherBlockIsNotUsed() throws IOException {
+    final Enclave enclave = mockEnclave();
+    final CompletableFuture<ReceiveResponse> prefetched = new CompletableFuture<>();
+    when(enclave.receiveAsync(any(ReceiveRequest.class))).thenReturn(prefetched);
+    final PrivacyPrecompiledContract contract =
+        new PrivacyPrecompiledContract(new SpuriousDragonGasCalculator(), publicKey, enclave);
+    contract.setPrivateTransactionProcessor(mockPrivateTxProcessor());
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final BlockHeader prefetchedBlockHeader = gen.header();
+    final BlockHeader blockHeader = gen.header();
+    when(messageFrame.getBlockHeader()).thenReturn(blockHeader);
+
+    contract.prefetch(prefetchedBlockHeader.getHash(), singletonList(key));
+    final BytesValue actual = contract.compute(key, messageFrame);
+
+    assertThat(actual).isEqualTo(BytesValue.fromHexString(DEFAULT_OUTPUT));
+    verify(enclave).receive(any(ReceiveRequest.class));
+
+    contract.discardPrefetched(prefetchedBlockHeader.getHash());
+    assertThat(prefetched).isCancelled();
+  }
 }
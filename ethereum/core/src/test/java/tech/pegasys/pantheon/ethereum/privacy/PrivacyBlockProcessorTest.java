@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.privacy;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.mainnet.BlockProcessor;
+import tech.pegasys.pantheon.ethereum.mainnet.precompiles.privacy.PrivacyPrecompiledContract;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class PrivacyBlockProcessorTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final BlockProcessor blockProcessor = mock(BlockProcessor.class);
+  private final PrivacyPrecompiledContract privacyPrecompiledContract =
+      mock(PrivacyPrecompiledContract.class);
+  private final Blockchain blockchain = mock(Blockchain.class);
+  private final MutableWorldState worldState = mock(MutableWorldState.class);
+
+  @Test
+  public void fetchesPrivateTransactionsBeforeProcessingBlock() {
+    final Block block = gen.block();
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    final Transaction privacyMarker = transactions.get(0);
+    final Address privacyPrecompileAddress = privacyMarker.getTo().get();
+    final List<BytesValue> payloads = singletonList(privacyMarker.getPayload());
+    final PrivacyBlockProcessor privacyBlockProcessor =
+        new PrivacyBlockProcessor(
+            blockProcessor, privacyPrecompileAddress, privacyPrecompiledContract);
+
+    privacyBlockProcessor.processBlock(
+        blockchain, worldState, block.getHeader(), transactions, emptyList());
+
+    final InOrder inOrder = inOrder(privacyPrecompiledContract, blockProcessor);
+    inOrder.verify(privacyPrecompiledContract).prefetch(block.getHash(), payloads);
+    inOrder
+        .verify(blockProcessor)
+        .processBlock(blockchain, worldState, block.getHeader(), transactions, emptyList());
+    inOrder.verify(privacyPrecompiledContract).discardPrefetched(block.getHash());
+  }
+
+  @Test
+  public void blocksWithoutPrivacyMarkersAreProcessedDirectly() {
+    final Block block = gen.block();
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    final PrivacyBlockProcessor privacyBlockProcessor =
+        new PrivacyBlockProcessor(
+            blockProcessor, Address.DEFAULT_PRIVACY, privacyPrecompiledContract);
+
+    privacyBlockProcessor.processBlock(
+        blockchain, worldState, block.getHeader(), transactions, emptyList());
+
+    verify(blockProcessor)
+        .processBlock(blockchain, worldState, block.getHeader(), transactions, emptyList());
+    verifyZeroInteractions(privacyPrecompiledContract);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.chain.BlockchainStorage;
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RocksDbStorageProviderTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @Test
+  public void blockchainDataIsPersistedAcrossRestarts() throws Exception {
+    final Path databaseDir = folder.newFolder().toPath();
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+
+    try (final StorageProvider storageProvider = createStorageProvider(databaseDir)) {
+      final BlockchainStorage.Updater updater =
+          storageProvider.createBlockchainStorage(MainnetProtocolSchedule.create()).updater();
+      updater.putBlockHeader(block.getHash(), block.getHeader());
+      updater.putBlockBody(block.getHash(), block.getBody());
+      updater.putTransactionReceipts(block.getHash(), receipts);
+      updater.putBlockHash(block.getHeader().getNumber(), block.getHash());
+      updater.putTotalDifficulty(block.getHash(), UInt256.of(10));
+      updater.setChainHead(block.getHash());
+      updater.commit();
+    }
+
+    try (final StorageProvider storageProvider = createStorageProvider(databaseDir)) {
+      final BlockchainStorage blockchainStorage =
+          storageProvider.createBlockchainStorage(MainnetProtocolSchedule.create());
+      assertThat(blockchainStorage.getChainHead()).contains(block.getHash());
+      assertThat(blockchainStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+      assertThat(blockchainStorage.getBlockBody(block.getHash())).contains(block.getBody());
+      assertThat(blockchainStorage.getTransactionReceipts(block.getHash())).contains(receipts);
+      assertThat(blockchainStorage.getBlockHash(block.getHeader().getNumber()))
+          .contains(block.getHash());
+      assertThat(blockchainStorage.getTotalDifficulty(block.getHash())).contains(UInt256.of(10));
+    }
+  }
+
+  @Test
+  public void worldStateDataIsSegmented() throws Exception {
+    final BytesValue accountNode = BytesValue.fromHexString("0x12");
+    final BytesValue storageNode = BytesValue.fromHexString("0x1234");
+    final BytesValue code = BytesValue.fromHexString("0x123456");
+
+    try (final StorageProvider storageProvider =
+        createStorageProvider(folder.newFolder().toPath())) {
+      final WorldStateStorage worldStateStorage = storageProvider.createWorldStateStorage();
+      worldStateStorage
+          .updater()
+          .putAccountStateTrieNode(Hash.hash(accountNode), accountNode)
+          .putAccountStorageTrieNode(Hash.hash(storageNode), storageNode)
+          .putCode(code)
+          .commit();
+
+      assertThat(worldStateStorage.getAccountStateTrieNode(Hash.hash(accountNode)))
+          .contains(accountNode);
+      assertThat(worldStateStorage.getAccountStateTrieNode(Hash.hash(storageNode))).isEmpty();
+      assertThat(worldStateStorage.getAccountStorageTrieNode(Hash.hash(storageNode)))
+          .contains(storageNode);
+      assertThat(worldStateStorage.getCode(Hash.hash(code))).contains(code);
+
+      assertThat(worldStateStorage.getNodeData(Hash.hash(accountNode))).contains(accountNode);
+      assertThat(worldStateStorage.getNodeData(Hash.hash(storageNode))).contains(storageNode);
+      assertThat(worldStateStorage.getNodeData(Hash.hash(code))).contains(code);
+    }
+  }
+
+  @Test
+  public void existingSingleKeyspaceDatabaseIsStillReadable() throws Exception {
+    final Path databaseDir = folder.newFolder().toPath();
+    final BytesValue node = BytesValue.fromHexString("0x12");
+    try (final StorageProvider storageProvider =
+        new KeyValueStorageProvider(
+            RocksDbKeyValueStorage.create(databaseDir, new NoOpMetricsSystem()))) {
+      storageProvider
+          .createWorldStateStorage()
+          .updater()
+          .putAccountStateTrieNode(Hash.hash(node), node)
+          .commit();
+    }
+
+    try (final StorageProvider storageProvider = createStorageProvider(databaseDir)) {
+      assertThat(storageProvider).isInstanceOf(KeyValueStorageProvider.class);
+      assertThat(storageProvider.createWorldStateStorage().getAccountStateTrieNode(Hash.hash(node)))
+          .contains(node);
+    }
+  }
+
+  private StorageProvider createStorageProvider(final Path databaseDir) throws Exception {
+    return RocksDbStorageProvider.create(databaseDir, new NoOpMetricsSystem());
+  }
+}
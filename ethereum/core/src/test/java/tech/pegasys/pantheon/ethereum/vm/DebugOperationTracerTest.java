@@ -16,6 +16,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason.INSUFFICIENT_GAS;
 
@@ -34,6 +36,7 @@ import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
@@ -137,6 +140,42 @@ public class DebugOperationTracerTest {
     assertThat(traceFrame.getMemory()).isEmpty();
   }
 
+  @Test
+  public void shouldRecordOnlyWrittenMemoryBetweenSteps() throws Exception {
+    final MessageFrame frame = validMessageFrame();
+    final Bytes32 word1 = Bytes32.fromHexString("0x01");
+    final Bytes32 word2 = Bytes32.fromHexString("0x02");
+    frame.writeMemory(UInt256.ZERO, UInt256.of(32), word1);
+    final DebugOperationTracer tracer =
+        new DebugOperationTracer(new TraceOptions(false, true, false));
+
+    tracer.traceExecution(frame, Optional.of(Gas.ZERO), executeOperationAction);
+    tracer.traceExecution(frame, Optional.of(Gas.ZERO), executeOperationAction);
+    frame.writeMemory(UInt256.of(64), UInt256.of(32), word2);
+    tracer.traceExecution(frame, Optional.of(Gas.ZERO), executeOperationAction);
+
+    final List<TraceFrame> traceFrames = tracer.getTraceFrames();
+    assertThat(traceFrames.get(1).getMemorySnapshot().get())
+        .isSameAs(traceFrames.get(0).getMemorySnapshot().get());
+    assertThat(traceFrames.get(2).getMemorySnapshot().get().getRecordedSize()).isEqualTo(32);
+    assertThat(traceFrames.get(2).getMemory().get()).containsExactly(word1, Bytes32.ZERO, word2);
+  }
+
+  @Test
+  public void shouldStopRecordingWhenTraceSizeLimitIsExceeded() throws Exception {
+    final MessageFrame frame = validMessageFrame();
+    final DebugOperationTracer tracer =
+        new DebugOperationTracer(new TraceOptions(false, false, false), 200);
+
+    for (int i = 0; i < 3; i++) {
+      tracer.traceExecution(frame, Optional.of(Gas.ZERO), executeOperationAction);
+    }
+
+    assertThat(tracer.getTraceFrames()).hasSize(1);
+    assertThat(tracer.isTraceSizeExceeded()).isTrue();
+    verify(executeOperationAction, times(3)).execute();
+  }
+
   @Test
   public void shouldRecordStorageWhenEnabled() throws Exception {
     final MessageFrame frame = validMessageFrame();
@@ -146,6 +185,21 @@ public class DebugOperationTracerTest {
     assertThat(traceFrame.getStorage().get()).isEqualTo(updatedStorage);
   }
 
+  @Test
+  public void shouldShareStorageBetweenStepsWhichDoNotStore() throws Exception {
+    final MessageFrame frame = validMessageFrame();
+    setupStorageForCapture(frame);
+    final DebugOperationTracer tracer =
+        new DebugOperationTracer(new TraceOptions(true, false, false));
+
+    tracer.traceExecution(frame, Optional.of(Gas.ZERO), executeOperationAction);
+    tracer.traceExecution(frame, Optional.of(Gas.ZERO), executeOperationAction);
+
+    final List<TraceFrame> traceFrames = tracer.getTraceFrames();
+    assertThat(traceFrames.get(1).getStorage().get())
+        .isSameAs(traceFrames.get(0).getStorage().get());
+  }
+
   @Test
   public void shouldNotRecordStorageWhenDisabled() throws Exception {
     final TraceFrame traceFrame =
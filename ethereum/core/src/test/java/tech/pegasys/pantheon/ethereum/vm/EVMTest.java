@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.MessageFrameTestFixture;
+import tech.pegasys.pantheon.ethereum.mainnet.ConstantinopleFixGasCalculator;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetEvmRegistries;
+import tech.pegasys.pantheon.ethereum.vm.ehalt.ExceptionalHaltException;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import org.junit.Test;
+
+public class EVMTest {
+
+  // PUSH1 3 PUSH1 4 MUL PUSH1 0 MSTORE PUSH1 32 PUSH1 0 RETURN
+  private static final String MULTIPLY_AND_RETURN = "0x600360040260005260206000f3";
+
+  // Any tracer other than NO_TRACING forces the EVM through the fully checked path
+  private static final OperationTracer PASS_THROUGH_TRACER =
+      (frame, currentGasCost, executeOperation) -> executeOperation.execute();
+
+  private final EVM evm = MainnetEvmRegistries.constantinople(new ConstantinopleFixGasCalculator());
+
+  @Test
+  public void successfulExecutionMatchesTracedExecution() {
+    final MessageFrame frame = assertSameAsTraced(MULTIPLY_AND_RETURN, Gas.of(100_000));
+
+    assertThat(frame.getState()).isEqualTo(MessageFrame.State.CODE_SUCCESS);
+    assertThat(frame.getOutputData())
+        .isEqualTo(
+            BytesValue.fromHexString(
+                "0x000000000000000000000000000000000000000000000000000000000000000c"));
+  }
+
+  @Test
+  public void stackUnderflowHaltsLikeTracedExecution() {
+    // ADD with an empty stack
+    final MessageFrame frame = assertSameAsTraced("0x01", Gas.of(100_000));
+
+    assertThat(frame.getExceptionalHaltReasons())
+        .containsExactly(ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS);
+  }
+
+  @Test
+  public void insufficientGasHaltsLikeTracedExecution() {
+    final MessageFrame frame = assertSameAsTraced(MULTIPLY_AND_RETURN, Gas.of(10));
+
+    assertThat(frame.getExceptionalHaltReasons())
+        .containsExactly(ExceptionalHaltReason.INSUFFICIENT_GAS);
+  }
+
+  @Test
+  public void operationSpecificHaltsLikeTracedExecution() {
+    // PUSH1 3 JUMP, where offset 3 is not a JUMPDEST
+    final MessageFrame frame = assertSameAsTraced("0x600356", Gas.of(100_000));
+
+    assertThat(frame.getExceptionalHaltReasons())
+        .containsExactly(ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
+  }
+
+  @Test
+  public void invalidOperationHaltsLikeTracedExecution() {
+    final MessageFrame frame = assertSameAsTraced("0x6001fe", Gas.of(100_000));
+
+    assertThat(frame.getExceptionalHaltReasons())
+        .containsExactly(ExceptionalHaltReason.INVALID_OPERATION);
+  }
+
+  private MessageFrame assertSameAsTraced(final String code, final Gas initialGas) {
+    final MessageFrame frame = run(code, initialGas, OperationTracer.NO_TRACING);
+    final MessageFrame tracedFrame = run(code, initialGas, PASS_THROUGH_TRACER);
+
+    assertThat(frame.getState()).isEqualTo(tracedFrame.getState());
+    assertThat(frame.getPC()).isEqualTo(tracedFrame.getPC());
+    assertThat(frame.getRemainingGas()).isEqualTo(tracedFrame.getRemainingGas());
+    assertThat(frame.getOutputData()).isEqualTo(tracedFrame.getOutputData());
+    assertThat(frame.getExceptionalHaltReasons())
+        .isEqualTo(tracedFrame.getExceptionalHaltReasons());
+    return frame;
+  }
+
+  private MessageFrame run(
+      final String code, final Gas initialGas, final OperationTracer operationTracer) {
+    final MessageFrame frame =
+        new MessageFrameTestFixture()
+            .code(new Code(BytesValue.fromHexString(code)))
+            .initialGas(initialGas)
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    try {
+      evm.runToHalt(frame, operationTracer);
+    } catch (final ExceptionalHaltException e) {
+      // The halt reasons are also recorded in the frame
+    }
+    return frame;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.mainnet.ConstantinopleFixGasCalculator;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetEvmRegistries;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class JumpDestinationCacheTest {
+
+  // PUSH1 0x5b JUMPDEST STOP: only offset 2 is a valid jump destination
+  private static final BytesValue CODE = BytesValue.fromHexString("0x605b5b00");
+
+  private final EVM evm = MainnetEvmRegistries.constantinople(new ConstantinopleFixGasCalculator());
+
+  @Test
+  public void analysesCodeOnlyOnce() {
+    final JumpDestinationCache cache = new JumpDestinationCache(1024);
+    final Hash codeHash = Hash.hash(CODE);
+    final AtomicInteger analyses = new AtomicInteger();
+
+    final BitSet first =
+        cache.getJumpDestinations(
+            codeHash,
+            () -> {
+              analyses.incrementAndGet();
+              return BitSet.valueOf(new byte[] {0x04});
+            });
+    final BitSet second =
+        cache.getJumpDestinations(
+            codeHash,
+            () -> {
+              analyses.incrementAndGet();
+              return new BitSet();
+            });
+
+    assertThat(analyses).hasValue(1);
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  public void codeWithHashHasSameJumpDestinationsAsCodeWithout() {
+    final Code code = new Code(CODE);
+    final Code deployedCode = new Code(CODE, Hash.hash(CODE));
+    final Code otherDeployedCode = new Code(CODE, Hash.hash(CODE));
+
+    for (int i = 0; i <= CODE.size(); i++) {
+      final UInt256 destination = UInt256.of(i);
+      final boolean expected = i == 2;
+      assertThat(code.isValidJumpDestination(evm, destination)).isEqualTo(expected);
+      assertThat(deployedCode.isValidJumpDestination(evm, destination)).isEqualTo(expected);
+      assertThat(otherDeployedCode.isValidJumpDestination(evm, destination)).isEqualTo(expected);
+    }
+  }
+}
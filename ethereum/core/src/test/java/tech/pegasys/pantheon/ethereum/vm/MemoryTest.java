@@ -147,6 +147,26 @@ public class MemoryTest {
     assertThat(memory.getWord(UInt256.of(64))).isEqualTo(Bytes32.ZERO);
   }
 
+  @Test
+  public void shouldKeepContentsWhenExpanding() {
+    memory.setWord(UInt256.of(10), WORD1);
+    final BytesValue value = BytesValues.concatenate(WORD2, WORD3, WORD4);
+    memory.setBytes(UInt256.of(4097), UInt256.of(value.size()), value);
+
+    assertThat(memory.getActiveWords()).isEqualTo(UInt256.of(132));
+    assertThat(memory.getWord(UInt256.of(10))).isEqualTo(WORD1);
+    assertThat(memory.getBytes(UInt256.of(4097), UInt256.of(value.size()))).isEqualTo(value);
+    assertThat(memory.getWord(UInt256.of(4000))).isEqualTo(Bytes32.ZERO);
+  }
+
+  @Test
+  public void shouldExpandActiveWordsWhenReading() {
+    assertThat(memory.getBytes(UInt256.of(31), UInt256.of(2)))
+        .isEqualTo(BytesValue.fromHexString("0x0000"));
+    assertThat(memory.getActiveWords()).isEqualTo(UInt256.of(2));
+    assertThat(memory.getActiveBytes()).isEqualTo(64);
+  }
+
   private static Bytes32 fillBytes32(final long value) {
     return Bytes32.fromHexString(Strings.repeat(Long.toString(value), 64));
   }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableAccount;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import org.junit.Test;
+
+public class CachingWorldStateStorageTest {
+
+  private static final int ACCOUNT_COUNT = 50;
+
+  private final WorldStateStorage storage =
+      spy(new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage()));
+  private final CachingWorldStateStorage cachingStorage =
+      new CachingWorldStateStorage(
+          storage, CachingWorldStateStorage.DEFAULT_CACHE_SIZE_BYTES, new NoOpMetricsSystem());
+
+  @Test
+  public void trieNodesAreSharedBetweenWorldStates() {
+    final Hash rootHash = createAccounts();
+    assertAccounts(new DefaultMutableWorldState(rootHash, cachingStorage));
+
+    clearInvocations(storage);
+    assertAccounts(new DefaultMutableWorldState(rootHash, cachingStorage));
+
+    verify(storage, never()).getAccountStateTrieNode(any());
+    verify(storage, never()).getAccountStorageTrieNode(any());
+  }
+
+  @Test
+  public void updatedWorldStateIsReadThroughCache() {
+    final Hash rootHash = createAccounts();
+    final MutableWorldState worldState = new DefaultMutableWorldState(rootHash, cachingStorage);
+    assertAccounts(worldState);
+
+    final WorldUpdater updater = worldState.updater();
+    updater.getMutable(address(0)).setBalance(Wei.of(12345));
+    updater.commit();
+    worldState.persist();
+
+    final MutableWorldState updated =
+        new DefaultMutableWorldState(worldState.rootHash(), cachingStorage);
+    assertThat(updated.get(address(0)).getBalance()).isEqualTo(Wei.of(12345));
+    assertThat(updated.get(address(1)).getBalance()).isEqualTo(Wei.of(1));
+    assertThat(new DefaultMutableWorldState(rootHash, cachingStorage).get(address(0)).getBalance())
+        .isEqualTo(Wei.of(0));
+  }
+
+  private Hash createAccounts() {
+    final MutableWorldState worldState = new DefaultMutableWorldState(cachingStorage);
+    final WorldUpdater updater = worldState.updater();
+    for (int i = 0; i < ACCOUNT_COUNT; i++) {
+      final MutableAccount account = updater.createAccount(address(i));
+      account.setBalance(Wei.of(i));
+      account.setStorageValue(UInt256.of(i), UInt256.of(i + 1));
+    }
+    updater.commit();
+    worldState.persist();
+    return worldState.rootHash();
+  }
+
+  private void assertAccounts(final MutableWorldState worldState) {
+    for (int i = 0; i < ACCOUNT_COUNT; i++) {
+      final Account account = worldState.get(address(i));
+      assertThat(account.getBalance()).isEqualTo(Wei.of(i));
+      assertThat(account.getStorageValue(UInt256.of(i))).isEqualTo(UInt256.of(i + 1));
+    }
+  }
+
+  private static Address address(final int index) {
+    return Address.fromHexString(String.format("0x%040x", index + 1));
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableAccount;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyWorldStateSnapshotStorage;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshots.Snapshot;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshots.StaleSnapshotException;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WorldStateSnapshotsTest {
+
+  private static final Hash ACCOUNT = Hash.hash(BytesValue.of(1));
+  private static final Hash SLOT = Hash.hash(BytesValue.of(2));
+
+  private final InMemoryKeyValueStorage keyValueStorage = new InMemoryKeyValueStorage();
+  private final WorldStateSnapshotStorage storage =
+      new KeyValueStoragePrefixedKeyWorldStateSnapshotStorage(keyValueStorage);
+
+  private WorldStateSnapshots createSnapshots(final int maxDiffLayers) {
+    return WorldStateSnapshots.create(storage, true, maxDiffLayers, new NoOpMetricsSystem()).get();
+  }
+
+  private static Hash root(final int i) {
+    return Hash.hash(BytesValue.of(100 + i));
+  }
+
+  private static WorldStateDiff accountDiff(final int value) {
+    final WorldStateDiff diff = new WorldStateDiff();
+    diff.putAccount(ACCOUNT, BytesValue.of(value));
+    diff.putStorageValue(ACCOUNT, SLOT, BytesValue.of(value));
+    return diff;
+  }
+
+  @Test
+  public void noSnapshotForExistingDatabase() {
+    assertThat(WorldStateSnapshots.create(storage, false, new NoOpMetricsSystem())).isEmpty();
+  }
+
+  @Test
+  public void readsGoThroughDiffLayersToDiskLayer() {
+    final WorldStateSnapshots snapshots = createSnapshots(2);
+    Hash parent = Hash.EMPTY_TRIE_HASH;
+    for (int i = 1; i <= 4; i++) {
+      snapshots.addLayer(parent, root(i), accountDiff(i));
+      parent = root(i);
+    }
+
+    // Only the two most recent states are kept in diff layers
+    assertThat(storage.getDiskLayerRoot()).contains(root(2));
+    assertThat(snapshots.get(root(1))).isEmpty();
+    for (int i = 2; i <= 4; i++) {
+      final Snapshot snapshot = snapshots.get(root(i)).get();
+      assertThat(snapshot.getAccount(ACCOUNT)).contains(BytesValue.of(i));
+      assertThat(snapshot.getStorageValue(ACCOUNT, SLOT)).contains(BytesValue.of(i));
+      assertThat(snapshot.getAccount(SLOT)).isEmpty();
+    }
+  }
+
+  @Test
+  public void flatteningMakesOtherForksStale() {
+    final WorldStateSnapshots snapshots = createSnapshots(1);
+    snapshots.addLayer(Hash.EMPTY_TRIE_HASH, root(1), accountDiff(1));
+    snapshots.addLayer(Hash.EMPTY_TRIE_HASH, root(2), accountDiff(2));
+    final Snapshot disk = snapshots.get(Hash.EMPTY_TRIE_HASH).get();
+    final Snapshot fork = snapshots.get(root(2)).get();
+    assertThat(fork.getAccount(ACCOUNT)).contains(BytesValue.of(2));
+
+    snapshots.addLayer(root(1), root(3), accountDiff(3));
+
+    assertThat(snapshots.get(root(2))).isEmpty();
+    assertThatThrownBy(() -> fork.getAccount(ACCOUNT)).isInstanceOf(StaleSnapshotException.class);
+    assertThatThrownBy(() -> disk.getAccount(ACCOUNT)).isInstanceOf(StaleSnapshotException.class);
+    assertThat(snapshots.get(root(1)).get().getAccount(ACCOUNT)).contains(BytesValue.of(1));
+    assertThat(snapshots.get(root(3)).get().getAccount(ACCOUNT)).contains(BytesValue.of(3));
+    assertThat(storage.getDiffLayer(root(2))).isEmpty();
+  }
+
+  @Test
+  public void clearedStorageIsNotReadFromDiskLayer() {
+    final WorldStateSnapshots snapshots = createSnapshots(1);
+    final Hash otherSlot = Hash.hash(BytesValue.of(3));
+    final WorldStateDiff initial = accountDiff(1);
+    initial.putStorageValue(ACCOUNT, otherSlot, BytesValue.of(1));
+    snapshots.addLayer(Hash.EMPTY_TRIE_HASH, root(1), initial);
+
+    final WorldStateDiff cleared = new WorldStateDiff();
+    cleared.clearStorage(ACCOUNT);
+    cleared.putStorageValue(ACCOUNT, SLOT, BytesValue.of(2));
+    snapshots.addLayer(root(1), root(2), cleared);
+    final Snapshot snapshot = snapshots.get(root(2)).get();
+    assertThat(snapshot.getStorageValue(ACCOUNT, SLOT)).contains(BytesValue.of(2));
+    assertThat(snapshot.getStorageValue(ACCOUNT, otherSlot)).isEmpty();
+
+    // Flatten the cleared storage into the disk layer
+    snapshots.addLayer(root(2), root(3), new WorldStateDiff());
+    assertThat(storage.getDiskLayerRoot()).contains(root(2));
+    assertThat(snapshot.getAccount(ACCOUNT)).contains(BytesValue.of(1));
+    assertThat(snapshot.getStorageValue(ACCOUNT, SLOT)).contains(BytesValue.of(2));
+    assertThat(snapshot.getStorageValue(ACCOUNT, otherSlot)).isEmpty();
+
+    final WorldStateDiff deleted = new WorldStateDiff();
+    deleted.removeAccount(ACCOUNT);
+    snapshots.addLayer(root(3), root(4), deleted);
+    snapshots.addLayer(root(4), root(5), new WorldStateDiff());
+    assertThat(storage.getDiskLayerRoot()).contains(root(4));
+    assertThat(snapshots.get(root(5)).get().getAccount(ACCOUNT)).isEmpty();
+    assertThat(snapshots.get(root(5)).get().getStorageValue(ACCOUNT, SLOT)).isEmpty();
+  }
+
+  @Test
+  public void diffLayersAreReloadedFromStorage() {
+    final WorldStateSnapshots snapshots = createSnapshots(2);
+    snapshots.addLayer(Hash.EMPTY_TRIE_HASH, root(1), accountDiff(1));
+    snapshots.addLayer(root(1), root(2), accountDiff(2));
+
+    final WorldStateSnapshots reloaded =
+        WorldStateSnapshots.create(storage, false, 2, new NoOpMetricsSystem()).get();
+
+    assertThat(reloaded.get(Hash.EMPTY_TRIE_HASH).get().getAccount(ACCOUNT)).isEmpty();
+    assertThat(reloaded.get(root(1)).get().getAccount(ACCOUNT)).contains(BytesValue.of(1));
+    assertThat(reloaded.get(root(2)).get().getStorageValue(ACCOUNT, SLOT))
+        .contains(BytesValue.of(2));
+
+    reloaded.addLayer(root(2), root(3), accountDiff(3));
+    assertThat(storage.getDiskLayerRoot()).contains(root(1));
+    assertThat(storage.getDiffLayerRoots()).containsExactlyInAnyOrder(root(2), root(3));
+  }
+
+  @Test
+  public void layersOnPrunedForksAreNotAdded() {
+    final WorldStateSnapshots snapshots = createSnapshots(1);
+    snapshots.addLayer(Hash.EMPTY_TRIE_HASH, root(1), accountDiff(1));
+    snapshots.addLayer(Hash.EMPTY_TRIE_HASH, root(2), accountDiff(2));
+    // Flattens root(1) into the disk layer, dropping the fork at root(2)
+    snapshots.addLayer(root(1), root(3), accountDiff(3));
+
+    snapshots.addLayer(root(2), root(4), accountDiff(4));
+
+    assertThat(snapshots.get(root(4))).isEmpty();
+    assertThat(snapshots.get(root(3)).get().getAccount(ACCOUNT)).contains(BytesValue.of(3));
+    assertThat(storage.getDiskLayerRoot()).contains(root(1));
+    assertThat(storage.getDiffLayerRoots()).containsExactly(root(3));
+
+    snapshots.addLayer(root(3), root(5), accountDiff(5));
+    assertThat(snapshots.get(root(5)).get().getAccount(ACCOUNT)).contains(BytesValue.of(5));
+  }
+
+  @Test
+  public void missingChainHeadStateDisablesSnapshot() {
+    final WorldStateSnapshots snapshots = createSnapshots(2);
+    snapshots.addLayer(Hash.EMPTY_TRIE_HASH, root(1), accountDiff(1));
+
+    snapshots.disableIfMissing(root(1));
+    assertThat(snapshots.get(root(1))).isPresent();
+
+    snapshots.disableIfMissing(root(2));
+    assertThat(snapshots.get(root(1))).isEmpty();
+    assertThat(storage.getDiskLayerRoot()).isEmpty();
+  }
+
+  @Test
+  public void worldStateReadsMatchTrie() {
+    final WorldStateStorage worldStateStorage =
+        new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage());
+    final WorldStateSnapshots snapshots = createSnapshots(4);
+    final WorldStateArchive archive =
+        new WorldStateArchive(worldStateStorage, Optional.of(snapshots));
+    final Random random = new Random(1);
+    final List<Address> addresses = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      addresses.add(Address.fromHexString(String.format("0x%040x", i + 1)));
+    }
+
+    final List<Hash> roots = new ArrayList<>();
+    roots.add(Hash.EMPTY_TRIE_HASH);
+    for (int block = 0; block < 30; block++) {
+      // Mostly extend the latest state, sometimes fork from a recent one
+      final Hash parent = roots.get(Math.max(0, roots.size() - 1 - random.nextInt(3)));
+      final MutableWorldState worldState = archive.getMutable(parent).get();
+      for (int tx = 0; tx < 3; tx++) {
+        final WorldUpdater updater = worldState.updater();
+        final Address address = addresses.get(random.nextInt(addresses.size()));
+        switch (random.nextInt(4)) {
+          case 0:
+            updater.deleteAccount(address);
+            break;
+          case 1:
+            updater.getOrCreate(address).clearStorage();
+            break;
+          default:
+            final MutableAccount account = updater.getOrCreate(address);
+            account.setBalance(Wei.of(random.nextInt(1000)));
+            account.setStorageValue(UInt256.of(random.nextInt(4)), UInt256.of(random.nextInt(3)));
+        }
+        updater.commit();
+      }
+      worldState.persist();
+      roots.add(worldState.rootHash());
+      assertThat(snapshots.get(worldState.rootHash())).isPresent();
+
+      for (final Hash root : roots.subList(Math.max(0, roots.size() - 4), roots.size())) {
+        final MutableWorldState fromSnapshot = archive.getMutable(root).get();
+        final MutableWorldState fromTrie = new DefaultMutableWorldState(root, worldStateStorage);
+        for (final Address address : addresses) {
+          final Account expected = fromTrie.get(address);
+          final Account actual = fromSnapshot.get(address);
+          if (expected == null) {
+            assertThat(actual).isNull();
+            continue;
+          }
+          assertThat(actual.getBalance()).isEqualTo(expected.getBalance());
+          for (int slot = 0; slot < 4; slot++) {
+            assertThat(actual.getStorageValue(UInt256.of(slot)))
+                .isEqualTo(expected.getStorageValue(UInt256.of(slot)));
+          }
+        }
+      }
+    }
+  }
+}
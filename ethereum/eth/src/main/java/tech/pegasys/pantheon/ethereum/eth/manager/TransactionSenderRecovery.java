@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.manager;
+
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.metrics.OperationTimer.TimingContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Recovers the senders of transactions from their signatures on the computation pool of the {@link
+ * EthScheduler}, spreading the work over its threads. Recovered senders are cached on each {@link
+ * Transaction} so later calls to {@link Transaction#getSender()}, for example while validating or
+ * executing them, don't have to recover them again.
+ */
+public class TransactionSenderRecovery {
+
+  private static final int TRANSACTIONS_PER_TASK = 16;
+
+  private final EthScheduler scheduler;
+  private final OperationTimer recoveryTimer;
+
+  public TransactionSenderRecovery(
+      final EthScheduler scheduler, final OperationTimer recoveryTimer) {
+    this.scheduler = scheduler;
+    this.recoveryTimer = recoveryTimer;
+  }
+
+  public CompletableFuture<List<Block>> recoverSenders(final List<Block> blocks) {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (final Block block : blocks) {
+      transactions.addAll(block.getBody().getTransactions());
+    }
+    return recoverTransactionSenders(transactions).thenApply(done -> blocks);
+  }
+
+  public CompletableFuture<Void> recoverTransactionSenders(
+      final Collection<Transaction> transactions) {
+    if (transactions.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final TimingContext timingContext = recoveryTimer.startTimer();
+    final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+    for (final List<Transaction> batch :
+        Lists.partition(new ArrayList<>(transactions), TRANSACTIONS_PER_TASK)) {
+      tasks.add(scheduler.scheduleComputationTask(() -> recoverBatch(batch)));
+    }
+    return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+        .whenComplete((result, error) -> timingContext.stopTimer());
+  }
+
+  private Void recoverBatch(final List<Transaction> transactions) {
+    for (final Transaction transaction : transactions) {
+      try {
+        transaction.getSender();
+      } catch (final IllegalStateException e) {
+        // Invalid signatures are rejected when the transaction is validated
+      }
+    }
+    return null;
+  }
+}
@@ -27,6 +27,7 @@ import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 import tech.pegasys.pantheon.util.ExceptionUtils;
 
 import java.nio.file.Path;
@@ -56,6 +57,7 @@ public class DefaultSynchronizer<C> implements Synchronizer {
       final EthContext ethContext,
       final SyncState syncState,
       final Path dataDirectory,
+      final RocksDbConfiguration rocksDbConfiguration,
       final MetricsSystem metricsSystem) {
     this.syncConfig = syncConfig;
     this.ethContext = ethContext;
@@ -86,6 +88,7 @@ public class DefaultSynchronizer<C> implements Synchronizer {
         FastSynchronizer.create(
             syncConfig,
             dataDirectory,
+            rocksDbConfiguration,
             protocolSchedule,
             protocolContext,
             metricsSystem,
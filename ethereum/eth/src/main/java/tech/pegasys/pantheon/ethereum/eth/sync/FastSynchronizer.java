@@ -31,6 +31,7 @@ import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.services.queue.RocksDbTaskQueue;
 import tech.pegasys.pantheon.services.queue.TaskQueue;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 
 import java.io.File;
 import java.io.IOException;
@@ -68,6 +69,7 @@ class FastSynchronizer<C> {
   public static <C> Optional<FastSynchronizer<C>> create(
       final SynchronizerConfiguration syncConfig,
       final Path dataDirectory,
+      final RocksDbConfiguration rocksDbConfiguration,
       final ProtocolSchedule<C> protocolSchedule,
       final ProtocolContext<C> protocolContext,
       final MetricsSystem metricsSystem,
@@ -93,7 +95,8 @@ class FastSynchronizer<C> {
     }
 
     final TaskQueue<NodeDataRequest> stateQueue =
-        createWorldStateDownloaderQueue(getStateQueueDirectory(dataDirectory), metricsSystem);
+        createWorldStateDownloaderQueue(
+            getStateQueueDirectory(dataDirectory), rocksDbConfiguration, metricsSystem);
     final WorldStateDownloader worldStateDownloader =
         new WorldStateDownloader(
             ethContext,
@@ -167,8 +170,14 @@ class FastSynchronizer<C> {
   }
 
   private static TaskQueue<NodeDataRequest> createWorldStateDownloaderQueue(
-      final Path dataDirectory, final MetricsSystem metricsSystem) {
+      final Path dataDirectory,
+      final RocksDbConfiguration rocksDbConfiguration,
+      final MetricsSystem metricsSystem) {
     return RocksDbTaskQueue.create(
-        dataDirectory, NodeDataRequest::serialize, NodeDataRequest::deserialize, metricsSystem);
+        dataDirectory,
+        NodeDataRequest::serialize,
+        NodeDataRequest::deserialize,
+        rocksDbConfiguration,
+        metricsSystem);
   }
 }
@@ -15,8 +15,8 @@ package tech.pegasys.pantheon.ethereum.eth.sync.fullsync;
 import tech.pegasys.pantheon.ethereum.ProtocolContext;
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
-import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.manager.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.sync.BlockHandler;
 import tech.pegasys.pantheon.ethereum.eth.sync.tasks.CompleteBlocksTask;
 import tech.pegasys.pantheon.ethereum.eth.sync.tasks.PersistBlockTask;
@@ -38,6 +38,7 @@ public class FullSyncBlockHandler<C> implements BlockHandler<Block> {
   private final ProtocolContext<C> protocolContext;
   private final EthContext ethContext;
   private final LabelledMetric<OperationTimer> ethTasksTimer;
+  private final TransactionSenderRecovery transactionSenderRecovery;
 
   public FullSyncBlockHandler(
       final ProtocolSchedule<C> protocolSchedule,
@@ -48,6 +49,10 @@ public class FullSyncBlockHandler<C> implements BlockHandler<Block> {
     this.protocolContext = protocolContext;
     this.ethContext = ethContext;
     this.ethTasksTimer = ethTasksTimer;
+    this.transactionSenderRecovery =
+        new TransactionSenderRecovery(
+            ethContext.getScheduler(),
+            ethTasksTimer.labels(TransactionSenderRecovery.class.getSimpleName()));
   }
 
   @Override
@@ -82,12 +87,6 @@ public class FullSyncBlockHandler<C> implements BlockHandler<Block> {
         "Extracting sender {} to {}",
         blocks.get(0).getHeader().getNumber(),
         blocks.get(blocks.size() - 1).getHeader().getNumber());
-    for (final Block block : blocks) {
-      for (final Transaction transaction : block.getBody().getTransactions()) {
-        // This method internally performs the transaction sender extraction.
-        transaction.getSender();
-      }
-    }
-    return CompletableFuture.completedFuture(blocks);
+    return transactionSenderRecovery.recoverSenders(blocks);
   }
 }
@@ -16,15 +16,19 @@ import tech.pegasys.pantheon.ethereum.ProtocolContext;
 import tech.pegasys.pantheon.ethereum.core.PendingTransactions;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.manager.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
 
 public class TransactionPoolFactory {
 
   public static TransactionPool createTransactionPool(
       final ProtocolSchedule<?> protocolSchedule,
       final ProtocolContext<?> protocolContext,
-      final EthContext ethContext) {
+      final EthContext ethContext,
+      final MetricsSystem metricsSystem) {
     final PendingTransactions pendingTransactions =
         new PendingTransactions(PendingTransactions.MAX_PENDING_TRANSACTIONS);
 
@@ -42,7 +46,15 @@ public class TransactionPoolFactory {
     final TransactionsMessageHandler transactionsMessageHandler =
         new TransactionsMessageHandler(
             ethContext.getScheduler(),
-            new TransactionsMessageProcessor(transactionTracker, transactionPool));
+            new TransactionsMessageProcessor(
+                transactionTracker,
+                transactionPool,
+                new TransactionSenderRecovery(
+                    ethContext.getScheduler(),
+                    metricsSystem.createTimer(
+                        MetricCategory.TRANSACTION_POOL,
+                        "sender_recovery_time",
+                        "Time spent recovering the senders of transactions received from peers"))));
 
     ethContext.getEthMessages().subscribe(EthPV62.TRANSACTIONS, transactionsMessageHandler);
     protocolContext.getBlockchain().observeBlockAdded(transactionPool);
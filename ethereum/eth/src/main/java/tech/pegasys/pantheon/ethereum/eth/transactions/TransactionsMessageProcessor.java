@@ -17,6 +17,7 @@ import static org.apache.logging.log4j.LogManager.getLogger;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.messages.TransactionsMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
 import tech.pegasys.pantheon.ethereum.rlp.RLPException;
@@ -32,11 +33,15 @@ class TransactionsMessageProcessor {
   private static final Logger LOG = getLogger();
   private final PeerTransactionTracker transactionTracker;
   private final TransactionPool transactionPool;
+  private final TransactionSenderRecovery transactionSenderRecovery;
 
   public TransactionsMessageProcessor(
-      final PeerTransactionTracker transactionTracker, final TransactionPool transactionPool) {
+      final PeerTransactionTracker transactionTracker,
+      final TransactionPool transactionPool,
+      final TransactionSenderRecovery transactionSenderRecovery) {
     this.transactionTracker = transactionTracker;
     this.transactionPool = transactionPool;
+    this.transactionSenderRecovery = transactionSenderRecovery;
   }
 
   void processTransactionsMessage(
@@ -48,6 +53,8 @@ class TransactionsMessageProcessor {
           transactionsMessage.transactions(Transaction::readFrom);
       final Set<Transaction> transactions = Sets.newHashSet(readTransactions);
       transactionTracker.markTransactionsAsSeen(peer, transactions);
+      // Recover all senders in parallel rather than one at a time as they are validated
+      transactionSenderRecovery.recoverTransactionSenders(transactions).join();
       transactionPool.addRemoteTransactions(transactions);
     } catch (final RLPException ex) {
       if (peer != null) {
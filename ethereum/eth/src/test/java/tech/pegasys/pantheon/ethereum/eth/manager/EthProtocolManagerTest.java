@@ -1014,7 +1014,7 @@ public final class EthProtocolManagerTest {
       // Create a transaction pool.  This has a side effect of registring a listener for the
       // transactions message.
       TransactionPoolFactory.createTransactionPool(
-          protocolSchedule, protocolContext, ethManager.ethContext());
+          protocolSchedule, protocolContext, ethManager.ethContext(), new NoOpMetricsSystem());
 
       // Send just a transaction message.
       final PeerConnection peer = setupPeer(ethManager, (cap, msg, connection) -> {});
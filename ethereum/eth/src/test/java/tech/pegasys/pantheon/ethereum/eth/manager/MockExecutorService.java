@@ -128,5 +128,7 @@ class MockExecutorService implements ExecutorService {
   }
 
   @Override
-  public void execute(final Runnable command) {}
+  public void execute(final Runnable command) {
+    command.run();
+  }
 }
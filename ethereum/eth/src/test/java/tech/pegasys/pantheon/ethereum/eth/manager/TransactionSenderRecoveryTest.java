@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.manager;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.metrics.OperationTimer.TimingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class TransactionSenderRecoveryTest {
+
+  private final TimingContext timingContext = mock(TimingContext.class);
+  private final OperationTimer recoveryTimer = () -> timingContext;
+  private final TransactionSenderRecovery senderRecovery =
+      new TransactionSenderRecovery(new DeterministicEthScheduler(), recoveryTimer);
+
+  @Test
+  public void shouldRecoverSenderOfEveryTransaction() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      transactions.add(mock(Transaction.class));
+    }
+
+    final CompletableFuture<Void> result = senderRecovery.recoverTransactionSenders(transactions);
+
+    assertThat(result).isDone();
+    transactions.forEach(transaction -> verify(transaction).getSender());
+    verify(timingContext).stopTimer();
+  }
+
+  @Test
+  public void shouldLeaveInvalidSignaturesToValidation() {
+    final Transaction invalid = mock(Transaction.class);
+    final Transaction valid = mock(Transaction.class);
+    when(invalid.getSender()).thenThrow(new IllegalStateException("Invalid signature"));
+
+    final CompletableFuture<Void> result =
+        senderRecovery.recoverTransactionSenders(asList(invalid, valid));
+
+    assertThat(result).isCompletedWithValue(null);
+    verify(valid).getSender();
+  }
+}
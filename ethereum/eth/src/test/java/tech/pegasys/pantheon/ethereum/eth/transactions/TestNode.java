@@ -131,7 +131,8 @@ public class TestNode implements Closeable {
 
     final EthContext ethContext = ethProtocolManager.ethContext();
     transactionPool =
-        TransactionPoolFactory.createTransactionPool(protocolSchedule, protocolContext, ethContext);
+        TransactionPoolFactory.createTransactionPool(
+            protocolSchedule, protocolContext, ethContext, new NoOpMetricsSystem());
     networkRunner.start();
 
     selfPeer = new DefaultPeer(id(), endpoint());
@@ -19,8 +19,12 @@ import static org.mockito.Mockito.verify;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.eth.manager.DeterministicEthScheduler;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.messages.TransactionsMessage;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 
 import com.google.common.collect.ImmutableSet;
 import org.junit.Test;
@@ -37,7 +41,13 @@ public class TransactionsMessageProcessorTest {
   private final Transaction transaction3 = generator.transaction();
 
   private final TransactionsMessageProcessor messageHandler =
-      new TransactionsMessageProcessor(transactionTracker, transactionPool);
+      new TransactionsMessageProcessor(
+          transactionTracker,
+          transactionPool,
+          new TransactionSenderRecovery(
+              new DeterministicEthScheduler(),
+              new NoOpMetricsSystem()
+                  .createTimer(MetricCategory.TRANSACTION_POOL, "sender_recovery_time", "")));
 
   @Test
   public void shouldMarkAllReceivedTransactionsAsSeen() {
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Serialises JSON straight into an HTTP response, without building the whole document in memory
+ * first.
+ *
+ * <p>Responses which fit in a single chunk are sent with a content length. Larger ones are sent
+ * using chunked transfer encoding as they are being serialised, waiting for the connection to drain
+ * whenever its write queue is full. As this may block, it must not be used on an event loop thread.
+ * The total time spent waiting is bounded, so a client which reads too slowly has its connection
+ * closed rather than holding on to the thread writing its response.
+ */
+class JsonResponseStreamer extends OutputStream {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final int CHUNK_SIZE = 64 * 1024;
+  private static final long DRAIN_POLL_MILLIS = 100;
+  static final long DEFAULT_MAX_DRAIN_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+  private final HttpServerResponse response;
+  private final long maxDrainWaitNanos;
+  private long drainWaitNanos;
+  private Buffer buffer = Buffer.buffer(CHUNK_SIZE);
+  private boolean ended;
+
+  JsonResponseStreamer(final HttpServerResponse response) {
+    this(response, DEFAULT_MAX_DRAIN_WAIT_MILLIS);
+  }
+
+  JsonResponseStreamer(final HttpServerResponse response, final long maxDrainWaitMillis) {
+    this.response = response;
+    this.maxDrainWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxDrainWaitMillis);
+  }
+
+  /**
+   * Writes a value as the body of the response and ends it. If the value cannot be serialised the
+   * request fails, with an internal error if nothing was sent yet or by closing the connection
+   * otherwise.
+   *
+   * @param response the response to write to
+   * @param value the value to serialise as JSON
+   */
+  static void writeValue(final HttpServerResponse response, final Object value) {
+    final JsonResponseStreamer streamer = new JsonResponseStreamer(response);
+    try {
+      Json.mapper.writeValue(streamer, value);
+      streamer.end();
+    } catch (final IOException | RuntimeException e) {
+      LOG.error("Failed to write JSON-RPC response", e);
+      streamer.fail();
+    }
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    checkNotEnded();
+    buffer.appendByte((byte) b);
+    if (buffer.length() >= CHUNK_SIZE) {
+      writeChunk();
+    }
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    checkNotEnded();
+    buffer.appendBytes(b, off, len);
+    if (buffer.length() >= CHUNK_SIZE) {
+      writeChunk();
+    }
+  }
+
+  /** Closing the stream, as Jackson does once done, leaves it to {@link #end()} to respond. */
+  @Override
+  public void close() {}
+
+  void end() {
+    if (ended) {
+      return;
+    }
+    ended = true;
+    response.end(buffer);
+  }
+
+  void fail() {
+    if (ended) {
+      return;
+    }
+    ended = true;
+    if (response.isChunked()) {
+      // Part of the response has already been sent, so it can only be cut short
+      response.close();
+    } else {
+      response.setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).end();
+    }
+  }
+
+  private void writeChunk() throws IOException {
+    if (!response.isChunked()) {
+      response.setChunked(true);
+    }
+    response.write(buffer);
+    buffer = Buffer.buffer(CHUNK_SIZE);
+    awaitDrain();
+  }
+
+  private void awaitDrain() throws IOException {
+    if (!response.writeQueueFull()) {
+      return;
+    }
+    final CountDownLatch drained = new CountDownLatch(1);
+    response.drainHandler(v -> drained.countDown());
+    final long start = System.nanoTime();
+    try {
+      // The connection may be closed instead of drained
+      while (response.writeQueueFull() && !response.closed()) {
+        final long remainingNanos =
+            maxDrainWaitNanos - drainWaitNanos - (System.nanoTime() - start);
+        if (remainingNanos <= 0) {
+          throw new IOException("Timed out waiting for the client to read the response");
+        }
+        drained.await(
+            Math.min(remainingNanos, TimeUnit.MILLISECONDS.toNanos(DRAIN_POLL_MILLIS)),
+            TimeUnit.NANOSECONDS);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while writing response", e);
+    } finally {
+      drainWaitNanos += System.nanoTime() - start;
+    }
+    if (response.closed()) {
+      throw new IOException("Connection closed while writing response");
+    }
+  }
+
+  private void checkNotEnded() throws IOException {
+    if (ended) {
+      throw new IOException("Response has already ended");
+    }
+  }
+}
@@ -23,6 +23,10 @@ import com.google.common.collect.Lists;
 public class JsonRpcConfiguration {
   private static final String DEFAULT_JSON_RPC_HOST = "127.0.0.1";
   public static final int DEFAULT_JSON_RPC_PORT = 8545;
+  public static final int DEFAULT_EXECUTION_THREADS = 20;
+  public static final int DEFAULT_MAX_QUEUED_REQUESTS = 1000;
+  public static final int DEFAULT_MAX_ACTIVE_REQUESTS_PER_CONNECTION = 4;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
 
   private boolean enabled;
   private int port;
@@ -32,6 +36,10 @@ public class JsonRpcConfiguration {
   private Collection<String> hostsWhitelist = Collections.singletonList("localhost");
   private boolean authenticationEnabled = false;
   private String authenticationCredentialsFile;
+  private int executionThreads = DEFAULT_EXECUTION_THREADS;
+  private int maxQueuedRequests = DEFAULT_MAX_QUEUED_REQUESTS;
+  private int maxActiveRequestsPerConnection = DEFAULT_MAX_ACTIVE_REQUESTS_PER_CONNECTION;
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
 
   public static JsonRpcConfiguration createDefault() {
     final JsonRpcConfiguration config = new JsonRpcConfiguration();
@@ -99,6 +107,38 @@ public class JsonRpcConfiguration {
     this.hostsWhitelist = hostsWhitelist;
   }
 
+  public int getExecutionThreads() {
+    return executionThreads;
+  }
+
+  public void setExecutionThreads(final int executionThreads) {
+    this.executionThreads = executionThreads;
+  }
+
+  public int getMaxQueuedRequests() {
+    return maxQueuedRequests;
+  }
+
+  public void setMaxQueuedRequests(final int maxQueuedRequests) {
+    this.maxQueuedRequests = maxQueuedRequests;
+  }
+
+  public int getMaxActiveRequestsPerConnection() {
+    return maxActiveRequestsPerConnection;
+  }
+
+  public void setMaxActiveRequestsPerConnection(final int maxActiveRequestsPerConnection) {
+    this.maxActiveRequestsPerConnection = maxActiveRequestsPerConnection;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public void setMaxBatchSize(final int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
@@ -110,6 +150,10 @@ public class JsonRpcConfiguration {
         .add("rpcApis", rpcApis)
         .add("authenticationEnabled", authenticationEnabled)
         .add("authenticationCredentialsFile", authenticationCredentialsFile)
+        .add("executionThreads", executionThreads)
+        .add("maxQueuedRequests", maxQueuedRequests)
+        .add("maxActiveRequestsPerConnection", maxActiveRequestsPerConnection)
+        .add("maxBatchSize", maxBatchSize)
         .toString();
   }
 
@@ -124,6 +168,10 @@ public class JsonRpcConfiguration {
     final JsonRpcConfiguration that = (JsonRpcConfiguration) o;
     return enabled == that.enabled
         && port == that.port
+        && executionThreads == that.executionThreads
+        && maxQueuedRequests == that.maxQueuedRequests
+        && maxActiveRequestsPerConnection == that.maxActiveRequestsPerConnection
+        && maxBatchSize == that.maxBatchSize
         && Objects.equal(host, that.host)
         && Objects.equal(
             Lists.newArrayList(corsAllowedDomains), Lists.newArrayList(that.corsAllowedDomains))
@@ -134,7 +182,17 @@ public class JsonRpcConfiguration {
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(enabled, port, host, corsAllowedDomains, hostsWhitelist, rpcApis);
+    return Objects.hashCode(
+        enabled,
+        port,
+        host,
+        corsAllowedDomains,
+        hostsWhitelist,
+        rpcApis,
+        executionThreads,
+        maxQueuedRequests,
+        maxActiveRequestsPerConnection,
+        maxBatchSize);
   }
 
   public boolean isAuthenticationEnabled() {
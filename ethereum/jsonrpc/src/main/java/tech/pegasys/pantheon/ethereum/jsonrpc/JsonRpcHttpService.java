@@ -44,15 +44,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
 import io.netty.handler.codec.http.HttpResponseStatus;
-import io.vertx.core.CompositeFuture;
-import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpConnection;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
@@ -76,13 +77,13 @@ public class JsonRpcHttpService {
   private static final InetSocketAddress EMPTY_SOCKET_ADDRESS = new InetSocketAddress("0.0.0.0", 0);
   private static final String APPLICATION_JSON = "application/json";
   private static final JsonRpcResponse NO_RESPONSE = new JsonRpcNoResponse();
-  private static final String EMPTY_RESPONSE = "";
 
   private final Vertx vertx;
   private final JsonRpcConfiguration config;
   private final Map<String, JsonRpcMethod> jsonRpcMethods;
   private final Path dataDir;
   private final LabelledMetric<OperationTimer> requestTimer;
+  private final JsonRpcRequestExecutor requestExecutor;
 
   @VisibleForTesting public final Optional<AuthenticationService> authenticationService;
 
@@ -128,6 +129,12 @@ public class JsonRpcHttpService {
             "methodName");
     validateConfig(config);
     this.config = config;
+    this.requestExecutor =
+        new JsonRpcRequestExecutor(
+            config.getExecutionThreads(),
+            config.getMaxQueuedRequests(),
+            config.getMaxActiveRequestsPerConnection(),
+            metricsSystem);
     this.vertx = vertx;
     this.jsonRpcMethods = methods;
     this.authenticationService = authenticationService;
@@ -138,6 +145,12 @@ public class JsonRpcHttpService {
         config.getPort() == 0 || NetworkUtility.isValidPort(config.getPort()),
         "Invalid port configuration.");
     checkArgument(config.getHost() != null, "Required host is not configured.");
+    checkArgument(config.getExecutionThreads() > 0, "Invalid execution thread count.");
+    checkArgument(config.getMaxQueuedRequests() > 0, "Invalid max queued requests.");
+    checkArgument(
+        config.getMaxActiveRequestsPerConnection() > 0,
+        "Invalid max active requests per connection.");
+    checkArgument(config.getMaxBatchSize() > 0, "Invalid max batch size.");
   }
 
   public CompletableFuture<?> start() {
@@ -261,6 +274,7 @@ public class JsonRpcHttpService {
     final CompletableFuture<?> resultFuture = new CompletableFuture<>();
     httpServer.close(
         res -> {
+          requestExecutor.stop();
           if (res.failed()) {
             resultFuture.completeExceptionally(res.cause());
           } else {
@@ -309,6 +323,10 @@ public class JsonRpcHttpService {
             handleJsonRpcError(routingContext, null, JsonRpcError.INVALID_REQUEST);
             return;
           }
+          if (array.size() > config.getMaxBatchSize()) {
+            handleJsonRpcError(routingContext, null, JsonRpcError.EXCEEDS_RPC_MAX_BATCH_SIZE);
+            return;
+          }
           AuthenticationUtils.getUser(
               authenticationService,
               token,
@@ -330,23 +348,29 @@ public class JsonRpcHttpService {
   private void handleJsonSingleRequest(
       final RoutingContext routingContext, final JsonObject request, final Optional<User> user) {
     final HttpServerResponse response = routingContext.response();
-    vertx.executeBlocking(
-        future -> {
-          final JsonRpcResponse jsonRpcResponse = process(request, user);
-          future.complete(jsonRpcResponse);
-        },
-        false,
-        (res) -> {
-          if (res.failed()) {
-            response.setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).end();
-            return;
-          }
-
-          final JsonRpcResponse jsonRpcResponse = (JsonRpcResponse) res.result();
-          response.setStatusCode(status(jsonRpcResponse).code());
-          response.putHeader("Content-Type", APPLICATION_JSON);
-          response.end(serialise(jsonRpcResponse));
-        });
+    requestExecutor
+        .submit(
+            routingContext.request().connection(),
+            () -> {
+              final JsonRpcResponse jsonRpcResponse = process(request, user);
+              // Serialise on the worker too, large results would otherwise stall the event loop
+              response.setStatusCode(status(jsonRpcResponse).code());
+              response.putHeader("Content-Type", APPLICATION_JSON);
+              if (jsonRpcResponse.getType() == JsonRpcResponseType.NONE) {
+                response.end();
+              } else {
+                JsonResponseStreamer.writeValue(response, jsonRpcResponse);
+              }
+              return null;
+            })
+        .whenComplete(
+            (result, error) -> {
+              if (error instanceof RejectedExecutionException) {
+                handleServerBusy(routingContext, requestId(request));
+              } else if (error != null && !response.ended()) {
+                response.setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).end();
+              }
+            });
   }
 
   private HttpResponseStatus status(final JsonRpcResponse response) {
@@ -363,48 +387,37 @@ public class JsonRpcHttpService {
     }
   }
 
-  private String serialise(final JsonRpcResponse response) {
-
-    if (response.getType() == JsonRpcResponseType.NONE) {
-      return EMPTY_RESPONSE;
-    }
-
-    return Json.encodePrettily(response);
-  }
-
-  @SuppressWarnings("rawtypes")
   private void handleJsonBatchRequest(
       final RoutingContext routingContext, final JsonArray jsonArray, final Optional<User> user) {
+    final HttpConnection connection = routingContext.request().connection();
     // Interpret json as rpc request
-    final List<Future> responses =
+    final List<CompletableFuture<JsonRpcResponse>> responses =
         jsonArray.stream()
             .map(
                 obj -> {
                   if (!(obj instanceof JsonObject)) {
-                    return Future.succeededFuture(
+                    return CompletableFuture.completedFuture(
                         errorResponse(null, JsonRpcError.INVALID_REQUEST));
                   }
 
                   final JsonObject req = (JsonObject) obj;
-                  final Future<JsonRpcResponse> fut = Future.future();
-                  vertx.executeBlocking(
-                      future -> future.complete(process(req, user)),
-                      false,
-                      ar -> {
-                        if (ar.failed()) {
-                          fut.fail(ar.cause());
-                        } else {
-                          fut.complete((JsonRpcResponse) ar.result());
-                        }
-                      });
-                  return fut;
+                  return requestExecutor
+                      .submit(connection, () -> process(req, user))
+                      .exceptionally(
+                          error -> {
+                            // Report requests which could not be executed without failing the rest
+                            if (error instanceof RejectedExecutionException) {
+                              return errorResponse(requestId(req), JsonRpcError.SERVER_BUSY);
+                            }
+                            throw new CompletionException(error);
+                          });
                 })
             .collect(toList());
 
-    CompositeFuture.all(responses)
-        .setHandler(
-            (res) -> {
-              if (res.failed()) {
+    CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0]))
+        .whenComplete(
+            (result, error) -> {
+              if (error != null) {
                 routingContext
                     .response()
                     .setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code())
@@ -412,12 +425,29 @@ public class JsonRpcHttpService {
                 return;
               }
               final JsonRpcResponse[] completed =
-                  res.result().list().stream()
-                      .map(JsonRpcResponse.class::cast)
+                  responses.stream()
+                      .map(CompletableFuture::join)
                       .filter(this::isNonEmptyResponses)
                       .toArray(JsonRpcResponse[]::new);
 
-              routingContext.response().end(Json.encode(completed));
+              requestExecutor
+                  .submit(
+                      connection,
+                      () -> {
+                        JsonResponseStreamer.writeValue(routingContext.response(), completed);
+                        return null;
+                      })
+                  .whenComplete(
+                      (written, writeError) -> {
+                        if (writeError instanceof RejectedExecutionException) {
+                          handleServerBusy(routingContext, null);
+                        } else if (writeError != null && !routingContext.response().ended()) {
+                          routingContext
+                              .response()
+                              .setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code())
+                              .end();
+                        }
+                      });
             });
   }
 
@@ -476,6 +506,21 @@ public class JsonRpcHttpService {
         .end(Json.encode(new JsonRpcErrorResponse(id, error)));
   }
 
+  private void handleServerBusy(final RoutingContext routingContext, final Object id) {
+    routingContext
+        .response()
+        .setStatusCode(HttpResponseStatus.SERVICE_UNAVAILABLE.code())
+        .end(Json.encode(new JsonRpcErrorResponse(id, JsonRpcError.SERVER_BUSY)));
+  }
+
+  private Object requestId(final JsonObject requestJson) {
+    try {
+      return new JsonRpcRequestId(requestJson.getValue("id")).getValue();
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+
   private JsonRpcResponse errorResponse(final Object id, final JsonRpcError error) {
     return new JsonRpcErrorResponse(id, error);
   }
@@ -21,6 +21,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.AdminAddPeer;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.AdminPeers;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.DebugMetrics;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.DebugStorageRangeAt;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.DebugTraceBlockByHash;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.DebugTraceTransaction;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.EthAccounts;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.EthBlockNumber;
@@ -78,6 +79,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.permissioning.Per
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.privacy.EeaSendRawTransaction;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.JsonRpcParameter;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.BlockReplay;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.BlockTracer;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTracer;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransientTransactionProcessor;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
@@ -98,8 +100,19 @@ import java.util.Set;
 
 public class JsonRpcMethodsFactory {
 
+  public static final long DEFAULT_MAX_TRACE_SIZE_BYTES = 256 * 1024 * 1024;
+
   private final BlockResultFactory blockResult = new BlockResultFactory();
   private final JsonRpcParameter parameter = new JsonRpcParameter();
+  private final long maxTraceSizeBytes;
+
+  public JsonRpcMethodsFactory() {
+    this(DEFAULT_MAX_TRACE_SIZE_BYTES);
+  }
+
+  public JsonRpcMethodsFactory(final long maxTraceSizeBytes) {
+    this.maxTraceSizeBytes = maxTraceSizeBytes;
+  }
 
   public Map<String, JsonRpcMethod> methods(
       final String clientVersion,
@@ -213,7 +226,8 @@ public class JsonRpcMethodsFactory {
       addMethods(
           enabledMethods,
           new DebugTraceTransaction(
-              blockchainQueries, new TransactionTracer(blockReplay), parameter),
+              blockchainQueries, new TransactionTracer(blockReplay), parameter, maxTraceSizeBytes),
+          new DebugTraceBlockByHash(new BlockTracer(blockReplay), parameter, maxTraceSizeBytes),
           new DebugStorageRangeAt(parameter, blockchainQueries, blockReplay),
           new DebugMetrics(metricsSystem));
     }
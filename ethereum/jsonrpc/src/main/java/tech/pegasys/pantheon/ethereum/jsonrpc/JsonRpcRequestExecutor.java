@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.metrics.OperationTimer.TimingContext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Executes JSON-RPC requests on a dedicated, bounded pool of threads.
+ *
+ * <p>Each connection may only have a limited number of requests executing at once, any further
+ * requests from it wait in a queue of their own. This keeps a single client sending large batches
+ * from occupying every thread, while requests from one connection still start in the order they
+ * were received. Once the maximum number of requests are waiting, whether in the queue of their
+ * connection or in the shared queue of the pool, further requests are rejected with a {@link
+ * RejectedExecutionException} so that the client can be told to back off.
+ */
+class JsonRpcRequestExecutor {
+
+  private final ThreadPoolExecutor executor;
+  private final int maxQueuedRequests;
+  private final int maxActiveRequestsPerConnection;
+  private final Map<Object, ConnectionRequests> connections = new ConcurrentHashMap<>();
+  private final AtomicInteger queuedRequests = new AtomicInteger();
+  private final OperationTimer waitTimer;
+  private final Counter rejectedRequests;
+
+  JsonRpcRequestExecutor(
+      final int threads,
+      final int maxQueuedRequests,
+      final int maxActiveRequestsPerConnection,
+      final MetricsSystem metricsSystem) {
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(maxQueuedRequests),
+            new ThreadFactoryBuilder().setNameFormat("json-rpc-%d").build());
+    this.maxQueuedRequests = maxQueuedRequests;
+    this.maxActiveRequestsPerConnection = maxActiveRequestsPerConnection;
+
+    this.waitTimer =
+        metricsSystem.createTimer(
+            MetricCategory.RPC,
+            "request_wait_time",
+            "Time JSON-RPC requests spend waiting for a thread to execute them");
+    this.rejectedRequests =
+        metricsSystem.createCounter(
+            MetricCategory.RPC,
+            "rejected_requests_total",
+            "Total number of JSON-RPC requests rejected because the server was busy");
+    metricsSystem.createIntegerGauge(
+        MetricCategory.RPC,
+        "request_queue_depth",
+        "Current number of JSON-RPC requests waiting to be executed",
+        queuedRequests::get);
+    metricsSystem.createIntegerGauge(
+        MetricCategory.RPC,
+        "active_requests",
+        "Current number of JSON-RPC requests being executed",
+        executor::getActiveCount);
+  }
+
+  /**
+   * Queues a request for execution.
+   *
+   * @param connection the connection the request was received on
+   * @param request the request to execute
+   * @param <T> the type of the request's result
+   * @return a future completed with the result of the request, or failed with a {@link
+   *     RejectedExecutionException} if the server is too busy to execute it
+   */
+  <T> CompletableFuture<T> submit(final Object connection, final Supplier<T> request) {
+    final QueuedRequest<T> queuedRequest = new QueuedRequest<>(request);
+    if (queuedRequests.incrementAndGet() > maxQueuedRequests) {
+      queuedRequest.reject();
+      return queuedRequest.result;
+    }
+    while (true) {
+      final ConnectionRequests requests =
+          connections.computeIfAbsent(connection, ConnectionRequests::new);
+      if (requests.add(queuedRequest)) {
+        return queuedRequest.result;
+      }
+      // The requests were removed as the connection went idle, start a new queue
+    }
+  }
+
+  /** Stops executing requests, rejecting those which have not started yet. */
+  void stop() {
+    executor.shutdownNow().forEach(task -> ((RequestTask) task).request.reject());
+    connections.values().forEach(ConnectionRequests::rejectWaiting);
+  }
+
+  private class ConnectionRequests {
+
+    private final Object connection;
+    private final Queue<QueuedRequest<?>> waiting = new ArrayDeque<>();
+    private int active;
+    private boolean removed;
+
+    ConnectionRequests(final Object connection) {
+      this.connection = connection;
+    }
+
+    boolean add(final QueuedRequest<?> request) {
+      final List<QueuedRequest<?>> rejected;
+      synchronized (this) {
+        if (removed) {
+          return false;
+        }
+        waiting.add(request);
+        rejected = startWaiting();
+      }
+      rejected.forEach(QueuedRequest::reject);
+      return true;
+    }
+
+    private void rejectWaiting() {
+      final List<QueuedRequest<?>> rejected;
+      synchronized (this) {
+        rejected = new ArrayList<>(waiting);
+        waiting.clear();
+      }
+      rejected.forEach(QueuedRequest::reject);
+    }
+
+    private void completed() {
+      final List<QueuedRequest<?>> rejected;
+      synchronized (this) {
+        active--;
+        rejected = startWaiting();
+      }
+      rejected.forEach(QueuedRequest::reject);
+    }
+
+    private List<QueuedRequest<?>> startWaiting() {
+      final List<QueuedRequest<?>> rejected = new ArrayList<>(0);
+      while (active < maxActiveRequestsPerConnection && !waiting.isEmpty()) {
+        final QueuedRequest<?> request = waiting.poll();
+        try {
+          executor.execute(new RequestTask(this, request));
+          active++;
+        } catch (final RejectedExecutionException e) {
+          rejected.add(request);
+        }
+      }
+      if (active == 0 && waiting.isEmpty()) {
+        removed = true;
+        connections.remove(connection, this);
+      }
+      return rejected;
+    }
+  }
+
+  private static class RequestTask implements Runnable {
+
+    private final ConnectionRequests connection;
+    private final QueuedRequest<?> request;
+
+    RequestTask(final ConnectionRequests connection, final QueuedRequest<?> request) {
+      this.connection = connection;
+      this.request = request;
+    }
+
+    @Override
+    public void run() {
+      try {
+        request.execute();
+      } finally {
+        connection.completed();
+      }
+    }
+  }
+
+  private class QueuedRequest<T> {
+
+    private final Supplier<T> request;
+    private final TimingContext waitTimingContext = waitTimer.startTimer();
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    QueuedRequest(final Supplier<T> request) {
+      this.request = request;
+    }
+
+    void execute() {
+      queuedRequests.decrementAndGet();
+      waitTimingContext.stopTimer();
+      try {
+        result.complete(request.get());
+      } catch (final RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }
+
+    void reject() {
+      queuedRequests.decrementAndGet();
+      rejectedRequests.inc();
+      result.completeExceptionally(new RejectedExecutionException("JSON-RPC server is busy"));
+    }
+  }
+}
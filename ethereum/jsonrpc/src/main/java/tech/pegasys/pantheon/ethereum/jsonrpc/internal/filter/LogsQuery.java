@@ -15,21 +15,70 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Log;
 import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.TopicsParameter;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import com.google.common.base.Objects;
 import com.google.common.collect.Lists;
 
 public class LogsQuery {
 
   private final List<Address> queryAddresses;
   private final List<List<LogTopic>> queryTopics;
+  private final List<List<BytesValue>> bloomCriteria;
 
   private LogsQuery(final List<Address> addresses, final List<List<LogTopic>> topics) {
     this.queryAddresses = addresses;
     this.queryTopics = topics;
+    this.bloomCriteria = createBloomCriteria(addresses, topics);
+  }
+
+  private static List<List<BytesValue>> createBloomCriteria(
+      final List<Address> addresses, final List<List<LogTopic>> topics) {
+    final List<List<BytesValue>> criteria = new ArrayList<>();
+    if (!addresses.isEmpty()) {
+      criteria.add(new ArrayList<>(addresses));
+    }
+    for (final List<LogTopic> candidates : topics) {
+      // A wildcard candidate matches any topic so the bloom can't narrow down the blocks
+      if (!candidates.isEmpty() && !candidates.contains(null)) {
+        criteria.add(new ArrayList<>(candidates));
+      }
+    }
+    return criteria;
+  }
+
+  public List<Address> getAddresses() {
+    return queryAddresses;
+  }
+
+  public List<List<LogTopic>> getTopics() {
+    return queryTopics;
+  }
+
+  /**
+   * Returns the values which must be in the logs bloom of a block for it to contain a matching log.
+   * Every clause must match, which it does if any of its addresses or topics are in the bloom.
+   *
+   * @return the clauses to check the logs bloom against
+   */
+  public List<List<BytesValue>> getBloomCriteria() {
+    return bloomCriteria;
+  }
+
+  /**
+   * Checks whether a block with the given logs bloom may contain logs matching this query.
+   *
+   * @param bloom the logs bloom of the block
+   * @return false if the block definitely contains no matching logs
+   */
+  public boolean couldMatch(final LogsBloomFilter bloom) {
+    return bloomCriteria.stream().allMatch(clause -> clause.stream().anyMatch(bloom::couldContain));
   }
 
   public boolean matches(final Log log) {
@@ -67,6 +116,24 @@ public class LogsQuery {
     return false;
   }
 
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final LogsQuery that = (LogsQuery) o;
+    return Objects.equal(queryAddresses, that.queryAddresses)
+        && Objects.equal(queryTopics, that.queryTopics);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(queryAddresses, queryTopics);
+  }
+
   public static class Builder {
     private final List<Address> queryAddresses = Lists.newArrayList();
     private final List<List<LogTopic>> queryTopics = Lists.newArrayList();
@@ -67,7 +67,12 @@ public class DebugStorageRangeAt implements JsonRpcMethod {
                     .afterTransactionInBlock(
                         blockHash,
                         transactionWithMetadata.getTransaction().hash(),
-                        (transaction, blockHeader, blockchain, worldState, transactionProcessor) ->
+                        (transaction,
+                            blockHeader,
+                            blockchain,
+                            worldState,
+                            transactionProcessor,
+                            miningBeneficiary) ->
                             extractStorageAt(request, accountAddress, startKey, limit, worldState))
                     .orElseGet(() -> new JsonRpcSuccessResponse(request.getId(), null))))
         .orElseGet(() -> new JsonRpcSuccessResponse(request.getId(), null));
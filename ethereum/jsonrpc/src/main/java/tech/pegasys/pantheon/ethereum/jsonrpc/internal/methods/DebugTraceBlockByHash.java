@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.debug.TraceOptions;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.JsonRpcRequest;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.JsonRpcParameter;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.BlockTracer;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTraceParams;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcError;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcErrorResponse;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcResponse;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.DebugTraceTransactionResult;
+import tech.pegasys.pantheon.ethereum.vm.DebugOperationTracer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class DebugTraceBlockByHash implements JsonRpcMethod {
+
+  private final JsonRpcParameter parameters;
+  private final BlockTracer blockTracer;
+  private final long maxTraceSizeBytes;
+
+  public DebugTraceBlockByHash(
+      final BlockTracer blockTracer,
+      final JsonRpcParameter parameters,
+      final long maxTraceSizeBytes) {
+    this.blockTracer = blockTracer;
+    this.parameters = parameters;
+    this.maxTraceSizeBytes = maxTraceSizeBytes;
+  }
+
+  @Override
+  public String getName() {
+    return "debug_traceBlockByHash";
+  }
+
+  @Override
+  public JsonRpcResponse response(final JsonRpcRequest request) {
+    final Hash blockHash = parameters.required(request.getParams(), 0, Hash.class);
+    final TraceOptions traceOptions =
+        parameters
+            .optional(request.getParams(), 1, TransactionTraceParams.class)
+            .map(TransactionTraceParams::traceOptions)
+            .orElse(TraceOptions.DEFAULT);
+
+    // A single tracer records every transaction so the size limit applies to the whole block.
+    final DebugOperationTracer execTracer =
+        new DebugOperationTracer(traceOptions, maxTraceSizeBytes);
+
+    final List<DebugTraceTransactionResult> results =
+        blockTracer
+            .traceBlock(blockHash, execTracer)
+            .map(
+                traces ->
+                    traces.stream()
+                        .map(DebugTraceTransactionResult::new)
+                        .collect(Collectors.toList()))
+            .orElse(null);
+    if (execTracer.isTraceSizeExceeded()) {
+      return new JsonRpcErrorResponse(request.getId(), JsonRpcError.TRACE_SIZE_LIMIT_EXCEEDED);
+    }
+    return new JsonRpcSuccessResponse(request.getId(), results);
+  }
+}
@@ -20,6 +20,8 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrac
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTracer;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionWithMetadata;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcError;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcErrorResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.DebugTraceTransactionResult;
@@ -32,14 +34,24 @@ public class DebugTraceTransaction implements JsonRpcMethod {
   private final JsonRpcParameter parameters;
   private final TransactionTracer transactionTracer;
   private final BlockchainQueries blockchain;
+  private final long maxTraceSizeBytes;
 
   public DebugTraceTransaction(
       final BlockchainQueries blockchain,
       final TransactionTracer transactionTracer,
       final JsonRpcParameter parameters) {
+    this(blockchain, transactionTracer, parameters, Long.MAX_VALUE);
+  }
+
+  public DebugTraceTransaction(
+      final BlockchainQueries blockchain,
+      final TransactionTracer transactionTracer,
+      final JsonRpcParameter parameters,
+      final long maxTraceSizeBytes) {
     this.blockchain = blockchain;
     this.transactionTracer = transactionTracer;
     this.parameters = parameters;
+    this.maxTraceSizeBytes = maxTraceSizeBytes;
   }
 
   @Override
@@ -60,13 +72,17 @@ public class DebugTraceTransaction implements JsonRpcMethod {
             .map(TransactionTraceParams::traceOptions)
             .orElse(TraceOptions.DEFAULT);
 
-    final DebugOperationTracer execTracer = new DebugOperationTracer(traceOptions);
+    final DebugOperationTracer execTracer =
+        new DebugOperationTracer(traceOptions, maxTraceSizeBytes);
 
     final DebugTraceTransactionResult result =
         transactionTracer
             .traceTransaction(blockHash, hash, execTracer)
             .map(DebugTraceTransactionResult::new)
             .orElse(null);
+    if (execTracer.isTraceSizeExceeded()) {
+      return new JsonRpcErrorResponse(request.getId(), JsonRpcError.TRACE_SIZE_LIMIT_EXCEEDED);
+    }
     return new JsonRpcSuccessResponse(request.getId(), result);
   }
 }
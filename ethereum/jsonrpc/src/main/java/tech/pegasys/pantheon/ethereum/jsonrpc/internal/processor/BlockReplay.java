@@ -13,36 +13,143 @@
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
 import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
+import tech.pegasys.pantheon.ethereum.worldstate.DefaultMutableWorldState;
+import tech.pegasys.pantheon.ethereum.worldstate.OverlayWorldStateStorage;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Replays the transactions of a block on top of the world state of its parent.
+ *
+ * <p>The world state after each replayed transaction is kept, as an in-memory overlay over the
+ * archived parent state, for a bounded number of recently replayed blocks. Later requests for the
+ * same block resume from the closest earlier transaction rather than re-executing the block from
+ * its start, so tracing every transaction of a block one by one costs a single replay.
+ */
 public class BlockReplay {
 
+  public static final int DEFAULT_CHECKPOINT_CACHE_SIZE = 8;
+
   private final ProtocolSchedule<?> protocolSchedule;
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
+  private final Cache<Hash, BlockCheckpoints> checkpoints;
 
   public BlockReplay(
       final ProtocolSchedule<?> protocolSchedule,
       final Blockchain blockchain,
       final WorldStateArchive worldStateArchive) {
+    this(protocolSchedule, blockchain, worldStateArchive, DEFAULT_CHECKPOINT_CACHE_SIZE);
+  }
+
+  /**
+   * Creates a block replay.
+   *
+   * @param protocolSchedule the protocol schedule to process transactions with
+   * @param blockchain the blockchain holding the replayed blocks
+   * @param worldStateArchive the archive holding the world states of their parents
+   * @param checkpointCacheSize the number of recently replayed blocks to keep checkpoints for
+   */
+  public BlockReplay(
+      final ProtocolSchedule<?> protocolSchedule,
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final int checkpointCacheSize) {
     this.protocolSchedule = protocolSchedule;
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
+    this.checkpoints = CacheBuilder.newBuilder().maximumSize(checkpointCacheSize).build();
+  }
+
+  /**
+   * Performs an action on every transaction of a block, in a single replay of the block.
+   *
+   * <p>The action is given the world state before its transaction, and must execute the transaction
+   * in it and commit the result, as the following transactions are executed on top of it. The
+   * resulting world states are kept as checkpoints for later requests.
+   *
+   * @param blockHash the hash of the block
+   * @param action the action to perform, which executes each transaction
+   * @param <T> the type of the results of the action
+   * @return the results of the action for each transaction in order, or empty if the block or the
+   *     world state of its parent is not available
+   */
+  public <T> Optional<List<T>> forEachTransactionInBlock(
+      final Hash blockHash, final Action<T> action) {
+    return blockCheckpoints(blockHash)
+        .map(
+            block -> {
+              final MutableWorldState worldState = block.worldStateBefore(0);
+              final List<T> results = new ArrayList<>();
+              for (int i = 0; i < block.transactions.size(); i++) {
+                results.add(
+                    action.performAction(
+                        block.transactions.get(i),
+                        block.header,
+                        blockchain,
+                        worldState,
+                        block.transactionProcessor,
+                        block.miningBeneficiary));
+                block.checkpoint(i + 1, worldState);
+              }
+              return results;
+            });
   }
 
   public <T> Optional<T> beforeTransactionInBlock(
       final Hash blockHash, final Hash transactionHash, final Action<T> action) {
+    return atTransactionInBlock(blockHash, transactionHash, 0, action);
+  }
+
+  public <T> Optional<T> afterTransactionInBlock(
+      final Hash blockHash, final Hash transactionHash, final Action<T> action) {
+    return atTransactionInBlock(blockHash, transactionHash, 1, action);
+  }
+
+  private <T> Optional<T> atTransactionInBlock(
+      final Hash blockHash, final Hash transactionHash, final int offset, final Action<T> action) {
+    final BlockCheckpoints block = blockCheckpoints(blockHash).orElse(null);
+    if (block == null) {
+      return Optional.empty();
+    }
+    for (int i = 0; i < block.transactions.size(); i++) {
+      final Transaction transaction = block.transactions.get(i);
+      if (transaction.hash().equals(transactionHash)) {
+        return Optional.of(
+            action.performAction(
+                transaction,
+                block.header,
+                blockchain,
+                block.worldStateBefore(i + offset),
+                block.transactionProcessor,
+                block.miningBeneficiary));
+      }
+    }
+    return Optional.empty();
+  }
+
+  private Optional<BlockCheckpoints> blockCheckpoints(final Hash blockHash) {
+    final BlockCheckpoints cached = checkpoints.getIfPresent(blockHash);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
     final BlockHeader header = blockchain.getBlockHeader(blockHash).orElse(null);
     if (header == null) {
       return Optional.empty();
@@ -51,54 +158,89 @@ public class BlockReplay {
     if (body == null) {
       return Optional.empty();
     }
-    final ProtocolSpec<?> protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
-    final TransactionProcessor transactionProcessor = protocolSpec.getTransactionProcessor();
     final BlockHeader previous = blockchain.getBlockHeader(header.getParentHash()).orElse(null);
     if (previous == null) {
       return Optional.empty();
     }
-    final MutableWorldState mutableWorldState =
-        worldStateArchive.getMutable(previous.getStateRoot()).orElse(null);
-    if (mutableWorldState == null) {
+    final OverlayWorldStateStorage storage =
+        new OverlayWorldStateStorage(worldStateArchive.getStorage());
+    if (!storage.isWorldStateAvailable(previous.getStateRoot())) {
       return Optional.empty();
     }
-    final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
-    for (final Transaction transaction : body.getTransactions()) {
-      if (transaction.hash().equals(transactionHash)) {
-        return Optional.of(
-            action.performAction(
-                transaction, header, blockchain, mutableWorldState, transactionProcessor));
-      } else {
-        final ProtocolSpec<?> spec = protocolSchedule.getByBlockNumber(header.getNumber());
+    final BlockCheckpoints block =
+        new BlockCheckpoints(header, body.getTransactions(), storage, previous.getStateRoot());
+    // Another request may have replayed the same block meanwhile, in which case use its
+    // checkpoints so they are shared by later requests.
+    final BlockCheckpoints existing = checkpoints.asMap().putIfAbsent(blockHash, block);
+    return Optional.of(existing != null ? existing : block);
+  }
+
+  /** The world state after each transaction of a block replayed so far. */
+  private class BlockCheckpoints {
+
+    private final BlockHeader header;
+    private final List<Transaction> transactions;
+    private final TransactionProcessor transactionProcessor;
+    private final Address miningBeneficiary;
+    private final OverlayWorldStateStorage storage;
+    // The root hash of the world state before each transaction, which is the state after the
+    // previous one.
+    private final List<Hash> stateRoots = new ArrayList<>();
+    private MutableWorldState replayedWorldState;
+
+    private BlockCheckpoints(
+        final BlockHeader header,
+        final List<Transaction> transactions,
+        final OverlayWorldStateStorage storage,
+        final Hash parentStateRoot) {
+      final ProtocolSpec<?> protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
+      this.header = header;
+      this.transactions = transactions;
+      this.transactionProcessor = protocolSpec.getTransactionProcessor();
+      this.miningBeneficiary =
+          protocolSpec.getMiningBeneficiaryCalculator().calculateBeneficiary(header);
+      this.storage = storage;
+      this.stateRoots.add(parentStateRoot);
+    }
+
+    /**
+     * Returns a copy of the world state before a transaction, replaying the transactions preceding
+     * it which have not been replayed yet.
+     */
+    private synchronized MutableWorldState worldStateBefore(final int index) {
+      final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
+      while (stateRoots.size() <= index) {
+        final Hash lastStateRoot = stateRoots.get(stateRoots.size() - 1);
+        // Checkpoints may have been recorded by a replay which did not go through this state
+        if (replayedWorldState == null || !replayedWorldState.rootHash().equals(lastStateRoot)) {
+          replayedWorldState = new DefaultMutableWorldState(lastStateRoot, storage);
+        }
+        final WorldUpdater updater = replayedWorldState.updater();
         transactionProcessor.processTransaction(
             blockchain,
-            mutableWorldState.updater(),
+            updater,
             header,
-            transaction,
-            spec.getMiningBeneficiaryCalculator().calculateBeneficiary(header),
+            transactions.get(stateRoots.size() - 1),
+            miningBeneficiary,
             blockHashLookup);
+        updater.commit();
+        // Persisting only writes to the in-memory overlay, so the state can be reopened by root.
+        replayedWorldState.persist();
+        stateRoots.add(replayedWorldState.rootHash());
       }
+      return new DefaultMutableWorldState(stateRoots.get(index), storage);
     }
-    return Optional.empty();
-  }
 
-  public <T> Optional<T> afterTransactionInBlock(
-      final Hash blockHash, final Hash transactionHash, final Action<T> action) {
-    return beforeTransactionInBlock(
-        blockHash,
-        transactionHash,
-        (transaction, blockHeader, blockchain, worldState, transactionProcessor) -> {
-          final ProtocolSpec<?> spec = protocolSchedule.getByBlockNumber(blockHeader.getNumber());
-          transactionProcessor.processTransaction(
-              blockchain,
-              worldState.updater(),
-              blockHeader,
-              transaction,
-              spec.getMiningBeneficiaryCalculator().calculateBeneficiary(blockHeader),
-              new BlockHashLookup(blockHeader, blockchain));
-          return action.performAction(
-              transaction, blockHeader, blockchain, worldState, transactionProcessor);
-        });
+    /**
+     * Records the world state after the transactions before the given index have been executed in
+     * it, unless it has already been recorded.
+     */
+    private synchronized void checkpoint(final int index, final MutableWorldState worldState) {
+      if (stateRoots.size() == index) {
+        worldState.persist();
+        stateRoots.add(worldState.rootHash());
+      }
+    }
   }
 
   public interface Action<T> {
@@ -108,6 +250,7 @@ public class BlockReplay {
         BlockHeader blockHeader,
         Blockchain blockchain,
         MutableWorldState worldState,
-        TransactionProcessor transactionProcessor);
+        TransactionProcessor transactionProcessor,
+        Address miningBeneficiary);
   }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
+import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
+import tech.pegasys.pantheon.ethereum.vm.DebugOperationTracer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/** Used to produce debug traces of all the transactions of a block in a single replay */
+public class BlockTracer {
+
+  private final BlockReplay blockReplay;
+
+  public BlockTracer(final BlockReplay blockReplay) {
+    this.blockReplay = blockReplay;
+  }
+
+  public Optional<List<TransactionTrace>> traceBlock(
+      final Hash blockHash, final DebugOperationTracer tracer) {
+    return blockReplay.forEachTransactionInBlock(
+        blockHash,
+        (transaction,
+            header,
+            blockchain,
+            mutableWorldState,
+            transactionProcessor,
+            miningBeneficiary) -> {
+          final int firstTraceFrame = tracer.getTraceFrames().size();
+          final WorldUpdater updater = mutableWorldState.updater();
+          final Result result =
+              transactionProcessor.processTransaction(
+                  blockchain,
+                  updater,
+                  header,
+                  transaction,
+                  miningBeneficiary,
+                  tracer,
+                  new BlockHashLookup(header, blockchain));
+          updater.commit();
+          final List<TraceFrame> traceFrames = tracer.getTraceFrames();
+          return new TransactionTrace(
+              transaction,
+              result,
+              new ArrayList<>(traceFrames.subList(firstTraceFrame, traceFrames.size())));
+        });
+  }
+}
@@ -33,14 +33,19 @@ public class TransactionTracer {
     return blockReplay.beforeTransactionInBlock(
         blockHash,
         transactionHash,
-        (transaction, header, blockchain, mutableWorldState, transactionProcessor) -> {
+        (transaction,
+            header,
+            blockchain,
+            mutableWorldState,
+            transactionProcessor,
+            miningBeneficiary) -> {
           final Result result =
               transactionProcessor.processTransaction(
                   blockchain,
                   mutableWorldState.updater(),
                   header,
                   transaction,
-                  header.getCoinbase(),
+                  miningBeneficiary,
                   tracer,
                   new BlockHashLookup(header, blockchain));
           return new TransactionTrace(transaction, result, tracer.getTraceFrames());
@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsIndex;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.chain.TransactionLocation;
 import tech.pegasys.pantheon.ethereum.core.Account;
@@ -44,10 +45,19 @@ public class BlockchainQueries {
 
   private final WorldStateArchive worldStateArchive;
   private final Blockchain blockchain;
+  private final Optional<BloomBitsIndex> bloomBitsIndex;
 
   public BlockchainQueries(final Blockchain blockchain, final WorldStateArchive worldStateArchive) {
+    this(blockchain, worldStateArchive, Optional.empty());
+  }
+
+  public BlockchainQueries(
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final Optional<BloomBitsIndex> bloomBitsIndex) {
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
+    this.bloomBitsIndex = bloomBitsIndex;
   }
 
   public Blockchain getBlockchain() {
@@ -469,6 +479,43 @@ public class BlockchainQueries {
             header.getNumber()));
   }
 
+  /**
+   * Returns the receipts of all the transactions in the given block, loading the block's body and
+   * receipts only once.
+   *
+   * @param blockHash The hash of the block.
+   * @return The receipts of the block's transactions in order, or empty if the block is unknown.
+   */
+  public Optional<List<TransactionReceiptWithMetadata>> transactionReceiptsByBlockHash(
+      final Hash blockHash) {
+    final Optional<BlockHeader> header = blockchain.getBlockHeader(blockHash);
+    final Optional<BlockBody> blockBody = blockchain.getBlockBody(blockHash);
+    final Optional<List<TransactionReceipt>> receipts = blockchain.getTxReceipts(blockHash);
+    if (!header.isPresent() || !blockBody.isPresent() || !receipts.isPresent()) {
+      return Optional.empty();
+    }
+
+    final List<Transaction> transactions = blockBody.get().getTransactions();
+    final List<TransactionReceipt> transactionReceipts = receipts.get();
+    final List<TransactionReceiptWithMetadata> result = new ArrayList<>(transactionReceipts.size());
+    long previousCumulativeGasUsed = 0;
+    for (int i = 0; i < transactionReceipts.size(); i++) {
+      final Transaction transaction = transactions.get(i);
+      final TransactionReceipt transactionReceipt = transactionReceipts.get(i);
+      result.add(
+          TransactionReceiptWithMetadata.create(
+              transactionReceipt,
+              transaction,
+              transaction.hash(),
+              i,
+              transactionReceipt.getCumulativeGasUsed() - previousCumulativeGasUsed,
+              blockHash,
+              header.get().getNumber()));
+      previousCumulativeGasUsed = transactionReceipt.getCumulativeGasUsed();
+    }
+    return Optional.of(result);
+  }
+
   /**
    * Retrieve logs from the range of blocks with optional filtering based on logger address and log
    * topics.
@@ -485,26 +532,46 @@ public class BlockchainQueries {
     if (fromBlockNumber > toBlockNumber || toBlockNumber > headBlockNumber()) {
       return Lists.newArrayList();
     }
-    List<LogWithMetadata> matchingLogs = Lists.newArrayList();
-    for (long blockNumber = fromBlockNumber; blockNumber <= toBlockNumber; blockNumber++) {
-      final Hash blockhash = blockchain.getBlockHashByNumber(blockNumber).get();
-      final boolean logHasBeenRemoved = !blockchain.blockIsOnCanonicalChain(blockhash);
-      final List<TransactionReceipt> receipts = blockchain.getTxReceipts(blockhash).get();
-      final List<Transaction> transaction =
-          blockchain.getBlockBody(blockhash).get().getTransactions();
-      matchingLogs =
-          generateLogWithMetadata(
-              receipts,
-              blockNumber,
-              query,
-              blockhash,
-              matchingLogs,
-              transaction,
-              logHasBeenRemoved);
+    final List<LogWithMetadata> matchingLogs = Lists.newArrayList();
+    long blockNumber = fromBlockNumber;
+    while (blockNumber <= toBlockNumber) {
+      final Optional<List<Long>> indexedCandidates = indexedCandidates(blockNumber, query);
+      if (indexedCandidates.isPresent()) {
+        final BloomBitsIndex index = bloomBitsIndex.get();
+        for (final long candidate : indexedCandidates.get()) {
+          if (candidate >= blockNumber && candidate <= toBlockNumber) {
+            addMatchingLogs(candidate, query, matchingLogs);
+          }
+        }
+        blockNumber = index.lastBlockOf(index.sectionFor(blockNumber)) + 1;
+      } else {
+        // Not indexed yet, so at least skip blocks whose own logs bloom rules them out
+        final BlockHeader header = blockchain.getBlockHeader(blockNumber).get();
+        if (query.couldMatch(header.getLogsBloom())) {
+          addMatchingLogs(blockNumber, query, matchingLogs);
+        }
+        blockNumber++;
+      }
     }
     return matchingLogs;
   }
 
+  private Optional<List<Long>> indexedCandidates(final long blockNumber, final LogsQuery query) {
+    return bloomBitsIndex.flatMap(
+        index -> index.matchingBlocks(index.sectionFor(blockNumber), query.getBloomCriteria()));
+  }
+
+  private void addMatchingLogs(
+      final long blockNumber, final LogsQuery query, final List<LogWithMetadata> matchingLogs) {
+    final Hash blockhash = blockchain.getBlockHashByNumber(blockNumber).get();
+    final boolean logHasBeenRemoved = !blockchain.blockIsOnCanonicalChain(blockhash);
+    final List<TransactionReceipt> receipts = blockchain.getTxReceipts(blockhash).get();
+    final List<Transaction> transaction =
+        blockchain.getBlockBody(blockhash).get().getTransactions();
+    generateLogWithMetadata(
+        receipts, blockNumber, query, blockhash, matchingLogs, transaction, logHasBeenRemoved);
+  }
+
   public List<LogWithMetadata> matchingLogs(final Hash blockhash, final LogsQuery query) {
     final List<LogWithMetadata> matchingLogs = Lists.newArrayList();
     Optional<BlockHeader> blockHeader = blockchain.getBlockHeader(blockhash);
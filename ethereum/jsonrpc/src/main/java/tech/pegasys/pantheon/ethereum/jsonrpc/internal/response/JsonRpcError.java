@@ -27,6 +27,11 @@ public enum JsonRpcError {
   INTERNAL_ERROR(-32603, "Internal error"),
   P2P_DISABLED(-32000, "P2P has been disabled. This functionality is not available"),
 
+  // Request limits
+  EXCEEDS_RPC_MAX_BATCH_SIZE(-32000, "Number of requests exceeds max batch size"),
+  SERVER_BUSY(-32000, "Server is busy, try again later"),
+  TRACE_SIZE_LIMIT_EXCEEDED(-32000, "Trace exceeds the maximum trace size"),
+
   // Filter & Subscription Errors
   FILTER_NOT_FOUND(-32000, "Filter not found"),
   LOGS_FILTER_NOT_FOUND(-32000, "Logs filter not found"),
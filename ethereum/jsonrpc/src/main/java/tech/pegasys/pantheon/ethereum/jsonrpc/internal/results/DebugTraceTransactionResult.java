@@ -12,11 +12,13 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
 
+import tech.pegasys.pantheon.ethereum.debug.MemorySnapshot;
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrace;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -24,7 +26,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 @JsonPropertyOrder({"gas", "failed", "returnValue", "structLogs"})
 public class DebugTraceTransactionResult {
 
-  private final List<StructLog> structLogs;
+  private final List<TraceFrame> traceFrames;
   private final String returnValue;
   private final long gas;
   private final boolean failed;
@@ -32,22 +34,33 @@ public class DebugTraceTransactionResult {
   public DebugTraceTransactionResult(final TransactionTrace transactionTrace) {
     gas = transactionTrace.getGas();
     returnValue = transactionTrace.getResult().getOutput().toString().substring(2);
-    structLogs =
-        transactionTrace.getTraceFrames().stream()
-            .map(DebugTraceTransactionResult::createStructLog)
-            .collect(Collectors.toList());
+    traceFrames = transactionTrace.getTraceFrames();
     failed = !transactionTrace.getResult().isSuccessful();
   }
 
-  private static StructLog createStructLog(final TraceFrame frame) {
+  private static StructLog createStructLog(
+      final TraceFrame frame, final MemorySnapshot.Reader memoryReader) {
+    final Optional<Bytes32[]> memory =
+        frame.getMemorySnapshot().map(snapshot -> memoryReader.read(frame.getDepth(), snapshot));
     return frame.getExceptionalHaltReasons().isEmpty()
-        ? new StructLog(frame)
-        : new StructLogWithError(frame);
+        ? new StructLog(frame, memory)
+        : new StructLogWithError(frame, memory);
   }
 
+  /**
+   * Returns the struct logs of the trace.
+   *
+   * <p>Struct logs are created as they are iterated, so that a large trace is rendered a step at a
+   * time while it is serialized rather than held in memory as a whole.
+   *
+   * @return the struct logs
+   */
   @JsonGetter(value = "structLogs")
-  public List<StructLog> getStructLogs() {
-    return structLogs;
+  public Iterable<StructLog> getStructLogs() {
+    return () -> {
+      final MemorySnapshot.Reader memoryReader = new MemorySnapshot.Reader();
+      return traceFrames.stream().map(frame -> createStructLog(frame, memoryReader)).iterator();
+    };
   }
 
   @JsonGetter(value = "returnValue")
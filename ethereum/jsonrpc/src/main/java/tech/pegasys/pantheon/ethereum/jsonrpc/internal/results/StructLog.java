@@ -14,12 +14,14 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
 
 import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.Bytes32s;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.TreeMap;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
@@ -38,12 +40,15 @@ public class StructLog {
   private final Object storage;
 
   public StructLog(final TraceFrame traceFrame) {
+    this(traceFrame, traceFrame.getMemory());
+  }
+
+  public StructLog(final TraceFrame traceFrame, final Optional<Bytes32[]> memory) {
     depth = traceFrame.getDepth() + 1;
     gas = traceFrame.getGasRemaining().toLong();
     gasCost = traceFrame.getGasCost().map(Gas::toLong).orElse(0L);
-    memory =
-        traceFrame
-            .getMemory()
+    this.memory =
+        memory
             .map(a -> Arrays.stream(a).map(Bytes32s::unprefixedHexString).toArray(String[]::new))
             .orElse(null);
     op = traceFrame.getOpcode();
@@ -14,6 +14,9 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.results;
 
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
 import tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+
+import java.util.Optional;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
 
@@ -22,7 +25,11 @@ public class StructLogWithError extends StructLog {
   private final String[] error;
 
   public StructLogWithError(final TraceFrame traceFrame) {
-    super(traceFrame);
+    this(traceFrame, traceFrame.getMemory());
+  }
+
+  public StructLogWithError(final TraceFrame traceFrame, final Optional<Bytes32[]> memory) {
+    super(traceFrame, memory);
     error =
         traceFrame.getExceptionalHaltReasons().isEmpty()
             ? null
@@ -17,12 +17,15 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.UnsubscribeRequest;
+import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.EncodedJsonRpcResult;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.SubscriptionResponse;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -47,17 +50,24 @@ public class SubscriptionManager extends AbstractVerticle {
       "SubscriptionManager::removeSubscriptions";
 
   private final AtomicLong subscriptionCounter = new AtomicLong(0);
-  private final Map<Long, Subscription> subscriptions = new HashMap<>();
-  private final Map<String, List<Long>> connectionSubscriptionsMap = new HashMap<>();
+  private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+  private final Map<Long, String> subscriptionConnections = new ConcurrentHashMap<>();
+  // Subscriptions of each type ordered by id, so notifying doesn't scan every subscription
+  private final Map<SubscriptionType, Map<Long, Subscription>> subscriptionsByType =
+      new EnumMap<>(SubscriptionType.class);
+  private final Map<String, List<Long>> connectionSubscriptionsMap = new ConcurrentHashMap<>();
   private final SubscriptionBuilder subscriptionBuilder = new SubscriptionBuilder();
   private final long refreshDelay;
 
   public SubscriptionManager(final long refreshDelay) {
     this.refreshDelay = refreshDelay;
+    for (final SubscriptionType type : SubscriptionType.values()) {
+      subscriptionsByType.put(type, new ConcurrentSkipListMap<>());
+    }
   }
 
   public SubscriptionManager() {
-    this.refreshDelay = WebSocketConfiguration.DEFAULT_WEBSOCKET_REFRESH_DELAY;
+    this(WebSocketConfiguration.DEFAULT_WEBSOCKET_REFRESH_DELAY);
   }
 
   @Override
@@ -77,6 +87,10 @@ public class SubscriptionManager extends AbstractVerticle {
 
   private void addSubscription(final Subscription subscription, final String connectionId) {
     subscriptions.put(subscription.getId(), subscription);
+    subscriptionConnections.put(subscription.getId(), connectionId);
+    subscriptionsByType
+        .get(subscription.getSubscriptionType())
+        .put(subscription.getId(), subscription);
     mapSubscriptionToConnection(connectionId, subscription.getId());
   }
 
@@ -110,7 +124,11 @@ public class SubscriptionManager extends AbstractVerticle {
   }
 
   private void destroySubscription(final long subscriptionId, final String connectionId) {
-    subscriptions.remove(subscriptionId);
+    final Subscription subscription = subscriptions.remove(subscriptionId);
+    if (subscription != null) {
+      subscriptionsByType.get(subscription.getSubscriptionType()).remove(subscriptionId);
+    }
+    subscriptionConnections.remove(subscriptionId);
 
     if (connectionSubscriptionsMap.containsKey(connectionId)) {
       removeSubscriptionToConnectionMapping(connectionId, subscriptionId);
@@ -152,21 +170,33 @@ public class SubscriptionManager extends AbstractVerticle {
   }
 
   public <T> List<T> subscriptionsOfType(final SubscriptionType type, final Class<T> clazz) {
-    return subscriptions.entrySet().stream()
-        .map(Entry::getValue)
-        .filter(subscription -> subscription.isType(type))
+    return subscriptionsByType.get(type).values().stream()
         .map(subscriptionBuilder.mapToSubscriptionClass(clazz))
         .collect(Collectors.toList());
   }
 
   public void sendMessage(final Long subscriptionId, final JsonRpcResult msg) {
-    final SubscriptionResponse response = new SubscriptionResponse(subscriptionId, msg);
+    final String connectionId = subscriptionConnections.get(subscriptionId);
+    if (connectionId != null) {
+      final SubscriptionResponse response = new SubscriptionResponse(subscriptionId, msg);
+      vertx.eventBus().send(connectionId, Json.encode(response));
+    }
+  }
 
-    connectionSubscriptionsMap.entrySet().stream()
-        .filter(e -> e.getValue().contains(subscriptionId))
-        .map(Entry::getKey)
-        .findFirst()
-        .ifPresent(connectionId -> vertx.eventBus().send(connectionId, Json.encode(response)));
+  /**
+   * Sends the same result to each of the given subscriptions. The result is only encoded once,
+   * rather than once per subscription.
+   *
+   * @param subscriptionIds the subscriptions to notify
+   * @param msg the result to send
+   */
+  public void notifySubscribers(final Collection<Long> subscriptionIds, final JsonRpcResult msg) {
+    if (subscriptionIds.isEmpty()) {
+      return;
+    }
+    final JsonRpcResult encoded =
+        subscriptionIds.size() == 1 ? msg : new EncodedJsonRpcResult(Json.encode(msg));
+    subscriptionIds.forEach(subscriptionId -> sendMessage(subscriptionId, encoded));
   }
 
   public long getRefreshDelay() {
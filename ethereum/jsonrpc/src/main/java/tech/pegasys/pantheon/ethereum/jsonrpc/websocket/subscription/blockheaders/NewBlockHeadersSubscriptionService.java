@@ -23,6 +23,8 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.Subscriptio
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 public class NewBlockHeadersSubscriptionService implements BlockAddedObserver {
 
@@ -44,13 +46,21 @@ public class NewBlockHeadersSubscriptionService implements BlockAddedObserver {
 
     final Hash newBlockHash = event.getBlock().getHash();
 
-    for (final NewBlockHeadersSubscription subscription : subscribers) {
-      final BlockResult newBlock =
-          subscription.getIncludeTransactions()
-              ? blockWithCompleteTransaction(newBlockHash)
-              : blockWithTransactionHash(newBlockHash);
+    // The result only depends on whether transactions are included, so build each one once
+    final Map<Boolean, List<Long>> subscriptionIds =
+        subscribers.stream()
+            .collect(
+                Collectors.partitioningBy(
+                    NewBlockHeadersSubscription::getIncludeTransactions,
+                    Collectors.mapping(NewBlockHeadersSubscription::getId, Collectors.toList())));
 
-      subscriptionManager.sendMessage(subscription.getId(), newBlock);
+    if (!subscriptionIds.get(true).isEmpty()) {
+      subscriptionManager.notifySubscribers(
+          subscriptionIds.get(true), blockWithCompleteTransaction(newBlockHash));
+    }
+    if (!subscriptionIds.get(false).isEmpty()) {
+      subscriptionManager.notifySubscribers(
+          subscriptionIds.get(false), blockWithTransactionHash(newBlockHash));
     }
   }
 
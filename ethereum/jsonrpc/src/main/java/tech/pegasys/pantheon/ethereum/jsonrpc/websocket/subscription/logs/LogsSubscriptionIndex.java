@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.logs;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.LogsQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes logs subscriptions by the addresses they filter on or, failing that, by the candidates
+ * for their first topic. Only the subscriptions indexed under a log's address or first topic, and
+ * those that couldn't be indexed at all, need to be checked against the log.
+ */
+class LogsSubscriptionIndex {
+
+  private final Map<Address, List<LogsSubscription>> subscriptionsByAddress = new HashMap<>();
+  private final Map<LogTopic, List<LogsSubscription>> subscriptionsByFirstTopic = new HashMap<>();
+  private final List<LogsSubscription> unindexedSubscriptions = new ArrayList<>();
+
+  LogsSubscriptionIndex(final List<LogsSubscription> subscriptions) {
+    subscriptions.forEach(this::add);
+  }
+
+  private void add(final LogsSubscription subscription) {
+    final LogsQuery query = subscription.getLogsQuery();
+    if (!query.getAddresses().isEmpty()) {
+      for (final Address address : new LinkedHashSet<>(query.getAddresses())) {
+        subscriptionsByAddress.computeIfAbsent(address, a -> new ArrayList<>()).add(subscription);
+      }
+    } else if (isIndexable(query.getTopics())) {
+      for (final LogTopic topic : new LinkedHashSet<>(query.getTopics().get(0))) {
+        subscriptionsByFirstTopic.computeIfAbsent(topic, t -> new ArrayList<>()).add(subscription);
+      }
+    } else {
+      unindexedSubscriptions.add(subscription);
+    }
+  }
+
+  // A null candidate is a wildcard, so the subscription would match logs with any first topic
+  private static boolean isIndexable(final List<List<LogTopic>> topics) {
+    return !topics.isEmpty() && !topics.get(0).isEmpty() && !topics.get(0).contains(null);
+  }
+
+  /**
+   * Returns the ids of the subscriptions which match the given log.
+   *
+   * @param log the log to match
+   * @return the ids of the matching subscriptions
+   */
+  List<Long> matchingSubscriptionIds(final Log log) {
+    final List<Long> subscriptionIds = new ArrayList<>();
+    addMatching(log, subscriptionsByAddress.get(log.getLogger()), subscriptionIds);
+    if (!log.getTopics().isEmpty()) {
+      addMatching(log, subscriptionsByFirstTopic.get(log.getTopics().get(0)), subscriptionIds);
+    }
+    addMatching(log, unindexedSubscriptions, subscriptionIds);
+    return subscriptionIds;
+  }
+
+  private static void addMatching(
+      final Log log, final List<LogsSubscription> candidates, final List<Long> subscriptionIds) {
+    if (candidates == null) {
+      return;
+    }
+    for (final LogsSubscription subscription : candidates) {
+      if (subscription.getLogsQuery().matches(log)) {
+        subscriptionIds.add(subscription.getId());
+      }
+    }
+  }
+}
@@ -15,7 +15,9 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.logs;
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedObserver;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.LogWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionReceiptWithMetadata;
@@ -23,7 +25,9 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.LogResult;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.SubscriptionManager;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class LogsSubscriptionService implements BlockAddedObserver {
@@ -46,50 +50,57 @@ public class LogsSubscriptionService implements BlockAddedObserver {
       return;
     }
 
+    final LogsSubscriptionIndex index = new LogsSubscriptionIndex(logsSubscriptions);
+    // A reorg may add transactions from several blocks, so the receipts are loaded once per block
+    final Map<Hash, Optional<List<TransactionReceiptWithMetadata>>> receiptsByBlock =
+        new HashMap<>();
+
     event.getAddedTransactions().stream()
-        .map(tx -> blockchainQueries.transactionReceiptByTransactionHash(tx.hash()))
+        .map(tx -> receiptWithMetadata(tx, blockchain, receiptsByBlock))
         .filter(Optional::isPresent)
         .map(Optional::get)
         .forEachOrdered(
-            receiptWithMetadata -> {
-              final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
-              sendLogsToMatchingSubscriptions(logs, logsSubscriptions, receiptWithMetadata, false);
-            });
+            receiptWithMetadata ->
+                sendLogsToMatchingSubscriptions(receiptWithMetadata, index, false));
 
     event.getRemovedTransactions().stream()
-        .map(tx -> blockchainQueries.transactionReceiptByTransactionHash(tx.hash()))
+        .map(tx -> receiptWithMetadata(tx, blockchain, receiptsByBlock))
         .filter(Optional::isPresent)
         .map(Optional::get)
         .forEachOrdered(
-            receiptWithMetadata -> {
-              final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
-              sendLogsToMatchingSubscriptions(logs, logsSubscriptions, receiptWithMetadata, true);
-            });
+            receiptWithMetadata ->
+                sendLogsToMatchingSubscriptions(receiptWithMetadata, index, true));
+  }
+
+  private Optional<TransactionReceiptWithMetadata> receiptWithMetadata(
+      final Transaction transaction,
+      final Blockchain blockchain,
+      final Map<Hash, Optional<List<TransactionReceiptWithMetadata>>> receiptsByBlock) {
+    return blockchain
+        .getTransactionLocation(transaction.hash())
+        .flatMap(
+            location ->
+                receiptsByBlock
+                    .computeIfAbsent(
+                        location.getBlockHash(), blockchainQueries::transactionReceiptsByBlockHash)
+                    .map(receipts -> receipts.get(location.getTransactionIndex())));
   }
 
   private void sendLogsToMatchingSubscriptions(
-      final List<Log> logs,
-      final List<LogsSubscription> logsSubscriptions,
       final TransactionReceiptWithMetadata receiptWithMetadata,
+      final LogsSubscriptionIndex index,
       final boolean removed) {
+    final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
     for (int logIndex = 0; logIndex < logs.size(); logIndex++) {
-      for (final LogsSubscription subscription : logsSubscriptions) {
-        if (subscription.getLogsQuery().matches(logs.get(logIndex))) {
-          sendLogToSubscription(receiptWithMetadata, removed, logIndex, subscription);
-        }
+      final List<Long> subscriptionIds = index.matchingSubscriptionIds(logs.get(logIndex));
+      if (!subscriptionIds.isEmpty()) {
+        final LogWithMetadata logWithMetaData =
+            logWithMetadata(logIndex, receiptWithMetadata, removed);
+        subscriptionManager.notifySubscribers(subscriptionIds, new LogResult(logWithMetaData));
       }
     }
   }
 
-  private void sendLogToSubscription(
-      final TransactionReceiptWithMetadata receiptWithMetadata,
-      final boolean removed,
-      final int logIndex,
-      final LogsSubscription subscription) {
-    final LogWithMetadata logWithMetaData = logWithMetadata(logIndex, receiptWithMetadata, removed);
-    subscriptionManager.sendMessage(subscription.getId(), new LogResult(logWithMetaData));
-  }
-
   // @formatter:off
   private LogWithMetadata logWithMetadata(
       final int logIndex,
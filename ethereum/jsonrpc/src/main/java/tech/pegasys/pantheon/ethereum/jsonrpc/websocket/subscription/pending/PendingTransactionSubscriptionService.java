@@ -20,6 +20,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.Subscriptio
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class PendingTransactionSubscriptionService implements PendingTransactionListener {
 
@@ -35,16 +36,18 @@ public class PendingTransactionSubscriptionService implements PendingTransaction
   }
 
   private void notifySubscribers(final Hash pendingTransaction) {
-    final List<Subscription> subscriptions = pendingTransactionSubscriptions();
+    final List<Long> subscriptionIds = pendingTransactionSubscriptionIds();
 
-    for (final Subscription subscription : subscriptions) {
-      subscriptionManager.sendMessage(
-          subscription.getId(), new PendingTransactionResult(pendingTransaction));
+    if (!subscriptionIds.isEmpty()) {
+      subscriptionManager.notifySubscribers(
+          subscriptionIds, new PendingTransactionResult(pendingTransaction));
     }
   }
 
-  private List<Subscription> pendingTransactionSubscriptions() {
-    return subscriptionManager.subscriptionsOfType(
-        SubscriptionType.NEW_PENDING_TRANSACTIONS, Subscription.class);
+  private List<Long> pendingTransactionSubscriptionIds() {
+    return subscriptionManager
+        .subscriptionsOfType(SubscriptionType.NEW_PENDING_TRANSACTIONS, Subscription.class).stream()
+        .map(Subscription::getId)
+        .collect(Collectors.toList());
   }
 }
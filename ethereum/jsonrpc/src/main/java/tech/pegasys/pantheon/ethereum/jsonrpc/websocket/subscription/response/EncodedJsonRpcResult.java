@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response;
+
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.JsonRpcResult;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/** A result which has already been encoded to JSON, and is written out as is. */
+public class EncodedJsonRpcResult implements JsonRpcResult {
+
+  private final String json;
+
+  public EncodedJsonRpcResult(final String json) {
+    this.json = json;
+  }
+
+  @JsonValue
+  @JsonRawValue
+  public String getJson() {
+    return json;
+  }
+}
@@ -20,6 +20,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.Subscriptio
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.SubscriptionManager;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,20 +54,18 @@ public class SyncingSubscriptionService {
       result = new NotSynchronisingResult();
     }
 
+    final List<Long> subscriptionIds = new ArrayList<>();
     for (final Subscription subscription : syncingSubscriptions) {
-      sendSyncingResultToSubscription((SyncingSubscription) subscription, result, syncStatusChange);
+      final SyncingSubscription syncingSubscription = (SyncingSubscription) subscription;
+      if (syncStatusChange || !syncingSubscription.isFirstMessageHasBeenSent()) {
+        subscriptionIds.add(syncingSubscription.getId());
+        syncingSubscription.setFirstMessageHasBeenSent(true);
+      }
     }
-    previousSyncStatus = syncStatus;
-  }
-
-  private void sendSyncingResultToSubscription(
-      final SyncingSubscription subscription,
-      final JsonRpcResult result,
-      final boolean syncStatusChange) {
-    if (syncStatusChange || !subscription.isFirstMessageHasBeenSent()) {
-      subscriptionManager.sendMessage(subscription.getId(), result);
-      subscription.setFirstMessageHasBeenSent(true);
+    if (!subscriptionIds.isEmpty()) {
+      subscriptionManager.notifySubscribers(subscriptionIds, result);
     }
+    previousSyncStatus = syncStatus;
   }
 
   public void engageNextTimerTick() {
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import org.junit.Test;
+
+public class JsonResponseStreamerTest {
+
+  private final HttpServerResponse response = mock(HttpServerResponse.class);
+
+  @Test
+  public void failsWhenTheClientDoesNotReadTheResponseInTime() {
+    when(response.writeQueueFull()).thenReturn(true);
+    final JsonResponseStreamer streamer = new JsonResponseStreamer(response, 200);
+
+    assertThatThrownBy(() -> streamer.write(new byte[JsonResponseStreamer.CHUNK_SIZE]))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Timed out");
+    verify(response).write(any(Buffer.class));
+  }
+
+  @Test
+  public void boundsTheTotalWaitAcrossChunks() throws IOException {
+    when(response.writeQueueFull()).thenReturn(true, true, true, false);
+    final JsonResponseStreamer streamer = new JsonResponseStreamer(response, 200);
+    streamer.write(new byte[JsonResponseStreamer.CHUNK_SIZE]);
+
+    // The wait for the first chunk used up part of the time the whole response may wait
+    when(response.writeQueueFull()).thenReturn(true);
+    assertThatThrownBy(() -> streamer.write(new byte[JsonResponseStreamer.CHUNK_SIZE]))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Timed out");
+  }
+}
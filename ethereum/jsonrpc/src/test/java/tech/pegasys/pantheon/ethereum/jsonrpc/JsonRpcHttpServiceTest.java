@@ -1647,6 +1647,71 @@ public class JsonRpcHttpServiceTest {
     }
   }
 
+  @Test
+  public void batchRequestExceedingMaxBatchSize() throws Exception {
+    final RequestBody body =
+        RequestBody.create(
+            JSON, clientVersionBatch(JsonRpcConfiguration.DEFAULT_MAX_BATCH_SIZE + 1).encode());
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      assertThat(resp.code()).isEqualTo(400);
+      final JsonObject json = new JsonObject(resp.body().string());
+      final JsonRpcError expectedError = JsonRpcError.EXCEEDS_RPC_MAX_BATCH_SIZE;
+      testHelper.assertValidJsonRpcError(
+          json, null, expectedError.getCode(), expectedError.getMessage());
+    }
+  }
+
+  @Test
+  public void largeBatchResponseIsChunked() throws Exception {
+    final int requestCount = JsonRpcConfiguration.DEFAULT_MAX_BATCH_SIZE;
+    final JsonArray requests = clientVersionBatch(requestCount);
+    final RequestBody body = RequestBody.create(JSON, requests.encode());
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      assertThat(resp.code()).isEqualTo(200);
+      assertThat(resp.header("Transfer-Encoding")).isEqualTo("chunked");
+      final String respBody = resp.body().string();
+      assertThat(respBody.length()).isGreaterThan(JsonResponseStreamer.CHUNK_SIZE);
+      assertThat(respBody).doesNotContain("\n");
+      final JsonArray json = new JsonArray(respBody);
+      assertThat(json.size()).isEqualTo(requestCount);
+      for (int i = 0; i < requestCount; ++i) {
+        testHelper.assertValidJsonRpcResult(
+            json.getJsonObject(i), requests.getJsonObject(i).getString("id"));
+        assertThat(json.getJsonObject(i).getString("result")).isEqualTo(CLIENT_VERSION);
+      }
+    }
+  }
+
+  private JsonArray clientVersionBatch(final int requestCount) {
+    final JsonArray requests = new JsonArray();
+    for (int i = 0; i < requestCount; ++i) {
+      requests.add(
+          new JsonObject()
+              .put("jsonrpc", "2.0")
+              .put("id", String.format("request-%032d", i))
+              .put("method", "web3_clientVersion"));
+    }
+    return requests;
+  }
+
+  @Test
+  public void smallResponseHasContentLength() throws Exception {
+    final RequestBody body =
+        RequestBody.create(
+            JSON, "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"web3_clientVersion\"}");
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      assertThat(resp.code()).isEqualTo(200);
+      assertThat(resp.header("Transfer-Encoding")).isNull();
+      final String respBody = resp.body().string();
+      assertThat(resp.header("Content-Length")).isEqualTo(String.valueOf(respBody.length()));
+      assertThat(respBody)
+          .isEqualTo("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"" + CLIENT_VERSION + "\"}");
+    }
+  }
+
   private void verifyBlockResult(
       final Block block,
       final UInt256 td,
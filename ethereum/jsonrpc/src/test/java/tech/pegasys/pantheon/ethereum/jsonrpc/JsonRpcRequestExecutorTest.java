@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class JsonRpcRequestExecutorTest {
+
+  private static final Object CONNECTION_1 = new Object();
+  private static final Object CONNECTION_2 = new Object();
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private JsonRpcRequestExecutor executor;
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    executor.stop();
+  }
+
+  @Test
+  public void limitsActiveRequestsPerConnection() throws Exception {
+    executor = new JsonRpcRequestExecutor(4, 100, 2, new NoOpMetricsSystem());
+    final AtomicInteger active = new AtomicInteger();
+    final AtomicInteger maxActive = new AtomicInteger();
+    final List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      results.add(
+          executor.submit(
+              CONNECTION_1,
+              () -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                awaitRelease();
+                return active.getAndDecrement();
+              }));
+    }
+
+    // Another connection still gets a thread while the first one is at its limit
+    assertThat(executor.submit(CONNECTION_2, () -> "done").get(5, TimeUnit.SECONDS))
+        .isEqualTo("done");
+    assertThat(results).noneMatch(CompletableFuture::isDone);
+
+    release.countDown();
+    CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+    assertThat(maxActive.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void startsRequestsFromAConnectionInOrder() throws Exception {
+    executor = new JsonRpcRequestExecutor(4, 100, 1, new NoOpMetricsSystem());
+    final List<Integer> started = new ArrayList<>();
+    final List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      final int request = i;
+      results.add(executor.submit(CONNECTION_1, () -> started.add(request)));
+    }
+
+    CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+    assertThat(started).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+  }
+
+  @Test
+  public void rejectsRequestsWhenQueueIsFull() throws Exception {
+    executor = new JsonRpcRequestExecutor(1, 1, 10, new NoOpMetricsSystem());
+    final CountDownLatch started = new CountDownLatch(1);
+    final CompletableFuture<String> running =
+        executor.submit(
+            CONNECTION_1,
+            () -> {
+              started.countDown();
+              awaitRelease();
+              return "running";
+            });
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    final CompletableFuture<String> queued = executor.submit(CONNECTION_1, () -> "queued");
+    final CompletableFuture<String> rejected = executor.submit(CONNECTION_2, () -> "rejected");
+
+    assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(RejectedExecutionException.class);
+
+    release.countDown();
+    assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+  }
+
+  @Test
+  public void rejectsRequestsFromOneConnectionBeyondTheQueueLimit() throws Exception {
+    executor = new JsonRpcRequestExecutor(4, 10, 2, new NoOpMetricsSystem());
+    final CountDownLatch started = new CountDownLatch(2);
+    final List<CompletableFuture<String>> results = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      results.add(
+          executor.submit(
+              CONNECTION_1,
+              () -> {
+                started.countDown();
+                awaitRelease();
+                return "done";
+              }));
+      if (i == 1) {
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+      }
+    }
+
+    // Two requests execute and ten wait, the others are rejected straight away
+    for (final CompletableFuture<String> result : results.subList(12, 20)) {
+      assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+          .isInstanceOf(ExecutionException.class)
+          .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    release.countDown();
+    for (final CompletableFuture<String> result : results.subList(0, 12)) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+    }
+  }
+
+  @Test
+  public void stoppingRejectsRequestsWhichHaveNotStarted() throws Exception {
+    executor = new JsonRpcRequestExecutor(1, 10, 10, new NoOpMetricsSystem());
+    final CountDownLatch started = new CountDownLatch(1);
+    executor.submit(
+        CONNECTION_1,
+        () -> {
+          started.countDown();
+          awaitRelease();
+          return "running";
+        });
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    final CompletableFuture<String> queued = executor.submit(CONNECTION_2, () -> "queued");
+
+    executor.stop();
+
+    assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(RejectedExecutionException.class);
+  }
+
+  @Test
+  public void failedRequestsDoNotBlockTheConnection() throws Exception {
+    executor = new JsonRpcRequestExecutor(1, 10, 1, new NoOpMetricsSystem());
+    final CompletableFuture<String> failed =
+        executor.submit(
+            CONNECTION_1,
+            () -> {
+              throw new IllegalStateException("failed");
+            });
+
+    assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(executor.submit(CONNECTION_1, () -> "next").get(5, TimeUnit.SECONDS))
+        .isEqualTo("next");
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
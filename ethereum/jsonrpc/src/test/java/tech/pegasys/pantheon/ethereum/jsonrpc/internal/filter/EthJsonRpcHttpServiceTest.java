@@ -40,8 +40,7 @@ public class EthJsonRpcHttpServiceTest extends AbstractEthJsonRpcHttpServiceTest
 
   @Test
   public void getFilterChanges_noBlocks() throws Exception {
-    final String expectedRespBody =
-        String.format("{%n  \"jsonrpc\" : \"2.0\",%n  \"id\" : 2,%n  \"result\" : [ ]%n}");
+    final String expectedRespBody = "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":[]}";
     final ResponseBody body = ethNewBlockFilter(1).body();
     final String result = getResult(body);
     body.close();
@@ -53,8 +52,7 @@ public class EthJsonRpcHttpServiceTest extends AbstractEthJsonRpcHttpServiceTest
   @Test
   public void getFilterChanges_oneBlock() throws Exception {
     final String expectedRespBody =
-        String.format(
-            "{%n  \"jsonrpc\" : \"2.0\",%n  \"id\" : 2,%n  \"result\" : [ \"0x10aaf14a53caf27552325374429d3558398a36d3682ede6603c2c6511896e9f9\" ]%n}");
+        "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":[\"0x10aaf14a53caf27552325374429d3558398a36d3682ede6603c2c6511896e9f9\"]}";
     final ResponseBody body = ethNewBlockFilter(1).body();
     final String result = getResult(body);
     body.close();
@@ -67,8 +65,7 @@ public class EthJsonRpcHttpServiceTest extends AbstractEthJsonRpcHttpServiceTest
 
   @Test
   public void getFilterChanges_noTransactions() throws Exception {
-    final String expectedRespBody =
-        String.format("{%n  \"jsonrpc\" : \"2.0\",%n  \"id\" : 2,%n  \"result\" : [ ]%n}");
+    final String expectedRespBody = "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":[]}";
     final ResponseBody body = ethNewPendingTransactionFilter(1).body();
     final String result = getResult(body);
     body.close();
@@ -87,17 +84,13 @@ public class EthJsonRpcHttpServiceTest extends AbstractEthJsonRpcHttpServiceTest
     final Response resp = ethGetFilterChanges(2, result);
     assertThat(resp.code()).isEqualTo(200);
     final String expectedRespBody =
-        String.format(
-            "{%n  \"jsonrpc\" : \"2.0\",%n  \"id\" : 2,%n  \"result\" : [ \""
-                + transactionHash
-                + "\" ]%n}");
+        "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":[\"" + transactionHash + "\"]}";
     assertThat(resp.body().string()).isEqualTo(expectedRespBody);
   }
 
   @Test
   public void uninstallFilter() throws Exception {
-    final String expectedRespBody =
-        String.format("{%n  \"jsonrpc\" : \"2.0\",%n  \"id\" : 2,%n  \"result\" : true%n}");
+    final String expectedRespBody = "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":true}";
     final ResponseBody body = ethNewBlockFilter(1).body();
     final String result = getResult(body);
     body.close();
@@ -17,6 +17,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Log;
 import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.ArrayList;
@@ -414,4 +415,33 @@ public class LogsQueryTest {
 
     assertThat(query.matches(log)).isTrue();
   }
+
+  @Test
+  public void couldMatchBloomContainingAddressAndTopic() {
+    final Address address = Address.fromHexString("0x1111111111111111111111111111111111111111");
+    final LogTopic topic =
+        LogTopic.fromHexString(
+            "0xcccccccccccccccccccccccccccccccccccccccccccccccccccccccccccccccc");
+    final LogsQuery query =
+        new LogsQuery.Builder()
+            .address(address)
+            .topics(Lists.<List<LogTopic>>newArrayList(Lists.newArrayList(topic)))
+            .build();
+
+    final LogsBloomFilter bloom = LogsBloomFilter.empty();
+    assertThat(query.couldMatch(bloom)).isFalse();
+
+    bloom.insertLog(new Log(address, BytesValue.EMPTY, Lists.newArrayList(topic)));
+    assertThat(query.couldMatch(bloom)).isTrue();
+  }
+
+  @Test
+  public void wildcardTopicsAreNotPartOfBloomCriteria() {
+    final Address address = Address.fromHexString("0x1111111111111111111111111111111111111111");
+    final List<List<LogTopic>> topics = new ArrayList<>();
+    topics.add(Lists.newArrayList((LogTopic) null));
+    final LogsQuery query = new LogsQuery.Builder().address(address).topics(topics).build();
+
+    assertThat(query.getBloomCriteria()).containsExactly(Lists.newArrayList(address));
+  }
 }
@@ -69,6 +69,8 @@ public class DebugStorageRangeAtTest {
   private final Hash transactionHash =
       Hash.fromHexString("bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb");
   private final Address accountAddress = Address.MODEXP;
+  private final Address miningBeneficiary =
+      Address.fromHexString("0x00000000000000000000000000000000000000cc");
 
   @Before
   public void setUp() {
@@ -116,6 +118,12 @@ public class DebugStorageRangeAtTest {
   private Object callAction(final InvocationOnMock invocation) {
     return Optional.of(
         ((Action) invocation.getArgument(2))
-            .performAction(transaction, blockHeader, blockchain, worldState, transactionProcessor));
+            .performAction(
+                transaction,
+                blockHeader,
+                blockchain,
+                worldState,
+                transactionProcessor,
+                miningBeneficiary));
   }
 }
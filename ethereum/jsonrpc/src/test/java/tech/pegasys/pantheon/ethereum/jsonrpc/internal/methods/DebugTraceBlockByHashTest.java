@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.JsonRpcRequest;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.JsonRpcParameter;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.BlockTracer;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor.TransactionTrace;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.DebugTraceTransactionResult;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.StructLog;
+import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
+import tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class DebugTraceBlockByHashTest {
+
+  private final JsonRpcParameter parameters = new JsonRpcParameter();
+  private final BlockTracer blockTracer = mock(BlockTracer.class);
+  private final DebugTraceBlockByHash debugTraceBlockByHash =
+      new DebugTraceBlockByHash(blockTracer, parameters, Long.MAX_VALUE);
+  private final Transaction transaction1 = mock(Transaction.class);
+  private final Transaction transaction2 = mock(Transaction.class);
+
+  private final Hash blockHash =
+      Hash.fromHexString("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+
+  @Test
+  public void nameShouldBeDebugTraceBlockByHash() {
+    assertEquals("debug_traceBlockByHash", debugTraceBlockByHash.getName());
+  }
+
+  @Test
+  public void shouldTraceEachTransactionOfTheBlockUsingTheBlockTracer() {
+    final Object[] params = new Object[] {blockHash};
+    final JsonRpcRequest request = new JsonRpcRequest("2.0", "debug_traceBlockByHash", params);
+    final Result result1 = mock(Result.class);
+    final Result result2 = mock(Result.class);
+
+    final TraceFrame traceFrame =
+        new TraceFrame(
+            12,
+            "NONE",
+            Gas.of(45),
+            Optional.of(Gas.of(56)),
+            2,
+            EnumSet.noneOf(ExceptionalHaltReason.class),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty());
+    final List<TraceFrame> traceFrames = Collections.singletonList(traceFrame);
+    final List<TransactionTrace> transactionTraces =
+        Arrays.asList(
+            new TransactionTrace(transaction1, result1, traceFrames),
+            new TransactionTrace(transaction2, result2, Collections.emptyList()));
+    when(transaction1.getGasLimit()).thenReturn(100L);
+    when(result1.getGasRemaining()).thenReturn(27L);
+    when(result1.getOutput()).thenReturn(BytesValue.fromHexString("1234"));
+    when(transaction2.getGasLimit()).thenReturn(50L);
+    when(result2.getGasRemaining()).thenReturn(30L);
+    when(result2.getOutput()).thenReturn(BytesValue.EMPTY);
+    when(blockTracer.traceBlock(eq(blockHash), any())).thenReturn(Optional.of(transactionTraces));
+    final JsonRpcSuccessResponse response =
+        (JsonRpcSuccessResponse) debugTraceBlockByHash.response(request);
+    @SuppressWarnings("unchecked")
+    final List<DebugTraceTransactionResult> results =
+        (List<DebugTraceTransactionResult>) response.getResult();
+
+    assertThat(results).hasSize(2);
+    assertEquals(73, results.get(0).getGas());
+    assertEquals("1234", results.get(0).getReturnValue());
+    final List<StructLog> expectedStructLogs = Collections.singletonList(new StructLog(traceFrame));
+    assertThat(results.get(0).getStructLogs()).containsExactlyElementsOf(expectedStructLogs);
+    assertEquals(20, results.get(1).getGas());
+    assertThat(results.get(1).getStructLogs()).isEmpty();
+  }
+
+  @Test
+  public void shouldReturnNullWhenTheBlockIsNotAvailable() {
+    final Object[] params = new Object[] {blockHash};
+    final JsonRpcRequest request = new JsonRpcRequest("2.0", "debug_traceBlockByHash", params);
+    when(blockTracer.traceBlock(eq(blockHash), any())).thenReturn(Optional.empty());
+
+    final JsonRpcSuccessResponse response =
+        (JsonRpcSuccessResponse) debugTraceBlockByHash.response(request);
+
+    assertThat(response.getResult()).isNull();
+  }
+}
@@ -12,6 +12,7 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -106,6 +107,6 @@ public class DebugTraceTransactionTest {
     assertEquals(73, transactionResult.getGas());
     assertEquals("1234", transactionResult.getReturnValue());
     final List<StructLog> expectedStructLogs = Collections.singletonList(new StructLog(traceFrame));
-    assertEquals(expectedStructLogs, transactionResult.getStructLogs());
+    assertThat(transactionResult.getStructLogs()).containsExactlyElementsOf(expectedStructLogs);
   }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
+import tech.pegasys.pantheon.ethereum.debug.TraceOptions;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
+import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
+import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
+import tech.pegasys.pantheon.ethereum.vm.DebugOperationTracer;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BlockTracerTest {
+
+  @Mock private ProtocolSchedule<Void> protocolSchedule;
+  @Mock private Blockchain blockchain;
+  @Mock private WorldStateArchive worldStateArchive;
+  @Mock private BlockHeader blockHeader;
+  @Mock private BlockBody blockBody;
+  @Mock private BlockHeader previousBlockHeader;
+  @Mock private Transaction transaction1;
+  @Mock private Transaction transaction2;
+  @Mock private ProtocolSpec<Void> protocolSpec;
+  @Mock private TransactionProcessor transactionProcessor;
+
+  private final Hash blockHash =
+      Hash.fromHexString("cccccccccccccccccccccccccccccccccccccccccccccccccccccccccccccccc");
+  private final Hash previousBlockHash =
+      Hash.fromHexString("ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff");
+
+  private final Hash transaction1Hash =
+      Hash.fromHexString("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+  private final Hash transaction2Hash =
+      Hash.fromHexString("bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb");
+  private final Address miningBeneficiary =
+      Address.fromHexString("0x00000000000000000000000000000000000000cc");
+
+  private final DebugOperationTracer tracer = new DebugOperationTracer(TraceOptions.DEFAULT);
+  private BlockReplay blockReplay;
+  private BlockTracer blockTracer;
+
+  @Before
+  public void setUp() {
+    blockReplay = new BlockReplay(protocolSchedule, blockchain, worldStateArchive);
+    blockTracer = new BlockTracer(blockReplay);
+    when(blockchain.getBlockHeader(blockHash)).thenReturn(Optional.of(blockHeader));
+  }
+
+  @Test
+  public void traceBlockShouldTraceEachTransactionSeparately() {
+    mockBlock();
+    final Result result1 = mockExecution(transaction1, 1);
+    final Result result2 = mockExecution(transaction2, 2);
+
+    final List<TransactionTrace> traces = blockTracer.traceBlock(blockHash, tracer).get();
+
+    assertThat(traces).hasSize(2);
+    assertThat(traces.get(0).getResult()).isSameAs(result1);
+    assertThat(traces.get(0).getTraceFrames()).hasSize(1);
+    assertThat(traces.get(1).getResult()).isSameAs(result2);
+    assertThat(traces.get(1).getTraceFrames()).hasSize(2);
+  }
+
+  @Test
+  public void traceBlockShouldRecordCheckpointsForLaterRequests() {
+    mockBlock();
+    mockExecution(transaction1, 1);
+    final Result result2 = mockExecution(transaction2, 2);
+    when(transaction1.hash()).thenReturn(transaction1Hash);
+    when(transaction2.hash()).thenReturn(transaction2Hash);
+
+    blockTracer.traceBlock(blockHash, tracer);
+    final Optional<TransactionTrace> trace =
+        new TransactionTracer(blockReplay).traceTransaction(blockHash, transaction2Hash, tracer);
+
+    assertThat(trace.get().getResult()).isSameAs(result2);
+    // The state before the second transaction was recorded while tracing the block
+    verify(transactionProcessor, never())
+        .processTransaction(
+            eq(blockchain),
+            any(WorldUpdater.class),
+            eq(blockHeader),
+            any(Transaction.class),
+            any(),
+            any(BlockHashLookup.class));
+    verify(transactionProcessor)
+        .processTransaction(
+            eq(blockchain),
+            any(WorldUpdater.class),
+            eq(blockHeader),
+            eq(transaction1),
+            eq(miningBeneficiary),
+            eq(tracer),
+            any(BlockHashLookup.class));
+  }
+
+  @Test
+  public void traceBlockShouldReturnEmptyWhenBlockBodyIsNotAvailable() {
+    when(blockHeader.getHash()).thenReturn(blockHash);
+    when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.empty());
+
+    assertThat(blockTracer.traceBlock(blockHash, tracer)).isEmpty();
+  }
+
+  private void mockBlock() {
+    when(blockHeader.getNumber()).thenReturn(12L);
+    when(blockHeader.getHash()).thenReturn(blockHash);
+    when(blockHeader.getParentHash()).thenReturn(previousBlockHash);
+    when(blockchain.getBlockHeader(previousBlockHash)).thenReturn(Optional.of(previousBlockHeader));
+    when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
+    when(blockBody.getTransactions()).thenReturn(Arrays.asList(transaction1, transaction2));
+    when(previousBlockHeader.getStateRoot()).thenReturn(Hash.EMPTY_TRIE_HASH);
+    when(worldStateArchive.getStorage())
+        .thenReturn(new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage()));
+    when(protocolSchedule.getByBlockNumber(12)).thenReturn(protocolSpec);
+    when(protocolSpec.getTransactionProcessor()).thenReturn(transactionProcessor);
+    when(protocolSpec.getMiningBeneficiaryCalculator()).thenReturn(header -> miningBeneficiary);
+  }
+
+  private Result mockExecution(final Transaction transaction, final int traceFrameCount) {
+    final Result result = mock(Result.class);
+    when(transactionProcessor.processTransaction(
+            eq(blockchain),
+            any(WorldUpdater.class),
+            eq(blockHeader),
+            eq(transaction),
+            eq(miningBeneficiary),
+            eq(tracer),
+            any(BlockHashLookup.class)))
+        .then(
+            invocation -> {
+              for (int i = 0; i < traceFrameCount; i++) {
+                tracer.getTraceFrames().add(mock(TraceFrame.class));
+              }
+              return result;
+            });
+    return result;
+  }
+}
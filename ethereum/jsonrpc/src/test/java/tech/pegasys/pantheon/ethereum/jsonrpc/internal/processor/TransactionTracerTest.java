@@ -16,6 +16,8 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
@@ -23,7 +25,6 @@ import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
-import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
 import tech.pegasys.pantheon.ethereum.debug.TraceFrame;
@@ -31,8 +32,11 @@ import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
 import tech.pegasys.pantheon.ethereum.vm.DebugOperationTracer;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -67,8 +71,6 @@ public class TransactionTracerTest {
 
   @Mock private ProtocolSpec<Void> protocolSpec;
 
-  @Mock private MutableWorldState mutableWorldState;
-
   @Mock private TransactionProcessor transactionProcessor;
 
   private TransactionTracer transactionTracer;
@@ -86,6 +88,9 @@ public class TransactionTracerTest {
   private final Hash invalidBlockHash =
       Hash.fromHexString("1111111111111111111111111111111111111111111111111111111111111111");
 
+  private final Address miningBeneficiary =
+      Address.fromHexString("0x00000000000000000000000000000000000000cc");
+
   @Before
   public void setUp() throws Exception {
     transactionTracer =
@@ -95,11 +100,12 @@ public class TransactionTracerTest {
     when(blockHeader.getNumber()).thenReturn(12L);
     when(blockHeader.getHash()).thenReturn(blockHash);
     when(blockHeader.getParentHash()).thenReturn(previousBlockHash);
-    when(previousBlockHeader.getStateRoot()).thenReturn(Hash.ZERO);
-    when(worldStateArchive.getMutable(Hash.ZERO)).thenReturn(Optional.of(mutableWorldState));
+    when(previousBlockHeader.getStateRoot()).thenReturn(Hash.EMPTY_TRIE_HASH);
+    when(worldStateArchive.getStorage())
+        .thenReturn(new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage()));
     when(protocolSchedule.getByBlockNumber(12)).thenReturn(protocolSpec);
     when(protocolSpec.getTransactionProcessor()).thenReturn(transactionProcessor);
-    when(protocolSpec.getMiningBeneficiaryCalculator()).thenReturn(BlockHeader::getCoinbase);
+    when(protocolSpec.getMiningBeneficiaryCalculator()).thenReturn(header -> miningBeneficiary);
   }
 
   @Test
@@ -151,14 +157,12 @@ public class TransactionTracerTest {
     when(blockBody.getTransactions()).thenReturn(Collections.singletonList(transaction));
     when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
 
-    final WorldUpdater updater = mutableWorldState.updater();
-    final Address coinbase = blockHeader.getCoinbase();
     when(transactionProcessor.processTransaction(
             eq(blockchain),
-            eq(updater),
+            any(WorldUpdater.class),
             eq(blockHeader),
             eq(transaction),
-            eq(coinbase),
+            eq(miningBeneficiary),
             eq(tracer),
             any()))
         .thenReturn(result);
@@ -169,6 +173,36 @@ public class TransactionTracerTest {
     assertEquals(result, transactionTrace.get().getResult());
   }
 
+  @Test
+  public void traceTransactionShouldNotReplayTransactionsAlreadyReplayedForTheBlock() {
+    when(blockchain.getBlockHeader(blockHash)).thenReturn(Optional.of(blockHeader));
+    when(blockchain.getBlockHeader(previousBlockHash)).thenReturn(Optional.of(previousBlockHeader));
+    when(blockBody.getTransactions()).thenReturn(Arrays.asList(otherTransaction, transaction));
+    when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
+
+    transactionTracer.traceTransaction(blockHash, transactionHash, tracer);
+    transactionTracer.traceTransaction(blockHash, transactionHash, tracer);
+    transactionTracer.traceTransaction(blockHash, otherTransactionHash, tracer);
+
+    verify(transactionProcessor, times(1))
+        .processTransaction(
+            eq(blockchain),
+            any(WorldUpdater.class),
+            eq(blockHeader),
+            eq(otherTransaction),
+            any(),
+            any(BlockHashLookup.class));
+    verify(transactionProcessor, times(2))
+        .processTransaction(
+            eq(blockchain),
+            any(WorldUpdater.class),
+            eq(blockHeader),
+            eq(transaction),
+            any(),
+            eq(tracer),
+            any(BlockHashLookup.class));
+  }
+
   @Test
   public void traceTransactionShouldReturnEmptyResultWhenTransactionNotInCurrentBlock() {
 
@@ -173,6 +173,32 @@ public class BlockchainQueriesTest {
     assertBlockMatchesResultWithTxHashes(targetBlock, result);
   }
 
+  @Test
+  public void transactionReceiptsByBlockHashMatchReceiptsByTransactionHash() {
+    final BlockchainWithData data = setupBlockchain(3);
+    final BlockchainQueries queries = data.blockchainQueries;
+
+    final Block targetBlock = data.blockData.get(1).block;
+    final List<Transaction> transactions = targetBlock.getBody().getTransactions();
+
+    final List<TransactionReceiptWithMetadata> receipts =
+        queries.transactionReceiptsByBlockHash(targetBlock.getHash()).get();
+    assertThat(receipts).hasSize(transactions.size());
+    for (int i = 0; i < transactions.size(); i++) {
+      assertThat(receipts.get(i))
+          .isEqualToComparingFieldByField(
+              queries.transactionReceiptByTransactionHash(transactions.get(i).hash()).get());
+    }
+  }
+
+  @Test
+  public void transactionReceiptsByBlockHashForInvalidHash() {
+    final BlockchainWithData data = setupBlockchain(2);
+    final BlockchainQueries queries = data.blockchainQueries;
+
+    assertThat(queries.transactionReceiptsByBlockHash(gen.hash())).isEmpty();
+  }
+
   @Test
   public void getHeadBlockNumber() {
     final BlockchainWithData data = setupBlockchain(3);
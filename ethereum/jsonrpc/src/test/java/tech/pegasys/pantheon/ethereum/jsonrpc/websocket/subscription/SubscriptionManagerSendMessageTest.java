@@ -15,11 +15,14 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription;
 import static junit.framework.TestCase.fail;
 import static org.mockito.Mockito.mock;
 
+import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.JsonRpcResult;
+import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.pending.PendingTransactionResult;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscribeRequest;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.SubscriptionResponse;
 
+import java.util.Arrays;
 import java.util.UUID;
 
 import io.vertx.core.Vertx;
@@ -73,6 +76,50 @@ public class SubscriptionManagerSendMessageTest {
     async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
   }
 
+  @Test
+  public void shouldNotifyEachSubscriptionOnItsConnectionIdEventBusAddress(
+      final TestContext context) {
+    final String firstConnectionId = UUID.randomUUID().toString();
+    final String secondConnectionId = UUID.randomUUID().toString();
+    final Long firstSubscriptionId =
+        subscriptionManager.subscribe(
+            new SubscribeRequest(
+                SubscriptionType.NEW_PENDING_TRANSACTIONS, null, null, firstConnectionId));
+    final Long secondSubscriptionId =
+        subscriptionManager.subscribe(
+            new SubscribeRequest(
+                SubscriptionType.NEW_PENDING_TRANSACTIONS, null, null, secondConnectionId));
+
+    final JsonRpcResult result = new PendingTransactionResult(Hash.ZERO);
+
+    final Async async = context.async(2);
+
+    vertx
+        .eventBus()
+        .consumer(firstConnectionId)
+        .handler(
+            msg -> {
+              context.assertEquals(
+                  Json.encode(new SubscriptionResponse(firstSubscriptionId, result)), msg.body());
+              async.countDown();
+            });
+    vertx
+        .eventBus()
+        .consumer(secondConnectionId)
+        .handler(
+            msg -> {
+              context.assertEquals(
+                  Json.encode(new SubscriptionResponse(secondSubscriptionId, result)), msg.body());
+              async.countDown();
+            })
+        .completionHandler(
+            v ->
+                subscriptionManager.notifySubscribers(
+                    Arrays.asList(firstSubscriptionId, secondSubscriptionId), result));
+
+    async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
+  }
+
   @Test
   public void shouldNotSendMessageOnTheConnectionIdEventBusAddressForAbsentSubscription(
       final TestContext context) {
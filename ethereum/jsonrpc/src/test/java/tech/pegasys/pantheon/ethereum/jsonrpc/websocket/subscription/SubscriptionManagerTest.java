@@ -195,6 +195,22 @@ public class SubscriptionManagerTest {
     assertThat(subscriptions).hasSize(0);
   }
 
+  @Test
+  public void getSubscriptionsOfTypeShouldNotReturnRemovedSubscriptions() {
+    final SubscribeRequest subscribeRequest =
+        new SubscribeRequest(SubscriptionType.NEW_BLOCK_HEADERS, null, true, CONNECTION_ID);
+    final Long firstSubscriptionId = subscriptionManager.subscribe(subscribeRequest);
+    final Long secondSubscriptionId = subscriptionManager.subscribe(subscribeRequest);
+
+    subscriptionManager.unsubscribe(new UnsubscribeRequest(firstSubscriptionId, CONNECTION_ID));
+
+    final List<NewBlockHeadersSubscription> subscriptions =
+        subscriptionManager.subscriptionsOfType(
+            SubscriptionType.NEW_BLOCK_HEADERS, NewBlockHeadersSubscription.class);
+
+    assertThat(subscriptions).extracting(Subscription::getId).containsExactly(secondSubscriptionId);
+  }
+
   @Test
   public void unsubscribeOthersSubscriptionsNotHavingOwnSubscriptionShouldReturnNotFound() {
     final SubscribeRequest subscribeRequest = subscribeRequest(CONNECTION_ID);
@@ -54,7 +54,7 @@ public class NewBlockHeadersSubscriptionServiceTest {
 
   private NewBlockHeadersSubscriptionService newBlockHeadersSubscriptionService;
 
-  @Captor ArgumentCaptor<Long> subscriptionIdCaptor;
+  @Captor ArgumentCaptor<List<Long>> subscriptionIdsCaptor;
   @Captor ArgumentCaptor<JsonRpcResult> responseCaptor;
 
   @Mock private SubscriptionManager subscriptionManager;
@@ -85,14 +85,14 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlock();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
-    final Long actualSubscriptionId = subscriptionIdCaptor.getValue();
+        .notifySubscribers(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    final List<Long> actualSubscriptionIds = subscriptionIdsCaptor.getValue();
     final Object actualBlock = responseCaptor.getValue();
 
-    assertThat(actualSubscriptionId).isEqualTo(subscription.getId());
+    assertThat(actualSubscriptionIds).containsExactly(subscription.getId());
     assertThat(actualBlock).isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
 
-    verify(subscriptionManager, times(1)).sendMessage(any(), any());
+    verify(subscriptionManager, times(1)).notifySubscribers(any(), any());
   }
 
   @Test
@@ -109,17 +109,17 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlock();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
-    final Long actualSubscriptionId = subscriptionIdCaptor.getValue();
+        .notifySubscribers(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    final List<Long> actualSubscriptionIds = subscriptionIdsCaptor.getValue();
     final Object actualBlock = responseCaptor.getValue();
 
-    assertThat(actualSubscriptionId).isEqualTo(subscription.getId());
+    assertThat(actualSubscriptionIds).containsExactly(subscription.getId());
     assertThat(actualBlock).isInstanceOf(BlockResult.class);
     final BlockResult actualBlockResult = (BlockResult) actualBlock;
     assertThat(actualBlockResult.getTransactions()).hasSize(txHashList.size());
     assertThat(actualBlock).isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
 
-    verify(subscriptionManager, times(1)).sendMessage(any(), any());
+    verify(subscriptionManager, times(1)).notifySubscribers(any(), any());
     verify(blockchainQueries, times(1)).blockByHashWithTxHashes(any());
     verify(blockchainQueries, times(0)).blockByHash(any());
   }
@@ -140,17 +140,17 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlock();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
-    final Long actualSubscriptionId = subscriptionIdCaptor.getValue();
+        .notifySubscribers(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    final List<Long> actualSubscriptionIds = subscriptionIdsCaptor.getValue();
     final Object actualBlock = responseCaptor.getValue();
 
-    assertThat(actualSubscriptionId).isEqualTo(subscription.getId());
+    assertThat(actualSubscriptionIds).containsExactly(subscription.getId());
     assertThat(actualBlock).isInstanceOf(BlockResult.class);
     final BlockResult actualBlockResult = (BlockResult) actualBlock;
     assertThat(actualBlockResult.getTransactions()).hasSize(txHashList.size());
     assertThat(actualBlock).isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
 
-    verify(subscriptionManager, times(1)).sendMessage(any(), any());
+    verify(subscriptionManager, times(1)).notifySubscribers(any(), any());
     verify(blockchainQueries, times(0)).blockByHashWithTxHashes(any());
     verify(blockchainQueries, times(1)).blockByHash(any());
   }
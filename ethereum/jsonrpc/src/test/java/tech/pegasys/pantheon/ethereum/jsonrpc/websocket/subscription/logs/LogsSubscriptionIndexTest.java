@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.logs;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.FilterParameter;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class LogsSubscriptionIndexTest {
+
+  private static final Address ADDRESS = Address.fromHexString("0x1");
+  private static final Address OTHER_ADDRESS = Address.fromHexString("0x2");
+  private static final LogTopic TOPIC = LogTopic.of(Bytes32.fromHexStringLenient("0x1"));
+  private static final LogTopic OTHER_TOPIC = LogTopic.of(Bytes32.fromHexStringLenient("0x2"));
+
+  @Test
+  public void shouldMatchSubscriptionsByAddress() {
+    final LogsSubscriptionIndex index =
+        new LogsSubscriptionIndex(
+            Arrays.asList(
+                subscription(1L, Arrays.asList(ADDRESS, OTHER_ADDRESS), null),
+                subscription(2L, singletonList(OTHER_ADDRESS), null)));
+
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS, TOPIC))).containsExactly(1L);
+    assertThat(index.matchingSubscriptionIds(log(OTHER_ADDRESS, TOPIC))).containsExactly(1L, 2L);
+    assertThat(index.matchingSubscriptionIds(log(Address.fromHexString("0x3"), TOPIC))).isEmpty();
+  }
+
+  @Test
+  public void shouldMatchSubscriptionsByFirstTopic() {
+    final LogsSubscriptionIndex index =
+        new LogsSubscriptionIndex(
+            singletonList(subscription(1L, null, singletonList(singletonList(TOPIC)))));
+
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS, TOPIC))).containsExactly(1L);
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS, OTHER_TOPIC))).isEmpty();
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS))).isEmpty();
+  }
+
+  @Test
+  public void shouldMatchSubscriptionsWithoutAddressOrFirstTopicAgainstEveryLog() {
+    final LogsSubscriptionIndex index =
+        new LogsSubscriptionIndex(
+            Arrays.asList(
+                subscription(1L, null, null),
+                subscription(2L, null, Arrays.asList(singletonList(null), singletonList(TOPIC)))));
+
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS))).containsExactly(1L);
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS, OTHER_TOPIC, TOPIC)))
+        .containsExactly(1L, 2L);
+  }
+
+  @Test
+  public void shouldMatchSubscriptionOnceWhenFilteringOnTheSameAddressTwice() {
+    final LogsSubscriptionIndex index =
+        new LogsSubscriptionIndex(
+            singletonList(subscription(1L, Arrays.asList(ADDRESS, ADDRESS), null)));
+
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS))).containsExactly(1L);
+  }
+
+  private LogsSubscription subscription(
+      final long id, final List<Address> addresses, final List<List<LogTopic>> topics) {
+    final FilterParameter filterParameter =
+        new FilterParameter(
+            null,
+            null,
+            addresses == null
+                ? null
+                : addresses.stream().map(Address::toString).collect(Collectors.toList()),
+            topics == null
+                ? null
+                : topics.stream().map(this::toStrings).collect(Collectors.toList()),
+            null);
+    return new LogsSubscription(id, filterParameter);
+  }
+
+  private List<String> toStrings(final List<LogTopic> topics) {
+    return topics.stream()
+        .map(topic -> topic == null ? null : topic.toString())
+        .collect(Collectors.toList());
+  }
+
+  private Log log(final Address logger, final LogTopic... topics) {
+    return new Log(logger, BytesValue.EMPTY, Arrays.asList(topics));
+  }
+}
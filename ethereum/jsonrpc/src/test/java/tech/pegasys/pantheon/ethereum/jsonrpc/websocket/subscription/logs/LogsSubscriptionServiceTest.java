@@ -12,6 +12,7 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.logs;
 
+import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.refEq;
@@ -23,12 +24,14 @@ import static org.mockito.Mockito.when;
 import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.chain.TransactionLocation;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.LogTopic;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 import tech.pegasys.pantheon.ethereum.core.TransactionTestFixture;
@@ -38,12 +41,14 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.LogWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionReceiptWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.LogResult;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.SubscriptionManager;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import org.junit.Before;
@@ -60,6 +65,7 @@ public class LogsSubscriptionServiceTest {
   private final TransactionTestFixture txTestFixture = new TransactionTestFixture();
 
   private LogsSubscriptionService logsSubscriptionService;
+  private long blockNumber = 1;
 
   @Mock private SubscriptionManager subscriptionManager;
   @Mock private BlockchainQueries blockchainQueries;
@@ -80,7 +86,8 @@ public class LogsSubscriptionServiceTest {
 
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
-    verify(subscriptionManager).sendMessage(eq(subscription.getId()), refEq(expectedLogResult));
+    verify(subscriptionManager)
+        .notifySubscribers(eq(singletonList(subscription.getId())), refEq(expectedLogResult));
   }
 
   @Test
@@ -93,7 +100,8 @@ public class LogsSubscriptionServiceTest {
 
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(null, transaction), blockchain);
 
-    verify(subscriptionManager).sendMessage(eq(subscription.getId()), refEq(expectedLogResult));
+    verify(subscriptionManager)
+        .notifySubscribers(eq(singletonList(subscription.getId())), refEq(expectedLogResult));
   }
 
   @Test
@@ -109,7 +117,8 @@ public class LogsSubscriptionServiceTest {
 
     final int totalOfLogs = addedTransactions.size() + removedTransactions.size();
 
-    verify(subscriptionManager, times(totalOfLogs)).sendMessage(eq(subscription.getId()), any());
+    verify(subscriptionManager, times(totalOfLogs))
+        .notifySubscribers(eq(singletonList(subscription.getId())), any());
   }
 
   @Test
@@ -122,8 +131,10 @@ public class LogsSubscriptionServiceTest {
 
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
-    verify(subscriptionManager, times(subscriptions.size()))
-        .sendMessage(any(), refEq(expectedLogResult));
+    verify(subscriptionManager)
+        .notifySubscribers(
+            eq(subscriptions.stream().map(LogsSubscription::getId).collect(Collectors.toList())),
+            refEq(expectedLogResult));
   }
 
   @Test
@@ -135,7 +146,7 @@ public class LogsSubscriptionServiceTest {
         createBlockAddedEvent(Collections.emptyList(), Collections.emptyList()), blockchain);
 
     verify(subscriptionManager).subscriptionsOfType(any(), any());
-    verify(subscriptionManager, times(0)).sendMessage(any(), any());
+    verify(subscriptionManager, times(0)).notifySubscribers(any(), any());
   }
 
   @Test
@@ -148,7 +159,68 @@ public class LogsSubscriptionServiceTest {
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
     verify(subscriptionManager).subscriptionsOfType(any(), any());
-    verify(subscriptionManager, times(0)).sendMessage(any(), any());
+    verify(subscriptionManager, times(0)).notifySubscribers(any(), any());
+  }
+
+  @Test
+  public void shouldSendLogMessageToSubscriptionMatchingFirstTopic() {
+    final LogTopic topic = LogTopic.of(Bytes32.fromHexStringLenient("0x1"));
+    final LogsSubscription subscription = createSubscription(topic);
+    final Transaction transaction = createTransaction();
+    final Log log = new Log(Address.fromHexString("0x0"), BytesValue.EMPTY, singletonList(topic));
+    final LogResult expectedLogResult = createLogResult(transaction, log, false);
+
+    logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
+
+    verify(subscriptionManager)
+        .notifySubscribers(eq(singletonList(subscription.getId())), refEq(expectedLogResult));
+  }
+
+  @Test
+  public void shouldNotSendLogMessageWhenFirstTopicDoesNotMatchSubscription() {
+    createSubscription(LogTopic.of(Bytes32.fromHexStringLenient("0x1")));
+    final Transaction transaction = createTransaction();
+    final LogTopic otherTopic = LogTopic.of(Bytes32.fromHexStringLenient("0x2"));
+    final Log log =
+        new Log(Address.fromHexString("0x0"), BytesValue.EMPTY, singletonList(otherTopic));
+    createLogResult(transaction, log, false);
+
+    logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
+
+    verify(subscriptionManager, times(0)).notifySubscribers(any(), any());
+  }
+
+  @Test
+  public void shouldLoadReceiptsOncePerBlock() {
+    final Address address = Address.fromHexString("0x0");
+    final Log log = createLog(address);
+    final LogsSubscription subscription = createSubscription(address);
+    final List<Transaction> transactions =
+        Lists.newArrayList(createTransaction(), createTransaction());
+    final Hash blockHash = blockHeaderTestFixture.buildHeader().getHash();
+    final List<TransactionReceiptWithMetadata> receipts = new ArrayList<>();
+    for (int i = 0; i < transactions.size(); i++) {
+      final Transaction transaction = transactions.get(i);
+      receipts.add(
+          TransactionReceiptWithMetadata.create(
+              new TransactionReceipt(Hash.ZERO, 1L, Lists.newArrayList(log)),
+              transaction,
+              transaction.hash(),
+              i,
+              1L,
+              blockHash,
+              1L));
+      when(blockchain.getTransactionLocation(transaction.hash()))
+          .thenReturn(Optional.of(new TransactionLocation(blockHash, i)));
+    }
+    when(blockchainQueries.transactionReceiptsByBlockHash(blockHash))
+        .thenReturn(Optional.of(receipts));
+
+    logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transactions, null), blockchain);
+
+    verify(blockchainQueries, times(1)).transactionReceiptsByBlockHash(blockHash);
+    verify(subscriptionManager, times(transactions.size()))
+        .notifySubscribers(eq(singletonList(subscription.getId())), any());
   }
 
   private Transaction createTransaction() {
@@ -168,6 +240,15 @@ public class LogsSubscriptionServiceTest {
     return logsSubscription;
   }
 
+  private LogsSubscription createSubscription(final LogTopic topic) {
+    final FilterParameter filterParameter =
+        new FilterParameter(null, null, null, singletonList(singletonList(topic.toString())), null);
+    final LogsSubscription logsSubscription = new LogsSubscription(1L, filterParameter);
+    when(subscriptionManager.subscriptionsOfType(any(), any()))
+        .thenReturn(Lists.newArrayList(logsSubscription));
+    return logsSubscription;
+  }
+
   private List<LogsSubscription> createSubscriptions(final Address address) {
     final List<LogsSubscription> subscriptions = new ArrayList<>();
     for (int i = 0; i < 3; i++) {
@@ -190,7 +271,8 @@ public class LogsSubscriptionServiceTest {
 
   private TransactionReceiptWithMetadata createTransactionWithLog(
       final Transaction transaction, final Log log) {
-    final BlockHeader blockHeader = blockHeaderTestFixture.buildHeader();
+    // Each transaction is in its own block
+    final BlockHeader blockHeader = blockHeaderTestFixture.number(blockNumber++).buildHeader();
     final TransactionReceipt transactionReceipt =
         new TransactionReceipt(Hash.ZERO, 1L, Lists.newArrayList(log));
     final TransactionReceiptWithMetadata transactionReceiptWithMetadata =
@@ -203,8 +285,10 @@ public class LogsSubscriptionServiceTest {
             blockHeader.getHash(),
             blockHeader.getNumber());
 
-    when(blockchainQueries.transactionReceiptByTransactionHash(eq(transaction.hash())))
-        .thenReturn(Optional.of(transactionReceiptWithMetadata));
+    when(blockchain.getTransactionLocation(transaction.hash()))
+        .thenReturn(Optional.of(new TransactionLocation(blockHeader.getHash(), 0)));
+    when(blockchainQueries.transactionReceiptsByBlockHash(blockHeader.getHash()))
+        .thenReturn(Optional.of(singletonList(transactionReceiptWithMetadata)));
 
     return transactionReceiptWithMetadata;
   }
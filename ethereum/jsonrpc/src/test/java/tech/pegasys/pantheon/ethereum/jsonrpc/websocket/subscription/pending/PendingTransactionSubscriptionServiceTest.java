@@ -30,8 +30,6 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.Subscriptio
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.junit.Before;
@@ -67,32 +65,22 @@ public class PendingTransactionSubscriptionServiceTest {
 
     verifyZeroInteractions(block);
     verifyZeroInteractions(blockchain);
-    verifySubscriptionMangerInteractions(messages(TX_ONE, subscriptionIds));
+    verifySubscriptionMangerInteractions(TX_ONE, subscriptionIds);
   }
 
-  private void verifySubscriptionMangerInteractions(final Map<Long, Hash> expected) {
+  private void verifySubscriptionMangerInteractions(
+      final Hash result, final long... subscriptionIds) {
     verify(subscriptionManager)
         .subscriptionsOfType(SubscriptionType.NEW_PENDING_TRANSACTIONS, Subscription.class);
 
-    for (final Map.Entry<Long, Hash> message : expected.entrySet()) {
-      verify(subscriptionManager)
-          .sendMessage(
-              eq(message.getKey()), refEq(new PendingTransactionResult(message.getValue())));
-    }
+    verify(subscriptionManager)
+        .notifySubscribers(
+            eq(Arrays.stream(subscriptionIds).boxed().collect(Collectors.toList())),
+            refEq(new PendingTransactionResult(result)));
 
     verifyNoMoreInteractions(subscriptionManager);
   }
 
-  private Map<Long, Hash> messages(final Hash result, final long... subscriptionIds) {
-    final Map<Long, Hash> messages = new HashMap<>();
-
-    for (final long subscriptionId : subscriptionIds) {
-      messages.put(subscriptionId, result);
-    }
-
-    return messages;
-  }
-
   private Transaction transaction(final Hash hash) {
     final Transaction tx = mock(Transaction.class);
     when(tx.hash()).thenReturn(hash);
@@ -12,6 +12,7 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.syncing;
 
+import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.refEq;
@@ -57,7 +58,8 @@ public class SyncingSubscriptionServiceTest {
 
     syncingSubscriptionService.sendSyncingToMatchingSubscriptions();
 
-    verify(subscriptionManager).sendMessage(eq(subscription.getId()), refEq(expectedSyncingResult));
+    verify(subscriptionManager)
+        .notifySubscribers(eq(singletonList(subscription.getId())), refEq(expectedSyncingResult));
   }
 
   @Test
@@ -70,7 +72,8 @@ public class SyncingSubscriptionServiceTest {
     syncingSubscriptionService.sendSyncingToMatchingSubscriptions();
 
     verify(subscriptionManager)
-        .sendMessage(eq(subscription.getId()), refEq(new NotSynchronisingResult()));
+        .notifySubscribers(
+            eq(singletonList(subscription.getId())), refEq(new NotSynchronisingResult()));
   }
 
   @Test
@@ -84,7 +87,8 @@ public class SyncingSubscriptionServiceTest {
 
     syncingSubscriptionService.sendSyncingToMatchingSubscriptions();
 
-    verify(subscriptionManager).sendMessage(eq(subscription.getId()), refEq(expectedSyncingResult));
+    verify(subscriptionManager)
+        .notifySubscribers(eq(singletonList(subscription.getId())), refEq(expectedSyncingResult));
     syncingSubscriptionService.sendSyncingToMatchingSubscriptions();
   }
 
@@ -100,12 +104,12 @@ public class SyncingSubscriptionServiceTest {
 
     syncingSubscriptionService.sendSyncingToMatchingSubscriptions();
     verify(subscriptionManager)
-        .sendMessage(eq(subscription.getId()), refEq(expectedSyncingResult1));
+        .notifySubscribers(eq(singletonList(subscription.getId())), refEq(expectedSyncingResult1));
 
     final SyncingResult expectedSyncingResult2 = new SyncingResult(syncStatus2);
     when(synchronizer.getSyncStatus()).thenReturn(Optional.of(syncStatus2));
     syncingSubscriptionService.sendSyncingToMatchingSubscriptions();
     verify(subscriptionManager)
-        .sendMessage(eq(subscription.getId()), refEq(expectedSyncingResult2));
+        .notifySubscribers(eq(singletonList(subscription.getId())), refEq(expectedSyncingResult2));
   }
 }
@@ -15,10 +15,15 @@ package tech.pegasys.pantheon.ethereum.p2p.config;
 import java.util.Objects;
 
 public class RlpxConfiguration {
+  /** Sizes the worker pool to the number of available processors. */
+  public static final int DEFAULT_WORKER_THREADS = 0;
+
   private String clientId = "TestClient/1.0.0";
   private String bindHost = "0.0.0.0";
   private int bindPort = 30303;
   private int maxPeers = 25;
+  private int workerThreads = DEFAULT_WORKER_THREADS;
+  private boolean nativeTransportEnabled = true;
   private WireProtocolConfig wire = new WireProtocolConfig();
 
   public static RlpxConfiguration create() {
@@ -61,6 +66,24 @@ public class RlpxConfiguration {
     return maxPeers;
   }
 
+  public int getWorkerThreads() {
+    return workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+  }
+
+  public RlpxConfiguration setWorkerThreads(final int workerThreads) {
+    this.workerThreads = workerThreads;
+    return this;
+  }
+
+  public boolean isNativeTransportEnabled() {
+    return nativeTransportEnabled;
+  }
+
+  public RlpxConfiguration setNativeTransportEnabled(final boolean nativeTransportEnabled) {
+    this.nativeTransportEnabled = nativeTransportEnabled;
+    return this;
+  }
+
   public String getClientId() {
     return clientId;
   }
@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.ethereum.p2p.netty;
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection.PeerNotConnected;
+import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.PongMessage;
@@ -95,7 +96,12 @@ final class ApiHandler extends SimpleChannelInboundHandler<MessageData> {
       }
       return;
     }
-    callbacks.invokeSubProtocol(connection, demultiplexed.getCapability(), message);
+    // The frame buffer is released once this handler returns but sub-protocols may keep hold of
+    // the message, so they are given a copy of its data.
+    callbacks.invokeSubProtocol(
+        connection,
+        demultiplexed.getCapability(),
+        new RawMessage(message.getCode(), message.getData().copy()));
   }
 
   @Override
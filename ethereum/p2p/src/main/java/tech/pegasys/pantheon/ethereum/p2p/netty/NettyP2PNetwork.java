@@ -63,10 +63,7 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -138,9 +135,11 @@ public class NettyP2PNetwork implements P2PNetwork {
   public final Map<Peer, CompletableFuture<PeerConnection>> pendingConnections =
       new ConcurrentHashMap<>();
 
-  private final EventLoopGroup boss = new NioEventLoopGroup(1);
+  private final NettyTransport transport;
 
-  private final EventLoopGroup workers = new NioEventLoopGroup(1);
+  private final EventLoopGroup boss;
+
+  private final EventLoopGroup workers;
 
   private volatile PeerInfo ourPeerInfo;
 
@@ -212,10 +211,20 @@ public class NettyP2PNetwork implements P2PNetwork {
     this.keyPair = keyPair;
     this.subProtocols = config.getSupportedProtocols();
 
+    // Framing, encryption and message dispatch for all peers happen on the worker event loops
+    transport = NettyTransport.create(config.getRlpx().isNativeTransportEnabled());
+    boss = transport.createEventLoopGroup(1, "p2p-boss");
+    workers = transport.createEventLoopGroup(config.getRlpx().getWorkerThreads(), "p2p-worker");
+    NettyTransport.registerMetrics(workers, "p2p_worker", metricsSystem);
+    LOG.debug(
+        "Using {} transport with {} worker threads",
+        transport.getName(),
+        config.getRlpx().getWorkerThreads());
+
     server =
         new ServerBootstrap()
             .group(boss, workers)
-            .channel(NioServerSocketChannel.class)
+            .channel(transport.getServerChannelClass())
             .childHandler(inboundChannelInitializer())
             .bind(config.getRlpx().getBindHost(), config.getRlpx().getBindPort());
     final CountDownLatch latch = new CountDownLatch(1);
@@ -366,7 +375,7 @@ public class NettyP2PNetwork implements P2PNetwork {
 
     new Bootstrap()
         .group(workers)
-        .channel(NioSocketChannel.class)
+        .channel(transport.getChannelClass())
         .remoteAddress(new InetSocketAddress(endpoint.getHost(), endpoint.getTcpPort().getAsInt()))
         .option(ChannelOption.TCP_NODELAY, true)
         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT_SECONDS * 1000)
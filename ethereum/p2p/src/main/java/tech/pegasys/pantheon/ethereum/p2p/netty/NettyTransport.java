@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.netty;
+
+import tech.pegasys.pantheon.metrics.LabelledGauge;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/** Selects the Netty transport, native epoll on Linux if available or NIO, used for RLPx. */
+class NettyTransport {
+
+  private static final Logger LOG = LogManager.getLogger();
+  private static final double NANOSECONDS_PER_SECOND = 1_000_000_000d;
+
+  private final boolean epoll;
+
+  private NettyTransport(final boolean epoll) {
+    this.epoll = epoll;
+  }
+
+  static NettyTransport create(final boolean nativeTransportEnabled) {
+    if (nativeTransportEnabled && !Epoll.isAvailable()) {
+      LOG.info(
+          "Native epoll transport is not available, using NIO: {}",
+          Epoll.unavailabilityCause().getMessage());
+    }
+    return new NettyTransport(nativeTransportEnabled && Epoll.isAvailable());
+  }
+
+  String getName() {
+    return epoll ? "epoll" : "nio";
+  }
+
+  EventLoopGroup createEventLoopGroup(final int threads, final String name) {
+    final ThreadFactory threadFactory =
+        new ThreadFactoryBuilder().setNameFormat(name + "-%d").build();
+    return epoll
+        ? new EpollEventLoopGroup(threads, threadFactory)
+        : new NioEventLoopGroup(threads, threadFactory);
+  }
+
+  Class<? extends ServerChannel> getServerChannelClass() {
+    return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  Class<? extends SocketChannel> getChannelClass() {
+    return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * Registers the number of pending tasks and the CPU time used by each event loop of the group,
+   * labelled with the index of the event loop in the group.
+   *
+   * <p>This starts the thread of every event loop, as the CPU time is looked up by thread.
+   */
+  static void registerMetrics(
+      final EventLoopGroup group, final String name, final MetricsSystem metricsSystem) {
+    final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    final LabelledGauge pendingTasks =
+        metricsSystem.createLabelledGauge(
+            MetricCategory.NETWORK,
+            name + "_pending_tasks_current",
+            "Current number of tasks waiting for the event loop",
+            "worker");
+    final LabelledGauge busySeconds =
+        metricsSystem.createLabelledGauge(
+            MetricCategory.NETWORK,
+            name + "_busy_seconds_total",
+            "Total CPU time spent by the event loop",
+            "worker");
+    int index = 0;
+    for (final EventExecutor executor : group) {
+      final String worker = Integer.toString(index++);
+      if (executor instanceof SingleThreadEventExecutor) {
+        final SingleThreadEventExecutor eventLoop = (SingleThreadEventExecutor) executor;
+        pendingTasks.labels(() -> (double) eventLoop.pendingTasks(), worker);
+      }
+      final long threadId =
+          executor.submit(() -> Thread.currentThread().getId()).syncUninterruptibly().getNow();
+      busySeconds.labels(
+          () -> Math.max(0, threadMXBean.getThreadCpuTime(threadId)) / NANOSECONDS_PER_SECOND,
+          worker);
+    }
+  }
+}
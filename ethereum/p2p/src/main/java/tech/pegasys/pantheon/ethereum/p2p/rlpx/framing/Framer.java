@@ -18,7 +18,7 @@ import static org.bouncycastle.pqc.math.linearalgebra.ByteUtils.xor;
 
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
-import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
+import tech.pegasys.pantheon.ethereum.p2p.wire.ByteBufMessage;
 import tech.pegasys.pantheon.ethereum.rlp.RLP;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -54,6 +54,7 @@ public class Framer {
   private static final int LENGTH_FRAME_SIZE = 3;
   private static final int LENGTH_MESSAGE_ID = 1;
   private static final int LENGTH_MAX_MESSAGE_FRAME = 0xFFFFFF;
+  private static final int SCRATCH_SIZE = 8192;
 
   private static final byte[] IV = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
   private static final byte[] PROTOCOL_HEADER =
@@ -71,6 +72,7 @@ public class Framer {
   private final StreamCipher encryptor;
   private final StreamCipher decryptor;
   private final BlockCipher macEncryptor;
+  private final byte[] scratch = new byte[SCRATCH_SIZE];
   private boolean headerProcessed;
   private int frameSize;
   private boolean compressionEnabled = false;
@@ -122,6 +124,10 @@ public class Framer {
    * consuming it from the byte buffer. The caller should call this method again with the same byte
    * buffer to continue extracting more messages, if possible.
    *
+   * <p>Frames are decrypted in place. The returned message is a {@link ByteBufMessage} whose
+   * payload is either a slice of the buffer or, when compression is enabled, a buffer allocated
+   * from the same allocator; the caller is responsible for releasing it once it has been consumed.
+   *
    * <p>When this method throws an exception, it is recommended that the caller scraps away the RLPx
    * connection, as the digests and stream ciphers could have become corrupted.
    *
@@ -142,7 +148,6 @@ public class Framer {
       }
       frameSize = processHeader(buf.readSlice(LENGTH_FULL_HEADER));
       headerProcessed = true;
-      buf.discardReadBytes();
     }
 
     final int size = frameSize + padding16(frameSize) + LENGTH_MAC;
@@ -151,7 +156,6 @@ public class Framer {
     }
 
     final MessageData msg = processFrame(buf.readSlice(size), frameSize);
-    buf.discardReadBytes();
     headerProcessed = false;
     return msg;
   }
@@ -230,12 +234,16 @@ public class Framer {
       throw error("Expected %s bytes in header, got %s", expectedSize, f.readableBytes());
     }
 
-    final byte[] frameData = new byte[frameSize + pad];
+    final int frameIndex = f.readerIndex();
+    final int frameDataLength = frameSize + pad;
     final byte[] fMac = new byte[LENGTH_MAC];
-    f.readBytes(frameData).readBytes(fMac);
+    f.getBytes(frameIndex + frameDataLength, fMac);
+
+    // Feed the frame data to the MAC and decrypt it in place.
+    decrypt(f, frameIndex, frameDataLength);
 
     // Validate the frame's MAC.
-    final byte[] fMacSeed = secrets.updateIngress(frameData).getIngressMac();
+    final byte[] fMacSeed = secrets.getIngressMac();
     final byte[] fMacSeedEnc = new byte[16];
     macEncryptor.processBlock(fMacSeed, 0, fMacSeedEnc, 0);
     byte[] expectedMac = secrets.updateIngress(xor(fMacSeedEnc, fMacSeed)).getIngressMac();
@@ -243,30 +251,21 @@ public class Framer {
 
     validateMac(fMac, expectedMac);
 
-    // Decrypt frame data.
-    decryptor.processBytes(frameData, 0, frameData.length, frameData, 0);
-
     // Read the id.
-    final BytesValue idbv = RLP.decodeOne(BytesValue.of(frameData[0]));
+    final BytesValue idbv = RLP.decodeOne(BytesValue.of(f.getByte(frameIndex)));
     final int id = idbv.isZero() || idbv.size() == 0 ? 0 : idbv.get(0);
 
-    // Write message data to ByteBuf, decompressing as necessary
-    final BytesValue data;
+    // Expose the message data, decompressing as necessary
+    final ByteBuf data = f.slice(frameIndex + LENGTH_MESSAGE_ID, frameSize - LENGTH_MESSAGE_ID);
     if (compressionEnabled) {
-      final byte[] compressedMessageData = Arrays.copyOfRange(frameData, 1, frameData.length - pad);
-      final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
+      final int uncompressedLength = compressor.uncompressedLength(data);
       if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
         throw error("Message size %s in excess of maximum length.", uncompressedLength);
       }
-      final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
-      data = BytesValue.wrap(decompressedMessageData);
+      return new ByteBufMessage(id, compressor.decompress(data, uncompressedLength));
     } else {
-      // Move data to a ByteBuf
-      final int messageLength = frameSize - LENGTH_MESSAGE_ID;
-      data = BytesValue.wrap(frameData, 1, messageLength);
+      return new ByteBufMessage(id, data.retain());
     }
-
-    return new RawMessage(id, data);
   }
 
   private void validateMac(final byte[] candidateMac, final byte[] expectedMac) {
@@ -287,24 +286,37 @@ public class Framer {
   public synchronized void frame(final MessageData message, final ByteBuf output) {
     Preconditions.checkArgument(
         message.getSize() < LENGTH_MAX_MESSAGE_FRAME, "Message size in excess of maximum length.");
-    // Compress message
-    if (compressionEnabled) {
-      // Extract data from message
-      // Compress data
-      final byte[] compressed = compressor.compress(message.getData().getArrayUnsafe());
-      // Construct new, compressed message
-      frameMessage(new RawMessage(message.getCode(), BytesValue.wrap(compressed)), output);
-    } else {
-      frameMessage(message, output);
-    }
+    writeFrame(message, compressionEnabled, output);
   }
 
   @VisibleForTesting
   void frameMessage(final MessageData message, final ByteBuf buf) {
-    final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
-    final int pad = padding16(frameSize);
+    writeFrame(message, false, buf);
+  }
+
+  private void writeFrame(final MessageData message, final boolean compress, final ByteBuf buf) {
+    // The frame size is only known once the (compressed) message data has been written, so leave
+    // room for the header and fill it in afterwards.
+    final int headerIndex = buf.writerIndex();
+    final int frameIndex = headerIndex + LENGTH_FULL_HEADER;
+    buf.ensureWritable(LENGTH_FULL_HEADER + LENGTH_MESSAGE_ID);
+    buf.writerIndex(frameIndex);
 
     final byte id = (byte) message.getCode();
+    final BytesValue bv = id == 0 ? RLP.NULL : RLP.encodeOne(BytesValue.of(id));
+    assert bv.size() == 1;
+    buf.writeByte(bv.get(0));
+
+    if (compress) {
+      compressor.compress(message.getData().getArrayUnsafe(), buf);
+    } else {
+      buf.writeBytes(message.getData().getArrayUnsafe());
+    }
+    final int frameSize = buf.writerIndex() - frameIndex;
+
+    // Zero-padded to 16-byte boundary.
+    buf.writeZero(padding16(frameSize));
+    final int frameDataLength = buf.writerIndex() - frameIndex;
 
     // Generate the header data.
     final byte[] h = new byte[LENGTH_HEADER_DATA];
@@ -320,26 +332,53 @@ public class Framer {
     macEncryptor.processBlock(hMac, 0, hMac, 0);
     hMac = secrets.updateEgress(xor(h, hMac)).getEgressMac();
     hMac = Arrays.copyOf(hMac, LENGTH_MAC);
-    buf.writeBytes(h).writeBytes(hMac);
-
-    // Encrypt payload.
-    final byte[] f = new byte[frameSize + pad];
-
-    final BytesValue bv = id == 0 ? RLP.NULL : RLP.encodeOne(BytesValue.of(id));
-    assert bv.size() == 1;
-    f[0] = bv.get(0);
+    buf.setBytes(headerIndex, h).setBytes(headerIndex + LENGTH_HEADER_DATA, hMac);
 
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 0, 1);
-    encryptor.processBytes(f, 0, f.length, f, 0);
+    // Encrypt the frame data in place and feed it to the MAC.
+    encrypt(buf, frameIndex, frameDataLength);
 
     // Calculate the frame MAC.
-    final byte[] fMacSeed = Arrays.copyOf(secrets.updateEgress(f).getEgressMac(), LENGTH_MAC);
+    final byte[] fMacSeed = Arrays.copyOf(secrets.getEgressMac(), LENGTH_MAC);
     byte[] fMac = new byte[16];
     macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
     fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
 
-    buf.writeBytes(f).writeBytes(fMac);
+    buf.writeBytes(fMac);
+  }
+
+  private void decrypt(final ByteBuf buf, final int index, final int length) {
+    if (buf.hasArray()) {
+      final byte[] array = buf.array();
+      final int offset = buf.arrayOffset() + index;
+      secrets.updateIngress(array, offset, length);
+      decryptor.processBytes(array, offset, length, array, offset);
+      return;
+    }
+    // Direct buffers are processed in chunks small enough to stay in cache
+    for (int i = 0; i < length; i += scratch.length) {
+      final int chunk = Math.min(scratch.length, length - i);
+      buf.getBytes(index + i, scratch, 0, chunk);
+      secrets.updateIngress(scratch, 0, chunk);
+      decryptor.processBytes(scratch, 0, chunk, scratch, 0);
+      buf.setBytes(index + i, scratch, 0, chunk);
+    }
+  }
+
+  private void encrypt(final ByteBuf buf, final int index, final int length) {
+    if (buf.hasArray()) {
+      final byte[] array = buf.array();
+      final int offset = buf.arrayOffset() + index;
+      encryptor.processBytes(array, offset, length, array, offset);
+      secrets.updateEgress(array, offset, length);
+      return;
+    }
+    for (int i = 0; i < length; i += scratch.length) {
+      final int chunk = Math.min(scratch.length, length - i);
+      buf.getBytes(index + i, scratch, 0, chunk);
+      encryptor.processBytes(scratch, 0, chunk, scratch, 0);
+      secrets.updateEgress(scratch, 0, chunk);
+      buf.setBytes(index + i, scratch, 0, chunk);
+    }
   }
 
   private static int padding16(final int size) {
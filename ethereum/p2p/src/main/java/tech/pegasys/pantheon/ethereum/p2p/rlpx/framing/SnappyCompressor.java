@@ -16,6 +16,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import org.xerial.snappy.Snappy;
 
 /**
@@ -51,4 +53,113 @@ public class SnappyCompressor {
       throw new FramingException("Snappy uncompressedLength failed", e);
     }
   }
+
+  /**
+   * Compresses the given bytes, appending the result to a buffer.
+   *
+   * <p>When the buffer is backed by an array the data is compressed straight into it.
+   *
+   * @param uncompressed the bytes to compress
+   * @param compressed the buffer to write the compressed bytes to
+   */
+  public void compress(final byte[] uncompressed, final ByteBuf compressed) {
+    checkNotNull(uncompressed, "input data must not be null");
+    try {
+      if (!compressed.hasArray()) {
+        compressed.writeBytes(Snappy.compress(uncompressed));
+        return;
+      }
+      compressed.ensureWritable(Snappy.maxCompressedLength(uncompressed.length));
+      final int written =
+          Snappy.compress(
+              uncompressed,
+              0,
+              uncompressed.length,
+              compressed.array(),
+              compressed.arrayOffset() + compressed.writerIndex());
+      compressed.writerIndex(compressed.writerIndex() + written);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy compression failed", e);
+    }
+  }
+
+  /**
+   * Decompresses the readable bytes of a buffer into a new buffer of the same kind, allocated from
+   * the allocator of the compressed buffer.
+   *
+   * @param compressed the compressed bytes
+   * @param uncompressedLength the length of the decompressed data, as returned by {@link
+   *     #uncompressedLength(ByteBuf)}
+   * @return a buffer holding the decompressed bytes, which the caller is responsible for releasing
+   */
+  public ByteBuf decompress(final ByteBuf compressed, final int uncompressedLength) {
+    checkNotNull(compressed, "input data must not be null");
+    final boolean direct = isSingleDirectBuffer(compressed);
+    final ByteBuf uncompressed =
+        direct
+            ? compressed.alloc().directBuffer(uncompressedLength)
+            : compressed.alloc().heapBuffer(uncompressedLength);
+    boolean success = false;
+    try {
+      final int written;
+      if (direct) {
+        written =
+            Snappy.uncompress(
+                compressed.nioBuffer(), uncompressed.nioBuffer(0, uncompressedLength));
+      } else {
+        final byte[] input = arrayOf(compressed);
+        written =
+            Snappy.uncompress(
+                input,
+                compressed.hasArray() ? compressed.arrayOffset() + compressed.readerIndex() : 0,
+                compressed.readableBytes(),
+                uncompressed.array(),
+                uncompressed.arrayOffset());
+      }
+      if (written != uncompressedLength) {
+        throw new FramingException(
+            String.format(
+                "Snappy decompressed %s bytes, expected %s", written, uncompressedLength));
+      }
+      uncompressed.writerIndex(written);
+      success = true;
+      return uncompressed;
+    } catch (final IOException e) {
+      throw new FramingException("Snappy decompression failed", e);
+    } finally {
+      if (!success) {
+        uncompressed.release();
+      }
+    }
+  }
+
+  /**
+   * Reads the decompressed length of the readable bytes of a buffer.
+   *
+   * @param compressed the compressed bytes
+   * @return the length of the data once decompressed
+   */
+  public int uncompressedLength(final ByteBuf compressed) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      if (isSingleDirectBuffer(compressed)) {
+        return Snappy.uncompressedLength(compressed.nioBuffer());
+      }
+      return Snappy.uncompressedLength(
+          arrayOf(compressed),
+          compressed.hasArray() ? compressed.arrayOffset() + compressed.readerIndex() : 0,
+          compressed.readableBytes());
+    } catch (final IOException e) {
+      throw new FramingException("Snappy uncompressedLength failed", e);
+    }
+  }
+
+  private static boolean isSingleDirectBuffer(final ByteBuf buffer) {
+    return buffer.isDirect() && buffer.nioBufferCount() == 1;
+  }
+
+  // Only composite buffers and the like, which framing never produces, have to be copied here
+  private static byte[] arrayOf(final ByteBuf buffer) {
+    return buffer.hasArray() ? buffer.array() : ByteBufUtil.getBytes(buffer);
+  }
 }
@@ -75,6 +75,19 @@ public class HandshakeSecrets {
     return this;
   }
 
+  /**
+   * Updates the egress mac with a range of the provided bytes.
+   *
+   * @param bytes The buffer holding bytes of the outgoing message.
+   * @param offset The offset of the first byte to update the mac with.
+   * @param length The number of bytes to update the mac with.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateEgress(final byte[] bytes, final int offset, final int length) {
+    egressMac.update(bytes, offset, length);
+    return this;
+  }
+
   /**
    * Updates the ingress mac with the provided bytes.
    *
@@ -86,6 +99,19 @@ public class HandshakeSecrets {
     return this;
   }
 
+  /**
+   * Updates the ingress mac with a range of the provided bytes.
+   *
+   * @param bytes The buffer holding bytes of the incoming message.
+   * @param offset The offset of the first byte to update the mac with.
+   * @param length The number of bytes to update the mac with.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateIngress(final byte[] bytes, final int offset, final int length) {
+    ingressMac.update(bytes, offset, length);
+    return this;
+  }
+
   /**
    * Returns the AES shared secret.
    *
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.wire;
+
+import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytesValue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCounted;
+
+/**
+ * A message whose payload is held by a, usually pooled, Netty {@link ByteBuf}.
+ *
+ * <p>{@link #getData()} exposes the readable bytes of the buffer without copying them, so it must
+ * not be used once the message has been released. Anything that keeps the data around for longer
+ * than the message lives has to take a {@link BytesValue#copy()} of it.
+ */
+public final class ByteBufMessage implements MessageData, ReferenceCounted {
+
+  private final int code;
+  private final ByteBuf buffer;
+  private final BytesValue data;
+
+  /**
+   * Creates a message that takes ownership of the buffer, which is released with the message.
+   *
+   * @param code the message code
+   * @param buffer the buffer whose readable bytes are the payload of the message
+   */
+  public ByteBufMessage(final int code, final ByteBuf buffer) {
+    this.code = code;
+    this.buffer = buffer;
+    if (!buffer.isReadable()) {
+      this.data = BytesValue.EMPTY;
+    } else if (buffer.hasArray()) {
+      this.data =
+          BytesValue.wrap(
+              buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes());
+    } else {
+      this.data = MutableBytesValue.wrapBuffer(buffer);
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return data.size();
+  }
+
+  @Override
+  public int getCode() {
+    return code;
+  }
+
+  @Override
+  public BytesValue getData() {
+    return data;
+  }
+
+  @Override
+  public int refCnt() {
+    return buffer.refCnt();
+  }
+
+  @Override
+  public ByteBufMessage retain() {
+    buffer.retain();
+    return this;
+  }
+
+  @Override
+  public ByteBufMessage retain(final int increment) {
+    buffer.retain(increment);
+    return this;
+  }
+
+  @Override
+  public ByteBufMessage touch() {
+    buffer.touch();
+    return this;
+  }
+
+  @Override
+  public ByteBufMessage touch(final Object hint) {
+    buffer.touch(hint);
+    return this;
+  }
+
+  @Override
+  public boolean release() {
+    return buffer.release();
+  }
+
+  @Override
+  public boolean release(final int decrement) {
+    return buffer.release(decrement);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.prometheus.PrometheusMetricsSystem;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.Test;
+
+public class NettyTransportTest {
+
+  @Test
+  public void usesNioWhenNativeTransportIsDisabled() {
+    final NettyTransport transport = NettyTransport.create(false);
+
+    assertThat(transport.getName()).isEqualTo("nio");
+    assertThat(transport.getServerChannelClass()).isEqualTo(NioServerSocketChannel.class);
+    assertThat(transport.getChannelClass()).isEqualTo(NioSocketChannel.class);
+
+    final EventLoopGroup group = transport.createEventLoopGroup(1, "test");
+    try {
+      assertThat(group).isInstanceOf(NioEventLoopGroup.class);
+    } finally {
+      group.shutdownGracefully();
+    }
+  }
+
+  @Test
+  public void registersMetricsForEachEventLoop() {
+    final MetricsSystem metricsSystem = PrometheusMetricsSystem.init();
+    final EventLoopGroup group = NettyTransport.create(false).createEventLoopGroup(2, "test");
+    try {
+      NettyTransport.registerMetrics(group, "test_worker", metricsSystem);
+
+      final List<String> metrics =
+          metricsSystem
+              .getMetrics(MetricCategory.NETWORK)
+              .map(observation -> observation.getMetricName() + observation.getLabels())
+              .collect(Collectors.toList());
+      assertThat(metrics)
+          .containsExactlyInAnyOrder(
+              "test_worker_pending_tasks_current[0]",
+              "test_worker_busy_seconds_total[0]",
+              "test_worker_pending_tasks_current[1]",
+              "test_worker_busy_seconds_total[1]");
+    } finally {
+      group.shutdownGracefully();
+    }
+  }
+}
@@ -24,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
+import tech.pegasys.pantheon.ethereum.p2p.wire.ByteBufMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.messages.DisconnectMessage.DisconnectReason;
@@ -36,6 +37,7 @@ import java.util.Random;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import org.junit.Test;
 import org.xerial.snappy.Snappy;
@@ -223,6 +225,38 @@ public class FramerTest {
     assertThatThrownBy(() -> receivingFramer.deframe(out)).isInstanceOf(FramingException.class);
   }
 
+  @Test
+  public void roundTripThroughPooledDirectBuffers() throws IOException {
+    final JsonNode td = MAPPER.readTree(FramerTest.class.getResource("/peer1.json"));
+    final Framer framer = new Framer(secretsFrom(td, false));
+    final Framer deframer = new Framer(secretsFrom(td, true));
+
+    // Large enough to span several chunks when encrypting and decrypting direct buffers.
+    final byte[] payload = new byte[100_000];
+    new Random(1).nextBytes(payload);
+    final MessageData message = new RawMessage(0x10, BytesValue.wrap(payload));
+
+    for (final boolean compression : new boolean[] {false, true}) {
+      if (compression) {
+        framer.enableCompression();
+        deframer.enableCompression();
+      }
+      final ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+      framer.frame(message, buf);
+      framer.frame(message, buf);
+
+      for (int i = 0; i < 2; i++) {
+        final MessageData received = deframer.deframe(buf);
+        assertThat(received).isInstanceOf(ByteBufMessage.class);
+        assertThat(received.getCode()).isEqualTo(message.getCode());
+        assertThat(received.getData()).isEqualTo(message.getData());
+        ((ByteBufMessage) received).release();
+      }
+      assertThat(buf.isReadable()).isFalse();
+      assertThat(buf.release()).isTrue();
+    }
+  }
+
   private HandshakeSecrets secretsFrom(final JsonNode td, final boolean swap) {
     final byte[] aes = decodeHexDump(td.get("aes_secret").asText());
     final byte[] mac = decodeHexDump(td.get("mac_secret").asText());
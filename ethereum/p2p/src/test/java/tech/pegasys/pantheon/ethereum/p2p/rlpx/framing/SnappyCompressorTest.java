@@ -52,7 +52,7 @@ public class SnappyCompressorTest {
 
   @Test
   public void uncompressedLengthNull() {
-    assertThatThrownBy(() -> snappy.uncompressedLength(null))
+    assertThatThrownBy(() -> snappy.uncompressedLength((byte[]) null))
         .isInstanceOf(NullPointerException.class);
   }
 
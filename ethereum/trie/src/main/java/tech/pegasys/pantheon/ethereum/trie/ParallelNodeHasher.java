@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the hashes of the dirty nodes of a trie, hashing the dirty children of the branch nodes
+ * near the root in parallel on the common fork-join pool. The hashes are cached by the nodes, so
+ * that computing the root hash or committing the trie afterwards does not hash them again.
+ *
+ * @param <V> The type of values stored by the trie.
+ */
+class ParallelNodeHasher<V> extends RecursiveAction {
+
+  // Up to 16^2 = 256 tasks, below which subtrees are hashed by a single task.
+  private static final int MAX_FORK_DEPTH = 2;
+
+  private final Node<V> node;
+  private final int depth;
+
+  private ParallelNodeHasher(final Node<V> node, final int depth) {
+    this.node = node;
+    this.depth = depth;
+  }
+
+  static <V> void hash(final Node<V> root) {
+    new ParallelNodeHasher<>(root, 0).invoke();
+  }
+
+  @Override
+  protected void compute() {
+    if (!node.isDirty()) {
+      return;
+    }
+    if (depth < MAX_FORK_DEPTH) {
+      if (node instanceof BranchNode) {
+        final BranchNode<V> branchNode = (BranchNode<V>) node;
+        final List<ParallelNodeHasher<V>> children = new ArrayList<>(BranchNode.RADIX);
+        for (byte i = 0; i < BranchNode.RADIX; ++i) {
+          final Node<V> child = branchNode.child(i);
+          if (child.isDirty()) {
+            children.add(new ParallelNodeHasher<>(child, depth + 1));
+          }
+        }
+        invokeAll(children);
+      } else if (node instanceof ExtensionNode) {
+        new ParallelNodeHasher<>(((ExtensionNode<V>) node).getChild(), depth).compute();
+      }
+    }
+    node.getHash();
+  }
+}
@@ -28,11 +28,16 @@ import java.util.function.Function;
  * @param <V> The type of values stored by this trie.
  */
 public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements MerklePatriciaTrie<K, V> {
+  // Number of updates since the root hash was last computed above which the dirty nodes are hashed
+  // in parallel.
+  static final int PARALLEL_HASHING_THRESHOLD = 256;
+
   private final GetVisitor<V> getVisitor = new GetVisitor<>();
   private final RemoveVisitor<V> removeVisitor = new RemoveVisitor<>();
   private final StoredNodeFactory<V> nodeFactory;
 
   private Node<V> root;
+  private int updatesSinceHashing;
 
   /**
    * Create a trie.
@@ -62,7 +67,27 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
       final Bytes32 rootHash,
       final Function<V, BytesValue> valueSerializer,
       final Function<BytesValue, V> valueDeserializer) {
-    this.nodeFactory = new StoredNodeFactory<>(nodeLoader, valueSerializer, valueDeserializer);
+    this(nodeLoader, rootHash, valueSerializer, valueDeserializer, Optional.empty());
+  }
+
+  /**
+   * Create a trie.
+   *
+   * @param nodeLoader The {@link NodeLoader} to retrieve node data from.
+   * @param rootHash The initial root has for the trie, which should be already present in {@code
+   *     storage}.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param nodeCache The cache of decoded nodes shared by all tries using {@code nodeLoader}.
+   */
+  public StoredMerklePatriciaTrie(
+      final NodeLoader nodeLoader,
+      final Bytes32 rootHash,
+      final Function<V, BytesValue> valueSerializer,
+      final Function<BytesValue, V> valueDeserializer,
+      final Optional<TrieNodeCache<V>> nodeCache) {
+    this.nodeFactory =
+        new StoredNodeFactory<>(nodeLoader, valueSerializer, valueDeserializer, nodeCache);
     this.root =
         rootHash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)
             ? NullNode.instance()
@@ -80,16 +105,19 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
     checkNotNull(key);
     checkNotNull(value);
     this.root = root.accept(new PutVisitor<>(nodeFactory, value), bytesToPath(key));
+    updatesSinceHashing++;
   }
 
   @Override
   public void remove(final K key) {
     checkNotNull(key);
     this.root = root.accept(removeVisitor, bytesToPath(key));
+    updatesSinceHashing++;
   }
 
   @Override
   public void commit(final NodeUpdater nodeUpdater) {
+    hashDirtyNodes();
     final CommitVisitor<V> commitVisitor = new CommitVisitor<>(nodeUpdater);
     root.accept(commitVisitor);
     // Make sure root node was stored
@@ -111,9 +139,17 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
 
   @Override
   public Bytes32 getRootHash() {
+    hashDirtyNodes();
     return root.getHash();
   }
 
+  private void hashDirtyNodes() {
+    if (updatesSinceHashing >= PARALLEL_HASHING_THRESHOLD) {
+      ParallelNodeHasher.hash(root);
+    }
+    updatesSinceHashing = 0;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "[" + getRootHash() + "]";
@@ -97,15 +97,19 @@ class StoredNode<V> implements Node<V> {
   }
 
   private Node<V> load() {
-    if (loaded == null) {
-      loaded =
-          nodeFactory
-              .retrieve(hash)
-              .orElseThrow(
-                  () -> new MerkleTrieException("Unable to load trie node value for hash " + hash));
+    if (loaded != null) {
+      return loaded;
     }
-
-    return loaded;
+    final Node<V> node =
+        nodeFactory
+            .retrieve(hash)
+            .orElseThrow(
+                () -> new MerkleTrieException("Unable to load trie node value for hash " + hash));
+    // Cached nodes are shared, holding on to their children would keep them out of the cache
+    if (!nodeFactory.isCaching()) {
+      loaded = node;
+    }
+    return node;
   }
 
   @Override
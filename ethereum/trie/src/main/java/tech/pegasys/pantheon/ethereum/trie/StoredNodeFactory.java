@@ -33,14 +33,17 @@ class StoredNodeFactory<V> implements NodeFactory<V> {
   private final NodeLoader nodeLoader;
   private final Function<V, BytesValue> valueSerializer;
   private final Function<BytesValue, V> valueDeserializer;
+  private final Optional<TrieNodeCache<V>> nodeCache;
 
   StoredNodeFactory(
       final NodeLoader nodeLoader,
       final Function<V, BytesValue> valueSerializer,
-      final Function<BytesValue, V> valueDeserializer) {
+      final Function<BytesValue, V> valueDeserializer,
+      final Optional<TrieNodeCache<V>> nodeCache) {
     this.nodeLoader = nodeLoader;
     this.valueSerializer = valueSerializer;
     this.valueDeserializer = valueDeserializer;
+    this.nodeCache = nodeCache;
   }
 
   @Override
@@ -87,7 +90,22 @@ class StoredNodeFactory<V> implements NodeFactory<V> {
     return node;
   }
 
+  /**
+   * Whether retrieved nodes are held in a cache shared with other tries. Nodes loaded through this
+   * factory must then not hold on to their loaded children, as that would keep entire subtries
+   * reachable from the cache.
+   */
+  boolean isCaching() {
+    return nodeCache.isPresent();
+  }
+
   public Optional<Node<V>> retrieve(final Bytes32 hash) throws MerkleTrieException {
+    if (nodeCache.isPresent()) {
+      final Optional<Node<V>> cached = nodeCache.get().get(hash);
+      if (cached.isPresent()) {
+        return cached;
+      }
+    }
     return nodeLoader
         .getNode(hash)
         .map(
@@ -96,6 +114,7 @@ class StoredNodeFactory<V> implements NodeFactory<V> {
               // recalculating the node.hash() is expensive, so we only do this as an assertion
               assert (hash.equals(node.getHash()))
                   : "Node hash " + node.getHash() + " not equal to expected " + hash;
+              nodeCache.ifPresent(cache -> cache.put(hash, node, rlp.size()));
               return node;
             });
   }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+
+import java.util.Optional;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A size bounded cache of decoded trie nodes, keyed by hash.
+ *
+ * <p>Nodes are identified by the hash of their content so never change once stored, which allows a
+ * single cache to be shared by every {@link StoredMerklePatriciaTrie} loading nodes from the same
+ * {@link NodeLoader}. Only nodes read from storage are cached, never modified nodes which may not
+ * have been persisted.
+ *
+ * @param <V> The type of values stored by the tries using this cache.
+ */
+public class TrieNodeCache<V> {
+
+  private final Cache<Bytes32, CachedNode<V>> nodes;
+
+  /**
+   * Create a cache.
+   *
+   * @param maximumSizeBytes The maximum total RLP encoded size of the cached nodes. Decoded nodes
+   *     take up more memory than their encoding.
+   */
+  public TrieNodeCache(final long maximumSizeBytes) {
+    this.nodes =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumSizeBytes)
+            .<Bytes32, CachedNode<V>>weigher((hash, cached) -> cached.encodedSize)
+            .recordStats()
+            .build();
+  }
+
+  Optional<Node<V>> get(final Bytes32 hash) {
+    final CachedNode<V> cached = nodes.getIfPresent(hash);
+    return cached == null ? Optional.empty() : Optional.of(cached.node);
+  }
+
+  void put(final Bytes32 hash, final Node<V> node, final int encodedSize) {
+    nodes.put(hash, new CachedNode<>(node, encodedSize));
+  }
+
+  public long size() {
+    return nodes.size();
+  }
+
+  public long hitCount() {
+    return nodes.stats().hitCount();
+  }
+
+  public long missCount() {
+    return nodes.stats().missCount();
+  }
+
+  private static class CachedNode<V> {
+    private final Node<V> node;
+    private final int encodedSize;
+
+    CachedNode(final Node<V> node, final int encodedSize) {
+      this.node = node;
+      this.encodedSize = encodedSize;
+    }
+  }
+}
@@ -23,7 +23,8 @@ public class TrieNodeDecoder {
 
   private TrieNodeDecoder() {
     nodeFactory =
-        new StoredNodeFactory<>((h) -> Optional.empty(), Function.identity(), Function.identity());
+        new StoredNodeFactory<>(
+            (h) -> Optional.empty(), Function.identity(), Function.identity(), Optional.empty());
   }
 
   public static TrieNodeDecoder create() {
@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.ethereum.trie;
 
 import static junit.framework.TestCase.assertFalse;
 import static org.assertj.core.api.Assertions.assertThat;
+import static tech.pegasys.pantheon.crypto.Hash.keccak256;
 
 import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
@@ -22,6 +23,7 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.nio.charset.Charset;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.junit.Before;
@@ -419,4 +421,103 @@ public class StoredMerklePatriciaTrieTest {
 
     newTrie.get(BytesValue.fromHexString("0x0401"));
   }
+
+  @Test
+  public void sharedNodeCacheServesNodesToOtherTries() {
+    for (int i = 0; i < 100; i++) {
+      trie.put(BytesValue.of(i), "value" + i);
+    }
+    trie.commit(merkleStorage::put);
+    merkleStorage.commit();
+    final Bytes32 rootHash = trie.getRootHash();
+
+    final AtomicInteger loads = new AtomicInteger();
+    final NodeLoader countingLoader =
+        hash -> {
+          loads.incrementAndGet();
+          return merkleStorage.get(hash);
+        };
+    final TrieNodeCache<String> nodeCache = new TrieNodeCache<>(1024 * 1024);
+    final StoredMerklePatriciaTrie<BytesValue, String> first =
+        new StoredMerklePatriciaTrie<>(
+            countingLoader, rootHash, valueSerializer, valueDeserializer, Optional.of(nodeCache));
+    for (int i = 0; i < 100; i++) {
+      assertThat(first.get(BytesValue.of(i))).contains("value" + i);
+    }
+    final int loadsAfterFirstTrie = loads.get();
+    assertThat(loadsAfterFirstTrie).isGreaterThan(0);
+
+    final StoredMerklePatriciaTrie<BytesValue, String> second =
+        new StoredMerklePatriciaTrie<>(
+            countingLoader, rootHash, valueSerializer, valueDeserializer, Optional.of(nodeCache));
+    for (int i = 0; i < 100; i++) {
+      assertThat(second.get(BytesValue.of(i))).contains("value" + i);
+    }
+    assertThat(loads.get()).isEqualTo(loadsAfterFirstTrie);
+    assertThat(nodeCache.hitCount()).isGreaterThan(0);
+  }
+
+  @Test
+  public void updatesDoNotAffectCachedNodes() {
+    for (int i = 0; i < 100; i++) {
+      trie.put(BytesValue.of(i), "value" + i);
+    }
+    trie.commit(merkleStorage::put);
+    merkleStorage.commit();
+    final Bytes32 rootHash = trie.getRootHash();
+
+    final TrieNodeCache<String> nodeCache = new TrieNodeCache<>(1024 * 1024);
+    final StoredMerklePatriciaTrie<BytesValue, String> updated =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get,
+            rootHash,
+            valueSerializer,
+            valueDeserializer,
+            Optional.of(nodeCache));
+    for (int i = 0; i < 100; i += 2) {
+      updated.put(BytesValue.of(i), "updated" + i);
+    }
+    updated.remove(BytesValue.of(1));
+    updated.commit(merkleStorage::put);
+    merkleStorage.commit();
+
+    final StoredMerklePatriciaTrie<BytesValue, String> original =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get,
+            rootHash,
+            valueSerializer,
+            valueDeserializer,
+            Optional.of(nodeCache));
+    for (int i = 0; i < 100; i++) {
+      assertThat(original.get(BytesValue.of(i))).contains("value" + i);
+      assertThat(updated.get(BytesValue.of(i)))
+          .isEqualTo(
+              i == 1 ? Optional.empty() : Optional.of((i % 2 == 0 ? "updated" : "value") + i));
+    }
+  }
+
+  @Test
+  public void largeUpdatesAreHashedLikeSmallOnes() {
+    final SimpleMerklePatriciaTrie<Bytes32, String> expected =
+        new SimpleMerklePatriciaTrie<>(valueSerializer);
+    final int entries = StoredMerklePatriciaTrie.PARALLEL_HASHING_THRESHOLD * 4;
+    for (int i = 0; i < entries; i++) {
+      final Bytes32 key = keccak256(BytesValue.of(i >> 8, i & 0xff));
+      trie.put(key, "value" + i);
+      expected.put(key, "value" + i);
+    }
+    assertThat(trie.getRootHash()).isEqualTo(expected.getRootHash());
+
+    trie.commit(merkleStorage::put);
+    merkleStorage.commit();
+    final StoredMerklePatriciaTrie<Bytes32, String> reloaded =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get, trie.getRootHash(), valueSerializer, valueDeserializer);
+    for (int i = 0; i < entries; i += 2) {
+      final Bytes32 key = keccak256(BytesValue.of(i >> 8, i & 0xff));
+      reloaded.remove(key);
+      expected.remove(key);
+    }
+    assertThat(reloaded.getRootHash()).isEqualTo(expected.getRootHash());
+  }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.metrics.prometheus;
+
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.metrics.OperationTimer.TimingContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the overhead of timing an operation with each {@link TimerType} when every thread
+ * records into the same timer, as happens with the database read and write timers.
+ */
+@State(Scope.Benchmark)
+public class OperationTimerBenchmark {
+
+  @Param({"SUMMARY", "HISTOGRAM"})
+  public TimerType timerType;
+
+  private OperationTimer timer;
+
+  @Setup
+  public void prepare() {
+    timer =
+        new PrometheusMetricsSystem(timerType)
+            .createLabelledTimer(MetricCategory.ROCKSDB, "read_latency_seconds", "Help")
+            .labels();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public double uncontended() {
+    return time();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public double contended() {
+    return time();
+  }
+
+  private double time() {
+    final TimingContext context = timer.startTimer();
+    return context.stopTimer();
+  }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.metrics;
+
+import java.util.function.Supplier;
+
+public interface LabelledGauge {
+
+  /**
+   * Adds a gauge for the given label values, reading its value from the supplier when collected.
+   *
+   * @param valueSupplier supplies the current value
+   * @param labelValues the label values, one for each label name of the gauge
+   */
+  void labels(Supplier<Double> valueSupplier, String... labelValues);
+}
@@ -22,7 +22,8 @@ public enum MetricCategory {
   PROCESS("process", false),
   ROCKSDB("rocksdb"),
   RPC("rpc"),
-  SYNCHRONIZER("synchronizer");
+  SYNCHRONIZER("synchronizer"),
+  TRANSACTION_POOL("transaction_pool");
 
   private final String name;
   private final boolean pantheonSpecific;
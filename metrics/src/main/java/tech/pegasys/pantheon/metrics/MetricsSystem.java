@@ -52,6 +52,9 @@ public interface MetricsSystem {
     createGauge(category, name, help, () -> (double) valueSupplier.get());
   }
 
+  LabelledGauge createLabelledGauge(
+      MetricCategory category, String name, String help, String... labelNames);
+
   Stream<Observation> getMetrics(MetricCategory category);
 
   default Stream<Observation> getMetrics() {
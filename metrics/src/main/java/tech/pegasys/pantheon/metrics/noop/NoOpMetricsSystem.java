@@ -13,6 +13,7 @@
 package tech.pegasys.pantheon.metrics.noop;
 
 import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledGauge;
 import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
@@ -30,6 +31,7 @@ public class NoOpMetricsSystem implements MetricsSystem {
   private static final OperationTimer NO_OP_TIMER = () -> NO_OP_TIMING_CONTEXT;
   public static final LabelledMetric<OperationTimer> NO_OP_LABELLED_TIMER = label -> NO_OP_TIMER;
   public static final LabelledMetric<Counter> NO_OP_LABELLED_COUNTER = label -> NO_OP_COUNTER;
+  public static final LabelledGauge NO_OP_LABELLED_GAUGE = (valueSupplier, labelValues) -> {};
 
   @Override
   public LabelledMetric<Counter> createLabelledCounter(
@@ -56,6 +58,15 @@ public class NoOpMetricsSystem implements MetricsSystem {
       final String help,
       final Supplier<Double> valueSupplier) {}
 
+  @Override
+  public LabelledGauge createLabelledGauge(
+      final MetricCategory category,
+      final String name,
+      final String help,
+      final String... labelNames) {
+    return NO_OP_LABELLED_GAUGE;
+  }
+
   @Override
   public Stream<Observation> getMetrics(final MetricCategory category) {
     return Stream.empty();
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.metrics.prometheus;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.singletonList;
+
+import tech.pegasys.pantheon.metrics.LabelledGauge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+
+class LabelledCurrentValueCollector extends Collector implements LabelledGauge {
+
+  private final String metricName;
+  private final String help;
+  private final List<String> labelNames;
+  private final Map<List<String>, Supplier<Double>> valueSuppliers = new ConcurrentHashMap<>();
+
+  LabelledCurrentValueCollector(
+      final String metricName, final String help, final List<String> labelNames) {
+    this.metricName = metricName;
+    this.help = help;
+    this.labelNames = labelNames;
+  }
+
+  @Override
+  public void labels(final Supplier<Double> valueSupplier, final String... labelValues) {
+    checkArgument(
+        labelValues.length == labelNames.size(),
+        "Expected %s label values but got %s",
+        labelNames.size(),
+        labelValues.length);
+    final Supplier<Double> existing =
+        valueSuppliers.putIfAbsent(Arrays.asList(labelValues), valueSupplier);
+    checkArgument(
+        existing == null, "Label values %s are already in use", Arrays.toString(labelValues));
+  }
+
+  @Override
+  public List<MetricFamilySamples> collect() {
+    final List<Sample> samples = new ArrayList<>();
+    valueSuppliers.forEach(
+        (labelValues, valueSupplier) ->
+            samples.add(new Sample(metricName, labelNames, labelValues, valueSupplier.get())));
+    return singletonList(new MetricFamilySamples(metricName, Type.GAUGE, help, samples));
+  }
+}
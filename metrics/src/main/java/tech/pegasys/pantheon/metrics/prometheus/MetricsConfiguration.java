@@ -12,9 +12,13 @@
  */
 package tech.pegasys.pantheon.metrics.prometheus;
 
+import tech.pegasys.pantheon.metrics.MetricCategory;
+
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 
@@ -25,6 +29,9 @@ public class MetricsConfiguration {
   private static final String DEFAULT_METRICS_PUSH_HOST = "127.0.0.1";
   public static final int DEFAULT_METRICS_PUSH_PORT = 9001;
 
+  public static final Set<MetricCategory> DEFAULT_METRIC_CATEGORIES =
+      Collections.unmodifiableSet(EnumSet.allOf(MetricCategory.class));
+
   private boolean enabled;
   private int port;
   private String host;
@@ -34,6 +41,8 @@ public class MetricsConfiguration {
   private int pushInterval;
   private String prometheusJob;
   private Collection<String> hostsWhitelist = Collections.singletonList("localhost");
+  private TimerType timerType;
+  private Set<MetricCategory> metricCategories;
 
   public static MetricsConfiguration createDefault() {
     final MetricsConfiguration metricsConfiguration = new MetricsConfiguration();
@@ -45,6 +54,8 @@ public class MetricsConfiguration {
     metricsConfiguration.setPushHost(DEFAULT_METRICS_PUSH_HOST);
     metricsConfiguration.setPushInterval(15);
     metricsConfiguration.setPrometheusJob("pantheon-client");
+    metricsConfiguration.setTimerType(TimerType.SUMMARY);
+    metricsConfiguration.setMetricCategories(DEFAULT_METRIC_CATEGORIES);
 
     return metricsConfiguration;
   }
@@ -123,6 +134,22 @@ public class MetricsConfiguration {
     this.hostsWhitelist = hostsWhitelist;
   }
 
+  public TimerType getTimerType() {
+    return timerType;
+  }
+
+  public void setTimerType(final TimerType timerType) {
+    this.timerType = timerType;
+  }
+
+  public Set<MetricCategory> getMetricCategories() {
+    return metricCategories;
+  }
+
+  public void setMetricCategories(final Set<MetricCategory> metricCategories) {
+    this.metricCategories = metricCategories;
+  }
+
   @Override
   public String toString() {
     return "MetricsConfiguration{"
@@ -147,6 +174,10 @@ public class MetricsConfiguration {
         + '\''
         + ", hostsWhitelist="
         + hostsWhitelist
+        + ", timerType="
+        + timerType
+        + ", metricCategories="
+        + metricCategories
         + '}';
   }
 
@@ -163,6 +194,8 @@ public class MetricsConfiguration {
         && Objects.equals(host, that.host)
         && Objects.equals(pushHost, that.pushHost)
         && Objects.equals(prometheusJob, that.prometheusJob)
+        && timerType == that.timerType
+        && Objects.equals(metricCategories, that.metricCategories)
         && com.google.common.base.Objects.equal(
             Lists.newArrayList(hostsWhitelist), Lists.newArrayList(that.hostsWhitelist));
   }
@@ -178,6 +211,8 @@ public class MetricsConfiguration {
         pushHost,
         pushInterval,
         prometheusJob,
-        hostsWhitelist);
+        hostsWhitelist,
+        timerType,
+        metricCategories);
   }
 }
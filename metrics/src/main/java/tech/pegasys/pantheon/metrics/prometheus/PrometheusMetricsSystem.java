@@ -15,27 +15,32 @@ package tech.pegasys.pantheon.metrics.prometheus;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
 
+import tech.pegasys.pantheon.metrics.LabelledGauge;
 import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.Observation;
 import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import com.google.common.collect.ImmutableSet;
 import io.prometheus.client.Collector;
 import io.prometheus.client.Collector.MetricFamilySamples;
 import io.prometheus.client.Collector.MetricFamilySamples.Sample;
 import io.prometheus.client.Collector.Type;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
 import io.prometheus.client.Summary;
 import io.prometheus.client.hotspot.BufferPoolsExports;
 import io.prometheus.client.hotspot.ClassLoadingExports;
@@ -49,21 +54,45 @@ public class PrometheusMetricsSystem implements MetricsSystem {
   private static final String PANTHEON_PREFIX = "pantheon_";
   private final Map<MetricCategory, Collection<Collector>> collectors = new ConcurrentHashMap<>();
   private final CollectorRegistry registry = new CollectorRegistry(true);
+  private final TimerType timerType;
+  private final Set<MetricCategory> enabledCategories;
 
-  PrometheusMetricsSystem() {}
+  PrometheusMetricsSystem() {
+    this(TimerType.SUMMARY);
+  }
+
+  PrometheusMetricsSystem(final TimerType timerType) {
+    this(timerType, MetricsConfiguration.DEFAULT_METRIC_CATEGORIES);
+  }
+
+  PrometheusMetricsSystem(final TimerType timerType, final Set<MetricCategory> enabledCategories) {
+    this.timerType = timerType;
+    this.enabledCategories = ImmutableSet.copyOf(enabledCategories);
+  }
 
   public static MetricsSystem init() {
-    final PrometheusMetricsSystem metricsSystem = new PrometheusMetricsSystem();
-    metricsSystem.collectors.put(
-        MetricCategory.PROCESS, singleton(new StandardExports().register(metricsSystem.registry)));
-    metricsSystem.collectors.put(
-        MetricCategory.JVM,
-        asList(
-            new MemoryPoolsExports().register(metricsSystem.registry),
-            new BufferPoolsExports().register(metricsSystem.registry),
-            new GarbageCollectorExports().register(metricsSystem.registry),
-            new ThreadExports().register(metricsSystem.registry),
-            new ClassLoadingExports().register(metricsSystem.registry)));
+    return init(MetricsConfiguration.createDefault());
+  }
+
+  public static MetricsSystem init(final MetricsConfiguration metricsConfiguration) {
+    final PrometheusMetricsSystem metricsSystem =
+        new PrometheusMetricsSystem(
+            metricsConfiguration.getTimerType(), metricsConfiguration.getMetricCategories());
+    if (metricsSystem.isCategoryEnabled(MetricCategory.PROCESS)) {
+      metricsSystem.collectors.put(
+          MetricCategory.PROCESS,
+          singleton(new StandardExports().register(metricsSystem.registry)));
+    }
+    if (metricsSystem.isCategoryEnabled(MetricCategory.JVM)) {
+      metricsSystem.collectors.put(
+          MetricCategory.JVM,
+          asList(
+              new MemoryPoolsExports().register(metricsSystem.registry),
+              new BufferPoolsExports().register(metricsSystem.registry),
+              new GarbageCollectorExports().register(metricsSystem.registry),
+              new ThreadExports().register(metricsSystem.registry),
+              new ClassLoadingExports().register(metricsSystem.registry)));
+    }
     return metricsSystem;
   }
 
@@ -73,6 +102,9 @@ public class PrometheusMetricsSystem implements MetricsSystem {
       final String name,
       final String help,
       final String... labelNames) {
+    if (!isCategoryEnabled(category)) {
+      return NoOpMetricsSystem.NO_OP_LABELLED_COUNTER;
+    }
     final Counter counter =
         Counter.build(convertToPrometheusName(category, name), help)
             .labelNames(labelNames)
@@ -87,6 +119,19 @@ public class PrometheusMetricsSystem implements MetricsSystem {
       final String name,
       final String help,
       final String... labelNames) {
+    if (!isCategoryEnabled(category)) {
+      return NoOpMetricsSystem.NO_OP_LABELLED_TIMER;
+    }
+    if (timerType == TimerType.HISTOGRAM) {
+      // Buckets from 10 microseconds to 42 seconds, fine enough for database reads
+      final Histogram histogram =
+          Histogram.build(convertToPrometheusName(category, name), help)
+              .exponentialBuckets(0.00001, 4, 12)
+              .labelNames(labelNames)
+              .create();
+      addCollector(category, histogram);
+      return new PrometheusHistogramTimer(histogram);
+    }
     final Summary summary =
         Summary.build(convertToPrometheusName(category, name), help)
             .quantile(0.2, 0.02)
@@ -107,10 +152,33 @@ public class PrometheusMetricsSystem implements MetricsSystem {
       final String name,
       final String help,
       final Supplier<Double> valueSupplier) {
+    if (!isCategoryEnabled(category)) {
+      return;
+    }
     final String metricName = convertToPrometheusName(category, name);
     addCollector(category, new CurrentValueCollector(metricName, help, valueSupplier));
   }
 
+  @Override
+  public LabelledGauge createLabelledGauge(
+      final MetricCategory category,
+      final String name,
+      final String help,
+      final String... labelNames) {
+    if (!isCategoryEnabled(category)) {
+      return NoOpMetricsSystem.NO_OP_LABELLED_GAUGE;
+    }
+    final String metricName = convertToPrometheusName(category, name);
+    final LabelledCurrentValueCollector gauge =
+        new LabelledCurrentValueCollector(metricName, help, asList(labelNames));
+    addCollector(category, gauge);
+    return gauge;
+  }
+
+  private boolean isCategoryEnabled(final MetricCategory category) {
+    return enabledCategories.contains(category);
+  }
+
   private void addCollector(final MetricCategory category, final Collector metric) {
     metric.register(registry);
     collectors
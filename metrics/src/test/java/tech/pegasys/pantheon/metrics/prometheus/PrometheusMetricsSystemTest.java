@@ -16,11 +16,13 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static tech.pegasys.pantheon.metrics.MetricCategory.JVM;
 import static tech.pegasys.pantheon.metrics.MetricCategory.PEERS;
 import static tech.pegasys.pantheon.metrics.MetricCategory.RPC;
 
 import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledGauge;
 import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.Observation;
@@ -28,6 +30,7 @@ import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.metrics.OperationTimer.TimingContext;
 
 import java.util.Comparator;
+import java.util.EnumSet;
 
 import org.junit.Test;
 
@@ -121,6 +124,41 @@ public class PrometheusMetricsSystemTest {
             new Observation(RPC, "request", null, asList("method", "count")));
   }
 
+  @Test
+  public void shouldCreateObservationsFromHistogramTimer() {
+    final MetricsSystem metricsSystem = new PrometheusMetricsSystem(TimerType.HISTOGRAM);
+    final LabelledMetric<OperationTimer> timer =
+        metricsSystem.createLabelledTimer(RPC, "request", "Some help", "methodName");
+
+    try (final TimingContext context = timer.labels("method").startTimer()) {}
+
+    assertThat(metricsSystem.getMetrics())
+        .filteredOn(observation -> observation.getLabels().contains("bucket"))
+        .hasSize(13);
+    assertThat(metricsSystem.getMetrics())
+        .filteredOn(observation -> !observation.getLabels().contains("bucket"))
+        .usingElementComparator(IGNORE_VALUES)
+        .containsExactlyInAnyOrder(
+            new Observation(RPC, "request", null, asList("method", "sum")),
+            new Observation(RPC, "request", 1d, asList("method", "count")));
+    assertThat(metricsSystem.getMetrics())
+        .contains(new Observation(RPC, "request", 1d, asList("method", "bucket", "+Inf")));
+  }
+
+  @Test
+  public void shouldNotRecordMetricsForDisabledCategories() {
+    final MetricsSystem metricsSystem =
+        new PrometheusMetricsSystem(TimerType.SUMMARY, EnumSet.of(RPC));
+
+    metricsSystem.createCounter(PEERS, "connected", "Some help string").inc();
+    metricsSystem.createTimer(PEERS, "request", "Some help").startTimer().stopTimer();
+    metricsSystem.createGauge(PEERS, "myValue", "Help", () -> 7d);
+    metricsSystem.createCounter(RPC, "requests", "Some help string").inc();
+
+    assertThat(metricsSystem.getMetrics())
+        .containsExactly(new Observation(RPC, "requests", 1d, emptyList()));
+  }
+
   @Test
   public void shouldCreateObservationFromGauge() {
     metricsSystem.createGauge(JVM, "myValue", "Help", () -> 7d);
@@ -128,4 +166,27 @@ public class PrometheusMetricsSystemTest {
     assertThat(metricsSystem.getMetrics())
         .containsExactlyInAnyOrder(new Observation(JVM, "myValue", 7d, emptyList()));
   }
+
+  @Test
+  public void shouldCreateSeparateObservationsForEachGaugeLabelValue() {
+    final LabelledGauge gauge =
+        metricsSystem.createLabelledGauge(JVM, "myValue", "Help", "labelName");
+    gauge.labels(() -> 7d, "value1");
+    gauge.labels(() -> 8d, "value2");
+
+    assertThat(metricsSystem.getMetrics())
+        .containsExactlyInAnyOrder(
+            new Observation(JVM, "myValue", 7d, singletonList("value1")),
+            new Observation(JVM, "myValue", 8d, singletonList("value2")));
+  }
+
+  @Test
+  public void shouldNotAllowDuplicateGaugeLabelValues() {
+    final LabelledGauge gauge =
+        metricsSystem.createLabelledGauge(JVM, "myValue", "Help", "labelName");
+    gauge.labels(() -> 7d, "value1");
+
+    assertThatThrownBy(() -> gauge.labels(() -> 8d, "value1"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
 }
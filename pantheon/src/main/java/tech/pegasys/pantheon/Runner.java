@@ -13,6 +13,7 @@
 package tech.pegasys.pantheon;
 
 import tech.pegasys.pantheon.controller.PantheonController;
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsIndexer;
 import tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcHttpService;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketService;
 import tech.pegasys.pantheon.ethereum.p2p.NetworkRunner;
@@ -43,6 +44,7 @@ public class Runner implements AutoCloseable {
   private final Optional<JsonRpcHttpService> jsonRpc;
   private final Optional<WebSocketService> websocketRpc;
   private final Optional<MetricsService> metrics;
+  private final Optional<BloomBitsIndexer> bloomBitsIndexer;
 
   private final PantheonController<?> pantheonController;
   private final Path dataDir;
@@ -53,6 +55,7 @@ public class Runner implements AutoCloseable {
       final Optional<JsonRpcHttpService> jsonRpc,
       final Optional<WebSocketService> websocketRpc,
       final Optional<MetricsService> metrics,
+      final Optional<BloomBitsIndexer> bloomBitsIndexer,
       final PantheonController<?> pantheonController,
       final Path dataDir) {
     this.vertx = vertx;
@@ -60,6 +63,7 @@ public class Runner implements AutoCloseable {
     this.jsonRpc = jsonRpc;
     this.websocketRpc = websocketRpc;
     this.metrics = metrics;
+    this.bloomBitsIndexer = bloomBitsIndexer;
     this.pantheonController = pantheonController;
     this.dataDir = dataDir;
   }
@@ -74,6 +78,7 @@ public class Runner implements AutoCloseable {
       jsonRpc.ifPresent(service -> service.start().join());
       websocketRpc.ifPresent(service -> service.start().join());
       metrics.ifPresent(service -> service.start().join());
+      bloomBitsIndexer.ifPresent(BloomBitsIndexer::start);
       LOG.info("Ethereum main loop is up.");
       writePantheonPortsToFile();
       networkRunner.awaitStop();
@@ -103,7 +108,13 @@ public class Runner implements AutoCloseable {
         try {
           vertx.close();
         } finally {
-          pantheonController.close();
+          try {
+            if (bloomBitsIndexer.isPresent()) {
+              bloomBitsIndexer.get().stop();
+            }
+          } finally {
+            pantheonController.close();
+          }
         }
       }
     }
@@ -16,6 +16,7 @@ import tech.pegasys.pantheon.controller.PantheonController;
 import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
 import tech.pegasys.pantheon.ethereum.ProtocolContext;
 import tech.pegasys.pantheon.ethereum.blockcreation.MiningCoordinator;
+import tech.pegasys.pantheon.ethereum.bloombits.BloomBitsIndexer;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
 import tech.pegasys.pantheon.ethereum.core.Synchronizer;
@@ -83,6 +84,8 @@ public class RunnerBuilder {
   private String discoveryHost;
   private int listenPort;
   private int maxPeers;
+  private int p2pWorkerThreads = RlpxConfiguration.DEFAULT_WORKER_THREADS;
+  private boolean p2pNativeTransportEnabled = true;
   private JsonRpcConfiguration jsonRpcConfiguration;
   private WebSocketConfiguration webSocketConfiguration;
   private Path dataDir;
@@ -90,6 +93,7 @@ public class RunnerBuilder {
   private MetricsConfiguration metricsConfiguration;
   private MetricsSystem metricsSystem;
   private Optional<PermissioningConfiguration> permissioningConfiguration = Optional.empty();
+  private long maxTraceSizeBytes = JsonRpcMethodsFactory.DEFAULT_MAX_TRACE_SIZE_BYTES;
 
   public RunnerBuilder vertx(final Vertx vertx) {
     this.vertx = vertx;
@@ -131,6 +135,16 @@ public class RunnerBuilder {
     return this;
   }
 
+  public RunnerBuilder p2pWorkerThreads(final int p2pWorkerThreads) {
+    this.p2pWorkerThreads = p2pWorkerThreads;
+    return this;
+  }
+
+  public RunnerBuilder p2pNativeTransportEnabled(final boolean p2pNativeTransportEnabled) {
+    this.p2pNativeTransportEnabled = p2pNativeTransportEnabled;
+    return this;
+  }
+
   public RunnerBuilder jsonRpcConfiguration(final JsonRpcConfiguration jsonRpcConfiguration) {
     this.jsonRpcConfiguration = jsonRpcConfiguration;
     return this;
@@ -162,6 +176,11 @@ public class RunnerBuilder {
     return this;
   }
 
+  public RunnerBuilder maxTraceSizeBytes(final long maxTraceSizeBytes) {
+    this.maxTraceSizeBytes = maxTraceSizeBytes;
+    return this;
+  }
+
   public RunnerBuilder metricsSystem(final MetricsSystem metricsSystem) {
     this.metricsSystem = metricsSystem;
     return this;
@@ -205,7 +224,12 @@ public class RunnerBuilder {
 
     final NetworkingConfiguration networkConfig =
         new NetworkingConfiguration()
-            .setRlpx(RlpxConfiguration.create().setBindPort(listenPort).setMaxPeers(maxPeers))
+            .setRlpx(
+                RlpxConfiguration.create()
+                    .setBindPort(listenPort)
+                    .setMaxPeers(maxPeers)
+                    .setWorkerThreads(p2pWorkerThreads)
+                    .setNativeTransportEnabled(p2pNativeTransportEnabled))
             .setDiscovery(discoveryConfiguration)
             .setClientId(PantheonInfo.version())
             .setSupportedProtocols(subProtocols);
@@ -262,13 +286,22 @@ public class RunnerBuilder {
     final PrivateTransactionHandler privateTransactionHandler =
         new PrivateTransactionHandler(privacyParameters);
 
-    final FilterManager filterManager = createFilterManager(vertx, context, transactionPool);
+    final BlockchainQueries blockchainQueries =
+        new BlockchainQueries(
+            context.getBlockchain(), context.getWorldStateArchive(), context.getBloomBitsIndex());
+    final Optional<BloomBitsIndexer> bloomBitsIndexer =
+        context
+            .getBloomBitsIndex()
+            .map(bloomBitsIndex -> new BloomBitsIndexer(context.getBlockchain(), bloomBitsIndex));
+
+    final FilterManager filterManager =
+        createFilterManager(vertx, blockchainQueries, transactionPool);
 
     Optional<JsonRpcHttpService> jsonRpcHttpService = Optional.empty();
     if (jsonRpcConfiguration.isEnabled()) {
       final Map<String, JsonRpcMethod> jsonRpcMethods =
           jsonRpcMethods(
-              context,
+              blockchainQueries,
               protocolSchedule,
               pantheonController,
               networkRunner.getNetwork(),
@@ -291,7 +324,7 @@ public class RunnerBuilder {
     if (webSocketConfiguration.isEnabled()) {
       final Map<String, JsonRpcMethod> webSocketsJsonRpcMethods =
           jsonRpcMethods(
-              context,
+              blockchainQueries,
               protocolSchedule,
               pantheonController,
               networkRunner.getNetwork(),
@@ -334,24 +367,24 @@ public class RunnerBuilder {
         jsonRpcHttpService,
         webSocketService,
         metricsService,
+        bloomBitsIndexer,
         pantheonController,
         dataDir);
   }
 
   private FilterManager createFilterManager(
-      final Vertx vertx, final ProtocolContext<?> context, final TransactionPool transactionPool) {
+      final Vertx vertx,
+      final BlockchainQueries blockchainQueries,
+      final TransactionPool transactionPool) {
     final FilterManager filterManager =
         new FilterManager(
-            new BlockchainQueries(context.getBlockchain(), context.getWorldStateArchive()),
-            transactionPool,
-            new FilterIdGenerator(),
-            new FilterRepository());
+            blockchainQueries, transactionPool, new FilterIdGenerator(), new FilterRepository());
     vertx.deployVerticle(filterManager);
     return filterManager;
   }
 
   private Map<String, JsonRpcMethod> jsonRpcMethods(
-      final ProtocolContext<?> context,
+      final BlockchainQueries blockchainQueries,
       final ProtocolSchedule<?> protocolSchedule,
       final PantheonController<?> pantheonController,
       final P2PNetwork network,
@@ -365,21 +398,20 @@ public class RunnerBuilder {
       final Optional<AccountWhitelistController> accountWhitelistController,
       final PrivateTransactionHandler privateTransactionHandler) {
     final Map<String, JsonRpcMethod> methods =
-        new JsonRpcMethodsFactory()
+        new JsonRpcMethodsFactory(maxTraceSizeBytes)
             .methods(
                 PantheonInfo.version(),
                 network,
-                context.getBlockchain(),
-                context.getWorldStateArchive(),
+                blockchainQueries,
                 synchronizer,
-                transactionPool,
                 protocolSchedule,
+                filterManager,
+                transactionPool,
                 miningCoordinator,
                 metricsSystem,
                 supportedCapabilities,
-                jsonRpcApis,
-                filterManager,
                 accountWhitelistController,
+                jsonRpcApis,
                 privateTransactionHandler);
     methods.putAll(pantheonController.getAdditionalJsonRpcMethods(jsonRpcApis));
     return methods;
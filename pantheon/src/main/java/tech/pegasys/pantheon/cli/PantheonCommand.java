@@ -20,9 +20,11 @@ import static tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcConfiguration.DEFAUL
 import static tech.pegasys.pantheon.ethereum.jsonrpc.RpcApis.DEFAULT_JSON_RPC_APIS;
 import static tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration.DEFAULT_WEBSOCKET_PORT;
 import static tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration.DEFAULT_WEBSOCKET_REFRESH_DELAY;
+import static tech.pegasys.pantheon.ethereum.p2p.config.RlpxConfiguration.DEFAULT_WORKER_THREADS;
 import static tech.pegasys.pantheon.ethereum.p2p.peers.DefaultPeer.DEFAULT_PORT;
 import static tech.pegasys.pantheon.metrics.prometheus.MetricsConfiguration.DEFAULT_METRICS_PORT;
 import static tech.pegasys.pantheon.metrics.prometheus.MetricsConfiguration.DEFAULT_METRICS_PUSH_PORT;
+import static tech.pegasys.pantheon.metrics.prometheus.MetricsConfiguration.DEFAULT_METRIC_CATEGORIES;
 import static tech.pegasys.pantheon.metrics.prometheus.MetricsConfiguration.createDefault;
 
 import tech.pegasys.pantheon.Runner;
@@ -36,6 +38,7 @@ import tech.pegasys.pantheon.consensus.clique.jsonrpc.CliqueRpcApis;
 import tech.pegasys.pantheon.consensus.ibft.jsonrpc.IbftRpcApis;
 import tech.pegasys.pantheon.controller.KeyPairUtil;
 import tech.pegasys.pantheon.controller.PantheonController;
+import tech.pegasys.pantheon.crypto.SECP256K1;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
@@ -43,14 +46,19 @@ import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.eth.sync.SyncMode;
 import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcConfiguration;
+import tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcMethodsFactory;
 import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApi;
 import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApis;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration;
 import tech.pegasys.pantheon.ethereum.permissioning.PermissioningConfiguration;
 import tech.pegasys.pantheon.ethereum.permissioning.PermissioningConfigurationBuilder;
+import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.prometheus.MetricsConfiguration;
 import tech.pegasys.pantheon.metrics.prometheus.PrometheusMetricsSystem;
+import tech.pegasys.pantheon.metrics.prometheus.TimerType;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration.TransactionMode;
 import tech.pegasys.pantheon.util.BlockImporter;
 import tech.pegasys.pantheon.util.InvalidConfigurationException;
 import tech.pegasys.pantheon.util.PermissioningConfigurationValidator;
@@ -67,9 +75,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import com.google.common.base.Suppliers;
 import com.google.common.io.Resources;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.DecodeException;
@@ -134,7 +145,11 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   private final SynchronizerConfiguration.Builder synchronizerConfigurationBuilder;
   private final RunnerBuilder runnerBuilder;
 
-  private final MetricsSystem metricsSystem = PrometheusMetricsSystem.init();
+  // Created once the options are parsed, as they choose how timers are recorded
+  private final Supplier<MetricsConfiguration> metricsConfiguration =
+      Suppliers.memoize(this::buildMetricsConfiguration);
+  private final Supplier<MetricsSystem> metricsSystem =
+      Suppliers.memoize(() -> PrometheusMetricsSystem.init(metricsConfiguration()));
 
   // Public IP stored to prevent having to research it each time we need it.
   private InetAddress autoDiscoveredDefaultIP = null;
@@ -188,6 +203,23 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
           "Maximum P2P peer connections that can be established (default: ${DEFAULT-VALUE})")
   private final Integer maxPeers = DEFAULT_MAX_PEERS;
 
+  @Option(
+      names = {"--p2p-worker-threads"},
+      paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Number of threads handling P2P connections, 0 for one per available processor"
+              + " (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer p2pWorkerThreads = DEFAULT_WORKER_THREADS;
+
+  @Option(
+      names = {"--p2p-native-transport-enabled"},
+      description =
+          "Use the native epoll transport for P2P connections if it is available, otherwise"
+              + " NIO (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean p2pNativeTransportEnabled = true;
+
   @Option(
       names = {"--banned-node-ids", "--banned-node-id"},
       paramLabel = MANDATORY_NODE_ID_FORMAT_HELP,
@@ -276,6 +308,49 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
           "Require authentication for the JSON-RPC HTTP service (default: ${DEFAULT-VALUE})")
   private final Boolean isRpcHttpAuthenticationEnabled = false;
 
+  @Option(
+      names = {"--rpc-http-threads"},
+      paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Number of threads executing JSON-RPC HTTP requests (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer rpcHttpThreads = JsonRpcConfiguration.DEFAULT_EXECUTION_THREADS;
+
+  @Option(
+      names = {"--rpc-http-max-queued-requests"},
+      paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Maximum number of JSON-RPC HTTP requests waiting for a thread, further requests are"
+              + " rejected until the queue drains (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer rpcHttpMaxQueuedRequests = JsonRpcConfiguration.DEFAULT_MAX_QUEUED_REQUESTS;
+
+  @Option(
+      names = {"--rpc-http-max-active-requests-per-connection"},
+      paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Maximum number of JSON-RPC HTTP requests from a single connection executing at once"
+              + " (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer rpcHttpMaxActiveRequestsPerConnection =
+      JsonRpcConfiguration.DEFAULT_MAX_ACTIVE_REQUESTS_PER_CONNECTION;
+
+  @Option(
+      names = {"--rpc-http-max-batch-size"},
+      paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Maximum number of requests in a JSON-RPC HTTP batch request (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer rpcHttpMaxBatchSize = JsonRpcConfiguration.DEFAULT_MAX_BATCH_SIZE;
+
+  @Option(
+      names = {"--rpc-debug-max-trace-size"},
+      paramLabel = MANDATORY_LONG_FORMAT_HELP,
+      description =
+          "Maximum estimated size in bytes of a debug trace result (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Long rpcDebugMaxTraceSize = JsonRpcMethodsFactory.DEFAULT_MAX_TRACE_SIZE_BYTES;
+
   @Option(
       names = {"--rpc-ws-enabled"},
       description = "Set to start the JSON-RPC WebSocket service (default: ${DEFAULT-VALUE})")
@@ -386,6 +461,25 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
       arity = "1")
   private String metricsPrometheusJob = "pantheon-client";
 
+  @Option(
+      names = {"--metrics-timer-type"},
+      paramLabel = MANDATORY_MODE_FORMAT_HELP,
+      description =
+          "Prometheus metric type recording timed operations, either SUMMARY quantiles or "
+              + "lower overhead HISTOGRAM buckets (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final TimerType metricsTimerType = TimerType.SUMMARY;
+
+  @Option(
+      names = {"--metrics-category", "--metrics-categories"},
+      paramLabel = "<category name>",
+      split = ",",
+      arity = "1..*",
+      description =
+          "Comma separated list of categories to track metrics for, other categories are not "
+              + "recorded (default: ${DEFAULT-VALUE})")
+  private final Set<MetricCategory> metricCategories = DEFAULT_METRIC_CATEGORIES;
+
   @Option(
       names = {"--host-whitelist"},
       paramLabel = "<hostname>[,<hostname>...]... or * or all",
@@ -462,6 +556,64 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
           "The address to which the privacy pre-compiled contract will be mapped to (default: ${DEFAULT-VALUE})")
   private final Integer privacyPrecompiledAddress = Address.PRIVACY;
 
+  @Option(
+      names = {"--rocksdb-cache-capacity"},
+      paramLabel = MANDATORY_LONG_FORMAT_HELP,
+      description =
+          "Size in bytes of the block cache shared by all RocksDB databases (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Long rocksDbCacheCapacity = RocksDbConfiguration.DEFAULT_BLOCK_CACHE_CAPACITY;
+
+  @Option(
+      names = {"--rocksdb-bloom-filter-bits-per-key"},
+      paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Bits per key of the RocksDB bloom filters, 0 to disable them (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer rocksDbBloomFilterBitsPerKey =
+      RocksDbConfiguration.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+
+  @Option(
+      names = {"--rocksdb-max-open-files"},
+      paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Maximum number of files RocksDB keeps open, -1 for no limit (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer rocksDbMaxOpenFiles = RocksDbConfiguration.DEFAULT_MAX_OPEN_FILES;
+
+  @Option(
+      names = {"--rocksdb-max-background-jobs"},
+      paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+      description =
+          "Maximum number of concurrent RocksDB flush and compaction jobs (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer rocksDbMaxBackgroundJobs = RocksDbConfiguration.DEFAULT_MAX_BACKGROUND_JOBS;
+
+  @Option(
+      names = {"--rocksdb-write-buffer-size"},
+      paramLabel = MANDATORY_LONG_FORMAT_HELP,
+      description = "Size in bytes of each RocksDB memtable (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Long rocksDbWriteBufferSize = RocksDbConfiguration.DEFAULT_WRITE_BUFFER_SIZE;
+
+  @Option(
+      names = {"--rocksdb-transaction-mode"},
+      paramLabel = MANDATORY_MODE_FORMAT_HELP,
+      description =
+          "How RocksDB storage transactions are applied, possible values are ${COMPLETION-CANDIDATES}."
+              + " WRITE_BATCH skips key locking (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final TransactionMode rocksDbTransactionMode =
+      RocksDbConfiguration.DEFAULT_TRANSACTION_MODE;
+
+  @Option(
+      names = {"--secp256k1-native-enabled"},
+      description =
+          "Use the native libsecp256k1 library for signatures if it is available, otherwise"
+              + " Bouncy Castle (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean nativeSecp256k1Enabled = true;
+
   public PantheonCommand(
       final Logger logger,
       final BlockImporter blockImporter,
@@ -521,6 +673,12 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
       Configurator.setAllLevels("", logLevel);
     }
 
+    if (nativeSecp256k1Enabled) {
+      SECP256K1.enableNative();
+    } else {
+      SECP256K1.disableNative();
+    }
+
     // Check that P2P options are able to work or send an error
     CommandLineUtils.checkOptionDependencies(
         logger,
@@ -531,6 +689,8 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
             "--bootnodes",
             "--discovery-enabled",
             "--max-peers",
+            "--p2p-worker-threads",
+            "--p2p-native-transport-enabled",
             "--banned-node-id",
             "--banned-node-ids"));
 
@@ -610,8 +770,9 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
               new MiningParameters(coinbase, minTransactionGasPrice, extraData, isMiningEnabled))
           .devMode(NetworkName.DEV.equals(getNetwork()))
           .nodePrivateKeyFile(nodePrivateKeyFile())
-          .metricsSystem(metricsSystem)
+          .metricsSystem(metricsSystem.get())
           .privacyParameters(privacyParameters())
+          .rocksDbConfiguration(buildRocksDbConfiguration())
           .build();
     } catch (final InvalidConfigurationException e) {
       throw new ExecutionException(this.commandLine, e.getMessage());
@@ -643,7 +804,11 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
             "--rpc-http-host",
             "--rpc-http-port",
             "--rpc-http-authentication-enabled",
-            "--rpc-http-authentication-credentials-file"));
+            "--rpc-http-authentication-credentials-file",
+            "--rpc-http-threads",
+            "--rpc-http-max-queued-requests",
+            "--rpc-http-max-active-requests-per-connection",
+            "--rpc-http-max-batch-size"));
 
     if (isRpcHttpAuthenticationEnabled && rpcHttpAuthenticationCredentialsFile() == null) {
       throw new ParameterException(
@@ -660,6 +825,10 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
     jsonRpcConfiguration.setHostsWhitelist(hostsWhitelist);
     jsonRpcConfiguration.setAuthenticationEnabled(isRpcHttpAuthenticationEnabled);
     jsonRpcConfiguration.setAuthenticationCredentialsFile(rpcHttpAuthenticationCredentialsFile());
+    jsonRpcConfiguration.setExecutionThreads(rpcHttpThreads);
+    jsonRpcConfiguration.setMaxQueuedRequests(rpcHttpMaxQueuedRequests);
+    jsonRpcConfiguration.setMaxActiveRequestsPerConnection(rpcHttpMaxActiveRequestsPerConnection);
+    jsonRpcConfiguration.setMaxBatchSize(rpcHttpMaxBatchSize);
     return jsonRpcConfiguration;
   }
 
@@ -698,6 +867,10 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   }
 
   MetricsConfiguration metricsConfiguration() {
+    return metricsConfiguration.get();
+  }
+
+  private MetricsConfiguration buildMetricsConfiguration() {
     if (isMetricsEnabled && isMetricsPushEnabled) {
       throw new ParameterException(
           this.commandLine,
@@ -733,6 +906,8 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
     metricsConfiguration.setPushInterval(metricsPushInterval);
     metricsConfiguration.setPrometheusJob(metricsPrometheusJob);
     metricsConfiguration.setHostsWhitelist(hostsWhitelist);
+    metricsConfiguration.setTimerType(metricsTimerType);
+    metricsConfiguration.setMetricCategories(metricCategories);
     return metricsConfiguration;
   }
 
@@ -783,6 +958,17 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
     return synchronizerConfigurationBuilder.build();
   }
 
+  private RocksDbConfiguration buildRocksDbConfiguration() {
+    return RocksDbConfiguration.builder()
+        .blockCacheCapacity(rocksDbCacheCapacity)
+        .bloomFilterBitsPerKey(rocksDbBloomFilterBitsPerKey)
+        .maxOpenFiles(rocksDbMaxOpenFiles)
+        .maxBackgroundJobs(rocksDbMaxBackgroundJobs)
+        .writeBufferSize(rocksDbWriteBufferSize)
+        .transactionMode(rocksDbTransactionMode)
+        .build();
+  }
+
   // Blockchain synchronisation from peers.
   private void synchronize(
       final PantheonController<?> controller,
@@ -811,11 +997,14 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
             .discoveryHost(discoveryHost)
             .discoveryPort(discoveryPort)
             .maxPeers(maxPeers)
+            .p2pWorkerThreads(p2pWorkerThreads)
+            .p2pNativeTransportEnabled(p2pNativeTransportEnabled)
             .jsonRpcConfiguration(jsonRpcConfiguration)
             .webSocketConfiguration(webSocketConfiguration)
+            .maxTraceSizeBytes(rpcDebugMaxTraceSize)
             .dataDir(dataDir())
             .bannedNodeIds(bannedNodeIds)
-            .metricsSystem(metricsSystem)
+            .metricsSystem(metricsSystem.get())
             .metricsConfiguration(metricsConfiguration)
             .build();
 
@@ -1013,6 +1202,6 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   }
 
   public MetricsSystem getMetricsSystem() {
-    return metricsSystem;
+    return metricsSystem.get();
   }
 }
@@ -24,6 +24,7 @@ import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
 import tech.pegasys.pantheon.ethereum.storage.keyvalue.RocksDbStorageProvider;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 
 import java.io.File;
 import java.io.IOException;
@@ -40,6 +41,7 @@ public class PantheonControllerBuilder {
   private File nodePrivateKeyFile;
   private MetricsSystem metricsSystem;
   private PrivacyParameters privacyParameters;
+  private RocksDbConfiguration rocksDbConfiguration = RocksDbConfiguration.builder().build();
 
   public PantheonControllerBuilder synchronizerConfiguration(
       final SynchronizerConfiguration synchronizerConfiguration) {
@@ -87,13 +89,20 @@ public class PantheonControllerBuilder {
     return this;
   }
 
+  public PantheonControllerBuilder rocksDbConfiguration(
+      final RocksDbConfiguration rocksDbConfiguration) {
+    this.rocksDbConfiguration = rocksDbConfiguration;
+    return this;
+  }
+
   public PantheonController<?> build() throws IOException {
     // instantiate a controller with mainnet config if no genesis file is defined
     // otherwise use the indicated genesis file
     final KeyPair nodeKeys = loadKeyPair(nodePrivateKeyFile);
 
     final StorageProvider storageProvider =
-        RocksDbStorageProvider.create(homePath.resolve(DATABASE_PATH), metricsSystem);
+        RocksDbStorageProvider.create(
+            homePath.resolve(DATABASE_PATH), rocksDbConfiguration, metricsSystem);
 
     final GenesisConfigFile genesisConfigFile;
     if (devMode) {
@@ -113,6 +122,7 @@ public class PantheonControllerBuilder {
         nodeKeys,
         metricsSystem,
         privacyParameters,
-        homePath);
+        homePath,
+        rocksDbConfiguration);
   }
 }
@@ -49,6 +49,7 @@ import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -97,6 +98,7 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
       final int networkId,
       final KeyPair nodeKeys,
       final Path dataDirectory,
+      final RocksDbConfiguration rocksDbConfiguration,
       final MetricsSystem metricsSystem) {
     final ProtocolSchedule<IbftContext> protocolSchedule =
         IbftProtocolSchedule.create(genesisConfig.getConfigOptions());
@@ -165,6 +167,7 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
             ethProtocolManager.ethContext(),
             syncState,
             dataDirectory,
+            rocksDbConfiguration,
             metricsSystem);
 
     final Runnable closer =
@@ -178,7 +181,7 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
 
     final TransactionPool transactionPool =
         TransactionPoolFactory.createTransactionPool(
-            protocolSchedule, protocolContext, ethProtocolManager.ethContext());
+            protocolSchedule, protocolContext, ethProtocolManager.ethContext(), metricsSystem);
 
     return new IbftLegacyPantheonController(
         protocolSchedule,
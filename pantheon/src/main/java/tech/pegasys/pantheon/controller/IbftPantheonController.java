@@ -72,6 +72,7 @@ import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 import tech.pegasys.pantheon.util.Subscribers;
 
 import java.io.IOException;
@@ -130,6 +131,7 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
       final int networkId,
       final KeyPair nodeKeys,
       final Path dataDirectory,
+      final RocksDbConfiguration rocksDbConfiguration,
       final MetricsSystem metricsSystem) {
     final ProtocolSchedule<IbftContext> protocolSchedule =
         IbftProtocolSchedule.create(genesisConfig.getConfigOptions());
@@ -183,10 +185,12 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
             ethProtocolManager.ethContext(),
             syncState,
             dataDirectory,
+            rocksDbConfiguration,
             metricsSystem);
 
     final TransactionPool transactionPool =
-        TransactionPoolFactory.createTransactionPool(protocolSchedule, protocolContext, ethContext);
+        TransactionPoolFactory.createTransactionPool(
+            protocolSchedule, protocolContext, ethContext, metricsSystem);
 
     final IbftEventQueue ibftEventQueue = new IbftEventQueue(ibftConfig.getMessageQueueLimit());
 
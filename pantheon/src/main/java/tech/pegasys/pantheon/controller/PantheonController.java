@@ -31,6 +31,7 @@ import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 
 import java.io.Closeable;
 import java.nio.file.Path;
@@ -51,7 +52,8 @@ public interface PantheonController<C> extends Closeable {
       final KeyPair nodeKeys,
       final MetricsSystem metricsSystem,
       final PrivacyParameters privacyParameters,
-      final Path dataDirectory) {
+      final Path dataDirectory,
+      final RocksDbConfiguration rocksDbConfiguration) {
 
     final GenesisConfigOptions configOptions = genesisConfigFile.getConfigOptions();
 
@@ -65,6 +67,7 @@ public interface PantheonController<C> extends Closeable {
           nodeKeys,
           privacyParameters,
           dataDirectory,
+          rocksDbConfiguration,
           metricsSystem);
     } else if (configOptions.isIbft2()) {
       return IbftPantheonController.init(
@@ -75,6 +78,7 @@ public interface PantheonController<C> extends Closeable {
           networkId,
           nodeKeys,
           dataDirectory,
+          rocksDbConfiguration,
           metricsSystem);
     } else if (configOptions.isIbftLegacy()) {
       return IbftLegacyPantheonController.init(
@@ -85,6 +89,7 @@ public interface PantheonController<C> extends Closeable {
           networkId,
           nodeKeys,
           dataDirectory,
+          rocksDbConfiguration,
           metricsSystem);
     } else if (configOptions.isClique()) {
       return CliquePantheonController.init(
@@ -95,6 +100,7 @@ public interface PantheonController<C> extends Closeable {
           networkId,
           nodeKeys,
           dataDirectory,
+          rocksDbConfiguration,
           metricsSystem);
     } else {
       throw new IllegalArgumentException("Unknown consensus mechanism defined");
@@ -25,6 +25,7 @@ import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
 import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
 import tech.pegasys.pantheon.ethereum.mainnet.PrecompiledContract;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -57,7 +58,8 @@ public class PrivacyTest {
                 SECP256K1.KeyPair.generate(),
                 new NoOpMetricsSystem(),
                 privacyParameters,
-                dataDir);
+                dataDir,
+                RocksDbConfiguration.builder().build());
 
     Address privacyContractAddress = Address.privacyPrecompiled(ADDRESS);
     PrecompiledContract precompiledContract =
@@ -41,6 +41,7 @@ import tech.pegasys.pantheon.ethereum.storage.keyvalue.RocksDbStorageProvider;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.metrics.prometheus.MetricsConfiguration;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.io.IOException;
@@ -106,6 +107,7 @@ public final class RunnerTest {
             aheadDbNodeKeys,
             PrivacyParameters.noPrivacy(),
             dataDirAhead,
+            RocksDbConfiguration.builder().build(),
             noOpMetricsSystem)) {
       setupState(blockCount, controller.getProtocolSchedule(), controller.getProtocolContext());
     }
@@ -121,6 +123,7 @@ public final class RunnerTest {
             aheadDbNodeKeys,
             PrivacyParameters.noPrivacy(),
             dataDirAhead,
+            RocksDbConfiguration.builder().build(),
             noOpMetricsSystem);
     final String listenHost = InetAddress.getLoopbackAddress().getHostAddress();
     final ExecutorService executorService = Executors.newFixedThreadPool(2);
@@ -174,6 +177,7 @@ public final class RunnerTest {
               KeyPair.generate(),
               PrivacyParameters.noPrivacy(),
               dataDirBehind,
+              RocksDbConfiguration.builder().build(),
               noOpMetricsSystem);
       final Runner runnerBehind =
           runnerBuilder
@@ -34,6 +34,7 @@ import static tech.pegasys.pantheon.ethereum.p2p.config.DiscoveryConfiguration.M
 
 import tech.pegasys.pantheon.PantheonInfo;
 import tech.pegasys.pantheon.config.GenesisConfigFile;
+import tech.pegasys.pantheon.crypto.SECP256K1;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
@@ -43,7 +44,11 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApi;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration;
 import tech.pegasys.pantheon.ethereum.permissioning.PermissioningConfiguration;
+import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.prometheus.MetricsConfiguration;
+import tech.pegasys.pantheon.metrics.prometheus.TimerType;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration.TransactionMode;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.File;
@@ -890,6 +895,30 @@ public class PantheonCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void p2pWorkerThreadsOptionMustBeUsed() {
+    parseCommand("--p2p-worker-threads", "8");
+
+    verify(mockRunnerBuilder).p2pWorkerThreads(intArgumentCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(intArgumentCaptor.getValue()).isEqualTo(8);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void p2pNativeTransportOptionMustBeUsed() {
+    parseCommand("--p2p-native-transport-enabled", "false");
+
+    verify(mockRunnerBuilder).p2pNativeTransportEnabled(eq(false));
+    verify(mockRunnerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Ignore("Ignored as we only have one mode available for now. See NC-1057/NC-1681")
   @Test
   public void syncModeOptionMustBeUsed() {
@@ -996,6 +1025,43 @@ public class PantheonCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void rpcHttpExecutionLimitOptionsMustBeUsed() {
+    parseCommand(
+        "--rpc-http-enabled",
+        "--rpc-http-threads",
+        "8",
+        "--rpc-http-max-queued-requests",
+        "500",
+        "--rpc-http-max-active-requests-per-connection",
+        "2",
+        "--rpc-http-max-batch-size",
+        "100");
+
+    verify(mockRunnerBuilder).jsonRpcConfiguration(jsonRpcConfigArgumentCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(jsonRpcConfigArgumentCaptor.getValue().getExecutionThreads()).isEqualTo(8);
+    assertThat(jsonRpcConfigArgumentCaptor.getValue().getMaxQueuedRequests()).isEqualTo(500);
+    assertThat(jsonRpcConfigArgumentCaptor.getValue().getMaxActiveRequestsPerConnection())
+        .isEqualTo(2);
+    assertThat(jsonRpcConfigArgumentCaptor.getValue().getMaxBatchSize()).isEqualTo(100);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void rpcDebugMaxTraceSizeOptionMustBeUsed() {
+    parseCommand("--rpc-debug-max-trace-size", "1000000");
+
+    verify(mockRunnerBuilder).maxTraceSizeBytes(1000000L);
+    verify(mockRunnerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Test
   public void rpcHttpHostMayBeLocalhost() {
 
@@ -1468,6 +1534,61 @@ public class PantheonCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void metricsTimerTypeDefaultIsSummary() {
+    parseCommand();
+
+    verify(mockRunnerBuilder).metricsConfiguration(metricsConfigArgumentCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(metricsConfigArgumentCaptor.getValue().getTimerType()).isEqualTo(TimerType.SUMMARY);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void metricsTimerTypeOptionMustBeUsed() {
+    parseCommand("--metrics-enabled", "--metrics-timer-type", "HISTOGRAM");
+
+    verify(mockRunnerBuilder).metricsConfiguration(metricsConfigArgumentCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(metricsConfigArgumentCaptor.getValue().getTimerType())
+        .isEqualTo(TimerType.HISTOGRAM);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void metricsCategoriesDefaultToAllCategories() {
+    parseCommand();
+
+    verify(mockRunnerBuilder).metricsConfiguration(metricsConfigArgumentCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(metricsConfigArgumentCaptor.getValue().getMetricCategories())
+        .containsExactlyInAnyOrder(MetricCategory.values());
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void metricsCategoryOptionMustBeUsed() {
+    parseCommand("--metrics-enabled", "--metrics-category", "RPC,SYNCHRONIZER");
+
+    verify(mockRunnerBuilder).metricsConfiguration(metricsConfigArgumentCaptor.capture());
+    verify(mockRunnerBuilder).build();
+
+    assertThat(metricsConfigArgumentCaptor.getValue().getMetricCategories())
+        .containsExactlyInAnyOrder(MetricCategory.RPC, MetricCategory.SYNCHRONIZER);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Test
   public void metricsPushOptionsRequiresPushToBeEnabled() {
     parseCommand(
@@ -1896,6 +2017,61 @@ public class PantheonCommandTest extends CommandTestAbstract {
     assertThat(enclaveArg.getValue().isEnabled()).isEqualTo(false);
   }
 
+  @Test
+  public void rocksDbOptionsMustBeUsed() throws IOException {
+    parseCommand(
+        "--rocksdb-cache-capacity",
+        "1073741824",
+        "--rocksdb-bloom-filter-bits-per-key",
+        "0",
+        "--rocksdb-max-open-files",
+        "-1",
+        "--rocksdb-max-background-jobs",
+        "16",
+        "--rocksdb-write-buffer-size",
+        "16777216",
+        "--rocksdb-transaction-mode",
+        "WRITE_BATCH");
+
+    final ArgumentCaptor<RocksDbConfiguration> rocksDbArg =
+        ArgumentCaptor.forClass(RocksDbConfiguration.class);
+
+    verify(mockControllerBuilder).rocksDbConfiguration(rocksDbArg.capture());
+    verify(mockControllerBuilder).build();
+
+    assertThat(rocksDbArg.getValue().getBlockCacheCapacity()).isEqualTo(1073741824L);
+    assertThat(rocksDbArg.getValue().getBloomFilterBitsPerKey()).isEqualTo(0);
+    assertThat(rocksDbArg.getValue().getMaxOpenFiles()).isEqualTo(-1);
+    assertThat(rocksDbArg.getValue().getMaxBackgroundJobs()).isEqualTo(16);
+    assertThat(rocksDbArg.getValue().getWriteBufferSize()).isEqualTo(16777216L);
+    assertThat(rocksDbArg.getValue().getTransactionMode()).isEqualTo(TransactionMode.WRITE_BATCH);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void nativeSecp256k1DisabledMustUseBouncyCastle() {
+    parseCommand("--secp256k1-native-enabled", "false");
+
+    verify(mockRunnerBuilder).build();
+
+    assertThat(SECP256K1.getSignatureEngineName()).isEqualTo("BouncyCastle");
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void rocksDbMaxBackgroundJobsWithZeroValueMustError() {
+    parseCommand("--rocksdb-max-background-jobs", "0");
+
+    verifyZeroInteractions(mockRunnerBuilder);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).startsWith("Max background jobs must be positive.");
+  }
+
   private Path createFakeGenesisFile(final JsonObject jsonGenesis) throws IOException {
     final Path genesisFile = Files.createTempFile("genesisFile", "");
     Files.write(genesisFile, encodeJsonGenesis(jsonGenesis).getBytes(UTF_8));
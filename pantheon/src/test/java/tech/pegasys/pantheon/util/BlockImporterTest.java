@@ -23,6 +23,7 @@ import tech.pegasys.pantheon.ethereum.core.MiningParametersTestBuilder;
 import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
 import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 import tech.pegasys.pantheon.testutil.BlockTestUtil;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
@@ -59,7 +60,8 @@ public final class BlockImporterTest {
             KeyPair.generate(),
             new NoOpMetricsSystem(),
             PrivacyParameters.noPrivacy(),
-            dataDir);
+            dataDir,
+            RocksDbConfiguration.builder().build());
     final BlockImporter.ImportResult result =
         blockImporter.importBlockchain(source, targetController);
     // Don't count the Genesis block
@@ -95,7 +97,8 @@ public final class BlockImporterTest {
             KeyPair.generate(),
             new NoOpMetricsSystem(),
             PrivacyParameters.noPrivacy(),
-            dataDir);
+            dataDir,
+            RocksDbConfiguration.builder().build());
     final BlockImporter.ImportResult result = blockImporter.importBlockchain(source, controller);
 
     // Don't count the Genesis block
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.StorageException;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration.TransactionMode;
+import tech.pegasys.pantheon.services.util.RocksDbUtil;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.rocksdb.AbstractNativeReference;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.TransactionDB;
+import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * A {@link SegmentedKeyValueStorage} which stores each segment in its own RocksDB column family,
+ * giving every segment an independent LSM tree with table options chosen from its {@link
+ * AccessPattern}.
+ */
+public class ColumnarRocksDbKeyValueStorage
+    implements SegmentedKeyValueStorage<ColumnFamilyHandle> {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final long POINT_LOOKUP_BLOCK_SIZE = 4 * 1024;
+  private static final long SEQUENTIAL_BLOCK_SIZE = 16 * 1024;
+
+  private final DBOptions options;
+  private final Statistics statistics;
+  private final BloomFilter bloomFilter;
+  // Only set when transactions are backed by a TransactionDB
+  private final TransactionDBOptions txOptions;
+  private final RocksDB db;
+  private final List<AbstractNativeReference> nativeResources = new ArrayList<>();
+  private final Map<String, ColumnFamilyHandle> columnHandlesByName = new HashMap<>();
+  private final List<ColumnFamilyHandle> columnHandles = new ArrayList<>();
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  private final OperationTimer readLatency;
+  private final OperationTimer removeLatency;
+  private final OperationTimer writeLatency;
+  private final OperationTimer commitLatency;
+  private final Counter rollbackCount;
+
+  public static ColumnarRocksDbKeyValueStorage create(
+      final Path storageDirectory,
+      final List<? extends Segment> segments,
+      final MetricsSystem metricsSystem)
+      throws StorageException {
+    return create(
+        storageDirectory, segments, RocksDbConfiguration.builder().build(), metricsSystem);
+  }
+
+  public static ColumnarRocksDbKeyValueStorage create(
+      final Path storageDirectory,
+      final List<? extends Segment> segments,
+      final RocksDbConfiguration rocksDbConfiguration,
+      final MetricsSystem metricsSystem)
+      throws StorageException {
+    return new ColumnarRocksDbKeyValueStorage(
+        storageDirectory, segments, rocksDbConfiguration, metricsSystem);
+  }
+
+  /**
+   * Checks whether the database in the given directory, if any, can be opened as a columnar store.
+   * Databases created by {@link RocksDbKeyValueStorage} only contain the default column family and
+   * must continue to be opened as a single keyspace.
+   *
+   * @param storageDirectory the database directory
+   * @return true if the directory holds no database yet or one with additional column families
+   */
+  public static boolean isColumnarDatabase(final Path storageDirectory) throws StorageException {
+    if (!Files.exists(storageDirectory.resolve("CURRENT"))) {
+      return true;
+    }
+    RocksDbUtil.loadNativeLibrary();
+    try (final Options options = new Options()) {
+      return RocksDB.listColumnFamilies(options, storageDirectory.toString()).size() > 1;
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  private ColumnarRocksDbKeyValueStorage(
+      final Path storageDirectory,
+      final List<? extends Segment> segments,
+      final RocksDbConfiguration rocksDbConfiguration,
+      final MetricsSystem metricsSystem) {
+    RocksDbUtil.loadNativeLibrary();
+    try {
+      bloomFilter = rocksDbConfiguration.createBloomFilter();
+      final List<ColumnFamilyDescriptor> columnDescriptors = new ArrayList<>();
+      final ColumnFamilyOptions defaultColumnOptions =
+          new ColumnFamilyOptions()
+              .setWriteBufferSize(rocksDbConfiguration.getWriteBufferSize())
+              .setTableFormatConfig(rocksDbConfiguration.createTableConfig(bloomFilter));
+      nativeResources.add(defaultColumnOptions);
+      columnDescriptors.add(
+          new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, defaultColumnOptions));
+      for (final Segment segment : segments) {
+        columnDescriptors.add(
+            new ColumnFamilyDescriptor(
+                segment.getName().getBytes(UTF_8),
+                columnOptions(segment.getAccessPattern(), rocksDbConfiguration)));
+      }
+
+      statistics = new Statistics();
+      options =
+          new DBOptions()
+              .setCreateIfMissing(true)
+              .setCreateMissingColumnFamilies(true)
+              .setMaxOpenFiles(rocksDbConfiguration.getMaxOpenFiles())
+              .setMaxBackgroundJobs(rocksDbConfiguration.getMaxBackgroundJobs())
+              .setStatistics(statistics);
+      if (rocksDbConfiguration.getTransactionMode() == TransactionMode.WRITE_BATCH) {
+        txOptions = null;
+        db = RocksDB.open(options, storageDirectory.toString(), columnDescriptors, columnHandles);
+      } else {
+        txOptions = new TransactionDBOptions();
+        db =
+            TransactionDB.open(
+                options, txOptions, storageDirectory.toString(), columnDescriptors, columnHandles);
+      }
+
+      // Handles are returned in the same order as the descriptors, starting with the default
+      for (int i = 0; i < segments.size(); i++) {
+        columnHandlesByName.put(segments.get(i).getName(), columnHandles.get(i + 1));
+      }
+
+      readLatency =
+          metricsSystem.createTimer(
+              MetricCategory.ROCKSDB, "read_latency_seconds", "Latency for read from RocksDB.");
+      removeLatency =
+          metricsSystem.createTimer(
+              MetricCategory.ROCKSDB,
+              "remove_latency_seconds",
+              "Latency of remove requests from RocksDB.");
+      writeLatency =
+          metricsSystem.createTimer(
+              MetricCategory.ROCKSDB, "write_latency_seconds", "Latency for write to RocksDB.");
+      commitLatency =
+          metricsSystem.createTimer(
+              MetricCategory.ROCKSDB, "commit_latency_seconds", "Latency for commits to RocksDB.");
+
+      rollbackCount =
+          metricsSystem.createCounter(
+              MetricCategory.ROCKSDB,
+              "rollback_count",
+              "Number of RocksDB transactions rolled back.");
+
+      RocksDbGauges.register(metricsSystem, statistics, db, closed::get);
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  private ColumnFamilyOptions columnOptions(
+      final AccessPattern accessPattern, final RocksDbConfiguration rocksDbConfiguration) {
+    final ColumnFamilyOptions columnOptions =
+        new ColumnFamilyOptions().setWriteBufferSize(rocksDbConfiguration.getWriteBufferSize());
+    nativeResources.add(columnOptions);
+
+    // Every column family shares the process-wide block cache so memory is bounded by the
+    // configured capacity rather than growing with the number of segments.
+    final BlockBasedTableConfig tableConfig = rocksDbConfiguration.createTableConfig(bloomFilter);
+
+    switch (accessPattern) {
+      case POINT_LOOKUP:
+        // Hash keys and values that are mostly hashes don't compress, keep blocks small so a
+        // lookup reads as little as possible.
+        tableConfig.setBlockSize(POINT_LOOKUP_BLOCK_SIZE);
+        columnOptions.setCompressionType(CompressionType.NO_COMPRESSION);
+        break;
+      case SEQUENTIAL:
+        tableConfig.setBlockSize(SEQUENTIAL_BLOCK_SIZE);
+        columnOptions.setCompressionType(CompressionType.LZ4_COMPRESSION);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown access pattern " + accessPattern);
+    }
+
+    return columnOptions
+        .setTableFormatConfig(tableConfig)
+        .setCompactionStyle(CompactionStyle.LEVEL)
+        .setLevelCompactionDynamicLevelBytes(true);
+  }
+
+  @Override
+  public ColumnFamilyHandle getSegmentIdentifierByName(final Segment segment) {
+    final ColumnFamilyHandle handle = columnHandlesByName.get(segment.getName());
+    if (handle == null) {
+      throw new IllegalArgumentException("Unknown segment " + segment.getName());
+    }
+    return handle;
+  }
+
+  @Override
+  public Optional<BytesValue> get(final ColumnFamilyHandle segment, final BytesValue key)
+      throws StorageException {
+    throwIfClosed();
+
+    try (final OperationTimer.TimingContext ignored = readLatency.startTimer()) {
+      return Optional.ofNullable(db.get(segment, key.extractArray())).map(BytesValue::wrap);
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public Transaction<ColumnFamilyHandle> startTransaction() throws StorageException {
+    throwIfClosed();
+    final WriteOptions options = new WriteOptions();
+    if (db instanceof TransactionDB) {
+      return new RocksDbTransaction(((TransactionDB) db).beginTransaction(options), options);
+    }
+    return new RocksDbWriteBatchTransaction(new WriteBatch(), options);
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      columnHandles.forEach(ColumnFamilyHandle::close);
+      db.close();
+      if (txOptions != null) {
+        txOptions.close();
+      }
+      options.close();
+      statistics.close();
+      nativeResources.forEach(AbstractNativeReference::close);
+      if (bloomFilter != null) {
+        bloomFilter.close();
+      }
+    }
+  }
+
+  private void throwIfClosed() {
+    if (closed.get()) {
+      LOG.error("Attempting to use a closed ColumnarRocksDbKeyValueStorage");
+      throw new IllegalStateException("Storage has been closed");
+    }
+  }
+
+  private class RocksDbTransaction extends AbstractTransaction<ColumnFamilyHandle> {
+    private final org.rocksdb.Transaction innerTx;
+    private final WriteOptions options;
+
+    RocksDbTransaction(final org.rocksdb.Transaction innerTx, final WriteOptions options) {
+      this.innerTx = innerTx;
+      this.options = options;
+    }
+
+    @Override
+    protected void doPut(
+        final ColumnFamilyHandle segment, final BytesValue key, final BytesValue value) {
+      try (final OperationTimer.TimingContext ignored = writeLatency.startTimer()) {
+        innerTx.put(segment, key.extractArray(), value.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doRemove(final ColumnFamilyHandle segment, final BytesValue key) {
+      try (final OperationTimer.TimingContext ignored = removeLatency.startTimer()) {
+        innerTx.delete(segment, key.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doCommit() throws StorageException {
+      try (final OperationTimer.TimingContext ignored = commitLatency.startTimer()) {
+        innerTx.commit();
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    protected void doRollback() {
+      try {
+        innerTx.rollback();
+        rollbackCount.inc();
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        close();
+      }
+    }
+
+    private void close() {
+      innerTx.close();
+      options.close();
+    }
+  }
+
+  /**
+   * Buffers updates in a {@link WriteBatch} which is written atomically on commit. Unlike {@link
+   * RocksDbTransaction} no key locks are taken.
+   */
+  private class RocksDbWriteBatchTransaction extends AbstractTransaction<ColumnFamilyHandle> {
+    private final WriteBatch writeBatch;
+    private final WriteOptions options;
+
+    RocksDbWriteBatchTransaction(final WriteBatch writeBatch, final WriteOptions options) {
+      this.writeBatch = writeBatch;
+      this.options = options;
+    }
+
+    @Override
+    protected void doPut(
+        final ColumnFamilyHandle segment, final BytesValue key, final BytesValue value) {
+      try (final OperationTimer.TimingContext ignored = writeLatency.startTimer()) {
+        writeBatch.put(segment, key.extractArray(), value.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doRemove(final ColumnFamilyHandle segment, final BytesValue key) {
+      try (final OperationTimer.TimingContext ignored = removeLatency.startTimer()) {
+        writeBatch.delete(segment, key.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doCommit() throws StorageException {
+      try (final OperationTimer.TimingContext ignored = commitLatency.startTimer()) {
+        db.write(options, writeBatch);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    protected void doRollback() {
+      rollbackCount.inc();
+      close();
+    }
+
+    private void close() {
+      writeBatch.close();
+      options.close();
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+
+import java.util.function.BooleanSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+
+/** Exposes block cache and memtable statistics of a RocksDB database as gauges. */
+final class RocksDbGauges {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final String MEMTABLE_SIZE_PROPERTY = "rocksdb.cur-size-all-mem-tables";
+
+  private RocksDbGauges() {}
+
+  static void register(
+      final MetricsSystem metricsSystem,
+      final Statistics statistics,
+      final RocksDB db,
+      final BooleanSupplier isClosed) {
+    metricsSystem.createLongGauge(
+        MetricCategory.ROCKSDB,
+        "block_cache_hit_count",
+        "Number of reads served from the RocksDB block cache.",
+        () -> isClosed.getAsBoolean() ? 0L : statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT));
+    metricsSystem.createLongGauge(
+        MetricCategory.ROCKSDB,
+        "block_cache_miss_count",
+        "Number of reads which missed the RocksDB block cache.",
+        () ->
+            isClosed.getAsBoolean() ? 0L : statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS));
+    metricsSystem.createLongGauge(
+        MetricCategory.ROCKSDB,
+        "memtable_size_bytes",
+        "Approximate size of the active and unflushed RocksDB memtables.",
+        () -> isClosed.getAsBoolean() ? 0L : memtableSize(db));
+  }
+
+  private static long memtableSize(final RocksDB db) {
+    try {
+      return db.getAggregatedLongProperty(MEMTABLE_SIZE_PROPERTY);
+    } catch (final RocksDBException e) {
+      LOG.debug("Unable to read RocksDB memtable size", e);
+      return 0L;
+    }
+  }
+}
@@ -16,6 +16,8 @@ import tech.pegasys.pantheon.metrics.Counter;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration.TransactionMode;
 import tech.pegasys.pantheon.services.util.RocksDbUtil;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -32,11 +34,15 @@ import java.util.stream.StreamSupport;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Statistics;
 import org.rocksdb.TransactionDB;
 import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
 public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
@@ -44,8 +50,11 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   private static final Logger LOG = LogManager.getLogger();
 
   private final Options options;
+  private final Statistics statistics;
+  private final BloomFilter bloomFilter;
+  // Only set when transactions are backed by a TransactionDB
   private final TransactionDBOptions txOptions;
-  private final TransactionDB db;
+  private final RocksDB db;
   private final AtomicBoolean closed = new AtomicBoolean(false);
 
   private final OperationTimer readLatency;
@@ -56,15 +65,40 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
 
   public static KeyValueStorage create(
       final Path storageDirectory, final MetricsSystem metricsSystem) throws StorageException {
-    return new RocksDbKeyValueStorage(storageDirectory, metricsSystem);
+    return create(storageDirectory, RocksDbConfiguration.builder().build(), metricsSystem);
   }
 
-  private RocksDbKeyValueStorage(final Path storageDirectory, final MetricsSystem metricsSystem) {
+  public static KeyValueStorage create(
+      final Path storageDirectory,
+      final RocksDbConfiguration rocksDbConfiguration,
+      final MetricsSystem metricsSystem)
+      throws StorageException {
+    return new RocksDbKeyValueStorage(storageDirectory, rocksDbConfiguration, metricsSystem);
+  }
+
+  private RocksDbKeyValueStorage(
+      final Path storageDirectory,
+      final RocksDbConfiguration rocksDbConfiguration,
+      final MetricsSystem metricsSystem) {
     RocksDbUtil.loadNativeLibrary();
     try {
-      options = new Options().setCreateIfMissing(true);
-      txOptions = new TransactionDBOptions();
-      db = TransactionDB.open(options, txOptions, storageDirectory.toString());
+      statistics = new Statistics();
+      bloomFilter = rocksDbConfiguration.createBloomFilter();
+      options =
+          new Options()
+              .setCreateIfMissing(true)
+              .setMaxOpenFiles(rocksDbConfiguration.getMaxOpenFiles())
+              .setMaxBackgroundJobs(rocksDbConfiguration.getMaxBackgroundJobs())
+              .setWriteBufferSize(rocksDbConfiguration.getWriteBufferSize())
+              .setTableFormatConfig(rocksDbConfiguration.createTableConfig(bloomFilter))
+              .setStatistics(statistics);
+      if (rocksDbConfiguration.getTransactionMode() == TransactionMode.WRITE_BATCH) {
+        txOptions = null;
+        db = RocksDB.open(options, storageDirectory.toString());
+      } else {
+        txOptions = new TransactionDBOptions();
+        db = TransactionDB.open(options, txOptions, storageDirectory.toString());
+      }
 
       readLatency =
           metricsSystem.createTimer(
@@ -86,6 +120,8 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
               MetricCategory.ROCKSDB,
               "rollback_count",
               "Number of RocksDB transactions rolled back.");
+
+      RocksDbGauges.register(metricsSystem, statistics, db, closed::get);
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
@@ -106,7 +142,10 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   public Transaction startTransaction() throws StorageException {
     throwIfClosed();
     final WriteOptions options = new WriteOptions();
-    return new RocksDbTransaction(db.beginTransaction(options), options);
+    if (db instanceof TransactionDB) {
+      return new RocksDbTransaction(((TransactionDB) db).beginTransaction(options), options);
+    }
+    return new RocksDbWriteBatchTransaction(new WriteBatch(), options);
   }
 
   @Override
@@ -120,9 +159,15 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
-      txOptions.close();
+      if (txOptions != null) {
+        txOptions.close();
+      }
       options.close();
       db.close();
+      statistics.close();
+      if (bloomFilter != null) {
+        bloomFilter.close();
+      }
     }
   }
 
@@ -243,4 +288,58 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
       options.close();
     }
   }
+
+  /**
+   * Buffers updates in a {@link WriteBatch} which is written atomically on commit. Unlike {@link
+   * RocksDbTransaction} no key locks are taken.
+   */
+  private class RocksDbWriteBatchTransaction extends AbstractTransaction {
+    private final WriteBatch writeBatch;
+    private final WriteOptions options;
+
+    RocksDbWriteBatchTransaction(final WriteBatch writeBatch, final WriteOptions options) {
+      this.writeBatch = writeBatch;
+      this.options = options;
+    }
+
+    @Override
+    protected void doPut(final BytesValue key, final BytesValue value) {
+      try (final OperationTimer.TimingContext ignored = writeLatency.startTimer()) {
+        writeBatch.put(key.extractArray(), value.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doRemove(final BytesValue key) {
+      try (final OperationTimer.TimingContext ignored = removeLatency.startTimer()) {
+        writeBatch.delete(key.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doCommit() throws StorageException {
+      try (final OperationTimer.TimingContext ignored = commitLatency.startTimer()) {
+        db.write(options, writeBatch);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    protected void doRollback() {
+      rollbackCount.inc();
+      close();
+    }
+
+    private void close() {
+      writeBatch.close();
+      options.close();
+    }
+  }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.AccessPattern;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.Segment;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.Transaction;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration.TransactionMode;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rocksdb.ColumnFamilyHandle;
+
+public class ColumnarRocksDbKeyValueStorageTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void segmentsAreIndependent() throws Exception {
+    final SegmentedKeyValueStorage<ColumnFamilyHandle> store =
+        createStore(folder.newFolder().toPath());
+    final ColumnFamilyHandle foo = store.getSegmentIdentifierByName(TestSegment.FOO);
+    final ColumnFamilyHandle bar = store.getSegmentIdentifierByName(TestSegment.BAR);
+
+    final Transaction<ColumnFamilyHandle> tx = store.startTransaction();
+    tx.put(foo, BytesValue.fromHexString("0001"), BytesValue.fromHexString("0FFF"));
+    tx.commit();
+
+    assertEquals(
+        Optional.of(BytesValue.fromHexString("0FFF")),
+        store.get(foo, BytesValue.fromHexString("0001")));
+    assertEquals(Optional.empty(), store.get(bar, BytesValue.fromHexString("0001")));
+    store.close();
+  }
+
+  @Test
+  public void transactionSpansSegments() throws Exception {
+    final SegmentedKeyValueStorage<ColumnFamilyHandle> store =
+        createStore(folder.newFolder().toPath());
+    final ColumnFamilyHandle foo = store.getSegmentIdentifierByName(TestSegment.FOO);
+    final ColumnFamilyHandle bar = store.getSegmentIdentifierByName(TestSegment.BAR);
+
+    Transaction<ColumnFamilyHandle> tx = store.startTransaction();
+    tx.put(foo, BytesValue.of(1), BytesValue.of(1));
+    tx.put(bar, BytesValue.of(2), BytesValue.of(2));
+    tx.rollback();
+    assertEquals(Optional.empty(), store.get(foo, BytesValue.of(1)));
+    assertEquals(Optional.empty(), store.get(bar, BytesValue.of(2)));
+
+    tx = store.startTransaction();
+    tx.put(foo, BytesValue.of(1), BytesValue.of(1));
+    tx.put(bar, BytesValue.of(2), BytesValue.of(2));
+    tx.commit();
+    assertEquals(Optional.of(BytesValue.of(1)), store.get(foo, BytesValue.of(1)));
+    assertEquals(Optional.of(BytesValue.of(2)), store.get(bar, BytesValue.of(2)));
+
+    tx = store.startTransaction();
+    tx.remove(foo, BytesValue.of(1));
+    tx.commit();
+    assertEquals(Optional.empty(), store.get(foo, BytesValue.of(1)));
+    assertEquals(Optional.of(BytesValue.of(2)), store.get(bar, BytesValue.of(2)));
+    store.close();
+  }
+
+  @Test
+  public void valuesArePersistedAcrossRestarts() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    SegmentedKeyValueStorage<ColumnFamilyHandle> store = createStore(directory);
+    final Transaction<ColumnFamilyHandle> tx = store.startTransaction();
+    tx.put(store.getSegmentIdentifierByName(TestSegment.BAR), BytesValue.of(1), BytesValue.of(2));
+    tx.commit();
+    store.close();
+
+    assertTrue(ColumnarRocksDbKeyValueStorage.isColumnarDatabase(directory));
+    store = createStore(directory);
+    assertEquals(
+        Optional.of(BytesValue.of(2)),
+        store.get(store.getSegmentIdentifierByName(TestSegment.BAR), BytesValue.of(1)));
+    store.close();
+  }
+
+  @Test
+  public void writeBatchTransactionsOpenExistingDatabase() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    SegmentedKeyValueStorage<ColumnFamilyHandle> store = createStore(directory);
+    Transaction<ColumnFamilyHandle> tx = store.startTransaction();
+    tx.put(store.getSegmentIdentifierByName(TestSegment.FOO), BytesValue.of(1), BytesValue.of(1));
+    tx.commit();
+    store.close();
+
+    store =
+        ColumnarRocksDbKeyValueStorage.create(
+            directory,
+            Arrays.asList(TestSegment.values()),
+            RocksDbConfiguration.builder().transactionMode(TransactionMode.WRITE_BATCH).build(),
+            new NoOpMetricsSystem());
+    final ColumnFamilyHandle foo = store.getSegmentIdentifierByName(TestSegment.FOO);
+    final ColumnFamilyHandle bar = store.getSegmentIdentifierByName(TestSegment.BAR);
+    assertEquals(Optional.of(BytesValue.of(1)), store.get(foo, BytesValue.of(1)));
+
+    tx = store.startTransaction();
+    tx.remove(foo, BytesValue.of(1));
+    tx.put(bar, BytesValue.of(2), BytesValue.of(2));
+    tx.rollback();
+    assertEquals(Optional.of(BytesValue.of(1)), store.get(foo, BytesValue.of(1)));
+    assertEquals(Optional.empty(), store.get(bar, BytesValue.of(2)));
+
+    tx = store.startTransaction();
+    tx.remove(foo, BytesValue.of(1));
+    tx.put(bar, BytesValue.of(2), BytesValue.of(2));
+    tx.commit();
+    assertEquals(Optional.empty(), store.get(foo, BytesValue.of(1)));
+    assertEquals(Optional.of(BytesValue.of(2)), store.get(bar, BytesValue.of(2)));
+    store.close();
+  }
+
+  @Test
+  public void singleKeyspaceDatabaseIsNotColumnar() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    assertTrue(ColumnarRocksDbKeyValueStorage.isColumnarDatabase(directory));
+
+    RocksDbKeyValueStorage.create(directory, new NoOpMetricsSystem()).close();
+    assertFalse(ColumnarRocksDbKeyValueStorage.isColumnarDatabase(directory));
+  }
+
+  private SegmentedKeyValueStorage<ColumnFamilyHandle> createStore(final Path directory) {
+    return ColumnarRocksDbKeyValueStorage.create(
+        directory, Arrays.asList(TestSegment.values()), new NoOpMetricsSystem());
+  }
+
+  private enum TestSegment implements Segment {
+    FOO(AccessPattern.POINT_LOOKUP),
+    BAR(AccessPattern.SEQUENTIAL);
+
+    private final AccessPattern accessPattern;
+
+    TestSegment(final AccessPattern accessPattern) {
+      this.accessPattern = accessPattern;
+    }
+
+    @Override
+    public String getName() {
+      return name();
+    }
+
+    @Override
+    public AccessPattern getAccessPattern() {
+      return accessPattern;
+    }
+  }
+}
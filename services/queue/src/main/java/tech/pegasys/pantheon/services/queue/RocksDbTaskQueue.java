@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.services.queue;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.services.util.RocksDbConfiguration;
 import tech.pegasys.pantheon.services.util.RocksDbUtil;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -55,12 +56,21 @@ public class RocksDbTaskQueue<T> implements TaskQueue<T> {
       final Path storageDirectory,
       final Function<T, BytesValue> serializer,
       final Function<BytesValue, T> deserializer,
+      final RocksDbConfiguration rocksDbConfiguration,
       final MetricsSystem metricsSystem) {
     this.serializer = serializer;
     this.deserializer = deserializer;
     try {
       RocksDbUtil.loadNativeLibrary();
-      options = new Options().setCreateIfMissing(true);
+      // Queue entries are only ever read back once in key order, so no bloom filter is needed but
+      // the block cache is shared with the main database to keep memory use bounded.
+      options =
+          new Options()
+              .setCreateIfMissing(true)
+              .setMaxOpenFiles(rocksDbConfiguration.getMaxOpenFiles())
+              .setMaxBackgroundJobs(rocksDbConfiguration.getMaxBackgroundJobs())
+              .setWriteBufferSize(rocksDbConfiguration.getWriteBufferSize())
+              .setTableFormatConfig(rocksDbConfiguration.createTableConfig(null));
       db = RocksDB.open(options, storageDirectory.toString());
 
       enqueueLatency =
@@ -83,7 +93,22 @@ public class RocksDbTaskQueue<T> implements TaskQueue<T> {
       final Function<T, BytesValue> serializer,
       final Function<BytesValue, T> deserializer,
       final MetricsSystem metricsSystem) {
-    return new RocksDbTaskQueue<>(storageDirectory, serializer, deserializer, metricsSystem);
+    return create(
+        storageDirectory,
+        serializer,
+        deserializer,
+        RocksDbConfiguration.builder().build(),
+        metricsSystem);
+  }
+
+  public static <T> RocksDbTaskQueue<T> create(
+      final Path storageDirectory,
+      final Function<T, BytesValue> serializer,
+      final Function<BytesValue, T> deserializer,
+      final RocksDbConfiguration rocksDbConfiguration,
+      final MetricsSystem metricsSystem) {
+    return new RocksDbTaskQueue<>(
+        storageDirectory, serializer, deserializer, rocksDbConfiguration, metricsSystem);
   }
 
   @Override
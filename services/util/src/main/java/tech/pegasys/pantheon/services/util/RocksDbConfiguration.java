@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.LRUCache;
+
+/**
+ * Tuning options shared by every RocksDB database a node opens. All databases created from the same
+ * configuration share a single block cache, so its capacity bounds the memory used for cached
+ * blocks across the whole node.
+ */
+public class RocksDbConfiguration {
+
+  public static final long DEFAULT_BLOCK_CACHE_CAPACITY = 128 * 1024 * 1024;
+  public static final int DEFAULT_BLOOM_FILTER_BITS_PER_KEY = 10;
+  public static final int DEFAULT_MAX_OPEN_FILES = 1024;
+  public static final int DEFAULT_MAX_BACKGROUND_JOBS = 4;
+  public static final long DEFAULT_WRITE_BUFFER_SIZE = 64 * 1024 * 1024;
+  public static final TransactionMode DEFAULT_TRANSACTION_MODE = TransactionMode.TRANSACTION_DB;
+
+  /** How storage transactions are applied to the database. */
+  public enum TransactionMode {
+    /** Each transaction is a pessimistic RocksDB transaction which locks the keys it writes. */
+    TRANSACTION_DB,
+    /**
+     * Each transaction buffers its updates in a write batch which is applied atomically on commit.
+     * No locks are taken, so concurrent transactions writing the same keys are not isolated from
+     * each other and the last one to commit wins.
+     */
+    WRITE_BATCH
+  }
+
+  private final long blockCacheCapacity;
+  private final int bloomFilterBitsPerKey;
+  private final int maxOpenFiles;
+  private final int maxBackgroundJobs;
+  private final long writeBufferSize;
+  private final TransactionMode transactionMode;
+  private final Supplier<Cache> blockCache;
+
+  private RocksDbConfiguration(
+      final long blockCacheCapacity,
+      final int bloomFilterBitsPerKey,
+      final int maxOpenFiles,
+      final int maxBackgroundJobs,
+      final long writeBufferSize,
+      final TransactionMode transactionMode) {
+    this.blockCacheCapacity = blockCacheCapacity;
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.maxOpenFiles = maxOpenFiles;
+    this.maxBackgroundJobs = maxBackgroundJobs;
+    this.writeBufferSize = writeBufferSize;
+    this.transactionMode = transactionMode;
+    // The cache lives for as long as the configuration, it must outlive every database using it
+    this.blockCache =
+        Suppliers.memoize(
+            () -> {
+              RocksDbUtil.loadNativeLibrary();
+              return new LRUCache(blockCacheCapacity);
+            });
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public long getBlockCacheCapacity() {
+    return blockCacheCapacity;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public int getMaxOpenFiles() {
+    return maxOpenFiles;
+  }
+
+  public int getMaxBackgroundJobs() {
+    return maxBackgroundJobs;
+  }
+
+  public long getWriteBufferSize() {
+    return writeBufferSize;
+  }
+
+  public TransactionMode getTransactionMode() {
+    return transactionMode;
+  }
+
+  public Cache getBlockCache() {
+    return blockCache.get();
+  }
+
+  /**
+   * Creates table options using the shared block cache. Index and filter blocks are stored in the
+   * cache so they count towards its capacity, with those of level 0 files pinned.
+   *
+   * @param bloomFilter the filter to use, which is owned by the caller, or null for no filter
+   * @return the table options
+   */
+  public BlockBasedTableConfig createTableConfig(final BloomFilter bloomFilter) {
+    final BlockBasedTableConfig tableConfig =
+        new BlockBasedTableConfig()
+            .setBlockCache(getBlockCache())
+            .setCacheIndexAndFilterBlocks(true)
+            .setPinL0FilterAndIndexBlocksInCache(true);
+    if (bloomFilter != null) {
+      tableConfig.setFilter(bloomFilter);
+    }
+    return tableConfig;
+  }
+
+  /**
+   * Creates the bloom filter configured for this node.
+   *
+   * @return a new filter which must be closed by the caller, or null if bloom filters are disabled
+   */
+  public BloomFilter createBloomFilter() {
+    return bloomFilterBitsPerKey > 0 ? new BloomFilter(bloomFilterBitsPerKey, false) : null;
+  }
+
+  @Override
+  public String toString() {
+    return "RocksDbConfiguration{"
+        + "blockCacheCapacity="
+        + blockCacheCapacity
+        + ", bloomFilterBitsPerKey="
+        + bloomFilterBitsPerKey
+        + ", maxOpenFiles="
+        + maxOpenFiles
+        + ", maxBackgroundJobs="
+        + maxBackgroundJobs
+        + ", writeBufferSize="
+        + writeBufferSize
+        + ", transactionMode="
+        + transactionMode
+        + '}';
+  }
+
+  public static class Builder {
+    private long blockCacheCapacity = DEFAULT_BLOCK_CACHE_CAPACITY;
+    private int bloomFilterBitsPerKey = DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+    private int maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
+    private int maxBackgroundJobs = DEFAULT_MAX_BACKGROUND_JOBS;
+    private long writeBufferSize = DEFAULT_WRITE_BUFFER_SIZE;
+    private TransactionMode transactionMode = DEFAULT_TRANSACTION_MODE;
+
+    public Builder blockCacheCapacity(final long blockCacheCapacity) {
+      checkArgument(blockCacheCapacity > 0, "Block cache capacity must be positive.");
+      this.blockCacheCapacity = blockCacheCapacity;
+      return this;
+    }
+
+    public Builder bloomFilterBitsPerKey(final int bloomFilterBitsPerKey) {
+      checkArgument(bloomFilterBitsPerKey >= 0, "Bloom filter bits per key must not be negative.");
+      this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+      return this;
+    }
+
+    public Builder maxOpenFiles(final int maxOpenFiles) {
+      checkArgument(
+          maxOpenFiles > 0 || maxOpenFiles == -1,
+          "Max open files must be positive, or -1 to keep all files open.");
+      this.maxOpenFiles = maxOpenFiles;
+      return this;
+    }
+
+    public Builder maxBackgroundJobs(final int maxBackgroundJobs) {
+      checkArgument(maxBackgroundJobs > 0, "Max background jobs must be positive.");
+      this.maxBackgroundJobs = maxBackgroundJobs;
+      return this;
+    }
+
+    public Builder writeBufferSize(final long writeBufferSize) {
+      checkArgument(writeBufferSize > 0, "Write buffer size must be positive.");
+      this.writeBufferSize = writeBufferSize;
+      return this;
+    }
+
+    public Builder transactionMode(final TransactionMode transactionMode) {
+      checkNotNull(transactionMode);
+      this.transactionMode = transactionMode;
+      return this;
+    }
+
+    public RocksDbConfiguration build() {
+      return new RocksDbConfiguration(
+          blockCacheCapacity,
+          bloomFilterBitsPerKey,
+          maxOpenFiles,
+          maxBackgroundJobs,
+          writeBufferSize,
+          transactionMode);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.util.uint;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the word arithmetic of {@link UInt256Bytes} with the equivalent {@link BigInteger}
+ * round-trips it replaces.
+ */
+@State(Scope.Thread)
+public class UInt256BytesBenchmark {
+
+  private static final BigInteger P256 = BigInteger.ONE.shiftLeft(256);
+  private static final Bytes32 POWER_OF_2 = UInt256Bytes.of(2);
+
+  private final MutableBytes32 result = MutableBytes32.create();
+  private Bytes32 v1;
+  private Bytes32 v2;
+  private Bytes32 modulo;
+
+  @Setup
+  public void prepare() {
+    final Random random = new Random(1);
+    v1 = UInt256Bytes.of(new BigInteger(256, random));
+    v2 = UInt256Bytes.of(new BigInteger(128, random));
+    modulo = UInt256Bytes.of(new BigInteger(200, random));
+  }
+
+  @Benchmark
+  public Bytes32 multiply() {
+    UInt256Bytes.multiply(v1, v2, result);
+    return result;
+  }
+
+  @Benchmark
+  public Bytes32 multiplyBigInteger() {
+    return toBytes(toBigInteger(v1).multiply(toBigInteger(v2)).mod(P256));
+  }
+
+  @Benchmark
+  public Bytes32 divide() {
+    UInt256Bytes.divide(v1, v2, result);
+    return result;
+  }
+
+  @Benchmark
+  public Bytes32 divideBigInteger() {
+    return toBytes(toBigInteger(v1).divide(toBigInteger(v2)));
+  }
+
+  @Benchmark
+  public Bytes32 modulo() {
+    UInt256Bytes.modulo(v1, v2, result);
+    return result;
+  }
+
+  @Benchmark
+  public Bytes32 moduloBigInteger() {
+    return toBytes(toBigInteger(v1).mod(toBigInteger(v2)));
+  }
+
+  @Benchmark
+  public Bytes32 multiplyModulo() {
+    UInt256Bytes.multiplyModulo(v1, v2, modulo, result);
+    return result;
+  }
+
+  @Benchmark
+  public Bytes32 multiplyModuloBigInteger() {
+    return toBytes(toBigInteger(v1).multiply(toBigInteger(v2)).mod(toBigInteger(modulo)));
+  }
+
+  @State(Scope.Thread)
+  public static class Exponent {
+
+    @Param({"8", "64", "256"})
+    public int bits;
+
+    private Bytes32 value;
+
+    @Setup
+    public void prepare() {
+      value = UInt256Bytes.of(new BigInteger(bits, new Random(2)).setBit(bits - 1));
+    }
+  }
+
+  @Benchmark
+  public Bytes32 exponent(final Exponent exponent) {
+    UInt256Bytes.exponent(v1, exponent.value, result);
+    return result;
+  }
+
+  @Benchmark
+  public Bytes32 exponentPowerOf2(final Exponent exponent) {
+    UInt256Bytes.exponent(POWER_OF_2, exponent.value, result);
+    return result;
+  }
+
+  @Benchmark
+  public Bytes32 exponentPowerOf2BigInteger(final Exponent exponent) {
+    return toBytes(toBigInteger(POWER_OF_2).modPow(toBigInteger(exponent.value), P256));
+  }
+
+  @Benchmark
+  public Bytes32 exponentBigInteger(final Exponent exponent) {
+    return toBytes(toBigInteger(v1).modPow(toBigInteger(exponent.value), P256));
+  }
+
+  @Benchmark
+  public Bytes32 signedDivide() {
+    Int256Bytes.divide(v1, v2, result);
+    return result;
+  }
+
+  private static BigInteger toBigInteger(final Bytes32 v) {
+    return BytesValues.asUnsignedBigInteger(v);
+  }
+
+  private static Bytes32 toBytes(final BigInteger v) {
+    return UInt256Bytes.of(v);
+  }
+}
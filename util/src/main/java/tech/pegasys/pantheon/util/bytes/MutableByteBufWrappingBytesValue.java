@@ -60,6 +60,13 @@ class MutableByteBufWrappingBytesValue extends AbstractBytesValue implements Mut
     buffer.setByte(offset + i, b);
   }
 
+  @Override
+  public byte[] extractArray() {
+    final byte[] array = new byte[size];
+    buffer.getBytes(offset, array);
+    return array;
+  }
+
   @Override
   public MutableBytesValue mutableSlice(final int index, final int length) {
     if (index == 0 && length == size) {
@@ -13,13 +13,8 @@
 package tech.pegasys.pantheon.util.uint;
 
 import tech.pegasys.pantheon.util.bytes.Bytes32;
-import tech.pegasys.pantheon.util.bytes.BytesValue;
-import tech.pegasys.pantheon.util.bytes.BytesValues;
 import tech.pegasys.pantheon.util.bytes.MutableBytes32;
 
-import java.math.BigInteger;
-import java.util.function.BinaryOperator;
-
 /**
  * Static operations to work on bytes interpreted as 256 bytes signed integers.
  *
@@ -33,23 +28,15 @@ abstract class Int256Bytes {
 
   private Int256Bytes() {}
 
-  private static final byte ALL_ZERO_BYTE = (byte) 0x00;
-  private static final byte ALL_ONE_BYTE = (byte) 0xFF;
-
-  private static void copy(final BigInteger result, final MutableBytes32 destination) {
-    final byte padding = result.signum() < 0 ? ALL_ONE_BYTE : ALL_ZERO_BYTE;
-    UInt256Bytes.copyPadded(BytesValue.wrap(result.toByteArray()), destination, padding);
-  }
-
-  private static void doOnSignedBigInteger(
-      final Bytes32 v1,
-      final Bytes32 v2,
-      final MutableBytes32 dest,
-      final BinaryOperator<BigInteger> operator) {
-    final BigInteger i1 = BytesValues.asSignedBigInteger(v1);
-    final BigInteger i2 = BytesValues.asSignedBigInteger(v2);
-    final BigInteger result = operator.apply(i1, i2);
-    copy(result, dest);
+  // Sets result to the absolute value of v and returns whether v was negative.
+  private static boolean abs(final Bytes32 v, final MutableBytes32 result) {
+    final boolean negative = v.get(0) < 0;
+    if (negative) {
+      UInt256Bytes.negateSigned(v, result);
+    } else {
+      v.copyTo(result);
+    }
+    return negative;
   }
 
   // Tests if this value represents -2^255, that is the first byte is 1 followed by only 0. Used to
@@ -72,7 +59,14 @@ abstract class Int256Bytes {
       result.clear();
       result.set(0, (byte) 0x80);
     } else {
-      doOnSignedBigInteger(v1, v2, result, BigInteger::divide);
+      // Divide the absolute values as unsigned words, the quotient is truncated towards zero.
+      final MutableBytes32 divisor = MutableBytes32.create();
+      final boolean negativeDivisor = abs(v2, divisor);
+      final boolean negative = abs(v1, result) ^ negativeDivisor;
+      UInt256Bytes.divide(result, divisor, result);
+      if (negative) {
+        UInt256Bytes.negateSigned(result, result);
+      }
     }
   }
 
@@ -80,14 +74,14 @@ abstract class Int256Bytes {
     if (v2.isZero()) {
       result.clear();
     } else {
-      doOnSignedBigInteger(
-          v1,
-          v2,
-          result,
-          (val, mod) -> {
-            final BigInteger absModulo = val.abs().mod(mod.abs());
-            return val.signum() < 0 ? absModulo.negate() : absModulo;
-          });
+      // The remainder takes the sign of the dividend.
+      final MutableBytes32 divisor = MutableBytes32.create();
+      abs(v2, divisor);
+      final boolean negative = abs(v1, result);
+      UInt256Bytes.modulo(result, divisor, result);
+      if (negative) {
+        UInt256Bytes.negateSigned(result, result);
+      }
     }
   }
 }
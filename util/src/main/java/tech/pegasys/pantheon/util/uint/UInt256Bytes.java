@@ -21,7 +21,6 @@ import tech.pegasys.pantheon.util.bytes.BytesValues;
 import tech.pegasys.pantheon.util.bytes.MutableBytes32;
 
 import java.math.BigInteger;
-import java.util.function.BinaryOperator;
 
 import com.google.common.annotations.VisibleForTesting;
 
@@ -61,6 +60,9 @@ public abstract class UInt256Bytes {
   /** The number of ints a word contains. */
   private static final int INT_SIZE = 32 / 4;
 
+  /** The number of 32 bits digits of a word, when working on little-endian int arrays. */
+  private static final int DIGITS = INT_SIZE;
+
   private static final byte ALL_ZERO_BYTE = (byte) 0x00;
   private static final byte ALL_ONE_BYTE = (byte) 0xFF;
 
@@ -83,38 +85,6 @@ public abstract class UInt256Bytes {
     }
   }
 
-  private static void copy(final BigInteger result, final MutableBytes32 destination) {
-    copyPadded(BytesValue.wrap(result.toByteArray()), destination, ALL_ZERO_BYTE);
-  }
-
-  private interface TriOperator<T> {
-    T apply(T op1, T op2, T op3);
-  }
-
-  private static void doOnBigInteger(
-      final Bytes32 v1,
-      final Bytes32 v2,
-      final MutableBytes32 dest,
-      final BinaryOperator<BigInteger> operator) {
-    final BigInteger i1 = BytesValues.asUnsignedBigInteger(v1);
-    final BigInteger i2 = BytesValues.asUnsignedBigInteger(v2);
-    final BigInteger result = operator.apply(i1, i2);
-    copy(result, dest);
-  }
-
-  private static void doOnBigInteger(
-      final Bytes32 v1,
-      final Bytes32 v2,
-      final Bytes32 v3,
-      final MutableBytes32 dest,
-      final TriOperator<BigInteger> operator) {
-    final BigInteger i1 = BytesValues.asUnsignedBigInteger(v1);
-    final BigInteger i2 = BytesValues.asUnsignedBigInteger(v2);
-    final BigInteger i3 = BytesValues.asUnsignedBigInteger(v3);
-    final BigInteger result = operator.apply(i1, i2, i3);
-    copy(result, dest);
-  }
-
   public static void add(final Bytes32 v1, final Bytes32 v2, final MutableBytes32 result) {
     long carry = 0;
 
@@ -147,7 +117,17 @@ public abstract class UInt256Bytes {
     if (modulo.isZero()) {
       result.clear();
     } else {
-      doOnBigInteger(v1, v2, modulo, result, (op1, op2, mod) -> op1.add(op2).mod(mod));
+      final int[] a = toDigits(v1, DIGITS + 1);
+      final int[] b = toDigits(v2, DIGITS);
+      long carry = 0;
+      for (int i = 0; i < DIGITS; i++) {
+        final long sum = (a[i] & LONG_MASK) + (b[i] & LONG_MASK) + carry;
+        a[i] = (int) sum;
+        carry = sum >>> 32;
+      }
+      // The sum can be one bit wider than a word.
+      a[DIGITS] = (int) carry;
+      fromDigits(remainder(a, toDigits(modulo, DIGITS)), result);
     }
   }
 
@@ -217,7 +197,7 @@ public abstract class UInt256Bytes {
     }
   }
 
-  private static void negateSigned(final Bytes32 v, final MutableBytes32 result) {
+  static void negateSigned(final Bytes32 v, final MutableBytes32 result) {
     Bytes32s.not(v, result);
     add(result, UInt256.ONE.getBytes(), result);
   }
@@ -227,7 +207,7 @@ public abstract class UInt256Bytes {
   }
 
   public static void multiply(final Bytes32 v1, final Bytes32 v2, final MutableBytes32 result) {
-    doOnBigInteger(v1, v2, result, BigInteger::multiply);
+    fromDigits(multiply(toDigits(v1, DIGITS), toDigits(v2, DIGITS), DIGITS), result);
   }
 
   public static void multiply(final Bytes32 v1, final long v2, final MutableBytes32 result) {
@@ -237,12 +217,12 @@ public abstract class UInt256Bytes {
       final int shifts = log2(v2);
       // We have to be careful with overflowing operation.
       if (bitLength(v1) >= SIZE - 1 - shifts) {
-        doOnBigInteger(v1, of(v2), result, BigInteger::multiply);
+        multiply(v1, of(v2), result);
       } else {
         shiftLeft(v1, shifts, result);
       }
     } else {
-      doOnBigInteger(v1, of(v2), result, BigInteger::multiply);
+      multiply(v1, of(v2), result);
     }
   }
 
@@ -251,7 +231,8 @@ public abstract class UInt256Bytes {
     if (modulo.isZero()) {
       result.clear();
     } else {
-      doOnBigInteger(v1, v2, modulo, result, (op1, op2, mod) -> op1.multiply(op2).mod(mod));
+      final int[] product = multiply(toDigits(v1, DIGITS), toDigits(v2, DIGITS), 2 * DIGITS);
+      fromDigits(remainder(product, toDigits(modulo, DIGITS)), result);
     }
   }
 
@@ -259,7 +240,9 @@ public abstract class UInt256Bytes {
     if (v2.isZero()) {
       result.clear();
     } else {
-      doOnBigInteger(v1, v2, result, BigInteger::divide);
+      final int[] quotient = new int[DIGITS];
+      divide(toDigits(v1, DIGITS), toDigits(v2, DIGITS), quotient);
+      fromDigits(quotient, result);
     }
   }
 
@@ -308,19 +291,36 @@ public abstract class UInt256Bytes {
     } else if (v2 > 0 && isPowerOf2(v2)) {
       shiftRight(v1, log2(v2), result);
     } else {
-      doOnBigInteger(v1, of(v2), result, BigInteger::divide);
+      divide(v1, of(v2), result);
     }
   }
 
   public static void exponent(final Bytes32 v1, final Bytes32 v2, final MutableBytes32 result) {
-    doOnBigInteger(v1, v2, result, (val, pow) -> val.modPow(pow, P256));
+    if (bitCount(v1) == 1) {
+      // Powers of 2, like the frequent 2**n, only need a shift.
+      final long shifts =
+          (long) (bitLength(v1) - 1) * (fitsInt(v2) ? v2.getInt(SIZE - 4) : SIZE * 8);
+      if (v2.isZero() || shifts == 0) {
+        of(1).copyTo(result);
+      } else if (shifts < SIZE * 8) {
+        shiftLeft(of(1), (int) shifts, result);
+      } else {
+        result.clear();
+      }
+    } else {
+      // Left to BigInteger, whose intrinsified multiplications make long chains of squarings faster
+      // than the digit arithmetic below.
+      final BigInteger power =
+          BytesValues.asUnsignedBigInteger(v1).modPow(BytesValues.asUnsignedBigInteger(v2), P256);
+      copyPadded(BytesValue.wrap(power.toByteArray()), result, ALL_ZERO_BYTE);
+    }
   }
 
   public static void modulo(final Bytes32 v1, final Bytes32 v2, final MutableBytes32 result) {
     if (v2.isZero()) {
       result.clear();
     } else {
-      doOnBigInteger(v1, v2, result, BigInteger::mod);
+      fromDigits(remainder(toDigits(v1, DIGITS), toDigits(v2, DIGITS)), result);
     }
   }
 
@@ -340,7 +340,7 @@ public abstract class UInt256Bytes {
         result.set(SIZE - 1 - i, (byte) 0);
       }
     } else {
-      doOnBigInteger(v1, of(v2), result, BigInteger::mod);
+      modulo(v1, of(v2), result);
     }
   }
 
@@ -359,6 +359,179 @@ public abstract class UInt256Bytes {
     v1.slice(byteIndex).copyTo(result, byteIndex);
   }
 
+  // Arithmetic on little-endian arrays of 32 bits digits, held in longs while computing. This
+  // avoids
+  // converting words to and from BigInteger for every operation.
+
+  private static int[] toDigits(final Bytes32 v, final int length) {
+    // Reading from the (possibly shared) backing array is much cheaper than going through getInt().
+    final byte[] bytes = v.getArrayUnsafe();
+    final int[] digits = new int[length];
+    for (int i = 0; i < DIGITS; i++) {
+      final int offset = SIZE - 4 * (i + 1);
+      digits[i] =
+          (bytes[offset] << 24)
+              | ((bytes[offset + 1] & 0xFF) << 16)
+              | ((bytes[offset + 2] & 0xFF) << 8)
+              | (bytes[offset + 3] & 0xFF);
+    }
+    return digits;
+  }
+
+  // Writes the lowest 256 bits of the provided digits.
+  private static void fromDigits(final int[] digits, final MutableBytes32 result) {
+    final byte[] bytes = new byte[SIZE];
+    for (int i = 0; i < Math.min(DIGITS, digits.length); i++) {
+      final int offset = SIZE - 4 * (i + 1);
+      final int digit = digits[i];
+      bytes[offset] = (byte) (digit >>> 24);
+      bytes[offset + 1] = (byte) (digit >>> 16);
+      bytes[offset + 2] = (byte) (digit >>> 8);
+      bytes[offset + 3] = (byte) digit;
+    }
+    Bytes32.wrap(bytes).copyTo(result);
+  }
+
+  private static int significantDigits(final int[] digits) {
+    int n = digits.length;
+    while (n > 0 && digits[n - 1] == 0) {
+      n--;
+    }
+    return n;
+  }
+
+  // Multiplies a and b, truncating the product to the provided number of digits. The product is
+  // computed column by column, so that each of its digits is only written once.
+  private static int[] multiply(final int[] a, final int[] b, final int length) {
+    final int[] product = new int[length];
+    final int aLength = significantDigits(a);
+    final int bLength = significantDigits(b);
+    long carry = 0;
+    for (int k = 0; k < length; k++) {
+      long low = carry;
+      long high = 0;
+      for (int i = Math.max(0, k - bLength + 1); i <= k && i < aLength; i++) {
+        final long p = (a[i] & LONG_MASK) * (b[k - i] & LONG_MASK);
+        low += p & LONG_MASK;
+        high += p >>> 32;
+      }
+      product[k] = (int) low;
+      carry = (low >>> 32) + high;
+    }
+    return product;
+  }
+
+  // Long.divideUnsigned goes through BigInteger for negative dividends before Java 17. This only
+  // needs to handle divisors that fit 32 bits, so it can halve the dividend and correct the result.
+  private static long divideUnsigned(final long dividend, final long divisor) {
+    if (dividend >= 0) {
+      return dividend / divisor;
+    }
+    final long quotient = ((dividend >>> 1) / divisor) << 1;
+    final long remainder = dividend - quotient * divisor;
+    return Long.compareUnsigned(remainder, divisor) >= 0 ? quotient + 1 : quotient;
+  }
+
+  private static int[] remainder(final int[] u, final int[] v) {
+    return divide(u, v, null);
+  }
+
+  /**
+   * Divides u by v (which must not be zero) using Knuth's algorithm D (TAOCP vol. 2, 4.3.1).
+   *
+   * @param u the dividend digits
+   * @param v the divisor digits
+   * @param quotient if not {@code null}, receives the lowest digits of the quotient
+   * @return the remainder digits, of the same length than v
+   */
+  private static int[] divide(final int[] u, final int[] v, final int[] quotient) {
+    final int m = significantDigits(u);
+    final int n = significantDigits(v);
+    final int[] remainder = new int[v.length];
+
+    if (m < n) {
+      System.arraycopy(u, 0, remainder, 0, m);
+      return remainder;
+    }
+
+    if (n == 1) {
+      final long divisor = v[0] & LONG_MASK;
+      long rem = 0;
+      for (int j = m - 1; j >= 0; j--) {
+        final long dividend = (rem << 32) | (u[j] & LONG_MASK);
+        final long q = divideUnsigned(dividend, divisor);
+        if (quotient != null && j < quotient.length) {
+          quotient[j] = (int) q;
+        }
+        rem = dividend - q * divisor;
+      }
+      remainder[0] = (int) rem;
+      return remainder;
+    }
+
+    // Normalize so that the top digit of the divisor has its high bit set.
+    final int s = Integer.numberOfLeadingZeros(v[n - 1]);
+    final int[] vn = new int[n];
+    for (int i = n - 1; i > 0; i--) {
+      vn[i] = (v[i] << s) | (int) ((v[i - 1] & LONG_MASK) >>> (32 - s));
+    }
+    vn[0] = v[0] << s;
+    final int[] un = new int[m + 1];
+    un[m] = (int) ((u[m - 1] & LONG_MASK) >>> (32 - s));
+    for (int i = m - 1; i > 0; i--) {
+      un[i] = (u[i] << s) | (int) ((u[i - 1] & LONG_MASK) >>> (32 - s));
+    }
+    un[0] = u[0] << s;
+
+    final long vTop = vn[n - 1] & LONG_MASK;
+    final long vNext = vn[n - 2] & LONG_MASK;
+    for (int j = m - n; j >= 0; j--) {
+      // Estimate the quotient digit from the top two digits, then correct it.
+      final long dividend = ((un[j + n] & LONG_MASK) << 32) | (un[j + n - 1] & LONG_MASK);
+      long qhat = divideUnsigned(dividend, vTop);
+      long rhat = dividend - qhat * vTop;
+      while (qhat > LONG_MASK
+          || Long.compareUnsigned(qhat * vNext, (rhat << 32) | (un[j + n - 2] & LONG_MASK)) > 0) {
+        qhat--;
+        rhat += vTop;
+        if (rhat > LONG_MASK) break;
+      }
+
+      // Multiply and subtract.
+      long borrow = 0;
+      long t;
+      for (int i = 0; i < n; i++) {
+        final long p = qhat * (vn[i] & LONG_MASK);
+        t = (un[i + j] & LONG_MASK) - borrow - (p & LONG_MASK);
+        un[i + j] = (int) t;
+        borrow = (p >>> 32) - (t >> 32);
+      }
+      t = (un[j + n] & LONG_MASK) - borrow;
+      un[j + n] = (int) t;
+
+      // The estimate was one too large: add the divisor back.
+      if (t < 0) {
+        qhat--;
+        long carry = 0;
+        for (int i = 0; i < n; i++) {
+          t = (un[i + j] & LONG_MASK) + (vn[i] & LONG_MASK) + carry;
+          un[i + j] = (int) t;
+          carry = t >>> 32;
+        }
+        un[j + n] += (int) carry;
+      }
+      if (quotient != null && j < quotient.length) {
+        quotient[j] = (int) qhat;
+      }
+    }
+
+    // Unnormalize the remainder.
+    for (int i = 0; i < n; i++) {
+      remainder[i] = (int) ((un[i] & LONG_MASK) >>> s) | (int) ((long) un[i + 1] << (32 - s));
+    }
+    return remainder;
+  }
+
   // Other operations
 
   public static Bytes32 of(final long v) {
@@ -418,6 +591,14 @@ public abstract class UInt256Bytes {
     return 0;
   }
 
+  private static int bitCount(final Bytes32 bytes) {
+    int count = 0;
+    for (int i = 0; i < SIZE; i++) {
+      count += Integer.bitCount(bytes.get(i) & 0xFF);
+    }
+    return count;
+  }
+
   static int compareUnsigned(final Bytes32 v1, final Bytes32 v2) {
     for (int i = 0; i < SIZE; i++) {
       final int cmp = Integer.compare((v1.get(i)) & 0xFF, (v2.get(i)) & 0xFF);
@@ -20,6 +20,7 @@ import tech.pegasys.pantheon.util.uint.UInt256Bytes.BinaryLongOp;
 import tech.pegasys.pantheon.util.uint.UInt256Bytes.BinaryOp;
 
 import java.math.BigInteger;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -137,6 +138,61 @@ public class UInt256BytesTest {
         h("13492324908428420834234908342"), 131072, h("1768466010397529975584837906202624"));
   }
 
+  @Test
+  public void arithmeticMatchesBigInteger() {
+    final BigInteger p256 = BigInteger.ONE.shiftLeft(256);
+    final BigInteger p255 = BigInteger.ONE.shiftLeft(255);
+    final Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      // Vary the sizes of the operands so that every division branch is exercised.
+      final BigInteger a = new BigInteger(1 + random.nextInt(256), random);
+      final BigInteger b = new BigInteger(1 + random.nextInt(256), random).add(BigInteger.ONE);
+      final BigInteger m = new BigInteger(1 + random.nextInt(256), random).add(BigInteger.ONE);
+      final Bytes32 va = UInt256Bytes.of(a);
+      final Bytes32 vb = UInt256Bytes.of(b.mod(p256));
+      final Bytes32 vm = UInt256Bytes.of(m.mod(p256));
+      if (vb.isZero() || vm.isZero()) continue;
+      final BigInteger bb = b.mod(p256);
+      final BigInteger mm = m.mod(p256);
+
+      op(UInt256Bytes::multiply, va, vb, UInt256Bytes.of(a.multiply(bb).mod(p256)));
+      op(UInt256Bytes::divide, va, vb, UInt256Bytes.of(a.divide(bb)));
+      op(UInt256Bytes::modulo, va, vb, UInt256Bytes.of(a.mod(bb)));
+      op(UInt256Bytes::exponent, va, vm, UInt256Bytes.of(a.modPow(mm, p256)));
+
+      final MutableBytes32 result = MutableBytes32.create();
+      UInt256Bytes.addModulo(va, vb, vm, result);
+      assertEquals(UInt256Bytes.of(a.add(bb).mod(mm)), result, false);
+      UInt256Bytes.multiplyModulo(va, vb, vm, result);
+      assertEquals(UInt256Bytes.of(a.multiply(bb).mod(mm)), result, false);
+
+      final BigInteger sa = a.testBit(255) ? a.subtract(p256) : a;
+      final BigInteger sb = bb.testBit(255) ? bb.subtract(p256) : bb;
+      Int256Bytes.divide(va, vb, result);
+      assertEquals(UInt256Bytes.of(sa.divide(sb).mod(p256)), result, true);
+      Int256Bytes.mod(va, vb, result);
+      final BigInteger smod = sa.abs().mod(sb.abs());
+      assertEquals(
+          UInt256Bytes.of((sa.signum() < 0 ? smod.negate() : smod).mod(p256)), result, true);
+    }
+
+    for (int shift = 0; shift < 256; shift += 5) {
+      final BigInteger base = BigInteger.ONE.shiftLeft(shift);
+      for (final long exponent : new long[] {0, 1, 2, 3, 51, 256, Long.MAX_VALUE}) {
+        op(
+            UInt256Bytes::exponent,
+            UInt256Bytes.of(base),
+            UInt256Bytes.of(exponent),
+            UInt256Bytes.of(base.modPow(BigInteger.valueOf(exponent), p256)));
+      }
+    }
+
+    // Dividing -2^255 by -1 overflows back to -2^255.
+    final MutableBytes32 result = MutableBytes32.create();
+    Int256Bytes.divide(UInt256Bytes.of(p255), Int256.MINUS_ONE.getBytes(), result);
+    assertEquals(UInt256Bytes.of(p255), result, true);
+  }
+
   @Test
   public void add() {
     longAdd(h("0"), 1, h("1"));